@@ -0,0 +1,73 @@
+package com.example.backend.dto;
+
+import com.example.backend.dto.response.IntakeResponse;
+import com.example.backend.dto.response.TodayStatusResponse;
+import com.example.backend.model.enums.IntakeSource;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmarks für die JSON-Serialisierung der häufigsten Antworten.
+ * Der ObjectMapper entspricht der Spring-Boot-Konfiguration (ISO-Zeitstempel statt Epoch-Zahlen).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    /**
+     * Listengröße: Standard von /recent und maximale Seitengröße
+     */
+    @Param({"10", "100"})
+    private int intakeCount;
+
+    private ObjectMapper objectMapper;
+    private TodayStatusResponse todayStatus;
+    private List<IntakeResponse> intakes;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        todayStatus = new TodayStatusResponse(2700, 1500, 1200, 56);
+
+        IntakeSource[] sources = IntakeSource.values();
+        Instant start = Instant.parse("2024-11-01T06:00:00Z");
+        intakes = new ArrayList<>(intakeCount);
+        for (int i = 0; i < intakeCount; i++) {
+            intakes.add(new IntakeResponse((long) i + 1, 1L, 100 + i, sources[i % sources.length], start.plusSeconds(600L * i)));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeTodayStatus() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(todayStatus);
+    }
+
+    @Benchmark
+    public byte[] serializeIntakeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(intakes);
+    }
+}
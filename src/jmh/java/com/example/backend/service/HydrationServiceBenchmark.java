@@ -0,0 +1,144 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.response.IntakeResponse;
+import com.example.backend.dto.response.ProfileResponse;
+import com.example.backend.dto.response.TodayStatusResponse;
+import com.example.backend.model.entity.IntakeEvent;
+import com.example.backend.model.entity.UserProfile;
+import com.example.backend.model.enums.ActivityLevel;
+import com.example.backend.model.enums.Climate;
+import com.example.backend.model.enums.IntakeSource;
+import com.example.backend.repository.UserProfileRepository;
+import com.example.backend.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmarks für die Rechen- und Mapping-Pfade von HydrationService, die bei jedem
+ * Request laufen. Datenbankzugriffe sind nicht Teil der Messung: Profil und Tagessumme
+ * liegen vorgewärmt in ProfileCache bzw. DailyIntakeTotals.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HydrationServiceBenchmark {
+
+    private static final Long USER_ID = 1L;
+    private static final String TIMEZONE = "Europe/Berlin";
+
+    private HydrationService hydrationService;
+    private UserProfile profile;
+    private ProfileSnapshot snapshot;
+    private IntakeEvent intakeEvent;
+
+    @Setup
+    public void setUp() {
+        profile = new UserProfile();
+        profile.setId(USER_ID);
+        profile.setName("Benchmark User");
+        profile.setEmail("benchmark@example.com");
+        profile.setWeightKg(70);
+        profile.setActivityLevel(ActivityLevel.MEDIUM);
+        profile.setClimate(Climate.HOT);
+        profile.setTimezone(TIMEZONE);
+        snapshot = ProfileSnapshot.of(profile);
+
+        intakeEvent = new IntakeEvent();
+        intakeEvent.setId(42L);
+        intakeEvent.setUser(profile);
+        intakeEvent.setVolumeMl(250);
+        intakeEvent.setSource(IntakeSource.GLASS);
+        intakeEvent.setTimestampUtc(Instant.parse("2024-11-01T10:00:00Z"));
+
+        // Repository-Stub: liefert nur beim ersten Cache-Miss das Profil
+        UserProfileRepository profileRepository = (UserProfileRepository) Proxy.newProxyInstance(
+                UserProfileRepository.class.getClassLoader(),
+                new Class<?>[]{UserProfileRepository.class},
+                (proxy, method, args) -> "findById".equals(method.getName()) ? Optional.of(profile) : null);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ProfileCache profileCache = new ProfileCache(profileRepository, meterRegistry, 10_000, Duration.ofDays(1));
+        DailyIntakeTotals dailyTotals = new DailyIntakeTotals(Duration.ofDays(1));
+
+        hydrationService = new HydrationService(null, null, null, null, null, dailyTotals, profileCache, event -> { },
+                new IntakeMetrics(meterRegistry), ShardRouter.disabled(),
+                new UserVersionTracker(null, profileCache, dailyTotals));
+
+        // Tagessumme vorwärmen, damit getTodayStatus keine SUM-Abfrage auslöst
+        dailyTotals.getOrLoad(USER_ID, LocalDate.now(snapshot.zoneId()), () -> 1_200);
+    }
+
+    @Benchmark
+    public int calculateDailyGoalFromEntity() {
+        return hydrationService.calculateDailyGoalMl(profile);
+    }
+
+    @Benchmark
+    public int calculateDailyGoalFromSnapshot() {
+        return hydrationService.calculateDailyGoalMl(snapshot);
+    }
+
+    /**
+     * Vollständiger Lesepfad von GET /api/hydration/today (ohne Datenbank)
+     */
+    @Benchmark
+    public TodayStatusResponse getTodayStatus() {
+        return hydrationService.getTodayStatus(USER_ID);
+    }
+
+    /**
+     * Tagesgrenzen wie vor dem Profil-Cache: Zeitzone je Aufruf parsen, LocalDate.now zweimal
+     */
+    @Benchmark
+    public void dayBoundsParsingZone(Blackhole blackhole) {
+        ZoneId zoneId = ZoneId.of(TIMEZONE);
+        blackhole.consume(LocalDate.now(zoneId).atStartOfDay(zoneId).toInstant());
+        blackhole.consume(LocalDate.now(zoneId).plusDays(1).atStartOfDay(zoneId).toInstant());
+    }
+
+    /**
+     * Tagesgrenzen wie in buildTodayStatus: Zeitzone aus dem Snapshot, LocalDate.now einmal
+     */
+    @Benchmark
+    public void dayBoundsCachedZone(Blackhole blackhole) {
+        ZoneId zoneId = snapshot.zoneId();
+        LocalDate today = LocalDate.now(zoneId);
+        blackhole.consume(today.atStartOfDay(zoneId).toInstant());
+        blackhole.consume(today.plusDays(1).atStartOfDay(zoneId).toInstant());
+    }
+
+    @Benchmark
+    public IntakeResponse mapToIntakeResponse() {
+        return hydrationService.mapToIntakeResponse(intakeEvent);
+    }
+
+    @Benchmark
+    public ProfileResponse mapToProfileResponseFromEntity() {
+        return hydrationService.mapToProfileResponse(profile);
+    }
+
+    @Benchmark
+    public ProfileResponse mapToProfileResponseFromSnapshot() {
+        return hydrationService.mapToProfileResponse(snapshot);
+    }
+}
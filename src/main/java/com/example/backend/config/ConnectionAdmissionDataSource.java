@@ -0,0 +1,161 @@
+package com.example.backend.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DataSource-Wrapper mit fairer Semaphore vor dem Connection-Pool.
+ * Bei virtuellen Threads können tausende Anfragen gleichzeitig eine Verbindung anfordern;
+ * sie warten hier günstig in einer FIFO-Schlange statt im Pool in den connection-timeout zu laufen.
+ * Die Anzahl der Permits entspricht der maximalen Poolgröße, ein Permit wird beim Schließen
+ * der Verbindung zurückgegeben.
+ */
+public class ConnectionAdmissionDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final int maxPermits;
+    private final Duration acquireTimeout;
+    private volatile Timer waitTimer;
+
+    public ConnectionAdmissionDataSource(DataSource target, int maxPermits, Duration acquireTimeout) {
+        super(target);
+        this.permits = new Semaphore(maxPermits, true);
+        this.maxPermits = maxPermits;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releaseOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releaseOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Anzahl der Threads, die aktuell auf eine Verbindung warten
+     */
+    public int getWaitingThreads() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * Anzahl der aktuell ausgegebenen Verbindungen
+     */
+    public int getActivePermits() {
+        return maxPermits - permits.availablePermits();
+    }
+
+    public int getMaxPermits() {
+        return maxPermits;
+    }
+
+    /**
+     * Registriert Wartezeit (datasource.admission.wait) sowie wartende und aktive Verbindungen.
+     * Die Wartezeit vor dem Pool ist in hikaricp.connections.acquire nicht enthalten.
+     *
+     * @param registry Meter-Registry
+     */
+    public void bindMetrics(MeterRegistry registry) {
+        bindMetrics(registry, Tags.empty());
+    }
+
+    /**
+     * Wie {@link #bindMetrics(MeterRegistry)}, mit zusätzlichen Tags (z.B. pool bei mehreren Pools).
+     *
+     * @param registry Meter-Registry
+     * @param tags     Tags für alle Metriken
+     */
+    public void bindMetrics(MeterRegistry registry, Tags tags) {
+        Gauge.builder("datasource.admission.waiting", this, ConnectionAdmissionDataSource::getWaitingThreads)
+                .description("Threads waiting for a connection permit")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("datasource.admission.active", this, ConnectionAdmissionDataSource::getActivePermits)
+                .description("Connection permits in use")
+                .tags(tags)
+                .register(registry);
+        waitTimer = Timer.builder("datasource.admission.wait")
+                .description("Time spent waiting for a connection permit")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private void acquire() throws SQLException {
+        long started = System.nanoTime();
+        try {
+            boolean acquired = permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            Timer timer = waitTimer;
+            if (timer != null) {
+                timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+            if (!acquired) {
+                throw new SQLTransientConnectionException(
+                        "Timed out after " + acquireTimeout.toMillis() + "ms waiting for a database connection permit");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection permit", e);
+        }
+    }
+
+    private Connection releaseOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "close":
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getTargetException();
+                            } finally {
+                                if (released.compareAndSet(false, true)) {
+                                    permits.release();
+                                }
+                            }
+                        default:
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getTargetException();
+                            }
+                    }
+                });
+    }
+}
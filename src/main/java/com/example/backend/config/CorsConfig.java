@@ -38,7 +38,8 @@ public class CorsConfig {
                 "Authorization",
                 "Content-Type",
                 "Accept",
-                "X-Requested-With"
+                "X-Requested-With",
+                "If-None-Match"
         ));
 
         // Erlaube Credentials (Cookies, Authorization-Header)
@@ -48,7 +49,7 @@ public class CorsConfig {
         configuration.setMaxAge(3600L);
 
         // Exponiere Header für das Frontend
-        configuration.setExposedHeaders(List.of("Authorization"));
+        configuration.setExposedHeaders(List.of("Authorization", "ETag"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -0,0 +1,81 @@
+package com.example.backend.config;
+
+import com.example.backend.monitoring.QueryInstrumentingDataSource;
+import com.example.backend.monitoring.QueryStatistics;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * DataSource-Konfiguration.
+ * Legt eine Zulassungs-Semaphore (ConnectionAdmissionDataSource) vor jeden HikariCP-Pool
+ * und misst alle Statements über QueryInstrumentingDataSource.
+ */
+@Configuration
+@Slf4j
+public class DataSourceConfig {
+
+    @Bean
+    static QueryStatistics queryStatistics(Environment environment) {
+        return new QueryStatistics(
+                environment.getProperty("app.datasource.query-stats.slow-threshold", Duration.class, Duration.ofMillis(200)),
+                environment.getProperty("app.datasource.query-stats.max-shapes", Integer.class, 500));
+    }
+
+    @Bean
+    static BeanPostProcessor connectionAdmissionPostProcessor(Environment environment,
+                                                              ObjectProvider<QueryStatistics> queryStatistics) {
+        boolean enabled = environment.getProperty("app.datasource.admission.enabled", Boolean.class, true);
+        boolean queryStatsEnabled = environment.getProperty("app.datasource.query-stats.enabled", Boolean.class, true);
+        Duration acquireTimeout = environment.getProperty(
+                "app.datasource.admission.acquire-timeout", Duration.class, Duration.ofSeconds(60));
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                DataSource dataSource = hikari;
+                if (queryStatsEnabled) {
+                    dataSource = new QueryInstrumentingDataSource(dataSource, queryStatistics.getObject());
+                }
+                if (enabled) {
+                    log.info("Limiting '{}' to {} concurrent connections (acquire timeout {})",
+                            beanName, hikari.getMaximumPoolSize(), acquireTimeout);
+                    dataSource = new ConnectionAdmissionDataSource(dataSource, hikari.getMaximumPoolSize(), acquireTimeout);
+                }
+                return dataSource;
+            }
+        };
+    }
+
+    /**
+     * Metriken der Zulassungs-Semaphore; HikariCP-Metriken (hikaricp.*) bindet Spring Boot selbst.
+     * Mit Read-Replica (zwei Pools) unterscheidet der Tag pool die Semaphoren.
+     */
+    @Bean
+    MeterBinder connectionAdmissionMetrics(Map<String, DataSource> dataSources) {
+        return registry -> {
+            Map<String, ConnectionAdmissionDataSource> pools = new LinkedHashMap<>();
+            dataSources.forEach((name, dataSource) -> {
+                if (dataSource instanceof ConnectionAdmissionDataSource admission) {
+                    pools.put(name.replace("DataSource", ""), admission);
+                }
+            });
+            pools.forEach((pool, admission) ->
+                    admission.bindMetrics(registry, pools.size() > 1 ? Tags.of("pool", pool) : Tags.empty()));
+        };
+    }
+}
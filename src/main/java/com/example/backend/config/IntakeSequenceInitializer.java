@@ -0,0 +1,70 @@
+package com.example.backend.config;
+
+import com.example.backend.sharding.ShardRouter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+
+/**
+ * Richtet die Sequenz intake_event_seq an bestehenden Daten aus.
+ * Bestehende PostgreSQL-Datenbanken wurden mit IDENTITY-Spalten angelegt; die von
+ * Hibernate neu erzeugte Sequenz startet bei 1 und würde sonst mit vorhandenen IDs kollidieren.
+ * Mit Sharding gehört zur Sequenz von Shard k der ID-Bereich ab k·{@link ShardRouter#ID_RANGE}; IDs aus diesem
+ * Bereich können auf jedem Shard liegen (gepoolter Optimizer über alle Shards, Umzüge behalten die ID), daher
+ * zählt das Maximum des Bereichs über alle Shards.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class IntakeSequenceInitializer {
+
+    /**
+     * Muss zur allocationSize der Sequenz in IntakeEvent passen (gepoolter Optimizer).
+     */
+    static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+
+    @PostConstruct
+    void alignSequence() {
+        String product = jdbcTemplate.execute((Connection connection) ->
+                JdbcUtils.commonDatabaseName(connection.getMetaData().getDatabaseProductName()));
+        if (!"PostgreSQL".equals(product)) {
+            return;
+        }
+
+        // Höchste ID je Sequenzbereich über alle Shards
+        long[] maxIds = new long[shardRouter.shardCount()];
+        shardRouter.forEachShard(shard -> {
+            for (int range = 0; range < maxIds.length; range++) {
+                long rangeStart = shardRouter.isEnabled() ? range * ShardRouter.ID_RANGE : 0;
+                long rangeEnd = shardRouter.isEnabled() ? rangeStart + ShardRouter.ID_RANGE : Long.MAX_VALUE;
+                Long maxId = jdbcTemplate.queryForObject(
+                        "SELECT COALESCE(MAX(id), 0) FROM intake_event WHERE id >= ? AND id < ?",
+                        Long.class, rangeStart, rangeEnd);
+                maxIds[range] = Math.max(maxIds[range], maxId);
+            }
+        });
+
+        shardRouter.forEachShard(shard -> alignShard(shard, maxIds[shard]));
+    }
+
+    private void alignShard(int shard, long maxId) {
+        Long lastValue = jdbcTemplate.queryForObject("SELECT last_value FROM intake_event_seq", Long.class);
+
+        // Der gepoolte Optimizer vergibt IDs im Bereich (wert - allocationSize, wert]
+        long required = maxId + ALLOCATION_SIZE;
+        if (lastValue != null && lastValue < required) {
+            jdbcTemplate.queryForObject("SELECT setval('intake_event_seq', ?)", Long.class, required);
+            log.info("Aligned intake_event_seq on shard {} from {} to {} (max id {})", shard, lastValue, required, maxId);
+        }
+    }
+}
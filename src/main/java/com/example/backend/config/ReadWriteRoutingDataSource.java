@@ -0,0 +1,83 @@
+package com.example.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Leitet Read-only-Transaktionen eines Benutzers an das Read-Replica, alles andere an den Primary.
+ * Muss hinter einem LazyConnectionDataSourceProxy liegen: erst beim ersten Statement ist bekannt,
+ * ob die laufende Transaktion read-only ist.
+ *
+ * <p>Zum Primary gehen außerdem Lesezugriffe ohne Benutzer (Login, Hintergrundjobs), Benutzer innerhalb
+ * des Read-your-writes-Fensters und alle Lesezugriffe, solange das Replica nicht nutzbar ist.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route {
+        WRITE("primary", "write"),
+        NO_USER("primary", "no_user"),
+        STICKY("primary", "sticky"),
+        REPLICA_UNUSABLE("primary", "replica_unusable"),
+        REPLICA("replica", "read");
+
+        private final String target;
+        private final String reason;
+
+        Route(String target, String reason) {
+            this.target = target;
+            this.reason = reason;
+        }
+
+        boolean isReplica() {
+            return this == REPLICA;
+        }
+    }
+
+    private final ReplicaHealth replicaHealth;
+    private final ReadYourWrites readYourWrites;
+    private final Map<Route, Counter> counters = new EnumMap<>(Route.class);
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaHealth replicaHealth,
+                                      ReadYourWrites readYourWrites, MeterRegistry meterRegistry) {
+        this.replicaHealth = replicaHealth;
+        this.readYourWrites = readYourWrites;
+        for (Route route : Route.values()) {
+            counters.put(route, Counter.builder("datasource.routing")
+                    .description("Connections handed out per target and routing reason")
+                    .tag("target", route.target)
+                    .tag("reason", route.reason)
+                    .register(meterRegistry));
+        }
+        setTargetDataSources(Map.of(Boolean.FALSE, primary, Boolean.TRUE, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Route route = route();
+        counters.get(route).increment();
+        return route.isReplica();
+    }
+
+    Route route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Route.WRITE;
+        }
+        Long userId = readYourWrites.currentUser();
+        if (userId == null) {
+            return Route.NO_USER;
+        }
+        if (readYourWrites.isSticky(userId)) {
+            return Route.STICKY;
+        }
+        return replicaHealth.isUsable() ? Route.REPLICA : Route.REPLICA_UNUSABLE;
+    }
+}
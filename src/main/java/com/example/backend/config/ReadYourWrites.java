@@ -0,0 +1,69 @@
+package com.example.backend.config;
+
+import com.example.backend.service.HydrationDataChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Read-your-writes für das Replica-Routing: Nach einer Änderung lesen alle Requests zu diesem
+ * Benutzer für ein kurzes Fenster (sticky-window) vom Primary, bis das Replica aufgeholt hat.
+ * Der Benutzer des laufenden Requests wird vom ReadYourWritesInterceptor an den Thread gebunden.
+ * Das Fenster gilt pro Instanz; ohne Sticky-Sessions am Load-Balancer begrenzt max-lag die Veraltung.
+ */
+public class ReadYourWrites {
+
+    private static final ThreadLocal<Long> CURRENT_USER = new ThreadLocal<>();
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWrites(Duration window) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    /**
+     * Bindet den Benutzer des laufenden Requests an den Thread.
+     *
+     * @param userId Benutzer-ID, null wenn der Request keinem Benutzer zugeordnet ist
+     */
+    public void bind(Long userId) {
+        if (userId == null) {
+            CURRENT_USER.remove();
+        } else {
+            CURRENT_USER.set(userId);
+        }
+    }
+
+    public void clear() {
+        CURRENT_USER.remove();
+    }
+
+    /**
+     * @return Benutzer des laufenden Requests oder null (Hintergrundjobs, Requests ohne Benutzer)
+     */
+    public Long currentUser() {
+        return CURRENT_USER.get();
+    }
+
+    public void recordWrite(Long userId) {
+        recentWriters.put(userId, Boolean.TRUE);
+    }
+
+    /**
+     * @return true wenn der Benutzer innerhalb des Fensters geschrieben hat
+     */
+    public boolean isSticky(Long userId) {
+        return recentWriters.getIfPresent(userId) != null;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onHydrationDataChanged(HydrationDataChangedEvent event) {
+        recordWrite(event.userId());
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.backend.config;
+
+import com.example.backend.security.AuthenticatedUser;
+import com.example.backend.security.UserOwnershipInterceptor;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Bindet den Benutzer eines Requests (aus dem Token, sonst aus dem Pfad) für das Replica-Routing
+ * an den Thread und löst die Bindung nach dem Request bzw. beim Start asynchroner Verarbeitung.
+ */
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    private final ReadYourWrites readYourWrites;
+
+    public ReadYourWritesInterceptor(ReadYourWrites readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Long userId = (Long) request.getAttribute(AuthenticatedUser.ATTRIBUTE);
+        readYourWrites.bind(userId != null ? userId : UserOwnershipInterceptor.pathUserId(request));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        readYourWrites.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        readYourWrites.clear();
+    }
+}
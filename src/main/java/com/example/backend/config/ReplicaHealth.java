@@ -0,0 +1,87 @@
+package com.example.backend.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+
+/**
+ * Prüft regelmäßig Erreichbarkeit und Replikationsverzug des Read-Replicas.
+ * Ist das Replica nicht erreichbar oder liegt es mehr als max-lag zurück, gehen alle
+ * Lesezugriffe an den Primary, bis eine Prüfung wieder erfolgreich ist.
+ */
+@Slf4j
+public class ReplicaHealth {
+
+    /**
+     * Verzug in Sekunden. Hat das Replica alles empfangene WAL eingespielt, ist es aktuell, auch wenn die
+     * letzte eingespielte Transaktion alt ist (Primary ohne Schreiblast).
+     */
+    static final String LAG_QUERY = """
+        SELECT CASE
+            WHEN NOT pg_is_in_recovery() THEN 0
+            WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+            ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+        END
+        """;
+
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+
+    private volatile boolean usable;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaHealth(JdbcTemplate replica, Duration maxLag) {
+        this.replica = replica;
+        this.maxLag = maxLag;
+    }
+
+    @PostConstruct
+    void init() {
+        check();
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.check-interval-ms:1000}")
+    public void check() {
+        boolean wasUsable = usable;
+        try {
+            Double lag = replica.queryForObject(LAG_QUERY, Double.class);
+            lagSeconds = lag != null ? lag : 0;
+            usable = lagSeconds * 1000 <= maxLag.toMillis();
+            if (!usable && wasUsable) {
+                log.warn("Read replica lags {}s behind (max {}), reading from primary", lagSeconds, maxLag);
+            }
+        } catch (RuntimeException e) {
+            lagSeconds = Double.NaN;
+            usable = false;
+            if (wasUsable) {
+                log.warn("Read replica unavailable, reading from primary: {}", e.getMessage());
+            }
+        }
+        if (usable && !wasUsable) {
+            log.info("Read replica available (lag {}s), routing read-only transactions to it", lagSeconds);
+        }
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    public double getLagSeconds() {
+        return lagSeconds;
+    }
+
+    public void bindMetrics(MeterRegistry registry) {
+        Gauge.builder("datasource.replica.lag", this, ReplicaHealth::getLagSeconds)
+                .description("Replication lag of the read replica (NaN when unreachable)")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("datasource.replica.usable", this, health -> health.isUsable() ? 1 : 0)
+                .description("1 while read-only transactions may use the read replica")
+                .register(registry);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Read-Replica-Routing (app.datasource.replica.enabled=true).
+ * Ersetzt die automatisch konfigurierte DataSource durch zwei HikariCP-Pools (Primary mit
+ * spring.datasource.*, Replica mit app.datasource.replica.hikari.*) und eine routende DataSource davor.
+ * Beide Pools erhalten wie bisher Zulassungs-Semaphore und Statement-Messung (DataSourceConfig).
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+@Slf4j
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    ReadYourWrites readYourWrites(@Value("${app.datasource.replica.sticky-window:5s}") Duration stickyWindow,
+                                  @Value("${app.datasource.replica.max-lag:2s}") Duration maxLag) {
+        if (stickyWindow.compareTo(maxLag) < 0) {
+            log.warn("Replica sticky window {} is shorter than max lag {}; users may not see their own writes",
+                    stickyWindow, maxLag);
+        }
+        return new ReadYourWrites(stickyWindow);
+    }
+
+    @Bean
+    ReplicaHealth replicaHealth(@Qualifier("replicaDataSource") DataSource replica,
+                                @Value("${app.datasource.replica.max-lag:2s}") Duration maxLag) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(replica);
+        jdbcTemplate.setQueryTimeout(2);
+        return new ReplicaHealth(jdbcTemplate, maxLag);
+    }
+
+    @Bean
+    MeterBinder replicaHealthMetrics(ReplicaHealth replicaHealth) {
+        return replicaHealth::bindMetrics;
+    }
+
+    /**
+     * Routende DataSource für JPA, JdbcTemplate und alle anderen Verbraucher.
+     */
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                          @Qualifier("replicaDataSource") DataSource replica,
+                          ReplicaHealth replicaHealth,
+                          ReadYourWrites readYourWrites,
+                          MeterRegistry meterRegistry) {
+        log.info("Routing read-only transactions to the read replica");
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, replica, replicaHealth, readYourWrites, meterRegistry));
+    }
+}
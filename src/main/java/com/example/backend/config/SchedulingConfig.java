@@ -0,0 +1,12 @@
+package com.example.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Aktiviert geplante Hintergrundaufgaben (@Scheduled).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
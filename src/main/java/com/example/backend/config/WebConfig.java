@@ -1,7 +1,10 @@
 package com.example.backend.config;
 
+import com.example.backend.security.UserOwnershipInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 /**
@@ -11,6 +14,12 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ObjectProvider<ReadYourWrites> readYourWrites;
+
+    public WebConfig(ObjectProvider<ReadYourWrites> readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**")
@@ -22,7 +31,19 @@ public class WebConfig implements WebMvcConfigurer {
                 )
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders("ETag")
                 .allowCredentials(true)
                 .maxAge(3600);
     }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Pfad-IDs gegen den per Token authentifizierten Benutzer prüfen
+        registry.addInterceptor(new UserOwnershipInterceptor())
+                .addPathPatterns("/api/hydration/**", "/api/intakes/**", "/api/profile/**", "/api/dashboard/**",
+                        "/api/auth/profile/**");
+        // Nur mit Read-Replica: Benutzer für das Read-your-writes-Routing an den Thread binden
+        readYourWrites.ifAvailable(tracker -> registry.addInterceptor(new ReadYourWritesInterceptor(tracker))
+                .addPathPatterns("/api/hydration/**", "/api/intakes/**", "/api/profile/**", "/api/dashboard/**"));
+    }
 }
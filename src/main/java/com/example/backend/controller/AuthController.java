@@ -3,19 +3,24 @@ package com.example.backend.controller;
 import com.example.backend.dto.request.LoginRequest;
 import com.example.backend.dto.request.RegisterRequest;
 import com.example.backend.dto.response.AuthResponse;
+import com.example.backend.exception.ConflictException;
 import com.example.backend.model.entity.UserProfile;
 import com.example.backend.repository.UserProfileRepository;
+import com.example.backend.security.TokenService;
+import com.example.backend.service.AuthRateLimiter;
+import com.example.backend.service.PasswordHashingService;
+import com.example.backend.service.ProfileCache;
+import com.example.backend.service.ProfileSnapshot;
+import com.example.backend.sharding.ShardRouter;
+import com.example.backend.sharding.ShardScope;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Base64;
-import java.util.UUID;
-
 /**
  * REST-Controller für Authentifizierungs-Operationen.
  * Verarbeitet Registrierung und Login von Benutzern.
@@ -37,7 +42,11 @@ import java.util.UUID;
 public class AuthController {
 
     private final UserProfileRepository userProfileRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final AuthRateLimiter rateLimiter;
+    private final ProfileCache profileCache;
+    private final TokenService tokenService;
+    private final ShardRouter shardRouter;
 
     /**
      * Registriert einen neuen Benutzer.
@@ -46,14 +55,17 @@ public class AuthController {
      * @return Erstelltes Benutzerprofil mit ID
      */
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
+    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request, HttpServletRequest httpRequest) {
         log.info("POST /api/auth/register - Registering new user with email: {}", request.getEmail());
+        rateLimiter.checkAttempt(httpRequest.getRemoteAddr(), request.getEmail());
 
-        // Prüfe ob E-Mail bereits existiert
-        if (userProfileRepository.existsByEmail(request.getEmail())) {
-            log.warn("Registration failed - email already exists: {}", request.getEmail());
-            return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body(AuthResponse.error("Email already exists"));
+        // Prüfe ob E-Mail bereits existiert (mit Sharding auf dem Shard laut Verzeichnis)
+        boolean emailExists;
+        try (ShardScope scope = shardRouter.bindEmail(request.getEmail())) {
+            emailExists = userProfileRepository.existsByEmail(request.getEmail());
+        }
+        if (emailExists) {
+            return emailConflict(request.getEmail());
         }
 
         // Erstelle neues Benutzerprofil
@@ -61,8 +73,8 @@ public class AuthController {
         profile.setName(request.getName());
         profile.setEmail(request.getEmail());
 
-        // Hash password with BCrypt before storing
-        String hashedPassword = passwordEncoder.encode(request.getPassword());
+        // Hash password with BCrypt before storing (auf dem begrenzten Hashing-Pool)
+        String hashedPassword = passwordHashingService.encode(request.getPassword());
         profile.setPassword(hashedPassword);
         log.debug("Password hashed successfully for user: {}", request.getEmail());
 
@@ -71,10 +83,22 @@ public class AuthController {
         profile.setClimate(request.getClimate());
         profile.setTimezone(request.getTimezone() != null ? request.getTimezone() : "Europe/Berlin");
 
-        UserProfile saved = userProfileRepository.save(profile);
+        // Mit Sharding auf dem Shard mit den wenigsten Benutzern anlegen und im Verzeichnis eintragen
+        UserProfile saved;
+        try (ShardScope scope = shardRouter.bindNewUser()) {
+            saved = userProfileRepository.save(profile);
+            try {
+                shardRouter.registerUser(saved.getId(), saved.getEmail(), scope);
+            } catch (ConflictException e) {
+                // Gleichzeitige Registrierung derselben E-Mail auf einem anderen Shard
+                userProfileRepository.delete(saved);
+                return emailConflict(request.getEmail());
+            }
+        }
+        profileCache.evict(saved.getId());
 
-        // Generate simple token (in production use JWT!)
-        String token = generateToken(saved.getId());
+        // Signiertes Token, wird ohne Datenbankzugriff geprüft
+        String token = tokenService.issue(saved.getId());
 
         // Erstelle AuthResponse mit token und user
         AuthResponse response = new AuthResponse(
@@ -95,12 +119,16 @@ public class AuthController {
      * @return Benutzerprofil bei erfolgreicher Authentifizierung
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
         log.info("POST /api/auth/login - User login attempt for email: {}", request.getEmail());
+        rateLimiter.checkAttempt(httpRequest.getRemoteAddr(), request.getEmail());
 
-        // Suche Benutzer per E-Mail
-        UserProfile profile = userProfileRepository.findByEmail(request.getEmail())
-                .orElse(null);
+        // Suche Benutzer per E-Mail (mit Sharding auf dem Shard laut Verzeichnis)
+        UserProfile profile;
+        try (ShardScope scope = shardRouter.bindEmail(request.getEmail())) {
+            profile = userProfileRepository.findByEmail(request.getEmail())
+                    .orElse(null);
+        }
 
         // Prüfe ob Benutzer existiert
         if (profile == null) {
@@ -109,15 +137,15 @@ public class AuthController {
                     .body(AuthResponse.error("Invalid email or password"));
         }
 
-        // Validate password using BCrypt
-        if (!passwordEncoder.matches(request.getPassword(), profile.getPassword())) {
+        // Validate password using BCrypt (auf dem begrenzten Hashing-Pool)
+        if (!passwordHashingService.matches(request.getPassword(), profile.getPassword())) {
             log.warn("Login failed: Invalid password for user {}", request.getEmail());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(AuthResponse.error("Invalid email or password"));
         }
 
-        // Generate simple token (in production use JWT!)
-        String token = generateToken(profile.getId());
+        // Signiertes Token, wird ohne Datenbankzugriff geprüft
+        String token = tokenService.issue(profile.getId());
 
         // Erstelle AuthResponse mit token und user
         AuthResponse response = new AuthResponse(
@@ -132,7 +160,8 @@ public class AuthController {
     }
 
     /**
-     * Holt das Profil eines Benutzers.
+     * Holt das Profil eines Benutzers. Wie /api/profile/{id} nur mit Token des Benutzers selbst
+     * (TokenAuthenticationFilter und UserOwnershipInterceptor).
      *
      * @param userId Benutzer-ID
      * @return Benutzerprofil
@@ -141,7 +170,7 @@ public class AuthController {
     public ResponseEntity<?> getProfile(@PathVariable Long userId) {
         log.info("GET /api/auth/profile/{} - Getting user profile", userId);
 
-        UserProfile profile = userProfileRepository.findById(userId)
+        ProfileSnapshot profile = profileCache.find(userId)
                 .orElse(null);
 
         if (profile == null) {
@@ -152,20 +181,17 @@ public class AuthController {
         // Return user info without token for profile endpoint
         AuthResponse response = new AuthResponse();
         response.setUser(new AuthResponse.UserInfo(
-            profile.getId(),
-            profile.getEmail(),
-            profile.getName()
+            profile.id(),
+            profile.email(),
+            profile.name()
         ));
 
         return ResponseEntity.ok(response);
     }
 
-    /**
-     * Generiert ein einfaches Token für Authentifizierung.
-     * In Production sollte JWT verwendet werden!
-     */
-    private String generateToken(Long userId) {
-        String tokenData = userId + ":" + UUID.randomUUID().toString() + ":" + System.currentTimeMillis();
-        return Base64.getEncoder().encodeToString(tokenData.getBytes());
+    private ResponseEntity<?> emailConflict(String email) {
+        log.warn("Registration failed - email already exists: {}", email);
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(AuthResponse.error("Email already exists"));
     }
 }
@@ -1,19 +1,50 @@
 package com.example.backend.controller;
 
+import com.example.backend.dto.request.BatchIntakeRequest;
+import com.example.backend.dto.request.IntakeCursor;
 import com.example.backend.dto.request.IntakeRequest;
 import com.example.backend.dto.request.ProfileRequest;
+import com.example.backend.dto.response.BatchIntakeResponse;
+import com.example.backend.dto.response.DashboardResponse;
+import com.example.backend.dto.response.HydrationHistoryResponse;
+import com.example.backend.dto.response.ImportProgressResponse;
+import com.example.backend.dto.response.IntakePageResponse;
 import com.example.backend.dto.response.IntakeResponse;
+import com.example.backend.dto.response.IntakeSeriesResponse;
 import com.example.backend.dto.response.ProfileResponse;
 import com.example.backend.dto.response.TodayStatusResponse;
+import com.example.backend.journal.IntakeJournalService;
+import com.example.backend.model.enums.DashboardPart;
+import com.example.backend.model.enums.ExportFormat;
+import com.example.backend.model.enums.SeriesBucket;
+import com.example.backend.security.AuthenticatedUser;
 import com.example.backend.service.HydrationService;
+import com.example.backend.service.IntakeExportService;
+import com.example.backend.service.IntakeImportService;
+import com.example.backend.service.TodayStatusStreams;
+import com.example.backend.service.UserVersionTracker;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 /**
  * REST-Controller für Hydrationsverfolgung.
@@ -36,6 +67,11 @@ import java.util.List;
 public class HydrationController {
 
     private final HydrationService hydrationService;
+    private final TodayStatusStreams todayStatusStreams;
+    private final UserVersionTracker versionTracker;
+    private final IntakeExportService exportService;
+    private final IntakeImportService importService;
+    private final ObjectProvider<IntakeJournalService> intakeJournal;
 
     // ==================== Profil-Endpunkte ====================
 
@@ -56,13 +92,17 @@ public class HydrationController {
      * Holt Benutzerprofil anhand der ID
      *
      * @param id Benutzer-ID
-     * @return Benutzerprofil
+     * @return Benutzerprofil, oder 304 bei passendem If-None-Match
      */
     @GetMapping("/profile/{id}")
-    public ResponseEntity<ProfileResponse> getProfile(@PathVariable Long id) {
+    public ResponseEntity<ProfileResponse> getProfile(@PathVariable Long id, WebRequest webRequest) {
         log.info("GET /api/profile/{} - Getting profile", id);
+        String etag = versionTracker.etag("profile", id, revalidates(webRequest));
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         ProfileResponse response = hydrationService.getProfile(id);
-        return ResponseEntity.ok(response);
+        return revalidated(etag).body(response);
     }
 
     /**
@@ -87,46 +127,253 @@ public class HydrationController {
      * Holt den heutigen Hydrationsstatus für einen Benutzer
      *
      * @param userId Benutzer-ID
-     * @return Heutiger Status (Ziel, konsumiert, verbleibend)
+     * @return Heutiger Status (Ziel, konsumiert, verbleibend), oder 304 bei passendem If-None-Match
      */
     @GetMapping("/hydration/today/{userId}")
-    public ResponseEntity<TodayStatusResponse> getTodayStatus(@PathVariable Long userId) {
+    public ResponseEntity<TodayStatusResponse> getTodayStatus(@PathVariable Long userId, WebRequest webRequest) {
         log.info("GET /api/hydration/today/{} - Getting today's status", userId);
+        // Tageswechsel ändert den Status ohne Schreibvorgang: lokales Datum gehört zum ETag
+        String etag = versionTracker.etag("today-" + hydrationService.currentDay(userId), userId,
+                revalidates(webRequest));
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         TodayStatusResponse response = hydrationService.getTodayStatus(userId);
+        return revalidated(etag).body(response);
+    }
+
+    /**
+     * Öffnet einen Server-Sent-Events-Stream mit dem heutigen Status.
+     * Sendet sofort den aktuellen Status und danach bei jeder Änderung ein "today"-Event.
+     *
+     * @param userId Benutzer-ID
+     * @return Event-Stream, oder 503 wenn zu viele Streams offen sind
+     */
+    @GetMapping(path = "/hydration/today/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamTodayStatus(@PathVariable Long userId) {
+        log.info("GET /api/hydration/today/{}/stream - Opening today status stream", userId);
+        return todayStatusStreams.open(userId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "30")
+                        .build());
+    }
+
+    /**
+     * Holt den Hydrationsverlauf (Tageswerte) für einen Benutzer
+     *
+     * @param userId Benutzer-ID
+     * @param from   Erster Tag (ISO-Datum, Standard: 6 Tage vor 'to')
+     * @param to     Letzter Tag (ISO-Datum, Standard: heute)
+     * @return Tageswerte mit Zielerreichung
+     */
+    @GetMapping("/hydration/history/{userId}")
+    public ResponseEntity<HydrationHistoryResponse> getHistory(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("GET /api/hydration/history/{}?from={}&to={} - Getting history", userId, from, to);
+        HydrationHistoryResponse response = hydrationService.getHistory(userId, from, to);
+        return ResponseEntity.ok(response);
+    }
+
+    // ==================== Dashboard-Endpunkt ====================
+
+    /**
+     * Holt Profil, heutigen Status und letzte Aufnahmen in einem Aufruf (App-Start)
+     *
+     * @param userId Benutzer-ID
+     * @param fields Angeforderte Teile: profile, today, recent (Standard: alle)
+     * @param limit  Maximale Anzahl der letzten Aufnahmen (Standard: 10)
+     * @return Dashboard mit den angeforderten Teilen
+     */
+    @GetMapping("/dashboard/{userId}")
+    public ResponseEntity<DashboardResponse> getDashboard(
+            @PathVariable Long userId,
+            @RequestParam(required = false) List<String> fields,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("GET /api/dashboard/{}?fields={} - Getting dashboard", userId, fields);
+        DashboardResponse response = hydrationService.getDashboard(userId, DashboardPart.parse(fields), limit);
         return ResponseEntity.ok(response);
     }
 
     // ==================== Aufnahme-Endpunkte ====================
 
     /**
-     * Erfasst ein neues Wasseraufnahme-Event
+     * Erfasst ein neues Wasseraufnahme-Event.
+     * Mit app.intake.journal.enabled=true wird die Aufnahme nur ins lokale Journal geschrieben
+     * und mit 202 (ohne ID) bestätigt; die Datenbank folgt asynchron.
      *
      * @param request Aufnahmedaten
-     * @return Erstelltes Aufnahme-Event
+     * @return Erstelltes (201) oder angenommenes (202) Aufnahme-Event
      */
     @PostMapping("/intakes")
-    public ResponseEntity<IntakeResponse> addIntake(@Valid @RequestBody IntakeRequest request) {
+    public ResponseEntity<IntakeResponse> addIntake(
+            @Valid @RequestBody IntakeRequest request,
+            @RequestAttribute(name = AuthenticatedUser.ATTRIBUTE, required = false) Long authenticatedUserId) {
         log.info("POST /api/intakes - Recording intake for user {}", request.getUserId());
+        AuthenticatedUser.requireOwner(authenticatedUserId, request.getUserId());
+        IntakeJournalService journal = intakeJournal.getIfAvailable();
+        if (journal != null) {
+            return ResponseEntity.accepted().body(journal.accept(request));
+        }
         IntakeResponse response = hydrationService.recordIntake(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Erfasst mehrere Wasseraufnahme-Events in einem Aufruf (z.B. von Trinkflaschen/Wearables)
+     *
+     * @param request Liste der Aufnahmedaten
+     * @return Ergebnis pro Eintrag (201 wenn alle gespeichert, sonst 207)
+     */
+    @PostMapping("/intakes/batch")
+    public ResponseEntity<BatchIntakeResponse> addIntakesBatch(
+            @Valid @RequestBody BatchIntakeRequest request,
+            @RequestAttribute(name = AuthenticatedUser.ATTRIBUTE, required = false) Long authenticatedUserId) {
+        log.info("POST /api/intakes/batch - Recording {} intakes", request.getItems().size());
+        request.getItems().stream()
+                .filter(item -> item.getUserId() != null)
+                .forEach(item -> AuthenticatedUser.requireOwner(authenticatedUserId, item.getUserId()));
+        BatchIntakeResponse response = hydrationService.recordIntakes(request.getItems());
+        HttpStatus status = response.getRejected() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    /**
+     * Blättert durch die Aufnahme-Historie eines Benutzers (neueste zuerst, cursorbasiert)
+     *
+     * @param userId Benutzer-ID
+     * @param before Cursor {@code <timestamp>,<id>} aus nextCursor der vorherigen Seite (optional)
+     * @param size   Seitengröße (Standard: 20, maximal 100)
+     * @return Seite mit Aufnahmen und Cursor für die nächste Seite
+     */
+    @GetMapping("/intakes/{userId}")
+    public ResponseEntity<IntakePageResponse> getIntakePage(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("GET /api/intakes/{}?before={}&size={} - Getting intake page", userId, before, size);
+        IntakeCursor cursor = before != null ? IntakeCursor.parse(before) : null;
+        IntakePageResponse response = hydrationService.getIntakePage(userId, cursor, size);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Holt die letzten Aufnahme-Events für einen Benutzer
      *
      * @param userId Benutzer-ID
-     * @param limit  Maximale Anzahl der Ergebnisse (Standard: 10)
-     * @return Liste der letzten Aufnahme-Events
+     * @param limit  Maximale Anzahl der Ergebnisse (Standard: 10, maximal 100)
+     * @return Liste der letzten Aufnahme-Events, oder 304 bei passendem If-None-Match
      */
     @GetMapping("/intakes/{userId}/recent")
     public ResponseEntity<List<IntakeResponse>> getRecentIntakes(
             @PathVariable Long userId,
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest webRequest) {
         log.info("GET /api/intakes/{}/recent?limit={} - Getting recent intakes", userId, limit);
+        String etag = versionTracker.etag("recent-" + limit, userId, revalidates(webRequest));
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         List<IntakeResponse> response = hydrationService.getRecentIntakes(userId, limit);
+        return revalidated(etag).body(response);
+    }
+
+    /**
+     * Holt eine Zeitreihe der Wasseraufnahme für Diagramme (serverseitig aggregiert)
+     *
+     * @param userId Benutzer-ID
+     * @param from   Startzeit (ISO-8601)
+     * @param to     Endzeit (ISO-8601, exklusiv)
+     * @param bucket Bucket-Größe: 5m, 1h oder 1d (Standard: 1h)
+     * @return Bucket-Beginn und Summe als kompakte Arrays
+     */
+    @GetMapping("/intakes/{userId}/series")
+    public ResponseEntity<IntakeSeriesResponse> getIntakeSeries(
+            @PathVariable Long userId,
+            @RequestParam Instant from,
+            @RequestParam Instant to,
+            @RequestParam(defaultValue = "1h") String bucket) {
+        log.info("GET /api/intakes/{}/series?from={}&to={}&bucket={} - Getting intake series", userId, from, to, bucket);
+        IntakeSeriesResponse response = hydrationService.getIntakeSeries(userId, from, to, SeriesBucket.fromCode(bucket));
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Exportiert die vollständige Aufnahme-Historie (älteste zuerst) als Datei-Download.
+     * Die Zeilen werden direkt aus der Datenbank in die Response gestreamt. Laufen bereits
+     * app.export.max-concurrent Exporte, wird mit 503 und Retry-After geantwortet.
+     *
+     * @param userId Benutzer-ID
+     * @param format csv oder ndjson (Standard: csv)
+     * @param gzip   gzip-komprimierte Datei (.gz) liefern
+     * @return Gestreamte Exportdatei
+     */
+    @GetMapping("/intakes/{userId}/export")
+    public ResponseEntity<StreamingResponseBody> exportIntakes(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        log.info("GET /api/intakes/{}/export?format={}&gzip={} - Exporting intakes", userId, format, gzip);
+        ExportFormat exportFormat = ExportFormat.fromCode(format);
+        exportService.requireUser(userId);
+        exportService.acquireSlot();
+
+        String filename = "intakes-" + userId + "." + exportFormat.getCode() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> {
+            try {
+                exportService.export(userId, exportFormat, gzip, out);
+            } finally {
+                exportService.releaseSlot();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    /**
+     * Importiert historische Aufnahmen aus einer CSV- oder NDJSON-Datei im Request-Body.
+     * Die Datei wird während des Uploads zeilenweise verarbeitet; ungültige Zeilen werden
+     * übersprungen und im Ergebnis gemeldet.
+     *
+     * @param userId          Benutzer-ID
+     * @param format          csv oder ndjson (Standard: csv)
+     * @param contentEncoding "gzip" für komprimierte Uploads
+     * @param body            Request-Body
+     * @return Ergebnis des Imports (200 bei Erfolg, 422 bei Abbruch)
+     */
+    @PostMapping("/intakes/{userId}/import")
+    public ResponseEntity<ImportProgressResponse> importIntakes(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(name = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            InputStream body) throws IOException {
+        log.info("POST /api/intakes/{}/import?format={} - Importing intakes", userId, format);
+        ExportFormat importFormat = ExportFormat.fromCode(format);
+        InputStream in = "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body) : body;
+
+        ImportProgressResponse response = importService.importIntakes(userId, importFormat, in);
+        HttpStatus status = "COMPLETED".equals(response.getStatus()) ? HttpStatus.OK : HttpStatus.UNPROCESSABLE_ENTITY;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    /**
+     * Ruft den Fortschritt des laufenden bzw. letzten Imports ab
+     *
+     * @param userId Benutzer-ID
+     * @return Importfortschritt oder 404, wenn noch kein Import gelaufen ist
+     */
+    @GetMapping("/intakes/{userId}/import")
+    public ResponseEntity<ImportProgressResponse> getImportProgress(@PathVariable Long userId) {
+        log.info("GET /api/intakes/{}/import - Getting import progress", userId);
+        return importService.getProgress(userId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     /**
      * Löscht ein Aufnahme-Event
      *
@@ -134,9 +381,27 @@ public class HydrationController {
      * @return Kein Inhalt
      */
     @DeleteMapping("/intakes/{intakeId}")
-    public ResponseEntity<Void> deleteIntake(@PathVariable Long intakeId) {
+    public ResponseEntity<Void> deleteIntake(
+            @PathVariable Long intakeId,
+            @RequestAttribute(name = AuthenticatedUser.ATTRIBUTE, required = false) Long authenticatedUserId) {
         log.info("DELETE /api/intakes/{} - Deleting intake", intakeId);
-        hydrationService.deleteIntake(intakeId);
+        hydrationService.deleteIntake(intakeId, authenticatedUserId);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Nur bedingte Requests lesen den Datenstand aus der Datenbank
+     */
+    private static boolean revalidates(WebRequest webRequest) {
+        return webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null;
+    }
+
+    /**
+     * 200-Antwort mit ETag; der Client muss vor jeder Wiederverwendung revalidieren
+     */
+    private static ResponseEntity.BodyBuilder revalidated(String etag) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache());
+    }
 }
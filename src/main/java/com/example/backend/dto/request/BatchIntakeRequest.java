@@ -0,0 +1,24 @@
+package com.example.backend.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request-DTO zum gesammelten Erfassen mehrerer Wasseraufnahme-Events.
+ * Die einzelnen Einträge werden im Service validiert, damit fehlerhafte Einträge
+ * nicht den gesamten Batch verwerfen.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchIntakeRequest {
+
+    @NotEmpty(message = "Items must not be empty")
+    @Size(max = 500, message = "A batch must not contain more than 500 items")
+    private List<IntakeRequest> items;
+}
@@ -0,0 +1,41 @@
+package com.example.backend.dto.request;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Position in der Aufnahme-Historie für Keyset-Pagination.
+ * Textform: {@code <ISO-Zeitstempel>,<id>}, z.B. {@code 2024-11-01T12:30:00Z,12345}.
+ * Die ID macht die Sortierung bei gleichen Zeitstempeln eindeutig.
+ *
+ * @param timestamp Zeitstempel des letzten Eintrags der vorherigen Seite
+ * @param id        ID des letzten Eintrags der vorherigen Seite
+ */
+public record IntakeCursor(Instant timestamp, Long id) {
+
+    /**
+     * Parst einen Cursor aus dem Query-Parameter.
+     *
+     * @param value Cursor in Textform
+     * @return Cursor
+     * @throws IllegalArgumentException bei ungültigem Format
+     */
+    public static IntakeCursor parse(String value) {
+        int separator = value.lastIndexOf(',');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Invalid cursor '" + value + "', expected <timestamp>,<id>");
+        }
+        try {
+            return new IntakeCursor(
+                    Instant.parse(value.substring(0, separator).trim()),
+                    Long.valueOf(value.substring(separator + 1).trim()));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor '" + value + "', expected <timestamp>,<id>");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return timestamp + "," + id;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response-DTO für das gesammelte Erfassen von Aufnahme-Events.
+ * Enthält ein Ergebnis pro Eintrag in der Reihenfolge der Anfrage.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchIntakeResponse {
+
+    /**
+     * Anzahl der gespeicherten Einträge
+     */
+    private int accepted;
+
+    /**
+     * Anzahl der abgelehnten Einträge
+     */
+    private int rejected;
+
+    /**
+     * Ergebnis pro Eintrag
+     */
+    private List<ItemResult> results;
+
+    public enum ItemStatus {
+        CREATED,
+        REJECTED
+    }
+
+    // Nested class for per-item result
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private int index;
+        private ItemStatus status;
+        private IntakeResponse intake;
+        private String error;
+
+        public static ItemResult created(int index, IntakeResponse intake) {
+            return new ItemResult(index, ItemStatus.CREATED, intake, null);
+        }
+
+        public static ItemResult rejected(int index, String error) {
+            return new ItemResult(index, ItemStatus.REJECTED, null, error);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response-DTO für das Dashboard beim Öffnen der App.
+ * Nicht angeforderte Teile sind null und werden nicht serialisiert.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardResponse {
+
+    private Long userId;
+
+    private ProfileResponse profile;
+
+    private TodayStatusResponse today;
+
+    /**
+     * Letzte Aufnahme-Events, neueste zuerst
+     */
+    private List<IntakeResponse> recentIntakes;
+}
@@ -0,0 +1,55 @@
+package com.example.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Response-DTO für den Hydrationsverlauf über mehrere Tage.
+ * Tage ohne Aufnahme sind nicht enthalten.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HydrationHistoryResponse {
+
+    /**
+     * Erster Tag des Zeitraums (inklusiv)
+     */
+    private LocalDate from;
+
+    /**
+     * Letzter Tag des Zeitraums (inklusiv)
+     */
+    private LocalDate to;
+
+    /**
+     * Gesamtmenge im Zeitraum in Millilitern
+     */
+    private int totalMl;
+
+    /**
+     * Anzahl der Tage, an denen das Tagesziel erreicht wurde
+     */
+    private int daysGoalMet;
+
+    /**
+     * Tageswerte aufsteigend nach Datum
+     */
+    private List<Day> days;
+
+    // Nested class for a single day
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Day {
+        private LocalDate date;
+        private int totalMl;
+        private int eventCount;
+        private int goalMl;
+        private boolean goalMet;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Response-DTO für Fortschritt und Ergebnis eines Imports.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportProgressResponse {
+
+    /**
+     * RUNNING, COMPLETED oder FAILED
+     */
+    private String status;
+
+    /**
+     * Gelesene Datenzeilen (ohne Kopfzeile und Leerzeilen)
+     */
+    private long rowsRead;
+
+    /**
+     * Gespeicherte Zeilen
+     */
+    private long rowsImported;
+
+    /**
+     * Wegen ungültiger Werte übersprungene Zeilen
+     */
+    private long rowsRejected;
+
+    private Instant startedAt;
+    private Instant finishedAt;
+
+    /**
+     * Fehlermeldung bei Abbruch
+     */
+    private String message;
+
+    /**
+     * Die ersten Zeilenfehler im Format "line N: Grund"
+     */
+    private List<String> errors;
+}
@@ -0,0 +1,23 @@
+package com.example.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response-DTO für eine Seite der Aufnahme-Historie (neueste zuerst).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IntakePageResponse {
+
+    private List<IntakeResponse> items;
+
+    /**
+     * Cursor für die nächste (ältere) Seite als {@code before}-Parameter; null auf der letzten Seite
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,42 @@
+package com.example.backend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Response-DTO für eine Zeitreihe der Wasseraufnahme.
+ * Kompakte Darstellung als parallele Arrays: bucketStarts[i] gehört zu volumesMl[i].
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IntakeSeriesResponse {
+
+    private Long userId;
+
+    /**
+     * Bucket-Größe (5m, 1h, 1d)
+     */
+    private String bucket;
+
+    /**
+     * Zeitzone, in der Stunden- und Tages-Buckets gebildet wurden
+     */
+    private String timezone;
+
+    private Instant from;
+    private Instant to;
+
+    /**
+     * Beginn jedes Buckets in Sekunden seit Epoch (UTC)
+     */
+    private long[] bucketStarts;
+
+    /**
+     * Summe der Aufnahmen pro Bucket in Millilitern
+     */
+    private int[] volumesMl;
+}
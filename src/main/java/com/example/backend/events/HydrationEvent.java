@@ -0,0 +1,13 @@
+package com.example.backend.events;
+
+/**
+ * Fachereignis zu den Daten eines Benutzers. Wird innerhalb der schreibenden Transaktion über den
+ * ApplicationEventPublisher veröffentlicht und erst nach dem Commit an den {@link HydrationEventBus} übergeben.
+ */
+public sealed interface HydrationEvent permits IntakeRecorded, IntakeDeleted, ProfileUpdated, IntakesImported {
+
+    /**
+     * Benutzer, dessen Daten sich geändert haben (bestimmt die Partition und damit die Reihenfolge).
+     */
+    Long userId();
+}
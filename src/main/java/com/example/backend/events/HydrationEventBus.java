@@ -0,0 +1,292 @@
+package com.example.backend.events;
+
+import com.example.backend.repository.IntakeEventRepository;
+import com.example.backend.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Verteilt {@link HydrationEvent}s nach dem Commit asynchron an alle {@link IntakeProjection}s.
+ *
+ * <p>Ereignisse werden nach Benutzer-ID auf eine feste Anzahl Partitionen verteilt. Jede Partition ist ein
+ * begrenzter Ringpuffer mit genau einem Verbraucher-Thread; alle Projektionen sehen die Ereignisse eines
+ * Benutzers daher in Commit-Reihenfolge und immer vom selben Thread. Der schreibende Request wartet nie:
+ * ist der Puffer voll, wird das Ereignis verworfen und gezählt. Projektionen mit Zustand werden danach per
+ * {@link #replay(String)} aus intake_event neu aufgebaut.
+ *
+ * <p>Projektionen mit {@link IntakeProjection#coalesce()} erhalten ein Ereignis nicht, solange ein
+ * späteres Ereignis desselben Benutzers in der Partition wartet; ein Batch-Import mit vielen
+ * Aufnahmen löst dort nur eine Neuberechnung aus.
+ *
+ * <p>Metriken: hydration.events.published und hydration.events.dropped (je Ereignistyp),
+ * hydration.events.failures und hydration.events.coalesced (je Projektion), hydration.events.lag
+ * (Wartezeit im Puffer) und hydration.events.queued (je Partition).
+ */
+@Component
+@Slf4j
+public class HydrationEventBus {
+
+    private static final Duration STOP_TIMEOUT = Duration.ofSeconds(5);
+
+    private final Map<String, IntakeProjection> projections;
+    private final IntakeEventRepository intakeEventRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ShardRouter shardRouter;
+    private final MeterRegistry meterRegistry;
+    private final Partition[] partitions;
+    private final Timer lag;
+
+    private volatile boolean running = true;
+
+    public HydrationEventBus(List<IntakeProjection> projections,
+                             IntakeEventRepository intakeEventRepository,
+                             PlatformTransactionManager transactionManager,
+                             ShardRouter shardRouter,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.events.partitions:4}") int partitions,
+                             @Value("${app.events.capacity:4096}") int capacity) {
+        this.projections = projections.stream().collect(Collectors.toMap(
+                IntakeProjection::name, Function.identity(), (a, b) -> {
+                    throw new IllegalStateException("Duplicate projection name: " + a.name());
+                }, LinkedHashMap::new));
+        this.intakeEventRepository = intakeEventRepository;
+        // Stream-Abfragen brauchen eine offene Transaktion; mit Sharding eine pro Shard
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.shardRouter = shardRouter;
+        this.meterRegistry = meterRegistry;
+        this.lag = Timer.builder("hydration.events.lag")
+                .description("Time events wait in the bus before projections receive them")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.partitions = new Partition[partitions];
+        for (int i = 0; i < partitions; i++) {
+            Partition partition = new Partition(i, capacity);
+            this.partitions[i] = partition;
+            Gauge.builder("hydration.events.queued", partition.queue, ArrayBlockingQueue::size)
+                    .description("Events waiting for projections")
+                    .tag("partition", String.valueOf(i))
+                    .register(meterRegistry);
+            partition.consumer.start();
+        }
+    }
+
+    /**
+     * Übernimmt ein Ereignis nach dem Commit der veröffentlichenden Transaktion
+     * (ohne Transaktion sofort). Nach einem Rollback wird nichts zugestellt.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void publish(HydrationEvent event) {
+        String type = event.getClass().getSimpleName();
+        Partition partition = partitionOf(event.userId());
+        // Vor dem offer zählen, damit der Verbraucher das Ereignis beim Entnehmen schon sieht
+        partition.pending(event.userId(), 1);
+        if (running && partition.queue.offer(Envelope.live(event))) {
+            meterRegistry.counter("hydration.events.published", "type", type).increment();
+        } else {
+            partition.pending(event.userId(), -1);
+            meterRegistry.counter("hydration.events.dropped", "type", type).increment();
+            log.debug("Dropped {} for user {} - event bus full or stopping", type, event.userId());
+        }
+    }
+
+    /**
+     * Baut eine Projektion aus intake_event neu auf: pro Benutzer {@link IntakeProjection#reset(Long)},
+     * danach alle Aufnahmen in zeitlicher Reihenfolge. Das Replay läuft durch dieselben Partitionen wie
+     * der laufende Betrieb und wartet bei vollem Puffer, statt zu verwerfen. Mit Sharding wird Shard für
+     * Shard gelesen; da jeder Benutzer auf genau einem Shard liegt, bleibt die Reihenfolge je Benutzer erhalten.
+     *
+     * @param name Name der Projektion
+     * @return Anzahl zugestellter Aufnahmen
+     */
+    public long replay(String name) {
+        IntakeProjection projection = projection(name)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown projection: " + name));
+        log.info("Replaying intake events into projection {}", name);
+        long[] replayed = new long[1];
+        shardRouter.forEachShard(shard -> readOnlyTransaction.executeWithoutResult(status -> {
+            Long currentUser = null;
+            try (Stream<IntakeRecorded> events = intakeEventRepository.streamAllForReplay()) {
+                for (IntakeRecorded event : (Iterable<IntakeRecorded>) events::iterator) {
+                    if (!event.userId().equals(currentUser)) {
+                        currentUser = event.userId();
+                        put(Envelope.reset(currentUser, projection));
+                    }
+                    put(Envelope.replay(event, projection));
+                    replayed[0]++;
+                }
+            }
+        }));
+        log.info("Replayed {} intake events into projection {}", replayed[0], name);
+        return replayed[0];
+    }
+
+    public Optional<IntakeProjection> projection(String name) {
+        return Optional.ofNullable(projections.get(name));
+    }
+
+    public List<String> projectionNames() {
+        return new ArrayList<>(projections.keySet());
+    }
+
+    /**
+     * Anzahl wartender Ereignisse über alle Partitionen.
+     */
+    public int queued() {
+        int queued = 0;
+        for (Partition partition : partitions) {
+            queued += partition.queue.size();
+        }
+        return queued;
+    }
+
+    /**
+     * Nimmt keine Ereignisse mehr an und stellt die wartenden noch zu (höchstens STOP_TIMEOUT).
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        long deadline = System.nanoTime() + STOP_TIMEOUT.toNanos();
+        for (Partition partition : partitions) {
+            try {
+                partition.consumer.join(Duration.ofNanos(Math.max(1, deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (partition.consumer.isAlive()) {
+                log.warn("Event bus partition {} stopped with {} events pending", partition.index, partition.queue.size());
+                partition.consumer.interrupt();
+            }
+        }
+    }
+
+    private void put(Envelope envelope) {
+        if (!running) {
+            throw new IllegalStateException("Event bus is stopping");
+        }
+        try {
+            partitionOf(envelope.userId()).queue.put(envelope);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while replaying events", e);
+        }
+    }
+
+    private Partition partitionOf(Long userId) {
+        return partitions[Math.floorMod(userId.hashCode(), partitions.length)];
+    }
+
+    private void dispatch(Partition partition, Envelope envelope) {
+        if (envelope.target() == null) {
+            lag.record(System.nanoTime() - envelope.enqueuedNanos(), TimeUnit.NANOSECONDS);
+            boolean superseded = partition.pending(envelope.userId(), -1) > 0;
+            for (IntakeProjection projection : projections.values()) {
+                if (superseded && projection.coalesce()) {
+                    meterRegistry.counter("hydration.events.coalesced", "projection", projection.name()).increment();
+                } else {
+                    deliver(projection, envelope);
+                }
+            }
+        } else {
+            deliver(envelope.target(), envelope);
+        }
+    }
+
+    private void deliver(IntakeProjection projection, Envelope envelope) {
+        try {
+            if (envelope.reset()) {
+                projection.reset(envelope.userId());
+            } else {
+                projection.on(envelope.event());
+            }
+        } catch (RuntimeException e) {
+            meterRegistry.counter("hydration.events.failures", "projection", projection.name()).increment();
+            log.warn("Projection {} failed for user {}: {}", projection.name(), envelope.userId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Eintrag im Puffer. Ohne target geht das Ereignis an alle Projektionen (laufender Betrieb),
+     * mit target nur an die Projektion im Replay.
+     */
+    private record Envelope(Long userId, HydrationEvent event, IntakeProjection target, boolean reset,
+                            long enqueuedNanos) {
+
+        static Envelope live(HydrationEvent event) {
+            return new Envelope(event.userId(), event, null, false, System.nanoTime());
+        }
+
+        static Envelope replay(HydrationEvent event, IntakeProjection target) {
+            return new Envelope(event.userId(), event, target, false, System.nanoTime());
+        }
+
+        static Envelope reset(Long userId, IntakeProjection target) {
+            return new Envelope(userId, null, target, true, System.nanoTime());
+        }
+    }
+
+    private final class Partition {
+
+        private final int index;
+        private final ArrayBlockingQueue<Envelope> queue;
+        // Wartende Live-Ereignisse je Benutzer (ohne Replay)
+        private final Map<Long, Integer> pendingByUser = new ConcurrentHashMap<>();
+        private final Thread consumer;
+
+        private Partition(int index, int capacity) {
+            this.index = index;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.consumer = Thread.ofPlatform()
+                    .name("hydration-events-" + index)
+                    .daemon()
+                    .unstarted(this::consume);
+        }
+
+        /**
+         * Ändert die Zahl wartender Live-Ereignisse eines Benutzers und liefert den neuen Stand.
+         */
+        private int pending(Long userId, int delta) {
+            Integer remaining = pendingByUser.merge(userId, delta, (current, change) -> {
+                int sum = current + change;
+                return sum == 0 ? null : sum;
+            });
+            return remaining == null ? 0 : remaining;
+        }
+
+        private void consume() {
+            try {
+                while (running || !queue.isEmpty()) {
+                    Envelope envelope = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (envelope != null) {
+                        dispatch(this, envelope);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
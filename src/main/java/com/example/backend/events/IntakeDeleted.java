@@ -0,0 +1,14 @@
+package com.example.backend.events;
+
+import java.time.Instant;
+
+/**
+ * Eine Aufnahme wurde gelöscht.
+ *
+ * @param userId    Benutzer-ID
+ * @param intakeId  ID des gelöschten Aufnahme-Events
+ * @param volumeMl  Menge in Millilitern
+ * @param timestamp Zeitpunkt der gelöschten Aufnahme (UTC)
+ */
+public record IntakeDeleted(Long userId, Long intakeId, int volumeMl, Instant timestamp) implements HydrationEvent {
+}
@@ -0,0 +1,40 @@
+package com.example.backend.events;
+
+/**
+ * Abgeleitete Sicht, die asynchron aus den {@link HydrationEvent}s fortgeschrieben wird.
+ * Alle Ereignisse eines Benutzers werden in Commit-Reihenfolge von demselben Thread zugestellt;
+ * Zustand pro Benutzer braucht daher keine eigene Synchronisation. Bei vollem Puffer werden
+ * Ereignisse verworfen (Metrik hydration.events.dropped); Projektionen mit Zustand lassen sich
+ * über {@link HydrationEventBus#replay(String)} aus intake_event neu aufbauen.
+ */
+public interface IntakeProjection {
+
+    /**
+     * Eindeutiger Name (für Metriken und Replay).
+     */
+    String name();
+
+    /**
+     * Verarbeitet ein Ereignis. Ausnahmen werden geloggt und gezählt, die Zustellung läuft weiter.
+     */
+    void on(HydrationEvent event);
+
+    /**
+     * {@code true}, wenn die Projektion nur den neuesten Stand eines Benutzers braucht. Ein Live-Ereignis
+     * wird ihr dann nicht zugestellt, solange ein späteres Ereignis desselben Benutzers wartet
+     * (Metrik hydration.events.coalesced). Nur für Projektionen ohne Zustand pro Ereignis geeignet.
+     */
+    default boolean coalesce() {
+        return false;
+    }
+
+    /**
+     * Verwirft den Zustand eines Benutzers vor dem Replay seiner Aufnahmen.
+     * Ereignisse an der Grenze zum laufenden Betrieb können doppelt ankommen; Projektionen mit
+     * Zählern sollten nach intakeId deduplizieren.
+     *
+     * @param userId Benutzer-ID
+     */
+    default void reset(Long userId) {
+    }
+}
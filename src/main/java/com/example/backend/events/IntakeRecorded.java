@@ -0,0 +1,24 @@
+package com.example.backend.events;
+
+import com.example.backend.model.entity.IntakeEvent;
+import com.example.backend.model.enums.IntakeSource;
+
+import java.time.Instant;
+
+/**
+ * Eine Aufnahme wurde gespeichert.
+ *
+ * @param userId    Benutzer-ID
+ * @param intakeId  ID des Aufnahme-Events
+ * @param volumeMl  Menge in Millilitern
+ * @param source    Quelle der Aufnahme
+ * @param timestamp Zeitpunkt der Aufnahme (UTC)
+ */
+public record IntakeRecorded(Long userId, Long intakeId, int volumeMl, IntakeSource source, Instant timestamp)
+        implements HydrationEvent {
+
+    public static IntakeRecorded from(IntakeEvent event) {
+        return new IntakeRecorded(event.getUser().getId(), event.getId(), event.getVolumeMl(),
+                event.getSource(), event.getTimestampUtc());
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.backend.events;
+
+/**
+ * Ein Massenimport hat Aufnahmen geschrieben. Einzelne Aufnahmen werden dabei nicht veröffentlicht;
+ * Projektionen mit Zustand pro Aufnahme bauen den Benutzer per Replay neu auf.
+ *
+ * @param userId Benutzer-ID
+ * @param rows   Anzahl importierter Aufnahmen
+ */
+public record IntakesImported(Long userId, long rows) implements HydrationEvent {
+}
@@ -0,0 +1,9 @@
+package com.example.backend.events;
+
+/**
+ * Gewicht, Aktivität, Klima oder Zeitzone eines Benutzers wurden geändert (Tagesziel kann sich ändern).
+ *
+ * @param userId Benutzer-ID
+ */
+public record ProfileUpdated(Long userId) implements HydrationEvent {
+}
@@ -0,0 +1,44 @@
+package com.example.backend.events;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator-Endpoint /actuator/projections: registrierte Projektionen und wartende Ereignisse.
+ * POST /actuator/projections/{name} baut die Projektion aus intake_event neu auf.
+ */
+@Component
+@Endpoint(id = "projections")
+public class ProjectionsEndpoint {
+
+    private final HydrationEventBus eventBus;
+
+    public ProjectionsEndpoint(HydrationEventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    @ReadOperation
+    public Map<String, Object> projections() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("projections", eventBus.projectionNames());
+        result.put("queued", eventBus.queued());
+        return result;
+    }
+
+    /**
+     * @return Anzahl zugestellter Aufnahmen, oder null (404) für unbekannte Projektionen
+     */
+    @WriteOperation
+    public Map<String, Object> replay(@Selector String name) {
+        if (eventBus.projection(name).isEmpty()) {
+            return null;
+        }
+        return Map.of("projection", name, "replayed", eventBus.replay(name));
+    }
+}
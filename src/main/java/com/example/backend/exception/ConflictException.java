@@ -0,0 +1,12 @@
+package com.example.backend.exception;
+
+/**
+ * Exception, die geworfen wird, wenn eine Operation mit dem aktuellen Zustand
+ * kollidiert (z.B. ein bereits laufender Import).
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.backend.exception;
+
+/**
+ * Exception, die geworfen wird, wenn ein authentifizierter Benutzer auf Daten
+ * eines anderen Benutzers zugreifen will.
+ */
+public class ForbiddenException extends RuntimeException {
+
+    public ForbiddenException(String message) {
+        super(message);
+    }
+}
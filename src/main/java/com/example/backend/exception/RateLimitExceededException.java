@@ -0,0 +1,20 @@
+package com.example.backend.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Exception, die geworfen wird, wenn ein Client sein Anfragekontingent überschritten hat.
+ * Wird als 429 mit Retry-After beantwortet.
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
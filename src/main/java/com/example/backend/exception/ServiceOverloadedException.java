@@ -0,0 +1,20 @@
+package com.example.backend.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Exception, die geworfen wird, wenn eine begrenzte Ressource (z.B. der Passwort-Hashing-Pool)
+ * ausgelastet ist. Wird als 503 mit Retry-After beantwortet.
+ */
+@Getter
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,428 @@
+package com.example.backend.journal;
+
+import com.example.backend.model.enums.IntakeSource;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Lokales Append-only-Journal aus Memory-mapped Segmenten fester Größe.
+ *
+ * <p>Format pro Eintrag: {@code [int Länge][int CRC32C][long Sequenz][long Benutzer][long Epoch-Sekunden]
+ * [int Nanos][int Menge][short Länge Quelle][Quelle UTF-8]}; eine Länge von 0 markiert das Ende der Daten
+ * (neue Segmente sind mit Nullen gefüllt). Beim Öffnen werden alle Segmente geprüft, ein abgerissener
+ * Eintrag am Ende des letzten Segments wird verworfen.
+ *
+ * <p>{@link #append} kehrt erst zurück, wenn der Eintrag per {@code force()} auf dem Datenträger liegt.
+ * Gleichzeitige Schreiber teilen sich ein fsync (Group Commit): wer wartet, während ein anderer Thread
+ * synchronisiert, wird vom nächsten fsync mit abgedeckt. Es gibt genau einen Leser ({@link #read}).
+ */
+@Slf4j
+public class IntakeJournal implements Closeable {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String ID_FILE = "journal.id";
+    private static final int HEADER_BYTES = 8;
+    private static final int FIXED_PAYLOAD_BYTES = 8 + 8 + 8 + 4 + 4 + 2;
+
+    /**
+     * Wird geworfen, wenn das Journal seine Maximalgröße erreicht hat (Backpressure).
+     */
+    public static class JournalFullException extends RuntimeException {
+        public JournalFullException(String message) {
+            super(message);
+        }
+    }
+
+    private final Path directory;
+    private final String id;
+    private final int segmentBytes;
+    private final long maxBytes;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition synced = syncLock.newCondition();
+
+    /** Segmente aufsteigend; das letzte wird beschrieben. Geschützt durch writeLock */
+    private final List<Segment> segments = new ArrayList<>();
+    private long nextSequence;
+    private volatile long writtenSequence;
+    private volatile long durableSequence;
+    private boolean syncing;
+    private boolean closed;
+
+    /** Leseposition des einzigen Lesers */
+    private int readSegment;
+    private int readOffset;
+    private long readSequence;
+
+    private IntakeJournal(Path directory, String id, int segmentBytes, long maxBytes) {
+        this.directory = directory;
+        this.id = id;
+        this.segmentBytes = segmentBytes;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Liest die Kennung des Journals in einem Verzeichnis und legt sie beim ersten Aufruf an.
+     *
+     * @param directory Verzeichnis der Segmente
+     * @return Stabile Kennung (für den Checkpoint in der Datenbank)
+     */
+    public static String journalId(Path directory) {
+        try {
+            Files.createDirectories(directory);
+            Path idFile = directory.resolve(ID_FILE);
+            if (!Files.exists(idFile)) {
+                Files.writeString(idFile, UUID.randomUUID().toString());
+            }
+            return Files.readString(idFile).trim();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read intake journal id in " + directory, e);
+        }
+    }
+
+    /**
+     * Öffnet (oder erstellt) ein Journal und stellt den Schreibstand aus den Segmenten wieder her.
+     *
+     * @param directory           Verzeichnis der Segmente
+     * @param segmentBytes        Größe eines Segments
+     * @param maxBytes            Maximale Gesamtgröße aller Segmente
+     * @param minimumNextSequence Untergrenze für die nächste Sequenz (Checkpoint + 1, falls Segmente fehlen)
+     * @return Geöffnetes Journal
+     */
+    public static IntakeJournal open(Path directory, int segmentBytes, long maxBytes, long minimumNextSequence) {
+        IntakeJournal journal = new IntakeJournal(directory, journalId(directory), segmentBytes, maxBytes);
+        try {
+            journal.recover(Math.max(1, minimumNextSequence));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open intake journal in " + directory, e);
+        }
+        return journal;
+    }
+
+    /**
+     * Stabile Kennung dieses Journals (für den Checkpoint in der Datenbank).
+     */
+    public String id() {
+        return id;
+    }
+
+    /**
+     * Hängt einen Eintrag an und wartet, bis er dauerhaft gespeichert ist.
+     *
+     * @return Sequenz des Eintrags
+     * @throws JournalFullException wenn ein neues Segment die Maximalgröße überschreiten würde
+     */
+    public long append(long userId, int volumeMl, IntakeSource source, Instant timestamp) {
+        byte[] sourceBytes = source.name().getBytes(StandardCharsets.UTF_8);
+        int payloadBytes = FIXED_PAYLOAD_BYTES + sourceBytes.length;
+        long sequence;
+
+        writeLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Intake journal is closed");
+            }
+            Segment segment = segments.get(segments.size() - 1);
+            // Platz für Eintrag und Endmarkierung
+            if (segment.writeOffset + HEADER_BYTES + payloadBytes + HEADER_BYTES > segmentBytes) {
+                if ((long) (segments.size() + 1) * segmentBytes > maxBytes) {
+                    throw new JournalFullException("Intake journal is full (" + maxBytes + " bytes)");
+                }
+                segment.buffer.force();
+                segment = createSegment(nextSequence);
+            }
+
+            sequence = nextSequence++;
+            MappedByteBuffer buffer = segment.buffer;
+            int offset = segment.writeOffset;
+            int payloadStart = offset + HEADER_BYTES;
+            buffer.putLong(payloadStart, sequence);
+            buffer.putLong(payloadStart + 8, userId);
+            buffer.putLong(payloadStart + 16, timestamp.getEpochSecond());
+            buffer.putInt(payloadStart + 24, timestamp.getNano());
+            buffer.putInt(payloadStart + 28, volumeMl);
+            buffer.putShort(payloadStart + 32, (short) sourceBytes.length);
+            buffer.put(payloadStart + 34, sourceBytes);
+            buffer.putInt(offset + 4, crc(buffer, payloadStart, payloadBytes));
+            // Länge zuletzt: erst damit wird der Eintrag für Leser und Wiederherstellung sichtbar
+            buffer.putInt(offset, payloadBytes);
+            segment.writeOffset = payloadStart + payloadBytes;
+            segment.lastSequence = sequence;
+            writtenSequence = sequence;
+        } finally {
+            writeLock.unlock();
+        }
+
+        awaitDurable(sequence);
+        return sequence;
+    }
+
+    /**
+     * Liest dauerhaft gespeicherte Einträge nach einer Sequenz.
+     *
+     * @param afterSequence Letzte bereits verarbeitete Sequenz
+     * @param max           Maximale Anzahl
+     * @return Einträge in Sequenzreihenfolge (leer, wenn nichts ansteht)
+     */
+    public List<JournalEntry> read(long afterSequence, int max) {
+        writeLock.lock();
+        try {
+            if (afterSequence < readSequence || readSegment >= segments.size()) {
+                readSegment = 0;
+                readOffset = 0;
+                readSequence = 0;
+            }
+            long durable = durableSequence;
+            List<JournalEntry> entries = new ArrayList<>(Math.min(max, 1024));
+            while (entries.size() < max && readSegment < segments.size()) {
+                Segment segment = segments.get(readSegment);
+                if (readOffset >= segment.writeOffset) {
+                    if (readSegment == segments.size() - 1) {
+                        break;
+                    }
+                    readSegment++;
+                    readOffset = 0;
+                    continue;
+                }
+                JournalEntry entry = decode(segment.buffer, readOffset);
+                if (entry.sequence() > durable) {
+                    break;
+                }
+                readOffset += HEADER_BYTES + segment.buffer.getInt(readOffset);
+                readSequence = entry.sequence();
+                if (entry.sequence() > afterSequence) {
+                    entries.add(entry);
+                }
+            }
+            return entries;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Löscht abgeschlossene Segmente, deren Einträge alle verarbeitet sind.
+     * Das aktuelle Segment bleibt immer erhalten, damit die Sequenz nach einem Neustart fortläuft.
+     *
+     * @param sequence Letzte verarbeitete Sequenz
+     */
+    public void truncateThrough(long sequence) {
+        writeLock.lock();
+        try {
+            while (segments.size() > 1 && segments.get(0).lastSequence <= sequence) {
+                Segment segment = segments.remove(0);
+                segment.close();
+                Files.deleteIfExists(segment.path);
+                readSegment = Math.max(0, readSegment - 1);
+                log.debug("Deleted intake journal segment {}", segment.path.getFileName());
+            }
+        } catch (IOException e) {
+            log.warn("Failed to delete intake journal segment: {}", e.getMessage());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Höchste dauerhaft gespeicherte Sequenz.
+     */
+    public long durableSequence() {
+        return durableSequence;
+    }
+
+    /**
+     * Belegter Speicher aller Segmente in Bytes.
+     */
+    public long sizeBytes() {
+        writeLock.lock();
+        try {
+            return (long) segments.size() * segmentBytes;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        writeLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (Segment segment : segments) {
+                segment.buffer.force();
+                segment.close();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void awaitDurable(long sequence) {
+        syncLock.lock();
+        try {
+            while (durableSequence < sequence) {
+                if (syncing) {
+                    synced.awaitUninterruptibly();
+                    continue;
+                }
+                syncing = true;
+                long target = writtenSequence;
+                MappedByteBuffer buffer = currentBuffer();
+                syncLock.unlock();
+                try {
+                    // Ältere Segmente wurden beim Segmentwechsel bereits synchronisiert
+                    buffer.force();
+                } finally {
+                    syncLock.lock();
+                    syncing = false;
+                    durableSequence = Math.max(durableSequence, target);
+                    synced.signalAll();
+                }
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private MappedByteBuffer currentBuffer() {
+        writeLock.lock();
+        try {
+            return segments.get(segments.size() - 1).buffer;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void recover(long minimumNextSequence) throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+
+        long lastSequence = 0;
+        for (Path file : files) {
+            Segment segment = mapSegment(file);
+            String name = file.getFileName().toString();
+            long expected = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+            segment.lastSequence = expected - 1;
+            lastSequence = Math.max(lastSequence, expected - 1);
+            int offset = 0;
+            while (offset + HEADER_BYTES <= segmentBytes) {
+                int length = segment.buffer.getInt(offset);
+                if (length <= 0 || offset + HEADER_BYTES + length > segmentBytes
+                        || crc(segment.buffer, offset + HEADER_BYTES, length) != segment.buffer.getInt(offset + 4)) {
+                    break;
+                }
+                long sequence = segment.buffer.getLong(offset + HEADER_BYTES);
+                if (sequence != expected) {
+                    break;
+                }
+                expected = sequence + 1;
+                segment.lastSequence = sequence;
+                lastSequence = sequence;
+                offset += HEADER_BYTES + length;
+            }
+            if (offset + HEADER_BYTES <= segmentBytes && segment.buffer.getInt(offset) != 0) {
+                // Abgerissener oder beschädigter Eintrag: Rest des Segments verwerfen
+                log.warn("Discarding torn tail of intake journal segment {} at offset {}", file.getFileName(), offset);
+                for (int i = offset; i < segmentBytes; i++) {
+                    segment.buffer.put(i, (byte) 0);
+                }
+                segment.buffer.force();
+            }
+            segment.writeOffset = offset;
+            segments.add(segment);
+        }
+
+        nextSequence = Math.max(lastSequence + 1, minimumNextSequence);
+        if (segments.isEmpty() || nextSequence != lastSequence + 1) {
+            createSegment(nextSequence);
+        }
+        writtenSequence = nextSequence - 1;
+        durableSequence = writtenSequence;
+        log.info("Opened intake journal {} in {}: {} segment(s), next sequence {}",
+                id, directory, segments.size(), nextSequence);
+    }
+
+    private Segment createSegment(long firstSequence) {
+        Path path = directory.resolve(String.format("%020d%s", firstSequence, SEGMENT_SUFFIX));
+        try {
+            Segment segment = mapSegment(path);
+            segment.lastSequence = firstSequence - 1;
+            segments.add(segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create intake journal segment " + path, e);
+        }
+    }
+
+    private Segment mapSegment(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        return new Segment(path, channel, buffer);
+    }
+
+    private static JournalEntry decode(MappedByteBuffer buffer, int offset) {
+        int payloadStart = offset + HEADER_BYTES;
+        short sourceLength = buffer.getShort(payloadStart + 32);
+        byte[] sourceBytes = new byte[sourceLength];
+        buffer.get(payloadStart + 34, sourceBytes);
+        return new JournalEntry(
+                buffer.getLong(payloadStart),
+                buffer.getLong(payloadStart + 8),
+                buffer.getInt(payloadStart + 28),
+                IntakeSource.valueOf(new String(sourceBytes, StandardCharsets.UTF_8)),
+                Instant.ofEpochSecond(buffer.getLong(payloadStart + 16), buffer.getInt(payloadStart + 24)));
+    }
+
+    private static int crc(MappedByteBuffer buffer, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int writeOffset;
+        private long lastSequence;
+
+        private Segment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Failed to close intake journal segment {}: {}", path.getFileName(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.backend.journal;
+
+import com.example.backend.dto.request.IntakeRequest;
+import com.example.backend.dto.response.IntakeResponse;
+import com.example.backend.exception.ServiceOverloadedException;
+import com.example.backend.model.entity.IntakeJournalCheckpoint;
+import com.example.backend.repository.IntakeJournalCheckpointRepository;
+import com.example.backend.service.HydrationService;
+import com.example.backend.service.ProfileCache;
+import com.example.backend.service.ProfileSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Asynchrone Erfassung von Aufnahmen über ein lokales Write-behind-Journal.
+ *
+ * <p>POST /api/intakes hängt die Aufnahme an das {@link IntakeJournal} an und antwortet nach dem fsync
+ * mit 202, ohne eine Datenbankverbindung zu belegen. Ein Hintergrundlauf überträgt die Einträge in großen
+ * Batches nach intake_event und schreibt den Checkpoint in derselben Transaktion fort; nach einem Absturz
+ * werden nur Einträge hinter dem Checkpoint erneut übertragen. Bei Datenbankausfall wächst das Journal bis
+ * max-size, danach wird mit 503 und Retry-After abgelehnt. Beim Herunterfahren wird (nach dem Webserver)
+ * bis shutdown-timeout weiter übertragen; der Rest folgt beim nächsten Start.
+ *
+ * <p>Tagesstatus und Verlauf enthalten eine Aufnahme erst nach der Übertragung (drain-interval-ms).
+ */
+@Service
+@ConditionalOnProperty(name = "app.intake.journal.enabled", havingValue = "true")
+@Slf4j
+public class IntakeJournalService implements SmartLifecycle {
+
+    /**
+     * Stoppt nach dem Webserver (DEFAULT_PHASE - 2048) und vor dem Abbau der DataSource.
+     */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final HydrationService hydrationService;
+    private final ProfileCache profileCache;
+    private final IntakeJournalCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Path directory;
+    private final int segmentBytes;
+    private final long maxBytes;
+    private final int batchSize;
+    private final Duration shutdownTimeout;
+    private final Duration retryAfter;
+
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final Counter rejected;
+    private final Counter drainFailures;
+
+    private volatile IntakeJournal journal;
+    private volatile long checkpoint;
+    private volatile boolean accepting;
+
+    public IntakeJournalService(HydrationService hydrationService,
+                                ProfileCache profileCache,
+                                IntakeJournalCheckpointRepository checkpointRepository,
+                                TransactionTemplate transactionTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.intake.journal.directory:./data/intake-journal}") Path directory,
+                                @Value("${app.intake.journal.segment-size:16MB}") DataSize segmentSize,
+                                @Value("${app.intake.journal.max-size:256MB}") DataSize maxSize,
+                                @Value("${app.intake.journal.batch-size:1000}") int batchSize,
+                                @Value("${app.intake.journal.shutdown-timeout:30s}") Duration shutdownTimeout,
+                                @Value("${app.intake.journal.retry-after:5s}") Duration retryAfter) {
+        this.hydrationService = hydrationService;
+        this.profileCache = profileCache;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.directory = directory;
+        this.segmentBytes = Math.toIntExact(segmentSize.toBytes());
+        this.maxBytes = maxSize.toBytes();
+        this.batchSize = batchSize;
+        this.shutdownTimeout = shutdownTimeout;
+        this.retryAfter = retryAfter;
+        this.rejected = Counter.builder("intake.journal.rejected")
+                .description("Intakes rejected because the journal was full or stopping")
+                .register(meterRegistry);
+        this.drainFailures = Counter.builder("intake.journal.drain.failures")
+                .description("Failed attempts to write journaled intakes to the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Nimmt eine Aufnahme an und bestätigt sie, sobald sie dauerhaft im Journal liegt.
+     *
+     * @param request Aufnahmedaten
+     * @return Angenommene Aufnahme ohne ID (die vergibt erst die Datenbank)
+     */
+    public IntakeResponse accept(IntakeRequest request) {
+        IntakeJournal current = journal;
+        if (!accepting || current == null) {
+            rejected.increment();
+            throw new ServiceOverloadedException("Intake journal is not accepting writes", retryAfter);
+        }
+        // Unbekannte Benutzer sofort mit 404 ablehnen, statt sie erst beim Übertragen zu verwerfen
+        ProfileSnapshot profile = profileCache.get(request.getUserId());
+        Instant now = Instant.now();
+        try {
+            current.append(profile.id(), request.getVolumeMl(), request.getSource(), now);
+        } catch (IntakeJournal.JournalFullException | IllegalStateException e) {
+            // Voll oder beim Herunterfahren bereits geschlossen
+            rejected.increment();
+            throw new ServiceOverloadedException(e.getMessage(), retryAfter);
+        }
+        return new IntakeResponse(null, profile.id(), request.getVolumeMl(), request.getSource(), now);
+    }
+
+    /**
+     * Überträgt anstehende Journal-Einträge in die Datenbank.
+     */
+    @Scheduled(fixedDelayString = "${app.intake.journal.drain-interval-ms:200}")
+    public void drain() {
+        if (journal == null || !drainLock.tryLock()) {
+            return;
+        }
+        try {
+            drainPending();
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        String journalId = IntakeJournal.journalId(directory);
+        checkpoint = checkpointRepository.findById(journalId)
+                .map(IntakeJournalCheckpoint::getLastSequence)
+                .orElse(0L);
+        journal = IntakeJournal.open(directory, segmentBytes, maxBytes, checkpoint + 1);
+
+        Gauge.builder("intake.journal.pending", this, IntakeJournalService::pendingEntries)
+                .description("Acknowledged intakes not yet written to the database")
+                .register(meterRegistry);
+        Gauge.builder("intake.journal.size", this, IntakeJournalService::journalBytes)
+                .description("Disk space of the intake journal segments")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        long pending = pendingEntries();
+        if (pending > 0) {
+            log.info("Replaying {} journaled intakes after checkpoint {}", pending, checkpoint);
+        }
+        accepting = true;
+    }
+
+    @Override
+    public void stop() {
+        accepting = false;
+        drainLock.lock();
+        try {
+            IntakeJournal current = journal;
+            if (current == null) {
+                return;
+            }
+            long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+            while (!drainPending() && System.nanoTime() < deadline) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(500);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            long pending = pendingEntries();
+            if (pending > 0) {
+                log.warn("Stopping with {} journaled intakes not yet written; they are replayed on next start", pending);
+            }
+            current.close();
+            journal = null;
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return journal != null;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Überträgt Batches, bis das Journal leer ist. Muss unter drainLock laufen.
+     *
+     * @return true wenn alles übertragen ist, false bei einem Datenbankfehler
+     */
+    private boolean drainPending() {
+        while (true) {
+            List<JournalEntry> batch = journal.read(checkpoint, batchSize);
+            if (batch.isEmpty()) {
+                return true;
+            }
+            try {
+                write(batch);
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Batch of {} journaled intakes violates a constraint, writing one by one", batch.size());
+                try {
+                    writeIndividually(batch);
+                } catch (RuntimeException ex) {
+                    return failed(ex);
+                }
+            } catch (RuntimeException e) {
+                return failed(e);
+            }
+            journal.truncateThrough(checkpoint);
+        }
+    }
+
+    private void write(List<JournalEntry> batch) {
+        long last = batch.get(batch.size() - 1).sequence();
+        transactionTemplate.executeWithoutResult(status -> {
+            hydrationService.recordJournaled(batch);
+            advanceCheckpoint(last);
+        });
+        checkpoint = last;
+    }
+
+    private void writeIndividually(List<JournalEntry> batch) {
+        for (JournalEntry entry : batch) {
+            try {
+                write(List.of(entry));
+            } catch (DataIntegrityViolationException e) {
+                log.error("Dropping journaled intake {} for user {}: {}",
+                        entry.sequence(), entry.userId(), e.getMostSpecificCause().getMessage());
+                transactionTemplate.executeWithoutResult(status -> advanceCheckpoint(entry.sequence()));
+                checkpoint = entry.sequence();
+            }
+        }
+    }
+
+    private boolean failed(RuntimeException e) {
+        drainFailures.increment();
+        log.warn("Writing journaled intakes failed, {} pending, retrying: {}", pendingEntries(), e.getMessage());
+        return false;
+    }
+
+    private void advanceCheckpoint(long sequence) {
+        String journalId = journal.id();
+        if (checkpointRepository.advance(journalId, sequence) == 0) {
+            checkpointRepository.save(new IntakeJournalCheckpoint(journalId, sequence));
+        }
+    }
+
+    private long pendingEntries() {
+        IntakeJournal current = journal;
+        return current != null ? Math.max(0, current.durableSequence() - checkpoint) : 0;
+    }
+
+    private long journalBytes() {
+        IntakeJournal current = journal;
+        return current != null ? current.sizeBytes() : 0;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.backend.journal;
+
+import com.example.backend.model.enums.IntakeSource;
+
+import java.time.Instant;
+
+/**
+ * Eine im Journal gespeicherte, bereits bestätigte Wasseraufnahme.
+ *
+ * @param sequence  Fortlaufende Journal-Position (lückenlos, beginnt bei 1)
+ * @param userId    Benutzer-ID
+ * @param volumeMl  Menge in Millilitern
+ * @param source    Quelle der Aufnahme
+ * @param timestamp Zeitpunkt der Annahme (UTC)
+ */
+public record JournalEntry(long sequence, long userId, int volumeMl, IntakeSource source, Instant timestamp) {
+}
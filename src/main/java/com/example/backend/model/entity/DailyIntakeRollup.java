@@ -0,0 +1,59 @@
+package com.example.backend.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Tägliche Zusammenfassung der Wasseraufnahme eines Benutzers.
+ * Wird in derselben Transaktion wie das Erfassen/Löschen von Aufnahme-Events fortgeschrieben,
+ * damit Verlaufsansichten nur wenige Zeilen statt aller Events lesen.
+ */
+@Entity
+@Table(name = "daily_intake_rollup", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_rollup_user_date", columnNames = {"user_id", "local_date"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyIntakeRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_intake_rollup_seq")
+    @SequenceGenerator(name = "daily_intake_rollup_seq", sequenceName = "daily_intake_rollup_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * Referenz zum Benutzer
+     */
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private UserProfile user;
+
+    /**
+     * Kalendertag in der Zeitzone des Benutzers
+     */
+    @Column(name = "local_date", nullable = false)
+    private LocalDate localDate;
+
+    /**
+     * Summe der Aufnahmen des Tages in Millilitern
+     */
+    @Column(name = "total_ml", nullable = false)
+    private int totalMl;
+
+    /**
+     * Anzahl der Aufnahme-Events des Tages
+     */
+    @Column(name = "event_count", nullable = false)
+    private int eventCount;
+
+    /**
+     * Tagesziel beim Anlegen der Zeile (Snapshot, wird danach nicht mehr geändert)
+     */
+    @Column(name = "goal_ml", nullable = false)
+    private int goalMl;
+}
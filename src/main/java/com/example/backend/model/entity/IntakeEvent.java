@@ -23,8 +23,13 @@ import java.time.Instant;
 @AllArgsConstructor
 public class IntakeEvent {
 
+    /**
+     * Primärschlüssel aus einer gepoolten Sequenz.
+     * Im Gegensatz zu IDENTITY kann Hibernate IDs vorab reservieren und Inserts als JDBC-Batch senden.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "intake_event_seq")
+    @SequenceGenerator(name = "intake_event_seq", sequenceName = "intake_event_seq", allocationSize = 50)
     private Long id;
 
     /**
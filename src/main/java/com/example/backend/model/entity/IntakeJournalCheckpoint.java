@@ -0,0 +1,35 @@
+package com.example.backend.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Verarbeitungsstand eines lokalen Aufnahme-Journals.
+ * Wird in derselben Transaktion wie die übertragenen Aufnahme-Events fortgeschrieben; nach einem
+ * Neustart werden Journal-Einträge bis einschließlich lastSequence daher nicht erneut geschrieben.
+ */
+@Entity
+@Table(name = "intake_journal_checkpoint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IntakeJournalCheckpoint {
+
+    /**
+     * Kennung des Journals (aus dessen Verzeichnis)
+     */
+    @Id
+    @Column(name = "journal_id", length = 64)
+    private String journalId;
+
+    /**
+     * Höchste in intake_event übertragene Journal-Sequenz
+     */
+    @Column(name = "last_sequence", nullable = false)
+    private long lastSequence;
+}
@@ -0,0 +1,54 @@
+package com.example.backend.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Ausgehende Nachricht für nachgelagerte Dienste (Transactional Outbox).
+ * Wird in derselben Transaktion wie die fachliche Änderung geschrieben und vom OutboxRelay
+ * zugestellt und anschließend gelöscht.
+ */
+@Entity
+@Table(name = "outbox_message")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxMessage {
+
+    /**
+     * Primärschlüssel aus einer gepoolten Sequenz; bestimmt die Zustellreihenfolge
+     * und dient Empfängern zur Deduplizierung.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_message_seq")
+    @SequenceGenerator(name = "outbox_message_seq", sequenceName = "outbox_message_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * Benutzer, auf den sich das Ereignis bezieht
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * Ereignistyp (z.B. IntakeRecorded)
+     */
+    @Column(name = "event_type", nullable = false, length = 40)
+    private String eventType;
+
+    /**
+     * Ereignis als JSON
+     */
+    @Column(name = "payload", nullable = false, length = 4000)
+    private String payload;
+
+    /**
+     * Zeitpunkt des Schreibens (UTC)
+     */
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -11,6 +11,7 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 /**
  * Benutzerprofil-Entity mit persönlichen Hydrationspräferenzen.
@@ -80,4 +81,12 @@ public class UserProfile {
      */
     @Column(name = "timezone", nullable = false)
     private String timezone = "Europe/Berlin";
+
+    /**
+     * Datenstand des Benutzers (Aufnahmen und Profil) als Grundlage für ETags.
+     * Wird nur per UPDATE in der schreibenden Transaktion erhöht, nie über die Entity geschrieben.
+     */
+    @ColumnDefault("0")
+    @Column(name = "data_version", nullable = false, insertable = false, updatable = false)
+    private Long dataVersion;
 }
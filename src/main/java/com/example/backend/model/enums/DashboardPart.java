@@ -0,0 +1,50 @@
+package com.example.backend.model.enums;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Bestandteile des Dashboards, die per {@code fields}-Parameter einzeln angefordert werden können.
+ */
+public enum DashboardPart {
+    /**
+     * Benutzerprofil
+     */
+    PROFILE,
+
+    /**
+     * Heutiger Hydrationsstatus
+     */
+    TODAY,
+
+    /**
+     * Letzte Aufnahme-Events
+     */
+    RECENT;
+
+    /**
+     * Parst eine Feldliste wie {@code profile,today}. Ohne Angabe werden alle Teile geliefert.
+     *
+     * @param fields Feldnamen (Groß-/Kleinschreibung egal), darf null oder leer sein
+     * @return Angeforderte Teile
+     * @throws IllegalArgumentException bei unbekanntem Feldnamen
+     */
+    public static Set<DashboardPart> parse(Iterable<String> fields) {
+        Set<DashboardPart> parts = EnumSet.noneOf(DashboardPart.class);
+        if (fields != null) {
+            for (String field : fields) {
+                if (field.isBlank()) {
+                    continue;
+                }
+                try {
+                    parts.add(valueOf(field.trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(
+                            "Unsupported field '" + field + "', expected any of profile, today, recent");
+                }
+            }
+        }
+        return parts.isEmpty() ? EnumSet.allOf(DashboardPart.class) : parts;
+    }
+}
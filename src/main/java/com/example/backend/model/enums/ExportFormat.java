@@ -0,0 +1,48 @@
+package com.example.backend.model.enums;
+
+/**
+ * Dateiformat für Export und Import der Aufnahme-Historie.
+ */
+public enum ExportFormat {
+    /**
+     * Kommagetrennte Werte mit Kopfzeile
+     */
+    CSV("csv", "text/csv"),
+
+    /**
+     * Ein JSON-Objekt pro Zeile (Newline-Delimited JSON)
+     */
+    NDJSON("ndjson", "application/x-ndjson");
+
+    private final String code;
+    private final String contentType;
+
+    ExportFormat(String code, String contentType) {
+        this.code = code;
+        this.contentType = contentType;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Ermittelt das Format anhand des API-Kürzels (csv, ndjson).
+     *
+     * @param code API-Kürzel
+     * @return Dateiformat
+     * @throws IllegalArgumentException bei unbekanntem Kürzel
+     */
+    public static ExportFormat fromCode(String code) {
+        for (ExportFormat format : values()) {
+            if (format.code.equalsIgnoreCase(code)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported format '" + code + "', expected csv or ndjson");
+    }
+}
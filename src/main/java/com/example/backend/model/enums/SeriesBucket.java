@@ -0,0 +1,83 @@
+package com.example.backend.model.enums;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Bucket-Größe für Zeitreihen der Wasseraufnahme.
+ * Stunden- und Tages-Buckets richten sich nach der Zeitzone des Benutzers,
+ * sodass Tage mit Zeitumstellung 23 bzw. 25 Stunden umfassen.
+ */
+public enum SeriesBucket {
+    /**
+     * 5-Minuten-Buckets (in allen Zeitzonen an UTC ausgerichtet)
+     */
+    FIVE_MINUTES("5m"),
+
+    /**
+     * Stunden-Buckets in lokaler Zeit
+     */
+    HOUR("1h"),
+
+    /**
+     * Tages-Buckets von lokaler Mitternacht bis lokaler Mitternacht
+     */
+    DAY("1d");
+
+    private final String code;
+
+    SeriesBucket(String code) {
+        this.code = code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * Ermittelt den Bucket anhand des API-Kürzels (5m, 1h, 1d).
+     *
+     * @param code API-Kürzel
+     * @return Bucket-Größe
+     * @throws IllegalArgumentException bei unbekanntem Kürzel
+     */
+    public static SeriesBucket fromCode(String code) {
+        for (SeriesBucket bucket : values()) {
+            if (bucket.code.equals(code)) {
+                return bucket;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported bucket '" + code + "', expected one of 5m, 1h, 1d");
+    }
+
+    /**
+     * Beginn des Buckets, der den Zeitpunkt enthält.
+     *
+     * @param timestamp Zeitpunkt
+     * @param zoneId    Zeitzone des Benutzers
+     * @return Bucket-Beginn
+     */
+    public Instant floor(Instant timestamp, ZoneId zoneId) {
+        return switch (this) {
+            case FIVE_MINUTES -> Instant.ofEpochSecond(Math.floorDiv(timestamp.getEpochSecond(), 300L) * 300L);
+            case HOUR -> timestamp.atZone(zoneId).truncatedTo(ChronoUnit.HOURS).toInstant();
+            case DAY -> timestamp.atZone(zoneId).toLocalDate().atStartOfDay(zoneId).toInstant();
+        };
+    }
+
+    /**
+     * Beginn des folgenden Buckets.
+     *
+     * @param bucketStart Beginn des aktuellen Buckets
+     * @param zoneId      Zeitzone des Benutzers
+     * @return Beginn des nächsten Buckets
+     */
+    public Instant next(Instant bucketStart, ZoneId zoneId) {
+        return switch (this) {
+            case FIVE_MINUTES -> bucketStart.plusSeconds(300L);
+            case HOUR -> bucketStart.plus(1, ChronoUnit.HOURS);
+            case DAY -> bucketStart.atZone(zoneId).toLocalDate().plusDays(1).atStartOfDay(zoneId).toInstant();
+        };
+    }
+}
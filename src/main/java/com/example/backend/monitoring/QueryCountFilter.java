@@ -0,0 +1,81 @@
+package com.example.backend.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Zählt SQL-Statements und Datenbankzeit pro HTTP-Request.
+ * Ergebnis als Metriken db.statements.per.request und db.time.per.request (Tag uri = Routen-Muster);
+ * Requests mit auffällig vielen Statements (z.B. N+1) werden geloggt.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    /**
+     * Request-Attribut mit den QueryStatistics.RequestQueries des abgeschlossenen Requests
+     */
+    public static final String ATTRIBUTE = QueryCountFilter.class.getName() + ".queries";
+
+    private final QueryStatistics statistics;
+    private final MeterRegistry meterRegistry;
+    private final int statementWarnThreshold;
+
+    public QueryCountFilter(QueryStatistics statistics,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.datasource.query-stats.request-warn-threshold:20}") int statementWarnThreshold) {
+        this.statistics = statistics;
+        this.meterRegistry = meterRegistry;
+        this.statementWarnThreshold = statementWarnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        statistics.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryStatistics.RequestQueries queries = statistics.endRequest();
+            request.setAttribute(ATTRIBUTE, queries);
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+            DistributionSummary.builder("db.statements.per.request")
+                    .description("SQL statements executed per HTTP request")
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(queries.statements());
+            Timer.builder("db.time.per.request")
+                    .description("Cumulative SQL execution time per HTTP request")
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(queries.nanos(), TimeUnit.NANOSECONDS);
+
+            if (queries.statements() > statementWarnThreshold) {
+                log.warn("{} {} executed {} SQL statements ({} ms): {}",
+                        request.getMethod(), uri, queries.statements(), queries.nanos() / 1_000_000, queries);
+            } else if (log.isDebugEnabled()) {
+                log.debug("{} {} executed {} SQL statements ({} ms): {}",
+                        request.getMethod(), uri, queries.statements(), queries.nanos() / 1_000_000, queries);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.backend.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * DataSource-Wrapper, der die Ausführungszeit jedes JDBC-Statements an QueryStatistics meldet.
+ * Ersetzt das pauschale SQL-Logging (show-sql): gemessen wird immer, geloggt nur langsame Statements.
+ */
+public class QueryInstrumentingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final QueryStatistics statistics;
+
+    public QueryInstrumentingDataSource(DataSource target, QueryStatistics statistics) {
+        super(target);
+        this.statistics = statistics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return instrument(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return instrument(super.getConnection(username, password));
+    }
+
+    private Connection instrument(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            Object result = invoke(method, connection, args);
+                            if (result instanceof Statement statement) {
+                                // prepareStatement/prepareCall: SQL steht fest, createStatement: SQL kommt mit execute
+                                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                                return instrument(statement, method.getReturnType(), sql);
+                            }
+                            return result;
+                    }
+                });
+    }
+
+    private Object instrument(Statement statement, Class<?> type, String preparedSql) {
+        return Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (!EXECUTE_METHODS.contains(method.getName())) {
+                        return switch (method.getName()) {
+                            case "equals" -> proxy == args[0];
+                            case "hashCode" -> System.identityHashCode(proxy);
+                            default -> invoke(method, statement, args);
+                        };
+                    }
+                    String sql = preparedSql != null ? preparedSql
+                            : args != null && args.length > 0 && args[0] instanceof String s ? s : "<batch>";
+                    long started = System.nanoTime();
+                    try {
+                        return invoke(method, statement, args);
+                    } finally {
+                        statistics.record(sql, System.nanoTime() - started);
+                    }
+                });
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
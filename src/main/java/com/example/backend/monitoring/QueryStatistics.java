@@ -0,0 +1,219 @@
+package com.example.backend.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Sammelt Laufzeiten aller SQL-Statements (von QueryInstrumentingDataSource gemeldet).
+ * Statements werden zu Shapes normalisiert (Literale und IN-Listen durch Platzhalter ersetzt),
+ * je Shape aggregiert und bei Überschreiten der Schwelle geloggt. Pro HTTP-Request werden
+ * Anzahl und kumulierte Datenbankzeit im Thread gezählt (siehe QueryCountFilter).
+ * Bind-Werte werden nie erfasst.
+ */
+@Slf4j
+public class QueryStatistics {
+
+    /**
+     * Shape, unter der Statements nach Erreichen von maxShapes zusammengefasst werden
+     */
+    static final String OTHER_SHAPE = "<other>";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern SEQUENCE_CALL = Pattern.compile("(?i)next value for|nextval\\s*\\(");
+
+    private static final int SELECT = 0;
+    private static final int INSERT = 1;
+    private static final int UPDATE = 2;
+    private static final int DELETE = 3;
+    private static final int OTHER = 4;
+
+    private final Duration slowThreshold;
+    private final int maxShapes;
+    private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+    private final ThreadLocal<RequestCounter> currentRequest = new ThreadLocal<>();
+
+    public QueryStatistics(Duration slowThreshold, int maxShapes) {
+        this.slowThreshold = slowThreshold;
+        this.maxShapes = maxShapes;
+    }
+
+    /**
+     * Statements eines Requests nach Art. Sequenzabfragen (nextval) zählen als other,
+     * da sie beim gepoolten Optimizer nur bei jedem 50. Insert anfallen.
+     *
+     * @param select Anzahl SELECT
+     * @param insert Anzahl INSERT (ein JDBC-Batch zählt einmal)
+     * @param update Anzahl UPDATE
+     * @param delete Anzahl DELETE
+     * @param other  Sonstige Statements
+     * @param nanos  Kumulierte Ausführungszeit
+     */
+    public record RequestQueries(long select, long insert, long update, long delete, long other, long nanos) {
+
+        static final RequestQueries NONE = new RequestQueries(0, 0, 0, 0, 0, 0);
+
+        /**
+         * Anzahl aller Statements
+         */
+        public long statements() {
+            return select + insert + update + delete + other;
+        }
+    }
+
+    /**
+     * Aggregat einer Statement-Shape für den Actuator-Endpoint
+     */
+    public record ShapeSummary(String sql, long count, double totalMs, double meanMs, double maxMs) {
+    }
+
+    /**
+     * Erfasst ein ausgeführtes Statement.
+     *
+     * @param sql   SQL-Text (mit Platzhaltern oder Literalen)
+     * @param nanos Ausführungszeit
+     */
+    public void record(String sql, long nanos) {
+        RequestCounter request = currentRequest.get();
+        if (request != null) {
+            request.counts[type(sql)]++;
+            request.nanos += nanos;
+        }
+
+        String shape = shape(sql);
+        ShapeStats stats = shapes.get(shape);
+        if (stats == null) {
+            stats = shapes.size() < maxShapes
+                    ? shapes.computeIfAbsent(shape, s -> new ShapeStats())
+                    : shapes.computeIfAbsent(OTHER_SHAPE, s -> new ShapeStats());
+        }
+        stats.add(nanos);
+
+        if (nanos >= slowThreshold.toNanos()) {
+            log.warn("Slow query ({} ms): {}", nanos / 1_000_000, shape);
+        }
+    }
+
+    /**
+     * Beginnt die Zählung für den Request des aktuellen Threads.
+     */
+    public void beginRequest() {
+        currentRequest.set(new RequestCounter());
+    }
+
+    /**
+     * Beendet die Zählung für den Request des aktuellen Threads.
+     *
+     * @return Statements und Datenbankzeit des Requests
+     */
+    public RequestQueries endRequest() {
+        RequestCounter request = currentRequest.get();
+        currentRequest.remove();
+        if (request == null) {
+            return RequestQueries.NONE;
+        }
+        long[] counts = request.counts;
+        return new RequestQueries(counts[SELECT], counts[INSERT], counts[UPDATE], counts[DELETE], counts[OTHER], request.nanos);
+    }
+
+    /**
+     * Die Shapes mit der höchsten kumulierten Laufzeit.
+     *
+     * @param limit Maximale Anzahl
+     * @return Shapes absteigend nach Gesamtzeit
+     */
+    public List<ShapeSummary> topShapes(int limit) {
+        return shapes.entrySet().stream()
+                .map(entry -> entry.getValue().summary(entry.getKey()))
+                .sorted(Comparator.comparingDouble(ShapeSummary::totalMs).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public Duration getSlowThreshold() {
+        return slowThreshold;
+    }
+
+    /**
+     * Verwirft alle gesammelten Shapes.
+     */
+    public void reset() {
+        shapes.clear();
+    }
+
+    /**
+     * Normalisiert ein Statement: Literale und IN-Listen werden zu Platzhaltern,
+     * damit gleiche Abfragen mit unterschiedlichen Werten zusammenfallen und keine Werte im Log landen.
+     *
+     * @param sql SQL-Text
+     * @return Shape
+     */
+    static String shape(String sql) {
+        String redacted = STRING_LITERAL.matcher(sql).replaceAll("?");
+        redacted = NUMBER_LITERAL.matcher(redacted).replaceAll("?");
+        redacted = IN_LIST.matcher(redacted).replaceAll("in (?...)");
+        return WHITESPACE.matcher(redacted).replaceAll(" ").trim();
+    }
+
+    private static int type(String sql) {
+        String trimmed = sql.stripLeading();
+        if (startsWith(trimmed, "select") || startsWith(trimmed, "with")) {
+            return SEQUENCE_CALL.matcher(trimmed).find() ? OTHER : SELECT;
+        }
+        if (startsWith(trimmed, "insert") || startsWith(trimmed, "merge")) {
+            // MERGE ist der Upsert auf H2 (PostgreSQL: INSERT ... ON CONFLICT)
+            return INSERT;
+        }
+        if (startsWith(trimmed, "update")) {
+            return UPDATE;
+        }
+        if (startsWith(trimmed, "delete")) {
+            return DELETE;
+        }
+        return OTHER;
+    }
+
+    private static boolean startsWith(String sql, String keyword) {
+        return sql.regionMatches(true, 0, keyword, 0, keyword.length());
+    }
+
+    /**
+     * Veränderlicher Zähler des aktuellen Requests (nur vom Request-Thread benutzt)
+     */
+    private static final class RequestCounter {
+        private final long[] counts = new long[5];
+        private long nanos;
+    }
+
+    private static final class ShapeStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void add(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        ShapeSummary summary(String sql) {
+            long n = count.sum();
+            double totalMs = totalNanos.sum() / 1e6;
+            return new ShapeSummary(sql, n, round(totalMs), round(n > 0 ? totalMs / n : 0), round(maxNanos.get() / 1e6));
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 100.0) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.backend.monitoring;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator-Endpoint /actuator/queries: die SQL-Shapes mit der höchsten kumulierten Laufzeit.
+ * DELETE setzt die Statistik zurück.
+ */
+@Component
+@Endpoint(id = "queries")
+public class QueryStatisticsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final QueryStatistics statistics;
+
+    public QueryStatisticsEndpoint(QueryStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @ReadOperation
+    public Map<String, Object> topQueries(@Nullable Integer limit) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("slowThresholdMs", statistics.getSlowThreshold().toMillis());
+        result.put("queries", statistics.topShapes(limit != null ? limit : DEFAULT_LIMIT));
+        return result;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        statistics.reset();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.backend.outbox;
+
+import com.example.backend.model.entity.OutboxMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Schickt jeden Batch als JSON-Array per POST an app.outbox.http.url.
+ * Jede Antwort außer 2xx gilt als Fehlschlag; der Batch wird dann später erneut geschickt.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "http")
+public class HttpOutboxSink implements OutboxSink {
+
+    private final ObjectMapper objectMapper;
+    private final URI url;
+    private final Duration timeout;
+    private final HttpClient client;
+
+    public HttpOutboxSink(ObjectMapper objectMapper,
+                          @Value("${app.outbox.http.url}") URI url,
+                          @Value("${app.outbox.http.timeout:10s}") Duration timeout) {
+        this.objectMapper = objectMapper;
+        this.url = url;
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public void deliver(List<OutboxMessage> messages) throws IOException {
+        ArrayNode body = objectMapper.createArrayNode();
+        for (OutboxMessage message : messages) {
+            body.add(OutboxFormat.toJson(objectMapper, message));
+        }
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        HttpResponse<Void> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while delivering outbox batch", e);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Outbox endpoint " + url + " answered " + response.statusCode());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.backend.outbox;
+
+import com.example.backend.model.entity.OutboxMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+
+/**
+ * Übertragungsformat der Sinks: {"id", "type", "userId", "createdAt", "payload"}.
+ */
+final class OutboxFormat {
+
+    private OutboxFormat() {
+    }
+
+    static ObjectNode toJson(ObjectMapper objectMapper, OutboxMessage message) throws IOException {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("id", message.getId());
+        node.put("type", message.getEventType());
+        node.put("userId", message.getUserId());
+        node.put("createdAt", message.getCreatedAt().toString());
+        node.set("payload", objectMapper.readTree(message.getPayload()));
+        return node;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.backend.outbox;
+
+import com.example.backend.model.entity.OutboxMessage;
+import com.example.backend.repository.OutboxMessageRepository;
+import com.example.backend.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Stellt Outbox-Nachrichten in Batches an den konfigurierten {@link OutboxSink} zu.
+ *
+ * <p>Pro Batch werden in einer Transaktion die ältesten Nachrichten mit SKIP LOCKED gesperrt,
+ * zugestellt und mit einem DELETE gelöscht. Mehrere Instanzen teilen sich die Nachrichten so ohne
+ * Doppelzustellung; schlägt die Zustellung fehl, gibt der Rollback die Sperren frei und der Batch
+ * wird im nächsten Lauf wiederholt. Zwischen Instanzen ist die Reihenfolge nicht garantiert,
+ * Empfänger sortieren pro Benutzer nach der Nachrichten-ID. Mit Sharding wird jeder Shard nacheinander geleert.
+ *
+ * <p>Metriken: outbox.relayed (Durchsatz), outbox.lag (Zeit vom Schreiben bis zur Zustellung),
+ * outbox.pending und outbox.relay.failures.
+ */
+@Service
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true")
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxMessageRepository outboxRepository;
+    private final OutboxSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final int batchSize;
+    private final Counter relayed;
+    private final Counter failures;
+    private final Timer lag;
+
+    public OutboxRelay(OutboxMessageRepository outboxRepository,
+                       OutboxSink sink,
+                       TransactionTemplate transactionTemplate,
+                       ShardRouter shardRouter,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.outbox.batch-size:500}") int batchSize) {
+        this.outboxRepository = outboxRepository;
+        this.sink = sink;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.batchSize = batchSize;
+        this.relayed = Counter.builder("outbox.relayed")
+                .description("Outbox messages delivered to the sink")
+                .register(meterRegistry);
+        this.failures = Counter.builder("outbox.relay.failures")
+                .description("Outbox batches that could not be delivered")
+                .register(meterRegistry);
+        this.lag = Timer.builder("outbox.lag")
+                .description("Time from writing an outbox message to its delivery")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("outbox.pending", this, OutboxRelay::pending)
+                .description("Outbox messages waiting for delivery")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stellt Batches zu, bis die Outbox leer ist oder ein Fehler auftritt.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.relay-interval-ms:500}")
+    public void relay() {
+        shardRouter.forEachShard(shard -> {
+            try {
+                int delivered;
+                do {
+                    delivered = relayBatch();
+                } while (delivered == batchSize);
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.warn("Relaying outbox messages on shard {} failed, retrying: {}", shard, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Sperrt, stellt zu und löscht einen Batch in einer Transaktion.
+     *
+     * @return Anzahl zugestellter Nachrichten
+     */
+    int relayBatch() {
+        Integer delivered = transactionTemplate.execute(status -> {
+            List<OutboxMessage> batch = outboxRepository.claimBatch(batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            try {
+                sink.deliver(batch);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            outboxRepository.deleteAllInBatch(batch);
+
+            Instant now = Instant.now();
+            batch.forEach(message -> lag.record(Duration.between(message.getCreatedAt(), now)));
+            relayed.increment(batch.size());
+            return batch.size();
+        });
+        return delivered != null ? delivered : 0;
+    }
+
+    private double pending() {
+        long[] pending = new long[1];
+        shardRouter.forEachShard(shard -> pending[0] += outboxRepository.count());
+        return pending[0];
+    }
+}
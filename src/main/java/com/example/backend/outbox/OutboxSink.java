@@ -0,0 +1,22 @@
+package com.example.backend.outbox;
+
+import com.example.backend.model.entity.OutboxMessage;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Ziel, an das das OutboxRelay Nachrichten zustellt (app.outbox.sink).
+ * Die Zustellung ist at-least-once: schlägt der Commit nach erfolgreicher Zustellung fehl, wird der
+ * Batch erneut zugestellt. Empfänger deduplizieren daher über die Nachrichten-ID.
+ */
+public interface OutboxSink {
+
+    /**
+     * Stellt einen Batch zu und kehrt erst zurück, wenn das Ziel ihn angenommen hat.
+     *
+     * @param messages Nachrichten, aufsteigend nach ID
+     * @throws IOException wenn das Ziel nicht erreichbar ist oder ablehnt (Batch wird später wiederholt)
+     */
+    void deliver(List<OutboxMessage> messages) throws IOException;
+}
@@ -0,0 +1,50 @@
+package com.example.backend.outbox;
+
+import com.example.backend.events.HydrationEvent;
+import com.example.backend.model.entity.OutboxMessage;
+import com.example.backend.repository.OutboxMessageRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+
+/**
+ * Schreibt jedes {@link HydrationEvent} als Outbox-Nachricht.
+ * Läuft vor dem Commit in der Transaktion, die das Ereignis veröffentlicht hat: Änderung und
+ * Nachricht werden gemeinsam geschrieben oder gemeinsam zurückgerollt. Die Inserts gehen mit dem
+ * Flush beim Commit als JDBC-Batch raus. Ereignisse ohne Transaktion (Import) werden sofort geschrieben.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true")
+public class OutboxWriter {
+
+    private final OutboxMessageRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxWriter(OutboxMessageRepository outboxRepository, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void write(HydrationEvent event) {
+        OutboxMessage message = new OutboxMessage();
+        message.setUserId(event.userId());
+        message.setEventType(event.getClass().getSimpleName());
+        message.setPayload(toJson(event));
+        message.setCreatedAt(Instant.now());
+        outboxRepository.save(message);
+    }
+
+    private String toJson(HydrationEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + event.getClass().getSimpleName(), e);
+        }
+    }
+}
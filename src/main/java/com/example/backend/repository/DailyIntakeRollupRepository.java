@@ -0,0 +1,75 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.entity.DailyIntakeRollup;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository für DailyIntakeRollup-Entity.
+ * Bietet Fortschreibung und Bereichsabfragen der täglichen Zusammenfassungen.
+ */
+@Repository
+public interface DailyIntakeRollupRepository extends JpaRepository<DailyIntakeRollup, Long> {
+
+    /**
+     * Schreibt die Tageszusammenfassung eines Benutzers fort.
+     * Das Tagesziel bleibt unverändert: es ist der Snapshot vom Anlegen der Zeile.
+     *
+     * @param userId     Benutzer-ID
+     * @param localDate  Lokaler Kalendertag
+     * @param deltaMl    Änderung der Menge in Millilitern
+     * @param deltaCount Änderung der Anzahl der Events
+     * @return Anzahl der aktualisierten Zeilen (0 wenn noch keine Zusammenfassung existiert)
+     */
+    @Modifying
+    @Query("""
+        UPDATE DailyIntakeRollup r
+        SET r.totalMl = r.totalMl + :deltaMl,
+            r.eventCount = r.eventCount + :deltaCount
+        WHERE r.user.id = :userId
+          AND r.localDate = :localDate
+        """)
+    int applyDelta(@Param("userId") Long userId,
+                   @Param("localDate") LocalDate localDate,
+                   @Param("deltaMl") int deltaMl,
+                   @Param("deltaCount") int deltaCount);
+
+    /**
+     * Findet die Tageszusammenfassungen eines Benutzers in einem Datumsbereich.
+     *
+     * @param userId Benutzer-ID
+     * @param from   Erster Tag (inklusiv)
+     * @param to     Letzter Tag (inklusiv)
+     * @return Zusammenfassungen aufsteigend nach Datum
+     */
+    @Query("""
+        SELECT r
+        FROM DailyIntakeRollup r
+        WHERE r.user.id = :userId
+          AND r.localDate >= :from
+          AND r.localDate <= :to
+        ORDER BY r.localDate ASC
+        """)
+    List<DailyIntakeRollup> findByUserAndDateRange(@Param("userId") Long userId,
+                                                   @Param("from") LocalDate from,
+                                                   @Param("to") LocalDate to);
+
+    /**
+     * Lädt und sperrt alle Tageszusammenfassungen eines Benutzers (für den Neuaufbau).
+     * Laufende Fortschreibungen werden abgewartet, neue warten bis zum Commit.
+     *
+     * @param userId Benutzer-ID
+     * @return Zusammenfassungen aufsteigend nach Datum
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM DailyIntakeRollup r WHERE r.user.id = :userId ORDER BY r.localDate ASC")
+    List<DailyIntakeRollup> findByUserIdForUpdate(@Param("userId") Long userId);
+}
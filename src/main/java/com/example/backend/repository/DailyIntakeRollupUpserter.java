@@ -0,0 +1,71 @@
+package com.example.backend.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.time.LocalDate;
+
+/**
+ * Legt die Tageszusammenfassung eines Benutzers an oder schreibt sie fort, in einem Statement.
+ * Zwei gleichzeitige erste Aufnahmen desselben Tages landen so beide in derselben Zeile, statt dass
+ * eine am Unique-Constraint uk_rollup_user_date scheitert. Das Tagesziel wird nur beim Anlegen gesetzt
+ * (Snapshot), eine bestehende Zeile behält ihres.
+ * Auf PostgreSQL per INSERT ... ON CONFLICT, auf anderen Datenbanken (H2 in Tests) per MERGE.
+ * Die ID ist ein eigener Wert aus daily_intake_rollup_seq; beim gepoolten Optimizer gehört jeder
+ * Sequenzwert zu genau einem Block, sie kollidiert also nie mit per JPA erzeugten IDs.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DailyIntakeRollupUpserter {
+
+    private static final String POSTGRES_UPSERT = """
+        INSERT INTO daily_intake_rollup (id, user_id, local_date, total_ml, event_count, goal_ml)
+        VALUES (nextval('daily_intake_rollup_seq'), ?, ?, ?, ?, ?)
+        ON CONFLICT (user_id, local_date) DO UPDATE
+        SET total_ml = daily_intake_rollup.total_ml + EXCLUDED.total_ml,
+            event_count = daily_intake_rollup.event_count + EXCLUDED.event_count
+        """;
+
+    private static final String MERGE = """
+        MERGE INTO daily_intake_rollup r
+        USING (VALUES (CAST(? AS BIGINT), CAST(? AS DATE), CAST(? AS INTEGER), CAST(? AS INTEGER), CAST(? AS INTEGER)))
+            AS d (user_id, local_date, total_ml, event_count, goal_ml)
+        ON r.user_id = d.user_id AND r.local_date = d.local_date
+        WHEN MATCHED THEN UPDATE
+            SET total_ml = r.total_ml + d.total_ml,
+                event_count = r.event_count + d.event_count
+        WHEN NOT MATCHED THEN INSERT (id, user_id, local_date, total_ml, event_count, goal_ml)
+            VALUES (NEXT VALUE FOR daily_intake_rollup_seq, d.user_id, d.local_date, d.total_ml, d.event_count, d.goal_ml)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    /**
+     * Addiert die Änderung auf die Zusammenfassung des Tages und legt sie bei Bedarf an.
+     * Muss innerhalb der Transaktion der Aufnahme aufgerufen werden.
+     *
+     * @param userId     Benutzer-ID
+     * @param localDate  Lokaler Kalendertag
+     * @param deltaMl    Änderung der Menge in Millilitern
+     * @param deltaCount Änderung der Anzahl der Events
+     * @param goalMl     Aktuelles Tagesziel (nur für eine neue Zeile)
+     */
+    public void upsert(Long userId, LocalDate localDate, int deltaMl, int deltaCount, int goalMl) {
+        jdbcTemplate.update(isPostgres() ? POSTGRES_UPSERT : MERGE, userId, localDate, deltaMl, deltaCount, goalMl);
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            String product = jdbcTemplate.execute((Connection connection) ->
+                    JdbcUtils.commonDatabaseName(connection.getMetaData().getDatabaseProductName()));
+            result = "PostgreSQL".equals(product);
+            postgres = result;
+        }
+        return result;
+    }
+}
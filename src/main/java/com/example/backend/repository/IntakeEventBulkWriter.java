@@ -0,0 +1,140 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.enums.IntakeSource;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Massenschreiber für intake_event am ORM vorbei (Import historischer Daten).
+ * Auf PostgreSQL per COPY, auf anderen Datenbanken (H2 in Tests) per JDBC-Batch.
+ * IDs werden blockweise aus intake_event_seq reserviert, mit derselben Semantik wie der
+ * gepoolte Optimizer von Hibernate, sodass sie nie mit regulär erzeugten IDs kollidieren.
+ */
+@Repository
+@RequiredArgsConstructor
+public class IntakeEventBulkWriter {
+
+    /**
+     * Muss zur allocationSize der Sequenz in IntakeEvent passen
+     */
+    static final int ALLOCATION_SIZE = 50;
+
+    private static final String COPY_SQL =
+            "COPY intake_event (id, user_id, volume_ml, source, timestamp_utc) FROM STDIN WITH (FORMAT csv)";
+    private static final String INSERT_SQL =
+            "INSERT INTO intake_event (id, user_id, volume_ml, source, timestamp_utc) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    /**
+     * Zu importierende Zeile
+     *
+     * @param timestamp Zeitpunkt der Aufnahme (UTC)
+     * @param volumeMl  Menge in Millilitern
+     * @param source    Quelle
+     */
+    public record Row(Instant timestamp, int volumeMl, IntakeSource source) {
+    }
+
+    /**
+     * Schreibt Zeilen für einen Benutzer. Muss innerhalb einer Transaktion aufgerufen werden.
+     *
+     * @param userId Benutzer-ID
+     * @param rows   Zeilen
+     */
+    public void insert(Long userId, List<Row> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Long> ids = reserveIds(rows.size());
+        if (isPostgres()) {
+            copy(userId, rows, ids);
+        } else {
+            batchInsert(userId, rows, ids);
+        }
+    }
+
+    private List<Long> reserveIds(int count) {
+        String sql = isPostgres()
+                ? "SELECT nextval('intake_event_seq') FROM generate_series(1, ?)"
+                : "SELECT NEXT VALUE FOR intake_event_seq FROM SYSTEM_RANGE(1, ?)";
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            int blocks = (count - ids.size() + ALLOCATION_SIZE - 1) / ALLOCATION_SIZE;
+            // Jeder Sequenzwert gehört zum Block (wert - allocationSize, wert]
+            for (Long hi : jdbcTemplate.queryForList(sql, Long.class, blocks)) {
+                for (long id = Math.max(1, hi - ALLOCATION_SIZE + 1); id <= hi && ids.size() < count; id++) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private void copy(Long userId, List<Row> rows, List<Long> ids) {
+        StringBuilder data = new StringBuilder(rows.size() * 48);
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            data.append(ids.get(i)).append(',')
+                    .append(userId).append(',')
+                    .append(row.volumeMl()).append(',')
+                    .append(row.source().name()).append(',')
+                    .append(row.timestamp()).append('\n');
+        }
+        jdbcTemplate.execute((Connection connection) -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn(COPY_SQL, new StringReader(data.toString()));
+            } catch (IOException e) {
+                throw new DataAccessResourceFailureException("COPY into intake_event failed", e);
+            }
+        });
+    }
+
+    private void batchInsert(Long userId, List<Row> rows, List<Long> ids) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                Row row = rows.get(i);
+                statement.setLong(1, ids.get(i));
+                statement.setLong(2, userId);
+                statement.setInt(3, row.volumeMl());
+                statement.setString(4, row.source().name());
+                statement.setObject(5, OffsetDateTime.ofInstant(row.timestamp(), ZoneOffset.UTC));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            String product = jdbcTemplate.execute((Connection connection) ->
+                    JdbcUtils.commonDatabaseName(connection.getMetaData().getDatabaseProductName()));
+            result = "PostgreSQL".equals(product);
+            postgres = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.backend.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * DDL für die monatliche Range-Partitionierung von intake_event nach timestamp_utc (nur PostgreSQL).
+ * Partitionen heißen intake_event_pJJJJ_MM und decken einen UTC-Kalendermonat ab; es gibt keine
+ * Default-Partition, Inserts in einen Monat ohne Partition schlagen fehl.
+ * Alle Methoden außer {@link #isSupported()} müssen innerhalb einer Transaktion laufen.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class IntakeEventPartitions {
+
+    private static final String PREFIX = "intake_event_p";
+    private static final Pattern PARTITION_NAME = Pattern.compile(PREFIX + "(\\d{4})_(\\d{2})");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    /**
+     * Schlüssel für pg_advisory_xact_lock: serialisiert Partitions-DDL mehrerer Instanzen.
+     */
+    private static final long LOCK_KEY = 0x696e74616b65L;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean supported;
+
+    /**
+     * Partitionierung wird nur auf PostgreSQL unterstützt (H2 in Tests: ungeteilte Tabelle).
+     */
+    public boolean isSupported() {
+        Boolean result = supported;
+        if (result == null) {
+            String product = jdbcTemplate.execute((Connection connection) ->
+                    JdbcUtils.commonDatabaseName(connection.getMetaData().getDatabaseProductName()));
+            result = "PostgreSQL".equals(product);
+            supported = result;
+        }
+        return result;
+    }
+
+    /**
+     * Sperrt die Partitions-DDL bis zum Ende der laufenden Transaktion.
+     */
+    public void lock() {
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)::text", String.class, LOCK_KEY);
+    }
+
+    /**
+     * Prüft, ob intake_event bereits eine partitionierte Tabelle ist.
+     */
+    public boolean isPartitioned() {
+        List<String> kinds = jdbcTemplate.queryForList(
+                "SELECT relkind::text FROM pg_class WHERE oid = to_regclass('intake_event')", String.class);
+        return kinds.size() == 1 && "p".equals(kinds.get(0));
+    }
+
+    /**
+     * Wandelt die von Hibernate angelegte Heap-Tabelle in eine partitionierte Tabelle um.
+     * Bestehende Zeilen werden in Monatspartitionen umkopiert (von ihrem ältesten Monat bis
+     * {@code through}), Fremdschlüssel und Check-Constraints bleiben unter ihrem Namen erhalten.
+     * Der Primärschlüssel wird zu (id, timestamp_utc), da PostgreSQL den Partitionsschlüssel
+     * in jedem eindeutigen Index verlangt; die IDs bleiben durch die Sequenz eindeutig.
+     *
+     * @param through Letzter Monat, für den vorab eine Partition angelegt wird
+     * @return Anzahl der umkopierten Zeilen
+     */
+    public long convert(YearMonth through) {
+        List<Map<String, Object>> foreignKeys = jdbcTemplate.queryForList("""
+                SELECT conname, pg_get_constraintdef(oid) AS definition
+                FROM pg_constraint
+                WHERE conrelid = 'intake_event'::regclass AND contype = 'f'
+                """);
+        List<String> primaryKey = jdbcTemplate.queryForList(
+                "SELECT conname FROM pg_constraint WHERE conrelid = 'intake_event'::regclass AND contype = 'p'",
+                String.class);
+
+        // Index- und Constraint-Namen sind schemaweit eindeutig: Altbestand vorher umbenennen
+        jdbcTemplate.execute("ALTER TABLE intake_event RENAME TO intake_event_legacy");
+        jdbcTemplate.execute("ALTER INDEX IF EXISTS idx_user_timestamp RENAME TO idx_user_timestamp_legacy");
+        for (String name : primaryKey) {
+            jdbcTemplate.execute("ALTER TABLE intake_event_legacy RENAME CONSTRAINT "
+                    + quote(name) + " TO " + quote(name + "_legacy"));
+        }
+
+        jdbcTemplate.execute("""
+                CREATE TABLE intake_event (
+                    LIKE intake_event_legacy INCLUDING DEFAULTS INCLUDING CONSTRAINTS,
+                    PRIMARY KEY (id, timestamp_utc)
+                ) PARTITION BY RANGE (timestamp_utc)
+                """);
+
+        Map<String, Object> range = jdbcTemplate.queryForMap(
+                "SELECT MIN(timestamp_utc) AS first, MAX(timestamp_utc) AS last FROM intake_event_legacy");
+        YearMonth from = range.get("first") != null ? month(range.get("first")) : through;
+        YearMonth last = range.get("last") != null ? month(range.get("last")) : through;
+        YearMonth to = last.isAfter(through) ? last : through;
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            create(month);
+        }
+
+        long rows = jdbcTemplate.update("INSERT INTO intake_event SELECT * FROM intake_event_legacy");
+        for (Map<String, Object> foreignKey : foreignKeys) {
+            jdbcTemplate.execute("ALTER TABLE intake_event ADD CONSTRAINT "
+                    + quote((String) foreignKey.get("conname")) + " " + foreignKey.get("definition"));
+        }
+        jdbcTemplate.execute("CREATE INDEX idx_user_timestamp ON intake_event (user_id, timestamp_utc)");
+        jdbcTemplate.execute("DROP TABLE intake_event_legacy");
+
+        log.info("Converted intake_event to monthly partitions {} .. {} ({} rows copied)", from, to, rows);
+        return rows;
+    }
+
+    /**
+     * Liefert die Monate aller angehängten Partitionen, aufsteigend.
+     */
+    public List<YearMonth> listMonths() {
+        List<String> names = jdbcTemplate.queryForList("""
+                SELECT c.relname
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'intake_event'::regclass
+                """, String.class);
+        TreeSet<YearMonth> months = new TreeSet<>();
+        for (String name : names) {
+            parseMonth(name).ifPresent(months::add);
+        }
+        return List.copyOf(months);
+    }
+
+    /**
+     * Legt die Partition eines Monats an, falls sie fehlt.
+     *
+     * @param month UTC-Kalendermonat
+     */
+    public void create(YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                + " PARTITION OF intake_event FOR VALUES FROM ('" + bound(month) + "') TO ('"
+                + bound(month.plusMonths(1)) + "')");
+    }
+
+    /**
+     * Hängt die Partition eines Monats aus; die Tabelle bleibt zur Archivierung bestehen.
+     *
+     * @param month UTC-Kalendermonat
+     */
+    public void detach(YearMonth month) {
+        jdbcTemplate.execute("ALTER TABLE intake_event DETACH PARTITION " + partitionName(month));
+    }
+
+    /**
+     * Löscht die Partition eines Monats samt Daten.
+     *
+     * @param month UTC-Kalendermonat
+     */
+    public void drop(YearMonth month) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partitionName(month));
+    }
+
+    /**
+     * Zählt die Partitionen, die der Plan einer Tagessummen-Abfrage (wie
+     * {@link IntakeEventRepository#sumForUserBetween}) liest.
+     *
+     * @param start Startzeit (inklusiv)
+     * @param end   Endzeit (exklusiv)
+     * @return Anzahl unterschiedlicher Partitionen im Plan
+     */
+    public int scannedPartitions(Instant start, Instant end) {
+        String plan = jdbcTemplate.queryForObject("""
+                EXPLAIN (FORMAT JSON)
+                SELECT COALESCE(SUM(volume_ml), 0)
+                FROM intake_event
+                WHERE user_id = ? AND timestamp_utc >= ? AND timestamp_utc < ?
+                """, String.class,
+                0L, start.atOffset(ZoneOffset.UTC), end.atOffset(ZoneOffset.UTC));
+        Matcher matcher = PARTITION_NAME.matcher(plan != null ? plan : "");
+        TreeSet<String> relations = new TreeSet<>();
+        while (matcher.find()) {
+            relations.add(matcher.group());
+        }
+        return relations.size();
+    }
+
+    static String partitionName(YearMonth month) {
+        return PREFIX + month.format(SUFFIX);
+    }
+
+    static Optional<YearMonth> parseMonth(String name) {
+        Matcher matcher = PARTITION_NAME.matcher(name);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        return Optional.of(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+    }
+
+    /**
+     * Untere Grenze eines Monats als UTC-Zeitpunkt.
+     */
+    public static Instant monthStart(YearMonth month) {
+        return month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    private static String bound(YearMonth month) {
+        return month.atDay(1) + " 00:00:00+00";
+    }
+
+    private static YearMonth month(Object timestamp) {
+        Instant instant = timestamp instanceof Timestamp ts ? ts.toInstant()
+                : timestamp instanceof OffsetDateTime odt ? odt.toInstant()
+                : Instant.parse(timestamp.toString());
+        return YearMonth.from(instant.atOffset(ZoneOffset.UTC));
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -1,17 +1,28 @@
 package com.example.backend.repository;
 
+import com.example.backend.dto.response.IntakeResponse;
+import com.example.backend.events.IntakeRecorded;
 import com.example.backend.model.entity.IntakeEvent;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository für IntakeEvent-Entity.
  * Bietet CRUD-Operationen und benutzerdefinierte Abfragen für Aufnahme-Events.
+ *
+ * <p>Auf PostgreSQL ist intake_event monatlich nach timestamp_utc partitioniert (siehe IntakeEventPartitions).
+ * Abfragen mit Zeitbereich lesen nur die betroffenen Partitionen; Abfragen ohne Zeitbereich
+ * (Seiten ohne Cursor, Suche per ID) prüfen den Index jeder Partition.
  */
 @Repository
 public interface IntakeEventRepository extends JpaRepository<IntakeEvent, Long> {
@@ -56,19 +67,151 @@ public interface IntakeEventRepository extends JpaRepository<IntakeEvent, Long>
                                                      @Param("end") Instant end);
 
     /**
-     * Findet die letzten Aufnahme-Events für einen Benutzer.
+     * Liefert die neuesten Aufnahmen eines Benutzers direkt als DTO (erste Seite der Historie).
      *
      * @param userId Benutzer-ID
      * @param limit  Maximale Anzahl der Ergebnisse
-     * @return Liste der letzten Aufnahme-Events
+     * @return Aufnahmen, neueste zuerst
      */
     @Query("""
-        SELECT e
+        SELECT new com.example.backend.dto.response.IntakeResponse(
+            e.id, e.user.id, e.volumeMl, e.source, e.timestampUtc)
         FROM IntakeEvent e
         WHERE e.user.id = :userId
-        ORDER BY e.timestampUtc DESC
+        ORDER BY e.timestampUtc DESC, e.id DESC
         LIMIT :limit
         """)
-    List<IntakeEvent> findRecentByUser(@Param("userId") Long userId,
+    List<IntakeResponse> findPageByUser(@Param("userId") Long userId,
                                         @Param("limit") int limit);
+
+    /**
+     * Liefert die Aufnahmen eines Benutzers vor einer Cursor-Position (Keyset-Pagination).
+     * Die Bedingung {@code timestampUtc <= :beforeTimestamp} ergibt einen Bereichsscan auf
+     * idx_user_timestamp; Kosten pro Seite sind unabhängig davon, wie weit zurück geblättert wird.
+     *
+     * @param userId          Benutzer-ID
+     * @param beforeTimestamp Zeitstempel des letzten Eintrags der vorherigen Seite
+     * @param beforeId        ID des letzten Eintrags der vorherigen Seite
+     * @param limit           Maximale Anzahl der Ergebnisse
+     * @return Aufnahmen, neueste zuerst
+     */
+    @Query("""
+        SELECT new com.example.backend.dto.response.IntakeResponse(
+            e.id, e.user.id, e.volumeMl, e.source, e.timestampUtc)
+        FROM IntakeEvent e
+        WHERE e.user.id = :userId
+          AND e.timestampUtc <= :beforeTimestamp
+          AND (e.timestampUtc < :beforeTimestamp OR e.id < :beforeId)
+        ORDER BY e.timestampUtc DESC, e.id DESC
+        LIMIT :limit
+        """)
+    List<IntakeResponse> findPageByUserBefore(@Param("userId") Long userId,
+                                              @Param("beforeTimestamp") Instant beforeTimestamp,
+                                              @Param("beforeId") Long beforeId,
+                                              @Param("limit") int limit);
+
+    /**
+     * Findet ein Aufnahme-Event inklusive Benutzer in einer Abfrage.
+     *
+     * @param id Aufnahme-Event-ID
+     * @return Optional mit IntakeEvent falls gefunden
+     */
+    @Query("""
+        SELECT e
+        FROM IntakeEvent e
+        JOIN FETCH e.user
+        WHERE e.id = :id
+        """)
+    Optional<IntakeEvent> findWithUserById(@Param("id") Long id);
+
+    /**
+     * Liefert Zeitstempel und Menge aller Aufnahme-Events eines Benutzers als Stream.
+     * Muss innerhalb einer Transaktion konsumiert und geschlossen werden.
+     *
+     * @param userId Benutzer-ID
+     * @return Stream aus [timestampUtc, volumeMl]
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT e.timestampUtc, e.volumeMl
+        FROM IntakeEvent e
+        WHERE e.user.id = :userId
+        """)
+    Stream<Object[]> streamVolumesByUser(@Param("userId") Long userId);
+
+    /**
+     * Liefert Zeitstempel und Menge der Aufnahme-Events eines Benutzers ab einem Zeitpunkt als Stream.
+     * Liest nur die Partitionen ab {@code start}. Muss innerhalb einer Transaktion konsumiert und geschlossen werden.
+     *
+     * @param userId Benutzer-ID
+     * @param start  Startzeit (inklusiv)
+     * @return Stream aus [timestampUtc, volumeMl]
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT e.timestampUtc, e.volumeMl
+        FROM IntakeEvent e
+        WHERE e.user.id = :userId
+          AND e.timestampUtc >= :start
+        """)
+    Stream<Object[]> streamVolumesByUserSince(@Param("userId") Long userId,
+                                              @Param("start") Instant start);
+
+    /**
+     * Summiert die Aufnahmen eines Benutzers in 5-Minuten-Intervallen (UTC-ausgerichtet).
+     * Die Aggregation erfolgt vollständig in der Datenbank.
+     *
+     * @param userId Benutzer-ID
+     * @param start  Startzeit (inklusiv)
+     * @param end    Endzeit (exklusiv)
+     * @return Liste aus [Intervallnummer (Epoch-Sekunden / 300), Summe]
+     */
+    @Query("""
+        SELECT floor(extract(epoch from e.timestampUtc) / 300), SUM(e.volumeMl)
+        FROM IntakeEvent e
+        WHERE e.user.id = :userId
+          AND e.timestampUtc >= :start
+          AND e.timestampUtc < :end
+        GROUP BY floor(extract(epoch from e.timestampUtc) / 300)
+        """)
+    List<Object[]> sumPerFiveMinutes(@Param("userId") Long userId,
+                                     @Param("start") Instant start,
+                                     @Param("end") Instant end);
+
+    /**
+     * Summiert die Aufnahmen eines Benutzers in 15-Minuten-Intervallen (UTC-ausgerichtet).
+     * Alle Zeitzonen-Offsets sind Vielfache von 15 Minuten, daher lassen sich diese Intervalle
+     * exakt zu lokalen Stunden- und Tages-Buckets zusammenfassen.
+     *
+     * @param userId Benutzer-ID
+     * @param start  Startzeit (inklusiv)
+     * @param end    Endzeit (exklusiv)
+     * @return Liste aus [Intervallnummer (Epoch-Sekunden / 900), Summe]
+     */
+    @Query("""
+        SELECT floor(extract(epoch from e.timestampUtc) / 900), SUM(e.volumeMl)
+        FROM IntakeEvent e
+        WHERE e.user.id = :userId
+          AND e.timestampUtc >= :start
+          AND e.timestampUtc < :end
+        GROUP BY floor(extract(epoch from e.timestampUtc) / 900)
+        """)
+    List<Object[]> sumPerQuarterHour(@Param("userId") Long userId,
+                                     @Param("start") Instant start,
+                                     @Param("end") Instant end);
+
+    /**
+     * Liefert alle Aufnahmen als Ereignisse, sortiert nach Benutzer und Zeit (Replay von Projektionen).
+     * Muss innerhalb einer Transaktion konsumiert und geschlossen werden.
+     *
+     * @return Stream aller Aufnahmen
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT new com.example.backend.events.IntakeRecorded(
+            e.user.id, e.id, e.volumeMl, e.source, e.timestampUtc)
+        FROM IntakeEvent e
+        ORDER BY e.user.id, e.timestampUtc, e.id
+        """)
+    Stream<IntakeRecorded> streamAllForReplay();
 }
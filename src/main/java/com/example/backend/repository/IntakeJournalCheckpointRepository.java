@@ -0,0 +1,30 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.entity.IntakeJournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository für IntakeJournalCheckpoint-Entity.
+ */
+@Repository
+public interface IntakeJournalCheckpointRepository extends JpaRepository<IntakeJournalCheckpoint, String> {
+
+    /**
+     * Setzt den Verarbeitungsstand eines Journals.
+     *
+     * @param journalId    Kennung des Journals
+     * @param lastSequence Höchste übertragene Sequenz
+     * @return Anzahl der aktualisierten Zeilen (0 wenn noch kein Stand existiert)
+     */
+    @Modifying
+    @Query("""
+        UPDATE IntakeJournalCheckpoint c
+        SET c.lastSequence = :lastSequence
+        WHERE c.journalId = :journalId
+        """)
+    int advance(@Param("journalId") String journalId, @Param("lastSequence") long lastSequence);
+}
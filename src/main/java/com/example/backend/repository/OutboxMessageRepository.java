@@ -0,0 +1,33 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.entity.OutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository für OutboxMessage-Entity.
+ */
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    /**
+     * Sperrt die ältesten noch nicht gesperrten Nachrichten bis zum Ende der Transaktion.
+     * Von anderen Instanzen gesperrte Zeilen werden übersprungen (SKIP LOCKED), sodass mehrere
+     * Relays parallel arbeiten, ohne dieselbe Nachricht zweimal zuzustellen.
+     *
+     * @param limit Maximale Anzahl der Nachrichten
+     * @return Gesperrte Nachrichten, älteste zuerst
+     */
+    @Query(value = """
+        SELECT *
+        FROM outbox_message
+        ORDER BY id
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<OutboxMessage> claimBatch(@Param("limit") int limit);
+}
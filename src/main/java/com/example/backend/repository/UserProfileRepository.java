@@ -2,8 +2,14 @@ package com.example.backend.repository;
 
 import com.example.backend.model.entity.UserProfile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Repository für UserProfile-Entity.
  * Bietet CRUD-Operationen und benutzerdefinierte Abfragen für Benutzerprofile.
@@ -26,4 +32,45 @@ public interface UserProfileRepository extends JpaRepository<UserProfile, Long>
      * @return true wenn E-Mail existiert
      */
     boolean existsByEmail(String email);
+
+    /**
+     * Liefert die IDs aller Benutzer.
+     *
+     * @return Benutzer-IDs aufsteigend sortiert
+     */
+    @Query("SELECT u.id FROM UserProfile u ORDER BY u.id")
+    List<Long> findAllIds();
+
+    /**
+     * Sperrt die Zeile eines Benutzers bis zum Ende der Transaktion (SELECT ... FOR UPDATE).
+     * Wartet auf laufende Aufnahmen des Benutzers (ihr INSERT hält per Fremdschlüssel FOR KEY SHARE
+     * auf dem Benutzer) und hält neue bis zum Commit auf.
+     *
+     * @param id Benutzer-ID
+     * @return Optional mit der ID falls der Benutzer existiert
+     */
+    @Query(value = "SELECT id FROM user_profile WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
+
+    /**
+     * Liefert den Datenstand eines Benutzers (Grundlage der ETags).
+     *
+     * @param id Benutzer-ID
+     * @return Optional mit dem Datenstand falls der Benutzer existiert
+     */
+    @Query("SELECT u.dataVersion FROM UserProfile u WHERE u.id = :id")
+    Optional<Long> findDataVersionById(@Param("id") Long id);
+
+    /**
+     * Erhöht den Datenstand eines Benutzers in der laufenden Transaktion.
+     * Sperrt dabei die Zeile des Benutzers bis zum Commit; Aufrufer erhöhen daher vor den
+     * übrigen Schreibvorgängen, damit die Sperrreihenfolge (Benutzer vor Tageszusammenfassung)
+     * der von {@link #lockById} entspricht.
+     *
+     * @param id Benutzer-ID
+     * @return Anzahl geänderter Zeilen (0 wenn der Benutzer nicht existiert)
+     */
+    @Modifying
+    @Query(value = "UPDATE user_profile SET data_version = data_version + 1 WHERE id = :id", nativeQuery = true)
+    int incrementDataVersion(@Param("id") Long id);
 }
@@ -0,0 +1,31 @@
+package com.example.backend.security;
+
+import com.example.backend.exception.ForbiddenException;
+
+/**
+ * Zugriff auf den durch das Token authentifizierten Benutzer.
+ * Die Benutzer-ID wird vom TokenAuthenticationFilter als Request-Attribut gesetzt und kann
+ * in Controllern per {@code @RequestAttribute(name = AuthenticatedUser.ATTRIBUTE, required = false)}
+ * gelesen werden.
+ */
+public final class AuthenticatedUser {
+
+    public static final String ATTRIBUTE = "com.example.backend.authenticatedUserId";
+
+    private AuthenticatedUser() {
+    }
+
+    /**
+     * Stellt sicher, dass der authentifizierte Benutzer der Eigentümer der Daten ist.
+     * Ohne authentifizierten Benutzer (Durchsetzung deaktiviert) wird nichts geprüft.
+     *
+     * @param authenticatedUserId ID aus dem Token, darf null sein
+     * @param userId              Angesprochene Benutzer-ID aus Pfad oder Body
+     * @throws ForbiddenException wenn die IDs nicht übereinstimmen
+     */
+    public static void requireOwner(Long authenticatedUserId, Long userId) {
+        if (authenticatedUserId != null && !authenticatedUserId.equals(userId)) {
+            throw new ForbiddenException("Access to data of user " + userId + " is not allowed");
+        }
+    }
+}
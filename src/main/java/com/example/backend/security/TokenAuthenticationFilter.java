@@ -0,0 +1,90 @@
+package com.example.backend.security;
+
+import com.example.backend.dto.response.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Prüft das Bearer-Token für benutzerbezogene Endpoints (/api/hydration, /api/dashboard, /api/intakes, /api/profile/{id},
+ * /api/auth/profile/{userId})
+ * und setzt die authentifizierte Benutzer-ID als Request-Attribut.
+ * Ist {@code app.auth.enforce} deaktiviert, werden Anfragen ohne gültiges Token weiterhin durchgelassen.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String STREAM_TOKEN_PARAMETER = "access_token";
+
+    private final TokenService tokenService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.auth.enforce:true}")
+    private boolean enforce;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (HttpMethod.OPTIONS.matches(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !(path.startsWith("/api/hydration/")
+                || path.startsWith("/api/dashboard/")
+                || path.startsWith("/api/intakes")
+                || path.startsWith("/api/profile/")
+                || path.startsWith("/api/auth/profile/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Optional<Long> userId = resolveToken(request).flatMap(tokenService::verify);
+
+        if (userId.isPresent()) {
+            request.setAttribute(AuthenticatedUser.ATTRIBUTE, userId.get());
+        } else if (enforce) {
+            log.debug("Rejecting {} {} - missing or invalid token", request.getMethod(), request.getRequestURI());
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(
+                    HttpStatus.UNAUTHORIZED.value(),
+                    "Unauthorized",
+                    "Missing or invalid token",
+                    request.getRequestURI()));
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private Optional<String> resolveToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            return Optional.of(header.substring(BEARER_PREFIX.length()).trim());
+        }
+        // EventSource im Browser kann keine Header setzen: Token für Streams als Query-Parameter
+        if (request.getRequestURI().endsWith("/stream")) {
+            return Optional.ofNullable(request.getParameter(STREAM_TOKEN_PARAMETER));
+        }
+        return Optional.empty();
+    }
+}
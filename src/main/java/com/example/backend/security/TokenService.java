@@ -0,0 +1,172 @@
+package com.example.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Ausstellung und Prüfung zustandsloser, HMAC-SHA256-signierter Tokens.
+ * Format: {@code <kid>.<userId>.<issuedAt>.<expiresAt>.<signatur>} (Zeiten in Epoch-Sekunden,
+ * Signatur Base64URL). Die Prüfung kommt ohne Datenbank aus; bereits geprüfte Tokens
+ * landen in einem kleinen Cache.
+ *
+ * <p>Schlüsselrotation: {@code app.auth.tokens.keys} ist eine Liste {@code kid:base64-secret}.
+ * Der erste Schlüssel signiert neue Tokens, alle weiteren werden nur noch zur Prüfung verwendet,
+ * bis die damit ausgestellten Tokens abgelaufen sind. Ohne Schlüssel startet die Anwendung nur mit
+ * {@code app.auth.tokens.random-key=true}.</p>
+ */
+@Component
+@Slf4j
+public class TokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_KEY_BYTES = 32;
+
+    private final Map<String, Mac> macs = new LinkedHashMap<>();
+    private final String activeKeyId;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Cache<String, VerifiedToken> verified;
+
+    @Autowired
+    public TokenService(@Value("${app.auth.tokens.keys:}") List<String> keys,
+                        @Value("${app.auth.tokens.random-key:false}") boolean randomKey,
+                        @Value("${app.auth.tokens.ttl:7d}") Duration ttl) {
+        this(keys, randomKey, ttl, Clock.systemUTC());
+    }
+
+    TokenService(List<String> keys, Duration ttl, Clock clock) {
+        this(keys, false, ttl, clock);
+    }
+
+    /**
+     * @param randomKey Ohne konfigurierte Schlüssel einen zufälligen Schlüssel pro Start erzeugen
+     *                  (nur Entwicklung und Tests: Tokens gelten weder auf anderen Instanzen noch nach einem Neustart)
+     */
+    TokenService(List<String> keys, boolean randomKey, Duration ttl, Clock clock) {
+        this.ttl = ttl;
+        this.clock = clock;
+        for (String entry : keys) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalStateException("Token key must have the form kid:base64-secret");
+            }
+            String keyId = entry.substring(0, separator).trim();
+            byte[] secret = Base64.getDecoder().decode(entry.substring(separator + 1).trim());
+            if (secret.length < MIN_KEY_BYTES) {
+                throw new IllegalStateException("Token key '" + keyId + "' must be at least " + MIN_KEY_BYTES + " bytes");
+            }
+            macs.put(keyId, newMac(secret));
+        }
+        if (macs.isEmpty()) {
+            if (!randomKey) {
+                throw new IllegalStateException(
+                        "app.auth.tokens.keys must be configured (app.auth.tokens.random-key=true is for development only)");
+            }
+            log.warn("No app.auth.tokens.keys configured - using a random signing key, tokens will not survive a restart");
+            byte[] secret = new byte[MIN_KEY_BYTES];
+            new SecureRandom().nextBytes(secret);
+            macs.put("local", newMac(secret));
+        }
+        this.activeKeyId = macs.keySet().iterator().next();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMinutes(5))
+                .build();
+    }
+
+    /**
+     * Stellt ein Token für einen Benutzer mit dem aktiven Schlüssel aus.
+     *
+     * @param userId Benutzer-ID
+     * @return Signiertes Token
+     */
+    public String issue(Long userId) {
+        long issuedAt = clock.instant().getEpochSecond();
+        long expiresAt = issuedAt + ttl.toSeconds();
+        String payload = activeKeyId + "." + userId + "." + issuedAt + "." + expiresAt;
+        return payload + "." + sign(activeKeyId, payload);
+    }
+
+    /**
+     * Prüft Signatur und Ablauf eines Tokens.
+     *
+     * @param token Token aus dem Authorization-Header
+     * @return Benutzer-ID, falls das Token gültig ist
+     */
+    public Optional<Long> verify(String token) {
+        long now = clock.instant().getEpochSecond();
+
+        VerifiedToken cached = verified.getIfPresent(token);
+        if (cached != null) {
+            return cached.expiresAt() > now ? Optional.of(cached.userId()) : Optional.empty();
+        }
+
+        String[] parts = token.split("\\.");
+        if (parts.length != 5 || !macs.containsKey(parts[0])) {
+            return Optional.empty();
+        }
+        try {
+            String payload = parts[0] + "." + parts[1] + "." + parts[2] + "." + parts[3];
+            byte[] expected = Base64.getUrlDecoder().decode(sign(parts[0], payload));
+            byte[] actual = Base64.getUrlDecoder().decode(parts[4]);
+            if (!MessageDigest.isEqual(expected, actual)) {
+                return Optional.empty();
+            }
+            long userId = Long.parseLong(parts[1]);
+            long expiresAt = Long.parseLong(parts[3]);
+            if (expiresAt <= now) {
+                return Optional.empty();
+            }
+            verified.put(token, new VerifiedToken(userId, expiresAt));
+            return Optional.of(userId);
+        } catch (IllegalArgumentException e) {
+            // Ungültiges Base64 oder keine Zahl
+            return Optional.empty();
+        }
+    }
+
+    private String sign(String keyId, String payload) {
+        Mac mac;
+        try {
+            mac = (Mac) macs.get(keyId).clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HMAC provider does not support cloning", e);
+        }
+        byte[] signature = mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+
+    private static Mac newMac(byte[] secret) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret, ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    private record VerifiedToken(long userId, long expiresAt) {
+    }
+}
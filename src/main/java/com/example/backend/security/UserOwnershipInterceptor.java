@@ -0,0 +1,56 @@
+package com.example.backend.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Vergleicht die Benutzer-ID im Pfad ({userId} bzw. {id} bei /api/profile) mit dem
+ * authentifizierten Benutzer. Fremde IDs werden mit 403 abgelehnt.
+ */
+public class UserOwnershipInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Long authenticatedUserId = (Long) request.getAttribute(AuthenticatedUser.ATTRIBUTE);
+        if (authenticatedUserId == null) {
+            return true;
+        }
+
+        Long owner = pathUserId(request);
+        if (owner != null) {
+            AuthenticatedUser.requireOwner(authenticatedUserId, owner);
+        }
+        return true;
+    }
+
+    /**
+     * Benutzer-ID aus dem Pfad ({userId} bzw. {id} bei /api/profile).
+     *
+     * @param request Request nach dem Handler-Mapping
+     * @return Benutzer-ID, oder null wenn der Pfad keine (gültige) enthält; ungültige IDs beantwortet der Controller mit 400
+     */
+    public static Long pathUserId(HttpServletRequest request) {
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables == null) {
+            return null;
+        }
+
+        String owner = variables.get("userId");
+        if (owner == null && request.getRequestURI().contains("/api/profile/")) {
+            owner = variables.get("id");
+        }
+        if (owner == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(owner);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.backend.service;
+
+import com.example.backend.exception.RateLimitExceededException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Token-Bucket-Ratenbegrenzung für die Auth-Endpoints, getrennt nach Client-IP und E-Mail.
+ * Die IP-Grenze bremst einzelne Clients, die E-Mail-Grenze verhindert gezieltes Durchprobieren
+ * von Passwörtern für ein Konto über viele IPs. Geprüft wird vor dem teuren BCrypt-Aufruf.
+ */
+@Component
+@Slf4j
+public class AuthRateLimiter {
+
+    private final Cache<String, TokenBucket> buckets;
+    private final int ipCapacity;
+    private final Duration ipRefillPeriod;
+    private final int emailCapacity;
+    private final Duration emailRefillPeriod;
+    private final Counter ipLimitedCounter;
+    private final Counter emailLimitedCounter;
+
+    public AuthRateLimiter(MeterRegistry meterRegistry,
+                           @Value("${app.auth.rate-limit.ip.capacity:20}") int ipCapacity,
+                           @Value("${app.auth.rate-limit.ip.refill-period:1m}") Duration ipRefillPeriod,
+                           @Value("${app.auth.rate-limit.email.capacity:5}") int emailCapacity,
+                           @Value("${app.auth.rate-limit.email.refill-period:1m}") Duration emailRefillPeriod) {
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPeriod = ipRefillPeriod;
+        this.emailCapacity = emailCapacity;
+        this.emailRefillPeriod = emailRefillPeriod;
+        // Volle Buckets nach Ablauf des Refill-Zeitraums entsprechen einem frischen Bucket
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(ipRefillPeriod.compareTo(emailRefillPeriod) > 0 ? ipRefillPeriod : emailRefillPeriod)
+                .build();
+        this.ipLimitedCounter = Counter.builder("auth.rate.limited").tag("key", "ip").register(meterRegistry);
+        this.emailLimitedCounter = Counter.builder("auth.rate.limited").tag("key", "email").register(meterRegistry);
+    }
+
+    /**
+     * Verbraucht je ein Token für IP und E-Mail.
+     *
+     * @param clientIp Client-IP (nach Auswertung von Forwarded-Headern)
+     * @param email E-Mail aus dem Request, darf null sein
+     * @throws RateLimitExceededException wenn eines der Kontingente erschöpft ist
+     */
+    public void checkAttempt(String clientIp, String email) {
+        TokenBucket ipBucket = buckets.get("ip:" + clientIp, key -> new TokenBucket(ipCapacity, ipRefillPeriod));
+        long ipWait = ipBucket.tryConsume();
+        if (ipWait > 0) {
+            ipLimitedCounter.increment();
+            log.warn("Auth rate limit exceeded for client {}", clientIp);
+            throw new RateLimitExceededException("Too many authentication attempts", Duration.ofNanos(ipWait));
+        }
+
+        if (email != null) {
+            String key = "email:" + email.trim().toLowerCase(Locale.ROOT);
+            TokenBucket emailBucket = buckets.get(key, k -> new TokenBucket(emailCapacity, emailRefillPeriod));
+            long emailWait = emailBucket.tryConsume();
+            if (emailWait > 0) {
+                emailLimitedCounter.increment();
+                log.warn("Auth rate limit exceeded for account {}", email);
+                throw new RateLimitExceededException("Too many authentication attempts", Duration.ofNanos(emailWait));
+            }
+        }
+    }
+
+    /**
+     * Token-Bucket mit kontinuierlichem Nachfüllen: capacity Tokens pro refillPeriod.
+     */
+    static final class TokenBucket {
+
+        private final int capacity;
+        private final double nanosPerToken;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(int capacity, Duration refillPeriod) {
+            this.capacity = capacity;
+            this.nanosPerToken = (double) refillPeriod.toNanos() / capacity;
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        /**
+         * @return 0 wenn ein Token verbraucht wurde, sonst die Wartezeit in Nanosekunden bis zum nächsten Token
+         */
+        synchronized long tryConsume() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) / nanosPerToken);
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) * nanosPerToken);
+        }
+    }
+}
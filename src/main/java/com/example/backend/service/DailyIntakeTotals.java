@@ -0,0 +1,213 @@
+package com.example.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+
+/**
+ * In-Memory-Speicher für die laufenden Tagessummen pro Benutzer.
+ * Hält je Benutzer die Summe des aktuellen lokalen Tages und wird von Schreiboperationen
+ * nach dem Commit inkrementell fortgeschrieben. Nur bei Cache-Miss (z.B. nach Neustart oder
+ * Tageswechsel) wird die Summe aus der Datenbank geladen.
+ *
+ * <p>Schreibvorgänge anderer Instanzen sieht dieser Speicher nicht; geladene Summen gelten daher nur
+ * für {@code app.hydration.daily-totals.ttl} (Standard 30s) und werden danach neu geladen.
+ */
+@Component
+@Slf4j
+public class DailyIntakeTotals {
+
+    private final ConcurrentHashMap<Long, Slot> slots = new ConcurrentHashMap<>();
+    private final Duration ttl;
+    private final Clock clock;
+
+    @Autowired
+    public DailyIntakeTotals(@Value("${app.hydration.daily-totals.ttl:30s}") Duration ttl) {
+        this(ttl, Clock.systemUTC());
+    }
+
+    DailyIntakeTotals(Duration ttl, Clock clock) {
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * Liefert die Tagessumme aus dem Speicher oder lädt sie über den Loader.
+     * Das geladene Ergebnis wird nur übernommen, wenn während des Ladens keine
+     * Schreiboperation für den Benutzer lief.
+     *
+     * @param userId Benutzer-ID
+     * @param day    Lokaler Tag des Benutzers
+     * @param loader Fallback-Abfrage (SUM über die Events des Tages)
+     * @return Tagessumme in Millilitern
+     */
+    public int getOrLoad(Long userId, LocalDate day, IntSupplier loader) {
+        Slot slot = slots.computeIfAbsent(userId, id -> new Slot());
+        long version;
+        synchronized (slot) {
+            if (isCurrent(slot, day)) {
+                return slot.totalMl;
+            }
+            version = slot.version;
+        }
+
+        // Abfrage außerhalb des Monitors: blockiert weder Schreiber noch (bei virtuellen Threads) den Carrier.
+        // Laufende Schreibvorgänge verhindern unten die Übernahme (pendingWrites bzw. geänderte Version).
+        int totalMl = loader.getAsInt();
+
+        synchronized (slot) {
+            if (slot.pendingWrites == 0 && slot.version == version) {
+                slot.day = day;
+                slot.totalMl = totalMl;
+                slot.loaded = true;
+                slot.expiresAt = clock.instant().plus(ttl);
+            }
+        }
+        return totalMl;
+    }
+
+    /**
+     * Liefert die Tagessumme nur, wenn sie im Speicher vorliegt.
+     *
+     * @param userId Benutzer-ID
+     * @param day    Lokaler Tag des Benutzers
+     * @return Tagessumme oder leer bei Cache-Miss
+     */
+    public OptionalInt get(Long userId, LocalDate day) {
+        Slot slot = slots.get(userId);
+        if (slot == null) {
+            return OptionalInt.empty();
+        }
+        synchronized (slot) {
+            return isCurrent(slot, day) ? OptionalInt.of(slot.totalMl) : OptionalInt.empty();
+        }
+    }
+
+    /**
+     * Schreibt eine Änderung der Tagessumme fort.
+     * Innerhalb einer Transaktion wird das Delta erst nach erfolgreichem Commit angewendet;
+     * bis dahin werden parallele Ladevorgänge für den Benutzer nicht übernommen. Das Delta wird
+     * vor allen anderen afterCommit-Callbacks angewendet, insbesondere vor der Übergabe der
+     * Ereignisse an den Event-Bus: Projektionen lesen die Summe dann bereits mit der Änderung.
+     *
+     * @param userId  Benutzer-ID
+     * @param day     Lokaler Tag, auf den sich die Änderung bezieht
+     * @param deltaMl Positive (Aufnahme) oder negative (Löschung) Menge in Millilitern
+     */
+    public void add(Long userId, LocalDate day, int deltaMl) {
+        Slot slot = slots.compute(userId, (id, existing) -> {
+            Slot s = existing != null ? existing : new Slot();
+            synchronized (s) {
+                s.pendingWrites++;
+                s.version++;
+            }
+            return s;
+        });
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            complete(slot, day, deltaMl, true);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCommit() {
+                complete(slot, day, deltaMl, true);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    complete(slot, day, deltaMl, false);
+                }
+            }
+        });
+    }
+
+    /**
+     * Verwirft die Tagessumme eines Benutzers (z.B. nach Massenimporten).
+     *
+     * @param userId Benutzer-ID
+     */
+    public void invalidate(Long userId) {
+        slots.computeIfPresent(userId, (id, slot) -> {
+            synchronized (slot) {
+                slot.loaded = false;
+                slot.version++;
+            }
+            return slot;
+        });
+    }
+
+    /**
+     * Entfernt Einträge vergangener Tage, damit der Speicher nur aktive Benutzer hält.
+     * Ein Tag gilt als abgelaufen, wenn er in keiner Zeitzone mehr der aktuelle Tag sein kann.
+     */
+    @Scheduled(fixedDelayString = "${app.hydration.daily-totals.cleanup-interval-ms:3600000}")
+    public void evictStale() {
+        LocalDate cutoff = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+        int before = slots.size();
+        // computeIfPresent ist pro Schlüssel atomar zu add(), daher geht kein laufender Schreibvorgang verloren
+        for (Long userId : slots.keySet()) {
+            slots.computeIfPresent(userId, (id, slot) -> {
+                synchronized (slot) {
+                    boolean stale = !slot.loaded || slot.day.isBefore(cutoff) || isExpired(slot);
+                    return slot.pendingWrites == 0 && stale ? null : slot;
+                }
+            });
+        }
+        log.debug("Evicted {} stale daily totals", before - slots.size());
+    }
+
+    /**
+     * Geladen, für denselben Tag und noch innerhalb der TTL. Aufruf nur synchronisiert auf dem Slot.
+     */
+    private boolean isCurrent(Slot slot, LocalDate day) {
+        return slot.loaded && day.equals(slot.day) && !isExpired(slot);
+    }
+
+    private boolean isExpired(Slot slot) {
+        return slot.expiresAt == null || !clock.instant().isBefore(slot.expiresAt);
+    }
+
+    private void complete(Slot slot, LocalDate day, int deltaMl, boolean committed) {
+        synchronized (slot) {
+            slot.pendingWrites--;
+            slot.version++;
+            if (committed && slot.loaded && day.equals(slot.day)) {
+                slot.totalMl += deltaMl;
+            }
+        }
+    }
+
+    /**
+     * Zustand eines Benutzers; alle Zugriffe erfolgen synchronisiert auf dem Slot.
+     */
+    private static final class Slot {
+        private LocalDate day;
+        private int totalMl;
+        private boolean loaded;
+        private Instant expiresAt;
+        private int pendingWrites;
+        private long version;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.backend.service;
+
+/**
+ * Anwendungsereignis: Die Daten eines Benutzers haben sich geändert
+ * (Aufnahme erfasst oder gelöscht, Profil aktualisiert). Wird innerhalb der schreibenden
+ * Transaktion veröffentlicht und synchron verarbeitet (Read-your-writes).
+ * Projektionen hängen dagegen am {@link com.example.backend.events.HydrationEventBus}.
+ *
+ * @param userId Benutzer-ID
+ */
+public record HydrationDataChangedEvent(Long userId) {
+}
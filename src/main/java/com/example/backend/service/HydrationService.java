@@ -1,24 +1,56 @@
 package com.example.backend.service;
 
+import com.example.backend.dto.request.IntakeCursor;
 import com.example.backend.dto.request.IntakeRequest;
 import com.example.backend.dto.request.ProfileRequest;
+import com.example.backend.dto.response.BatchIntakeResponse;
+import com.example.backend.dto.response.DashboardResponse;
+import com.example.backend.dto.response.HydrationHistoryResponse;
+import com.example.backend.dto.response.IntakePageResponse;
 import com.example.backend.dto.response.IntakeResponse;
+import com.example.backend.dto.response.IntakeSeriesResponse;
 import com.example.backend.dto.response.ProfileResponse;
 import com.example.backend.dto.response.TodayStatusResponse;
+import com.example.backend.events.IntakeDeleted;
+import com.example.backend.events.IntakeRecorded;
+import com.example.backend.events.ProfileUpdated;
 import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.journal.JournalEntry;
+import com.example.backend.model.entity.DailyIntakeRollup;
 import com.example.backend.model.entity.IntakeEvent;
 import com.example.backend.model.entity.UserProfile;
+import com.example.backend.model.enums.ActivityLevel;
+import com.example.backend.model.enums.Climate;
+import com.example.backend.model.enums.DashboardPart;
+import com.example.backend.model.enums.SeriesBucket;
+import com.example.backend.repository.DailyIntakeRollupRepository;
+import com.example.backend.repository.DailyIntakeRollupUpserter;
 import com.example.backend.repository.IntakeEventRepository;
 import com.example.backend.repository.UserProfileRepository;
+import com.example.backend.sharding.ShardKey;
+import com.example.backend.sharding.ShardRouter;
+import com.example.backend.sharding.ShardScope;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -30,8 +62,32 @@ import java.util.stream.Collectors;
 @Slf4j
 public class HydrationService {
 
+    /**
+     * Maximale Länge eines Verlaufszeitraums in Tagen
+     */
+    static final int MAX_HISTORY_DAYS = 366;
+
+    /**
+     * Maximale Anzahl der Buckets einer Zeitreihe (z.B. 30 Tage in 5-Minuten-Buckets)
+     */
+    static final int MAX_SERIES_BUCKETS = 10_000;
+
+    /**
+     * Maximale Seitengröße für Aufnahme-Listen (Historie und letzte Aufnahmen)
+     */
+    static final int MAX_PAGE_SIZE = 100;
+
     private final UserProfileRepository profileRepository;
     private final IntakeEventRepository intakeRepository;
+    private final DailyIntakeRollupRepository rollupRepository;
+    private final DailyIntakeRollupUpserter rollupUpserter;
+    private final Validator validator;
+    private final DailyIntakeTotals dailyTotals;
+    private final ProfileCache profileCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IntakeMetrics intakeMetrics;
+    private final ShardRouter shardRouter;
+    private final UserVersionTracker versionTracker;
 
     /**
      * Berechnet das tägliche Hydrationsziel basierend auf dem Benutzerprofil.
@@ -40,18 +96,32 @@ public class HydrationService {
      * @return Tagesziel in Millilitern
      */
     public int calculateDailyGoalMl(UserProfile profile) {
+        return calculateDailyGoalMl(profile.getWeightKg(), profile.getActivityLevel(), profile.getClimate());
+    }
+
+    /**
+     * Berechnet das tägliche Hydrationsziel basierend auf einem zwischengespeicherten Profil.
+     *
+     * @param profile Benutzerprofil aus dem ProfileCache
+     * @return Tagesziel in Millilitern
+     */
+    public int calculateDailyGoalMl(ProfileSnapshot profile) {
+        return calculateDailyGoalMl(profile.weightKg(), profile.activityLevel(), profile.climate());
+    }
+
+    private static int calculateDailyGoalMl(int weightKg, ActivityLevel activityLevel, Climate climate) {
         // Basisberechnung: 35ml pro kg Körpergewicht
-        int baseGoal = profile.getWeightKg() * 35;
+        int baseGoal = weightKg * 35;
 
         // Aktivitätslevel-Bonus
-        int activityBonus = switch (profile.getActivityLevel()) {
+        int activityBonus = switch (activityLevel) {
             case HIGH -> 500;
             case MEDIUM -> 250;
             case LOW -> 0;
         };
 
         // Klima-Bonus
-        int climateBonus = profile.getClimate() == com.example.backend.model.enums.Climate.HOT ? 500 : 0;
+        int climateBonus = climate == Climate.HOT ? 500 : 0;
 
         // Runden auf nächste 50ml
         int totalGoal = baseGoal + activityBonus + climateBonus;
@@ -65,18 +135,63 @@ public class HydrationService {
      * @return Heutiger Status mit Ziel, konsumierter und verbleibender Menge
      */
     @Transactional(readOnly = true)
-    public TodayStatusResponse getTodayStatus(Long userId) {
+    public TodayStatusResponse getTodayStatus(@ShardKey Long userId) {
         log.debug("Getting today's status for user {}", userId);
 
-        UserProfile profile = profileRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("UserProfile", userId));
+        return buildTodayStatus(profileCache.get(userId));
+    }
 
-        ZoneId zoneId = ZoneId.of(profile.getTimezone());
-        Instant startOfDay = LocalDate.now(zoneId).atStartOfDay(zoneId).toInstant();
-        Instant endOfDay = LocalDate.now(zoneId).plusDays(1).atStartOfDay(zoneId).toInstant();
+    /**
+     * Aktueller lokaler Tag eines Benutzers (Profil aus dem Cache).
+     *
+     * @param userId Benutzer-ID
+     * @return Heutiges Datum in der Zeitzone des Benutzers
+     */
+    public LocalDate currentDay(Long userId) {
+        return LocalDate.now(profileCache.get(userId).zoneId());
+    }
 
+    /**
+     * Holt die Daten für den App-Start (Profil, heutiger Status, letzte Aufnahmen) in einer
+     * lesenden Transaktion mit einem einzigen Profilzugriff.
+     *
+     * @param userId Benutzer-ID
+     * @param parts  Angeforderte Teile, nicht angeforderte bleiben null
+     * @param limit  Maximale Anzahl der letzten Aufnahmen
+     * @return Dashboard
+     */
+    @Transactional(readOnly = true)
+    public DashboardResponse getDashboard(@ShardKey Long userId, Set<DashboardPart> parts, int limit) {
+        log.debug("Getting dashboard {} for user {}", parts, userId);
+
+        // Profil auch dann laden, wenn es nicht angefordert ist: liefert 404 für unbekannte Benutzer
+        ProfileSnapshot profile = profileCache.get(userId);
+
+        DashboardResponse response = new DashboardResponse();
+        response.setUserId(userId);
+        if (parts.contains(DashboardPart.PROFILE)) {
+            response.setProfile(mapToProfileResponse(profile));
+        }
+        if (parts.contains(DashboardPart.TODAY)) {
+            response.setToday(buildTodayStatus(profile));
+        }
+        if (parts.contains(DashboardPart.RECENT)) {
+            response.setRecentIntakes(loadRecentIntakes(userId, limit));
+        }
+        return response;
+    }
+
+    private TodayStatusResponse buildTodayStatus(ProfileSnapshot profile) {
+        Long userId = profile.id();
+        ZoneId zoneId = profile.zoneId();
+        LocalDate today = LocalDate.now(zoneId);
+
+        // Laufende Tagessumme aus dem Speicher, SUM-Abfrage nur bei Cache-Miss
         int goalMl = calculateDailyGoalMl(profile);
-        int consumedMl = intakeRepository.sumForUserBetween(userId, startOfDay, endOfDay);
+        int consumedMl = dailyTotals.getOrLoad(userId, today, () -> intakeRepository.sumForUserBetween(
+                userId,
+                today.atStartOfDay(zoneId).toInstant(),
+                today.plusDays(1).atStartOfDay(zoneId).toInstant()));
         int remainingMl = Math.max(0, goalMl - consumedMl);
         int percentageAchieved = (int) Math.round((consumedMl * 100.0) / goalMl);
 
@@ -86,12 +201,12 @@ public class HydrationService {
     }
 
     /**
-     * Erstellt ein neues Benutzerprofil.
+     * Erstellt ein neues Benutzerprofil. Mit Sharding auf dem Shard mit den wenigsten Benutzern
+     * (einzelnes INSERT in der Transaktion des Repositories, danach Eintrag im Verzeichnis).
      *
      * @param request Profil-Anfragedaten
      * @return Erstelltes Profil
      */
-    @Transactional
     public ProfileResponse createProfile(ProfileRequest request) {
         log.info("Creating new profile");
 
@@ -101,7 +216,11 @@ public class HydrationService {
         profile.setClimate(request.getClimate());
         profile.setTimezone(request.getTimezone() != null ? request.getTimezone() : "Europe/Berlin");
 
-        UserProfile saved = profileRepository.save(profile);
+        UserProfile saved;
+        try (ShardScope scope = shardRouter.bindNewUser()) {
+            saved = profileRepository.save(profile);
+            shardRouter.registerUser(saved.getId(), saved.getEmail(), scope);
+        }
         log.info("Profile created with ID {}", saved.getId());
 
         return mapToProfileResponse(saved);
@@ -115,11 +234,12 @@ public class HydrationService {
      * @return Aktualisiertes Profil
      */
     @Transactional
-    public ProfileResponse updateProfile(Long userId, ProfileRequest request) {
+    public ProfileResponse updateProfile(@ShardKey Long userId, ProfileRequest request) {
         log.info("Updating profile for user {}", userId);
 
         UserProfile profile = profileRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("UserProfile", userId));
+        incrementVersion(userId);
 
         profile.setWeightKg(request.getWeightKg());
         profile.setActivityLevel(request.getActivityLevel());
@@ -129,6 +249,9 @@ public class HydrationService {
         }
 
         UserProfile saved = profileRepository.save(profile);
+        profileCache.evict(userId);
+        eventPublisher.publishEvent(new HydrationDataChangedEvent(userId));
+        eventPublisher.publishEvent(new ProfileUpdated(userId));
         log.info("Profile updated for user {}", userId);
 
         return mapToProfileResponse(saved);
@@ -141,13 +264,10 @@ public class HydrationService {
      * @return Benutzerprofil
      */
     @Transactional(readOnly = true)
-    public ProfileResponse getProfile(Long userId) {
+    public ProfileResponse getProfile(@ShardKey Long userId) {
         log.debug("Getting profile for user {}", userId);
 
-        UserProfile profile = profileRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("UserProfile", userId));
-
-        return mapToProfileResponse(profile);
+        return mapToProfileResponse(profileCache.get(userId));
     }
 
     /**
@@ -157,12 +277,16 @@ public class HydrationService {
      * @return Erstelltes Aufnahme-Event
      */
     @Transactional
-    public IntakeResponse recordIntake(IntakeRequest request) {
+    public IntakeResponse recordIntake(@ShardKey IntakeRequest request) {
         log.info("Recording intake for user {}: {}ml from {}",
                 request.getUserId(), request.getVolumeMl(), request.getSource());
 
-        UserProfile user = profileRepository.findById(request.getUserId())
-                .orElseThrow(() -> new ResourceNotFoundException("UserProfile", request.getUserId()));
+        ProfileSnapshot profile = profileCache.get(request.getUserId());
+        // Datenstand zuerst erhöhen: Sperrreihenfolge Benutzer vor Tageszusammenfassung
+        incrementVersion(profile.id());
+
+        // Existenz ist über den Datenstand geprüft: Referenz genügt für den Fremdschlüssel
+        UserProfile user = profileRepository.getReferenceById(profile.id());
 
         IntakeEvent event = new IntakeEvent();
         event.setUser(user);
@@ -171,11 +295,202 @@ public class HydrationService {
         event.setTimestampUtc(Instant.now());
 
         IntakeEvent saved = intakeRepository.save(event);
+        LocalDate day = localDate(saved.getTimestampUtc(), profile.zoneId());
+        applyRollup(user, day, saved.getVolumeMl(), 1, calculateDailyGoalMl(profile));
+        dailyTotals.add(profile.id(), day, saved.getVolumeMl());
+        intakeMetrics.recorded(List.of(saved));
+        eventPublisher.publishEvent(new HydrationDataChangedEvent(profile.id()));
+        eventPublisher.publishEvent(IntakeRecorded.from(saved));
         log.info("Intake recorded with ID {}", saved.getId());
 
         return mapToIntakeResponse(saved);
     }
 
+    /**
+     * Erfasst mehrere Wasseraufnahme-Events in einer Transaktion.
+     * Alle Einträge werden in einem Durchlauf validiert, die Benutzer über den ProfileCache
+     * (Fehlende mit einer einzigen IN-Abfrage) aufgelöst und die Events per JDBC-Batch geschrieben.
+     *
+     * @param requests Aufnahme-Anfragedaten (auch für verschiedene Benutzer)
+     * @return Ergebnis pro Eintrag in der Reihenfolge der Anfrage
+     */
+    @Transactional
+    public BatchIntakeResponse recordIntakes(@ShardKey List<IntakeRequest> requests) {
+        log.info("Recording batch of {} intakes", requests.size());
+
+        BatchIntakeResponse.ItemResult[] results = new BatchIntakeResponse.ItemResult[requests.size()];
+        Set<Long> userIds = new HashSet<>();
+
+        // Validierung aller Einträge in einem Durchlauf
+        for (int i = 0; i < requests.size(); i++) {
+            IntakeRequest item = requests.get(i);
+            if (item == null) {
+                results[i] = BatchIntakeResponse.ItemResult.rejected(i, "Item must not be null");
+                continue;
+            }
+            Set<ConstraintViolation<IntakeRequest>> violations = validator.validate(item);
+            if (!violations.isEmpty()) {
+                results[i] = BatchIntakeResponse.ItemResult.rejected(i, violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                continue;
+            }
+            userIds.add(item.getUserId());
+        }
+
+        // Benutzer aus dem Cache, fehlende mit einer einzigen IN-Abfrage auflösen
+        Map<Long, ProfileSnapshot> users = userIds.isEmpty() ? Map.of() : profileCache.getAll(userIds);
+        Set<Long> present = incrementVersions(users.keySet());
+
+        Instant now = Instant.now();
+        List<IntakeEvent> events = new ArrayList<>();
+        List<Integer> eventIndexes = new ArrayList<>();
+        List<ProfileSnapshot> owners = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            IntakeRequest item = requests.get(i);
+            ProfileSnapshot user = users.get(item.getUserId());
+            if (user == null || !present.contains(user.id())) {
+                results[i] = BatchIntakeResponse.ItemResult.rejected(i,
+                        String.format("UserProfile with ID %d not found", item.getUserId()));
+                continue;
+            }
+
+            IntakeEvent event = new IntakeEvent();
+            event.setUser(profileRepository.getReferenceById(user.id()));
+            event.setVolumeMl(item.getVolumeMl());
+            event.setSource(item.getSource());
+            event.setTimestampUtc(now);
+            events.add(event);
+            eventIndexes.add(i);
+            owners.add(user);
+        }
+
+        List<IntakeEvent> saved = persistIntakes(events, owners);
+
+        for (int j = 0; j < saved.size(); j++) {
+            int index = eventIndexes.get(j);
+            results[index] = BatchIntakeResponse.ItemResult.created(index, mapToIntakeResponse(saved.get(j)));
+        }
+
+        int accepted = saved.size();
+        int rejected = requests.size() - accepted;
+        log.info("Batch recorded: {} accepted, {} rejected", accepted, rejected);
+
+        return new BatchIntakeResponse(accepted, rejected, Arrays.asList(results));
+    }
+
+    /**
+     * Überträgt bereits bestätigte Aufnahmen aus dem Write-behind-Journal in einer Transaktion.
+     * Zeitstempel stammen aus dem Journal (Zeitpunkt der Annahme); Einträge für inzwischen
+     * unbekannte Benutzer werden verworfen.
+     *
+     * @param entries Journal-Einträge
+     * @return Anzahl der gespeicherten Events
+     */
+    @Transactional
+    public int recordJournaled(List<JournalEntry> entries) {
+        Set<Long> userIds = entries.stream().map(JournalEntry::userId).collect(Collectors.toSet());
+        Map<Long, ProfileSnapshot> users = userIds.isEmpty() ? Map.of() : profileCache.getAll(userIds);
+        Set<Long> present = incrementVersions(users.keySet());
+
+        List<IntakeEvent> events = new ArrayList<>(entries.size());
+        List<ProfileSnapshot> owners = new ArrayList<>(entries.size());
+        for (JournalEntry entry : entries) {
+            ProfileSnapshot user = users.get(entry.userId());
+            if (user == null || !present.contains(user.id())) {
+                log.warn("Dropping journaled intake {}: UserProfile {} not found", entry.sequence(), entry.userId());
+                continue;
+            }
+            IntakeEvent event = new IntakeEvent();
+            event.setUser(profileRepository.getReferenceById(user.id()));
+            event.setVolumeMl(entry.volumeMl());
+            event.setSource(entry.source());
+            event.setTimestampUtc(entry.timestamp());
+            events.add(event);
+            owners.add(user);
+        }
+
+        return persistIntakes(events, owners).size();
+    }
+
+    /**
+     * Speichert Events per JDBC-Batch und schreibt Tageszusammenfassungen, Tagessummen,
+     * Metriken und Änderungsereignisse je Benutzer und Tag einmal fort.
+     * Der Datenstand der Benutzer ist bereits erhöht ({@link #incrementVersions}).
+     *
+     * @param events Neue Events
+     * @param owners Profil des Benutzers je Event (gleiche Reihenfolge)
+     * @return Gespeicherte Events mit IDs
+     */
+    private List<IntakeEvent> persistIntakes(List<IntakeEvent> events, List<ProfileSnapshot> owners) {
+        // IDs kommen aus der gepoolten Sequenz, die Inserts werden beim Flush gebündelt
+        List<IntakeEvent> saved = intakeRepository.saveAll(events);
+
+        // Tageszusammenfassungen pro Benutzer und Tag nur einmal fortschreiben
+        Map<DayKey, int[]> perDay = new LinkedHashMap<>();
+        Map<Long, ProfileSnapshot> users = new HashMap<>();
+        for (int j = 0; j < saved.size(); j++) {
+            IntakeEvent event = saved.get(j);
+            ProfileSnapshot user = owners.get(j);
+            users.put(user.id(), user);
+            DayKey key = new DayKey(user.id(), localDate(event.getTimestampUtc(), user.zoneId()));
+            int[] agg = perDay.computeIfAbsent(key, k -> new int[2]);
+            agg[0] += event.getVolumeMl();
+            agg[1]++;
+        }
+        perDay.forEach((key, agg) -> {
+            ProfileSnapshot user = users.get(key.userId());
+            applyRollup(profileRepository.getReferenceById(user.id()), key.day(), agg[0], agg[1],
+                    calculateDailyGoalMl(user));
+            dailyTotals.add(key.userId(), key.day(), agg[0]);
+        });
+        intakeMetrics.recorded(saved);
+        perDay.keySet().stream()
+                .map(DayKey::userId)
+                .distinct()
+                .forEach(userId -> eventPublisher.publishEvent(new HydrationDataChangedEvent(userId)));
+        saved.forEach(event -> eventPublisher.publishEvent(IntakeRecorded.from(event)));
+        return saved;
+    }
+
+    /**
+     * Erhöht den Datenstand eines Benutzers und prüft dabei seine Existenz. Ein zwischengespeichertes
+     * Profil kann veraltet sein (Benutzer gelöscht oder auf einen anderen Shard verschoben); dann wird
+     * es verworfen, statt später am Fremdschlüssel zu scheitern.
+     *
+     * @param userId Benutzer-ID
+     * @throws ResourceNotFoundException wenn der Benutzer nicht (mehr) existiert
+     */
+    private void incrementVersion(Long userId) {
+        if (versionTracker.increment(userId) == 0) {
+            profileCache.evict(userId);
+            throw new ResourceNotFoundException("UserProfile", userId);
+        }
+    }
+
+    /**
+     * Erhöht den Datenstand mehrerer Benutzer in fester Reihenfolge (Sperrreihenfolge).
+     * Nicht mehr vorhandene Benutzer werden aus dem Cache entfernt und fehlen im Ergebnis.
+     *
+     * @param userIds Benutzer-IDs
+     * @return IDs der vorhandenen Benutzer
+     */
+    private Set<Long> incrementVersions(Collection<Long> userIds) {
+        Set<Long> present = new HashSet<>();
+        userIds.stream().sorted().forEach(userId -> {
+            if (versionTracker.increment(userId) > 0) {
+                present.add(userId);
+            } else {
+                profileCache.evict(userId);
+            }
+        });
+        return present;
+    }
+
     /**
      * Holt die letzten Aufnahme-Events für einen Benutzer.
      *
@@ -184,13 +499,44 @@ public class HydrationService {
      * @return Liste der letzten Aufnahme-Events
      */
     @Transactional(readOnly = true)
-    public List<IntakeResponse> getRecentIntakes(Long userId, int limit) {
+    public List<IntakeResponse> getRecentIntakes(@ShardKey Long userId, int limit) {
         log.debug("Getting {} recent intakes for user {}", limit, userId);
 
-        List<IntakeEvent> events = intakeRepository.findRecentByUser(userId, limit);
-        return events.stream()
-                .map(this::mapToIntakeResponse)
-                .collect(Collectors.toList());
+        return loadRecentIntakes(userId, limit);
+    }
+
+    /**
+     * Holt eine Seite der Aufnahme-Historie (neueste zuerst) per Keyset-Pagination.
+     *
+     * @param userId Benutzer-ID
+     * @param before Cursor der vorherigen Seite (null = neueste Seite)
+     * @param size   Seitengröße, wird auf 1..MAX_PAGE_SIZE begrenzt
+     * @return Seite mit Cursor für die nächste Seite
+     */
+    @Transactional(readOnly = true)
+    public IntakePageResponse getIntakePage(@ShardKey Long userId, IntakeCursor before, int size) {
+        int pageSize = clampPageSize(size);
+        log.debug("Getting intake page for user {} before {} (size {})", userId, before, pageSize);
+
+        // Ein Eintrag mehr als angefordert zeigt an, ob eine weitere Seite existiert
+        List<IntakeResponse> rows = before == null
+                ? intakeRepository.findPageByUser(userId, pageSize + 1)
+                : intakeRepository.findPageByUserBefore(userId, before.timestamp(), before.id(), pageSize + 1);
+
+        if (rows.size() <= pageSize) {
+            return new IntakePageResponse(rows, null);
+        }
+        List<IntakeResponse> items = rows.subList(0, pageSize);
+        IntakeResponse last = items.get(pageSize - 1);
+        return new IntakePageResponse(items, new IntakeCursor(last.getTimestamp(), last.getId()).toString());
+    }
+
+    private List<IntakeResponse> loadRecentIntakes(Long userId, int limit) {
+        return intakeRepository.findPageByUser(userId, clampPageSize(limit));
+    }
+
+    private static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
     }
 
     /**
@@ -200,19 +546,155 @@ public class HydrationService {
      */
     @Transactional
     public void deleteIntake(Long intakeId) {
+        deleteIntake(intakeId, null);
+    }
+
+    /**
+     * Löscht ein Aufnahme-Event, sofern es dem angegebenen Benutzer gehört.
+     * Fremde Events werden wie nicht existierende behandelt.
+     *
+     * @param intakeId Aufnahme-Event-ID
+     * @param ownerId  Authentifizierter Benutzer (null = keine Prüfung)
+     */
+    @Transactional
+    public void deleteIntake(Long intakeId, @ShardKey Long ownerId) {
         log.info("Deleting intake {}", intakeId);
 
-        if (!intakeRepository.existsById(intakeId)) {
-            throw new ResourceNotFoundException("IntakeEvent", intakeId);
+        // Event samt Benutzer laden: Menge und Zeitzone werden für die Tagessumme benötigt
+        IntakeEvent event = intakeRepository.findWithUserById(intakeId)
+                .filter(e -> ownerId == null || ownerId.equals(e.getUser().getId()))
+                .orElseThrow(() -> new ResourceNotFoundException("IntakeEvent", intakeId));
+
+        UserProfile user = event.getUser();
+        incrementVersion(user.getId());
+        intakeRepository.delete(event);
+        LocalDate day = localDate(event.getTimestampUtc(), ZoneId.of(user.getTimezone()));
+        applyRollup(user, day, -event.getVolumeMl(), -1, calculateDailyGoalMl(user));
+        dailyTotals.add(user.getId(), day, -event.getVolumeMl());
+        eventPublisher.publishEvent(new HydrationDataChangedEvent(user.getId()));
+        eventPublisher.publishEvent(new IntakeDeleted(user.getId(), event.getId(), event.getVolumeMl(),
+                event.getTimestampUtc()));
+        log.info("Intake {} deleted", intakeId);
+    }
+
+    /**
+     * Holt den Hydrationsverlauf eines Benutzers aus den Tageszusammenfassungen.
+     * Ohne Angaben wird die laufende Woche bis heute (lokaler Tag des Benutzers) geliefert.
+     *
+     * @param userId Benutzer-ID
+     * @param from   Erster Tag (inklusiv, optional)
+     * @param to     Letzter Tag (inklusiv, optional)
+     * @return Verlauf mit Tageswerten und Zielerreichung
+     */
+    @Transactional(readOnly = true)
+    public HydrationHistoryResponse getHistory(@ShardKey Long userId, LocalDate from, LocalDate to) {
+        log.debug("Getting history for user {} from {} to {}", userId, from, to);
+
+        ProfileSnapshot profile = profileCache.get(userId);
+
+        LocalDate end = to != null ? to : LocalDate.now(profile.zoneId());
+        LocalDate start = from != null ? from : end.minusDays(6);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_HISTORY_DAYS) {
+            throw new IllegalArgumentException("History range must not exceed " + MAX_HISTORY_DAYS + " days");
         }
 
-        intakeRepository.deleteById(intakeId);
-        log.info("Intake {} deleted", intakeId);
+        List<HydrationHistoryResponse.Day> days = rollupRepository.findByUserAndDateRange(userId, start, end).stream()
+                .map(this::mapToHistoryDay)
+                .collect(Collectors.toList());
+
+        int totalMl = days.stream().mapToInt(HydrationHistoryResponse.Day::getTotalMl).sum();
+        int daysGoalMet = (int) days.stream().filter(HydrationHistoryResponse.Day::isGoalMet).count();
+
+        return new HydrationHistoryResponse(start, end, totalMl, daysGoalMet, days);
     }
 
-    // Mapping-Methoden
+    /**
+     * Liefert eine Zeitreihe der Wasseraufnahme eines Benutzers.
+     * Die Datenbank summiert in festen UTC-Intervallen (5 bzw. 15 Minuten); diese werden
+     * anschließend den lokalen Buckets zugeordnet, sodass auch Tage mit Zeitumstellung korrekt sind.
+     *
+     * @param userId Benutzer-ID
+     * @param from   Startzeit (wird auf den Bucket-Beginn abgerundet)
+     * @param to     Endzeit (exklusiv)
+     * @param bucket Bucket-Größe
+     * @return Lückenlose Zeitreihe mit Bucket-Beginn und Summe
+     */
+    @Transactional(readOnly = true)
+    public IntakeSeriesResponse getIntakeSeries(@ShardKey Long userId, Instant from, Instant to, SeriesBucket bucket) {
+        log.debug("Getting {} intake series for user {} from {} to {}", bucket.getCode(), userId, from, to);
+
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+
+        ProfileSnapshot profile = profileCache.get(userId);
+        ZoneId zoneId = profile.zoneId();
+
+        // Lückenlose Bucket-Grenzen in lokaler Zeit
+        Instant start = bucket.floor(from, zoneId);
+        List<Instant> starts = new ArrayList<>();
+        for (Instant t = start; t.isBefore(to); t = bucket.next(t, zoneId)) {
+            if (starts.size() >= MAX_SERIES_BUCKETS) {
+                throw new IllegalArgumentException("Series must not exceed " + MAX_SERIES_BUCKETS + " buckets");
+            }
+            starts.add(t);
+        }
+
+        long[] bucketStarts = starts.stream().mapToLong(Instant::getEpochSecond).toArray();
+        int[] volumesMl = new int[bucketStarts.length];
+
+        long binSeconds = bucket == SeriesBucket.FIVE_MINUTES ? 300L : 900L;
+        List<Object[]> bins = bucket == SeriesBucket.FIVE_MINUTES
+                ? intakeRepository.sumPerFiveMinutes(userId, start, to)
+                : intakeRepository.sumPerQuarterHour(userId, start, to);
+
+        for (Object[] bin : bins) {
+            long binStart = ((Number) bin[0]).longValue() * binSeconds;
+            int index = Arrays.binarySearch(bucketStarts, binStart);
+            if (index < 0) {
+                index = -index - 2;
+            }
+            if (index >= 0) {
+                volumesMl[index] += ((Number) bin[1]).intValue();
+            }
+        }
+
+        return new IntakeSeriesResponse(userId, bucket.getCode(), profile.timezone(), start, to, bucketStarts, volumesMl);
+    }
 
-    private ProfileResponse mapToProfileResponse(UserProfile profile) {
+    /**
+     * Schreibt die Tageszusammenfassung in der laufenden Transaktion fort.
+     * Existiert für den Tag noch keine Zeile, wird sie bei einer Aufnahme per Upsert angelegt (auch bei
+     * gleichzeitigen ersten Aufnahmen); Löschungen ohne Zeile werden ignoriert (der Backfill baut den Tag
+     * vollständig auf). Das UPDATE zuerst hält den häufigen Fall bei einem Statement ohne Sequenzwert.
+     * Das aktuelle Tagesziel wird nur in eine neu angelegte Zeile übernommen.
+     */
+    private void applyRollup(UserProfile user, LocalDate day, int deltaMl, int deltaCount, int goalMl) {
+        int updated = rollupRepository.applyDelta(user.getId(), day, deltaMl, deltaCount);
+        if (updated == 0 && deltaCount > 0) {
+            rollupUpserter.upsert(user.getId(), day, deltaMl, deltaCount, goalMl);
+        }
+    }
+
+    /**
+     * Schlüssel für die Aggregation von Batch-Aufnahmen pro Benutzer und Tag.
+     */
+    private record DayKey(Long userId, LocalDate day) {
+    }
+
+    /**
+     * Lokaler Kalendertag eines Zeitpunkts in der Zeitzone des Benutzers.
+     */
+    private static LocalDate localDate(Instant timestamp, ZoneId zoneId) {
+        return LocalDate.ofInstant(timestamp, zoneId);
+    }
+
+    // Mapping-Methoden (paketsichtbar für die JMH-Benchmarks)
+
+    ProfileResponse mapToProfileResponse(UserProfile profile) {
         return new ProfileResponse(
                 profile.getId(),
                 profile.getWeightKg(),
@@ -222,7 +704,27 @@ public class HydrationService {
         );
     }
 
-    private IntakeResponse mapToIntakeResponse(IntakeEvent event) {
+    ProfileResponse mapToProfileResponse(ProfileSnapshot profile) {
+        return new ProfileResponse(
+                profile.id(),
+                profile.weightKg(),
+                profile.activityLevel(),
+                profile.climate(),
+                profile.timezone()
+        );
+    }
+
+    private HydrationHistoryResponse.Day mapToHistoryDay(DailyIntakeRollup rollup) {
+        return new HydrationHistoryResponse.Day(
+                rollup.getLocalDate(),
+                rollup.getTotalMl(),
+                rollup.getEventCount(),
+                rollup.getGoalMl(),
+                rollup.getTotalMl() >= rollup.getGoalMl()
+        );
+    }
+
+    IntakeResponse mapToIntakeResponse(IntakeEvent event) {
         return new IntakeResponse(
                 event.getId(),
                 event.getUser().getId(),
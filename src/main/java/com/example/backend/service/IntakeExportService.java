@@ -0,0 +1,165 @@
+package com.example.backend.service;
+
+import com.example.backend.exception.ServiceOverloadedException;
+import com.example.backend.model.enums.ExportFormat;
+import com.example.backend.sharding.ShardKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Export der vollständigen Aufnahme-Historie eines Benutzers.
+ * Die Zeilen werden über einen Forward-only-Cursor mit fester Fetch-Size gelesen und direkt
+ * in den Ausgabestrom geschrieben; der Speicherbedarf ist unabhängig von der Historienlänge.
+ * Ein Export hält Verbindung und Cursor bis zu spring.mvc.async.request-timeout, daher laufen pro Instanz
+ * höchstens app.export.max-concurrent Exporte gleichzeitig; weitere werden mit 503 und Retry-After abgewiesen.
+ */
+@Service
+@Slf4j
+public class IntakeExportService {
+
+    /**
+     * Zeilen pro Datenbank-Roundtrip
+     */
+    static final int FETCH_SIZE = 1_000;
+
+    private static final String EXPORT_SQL = """
+        SELECT id, volume_ml, source, timestamp_utc
+        FROM intake_event
+        WHERE user_id = ?
+        ORDER BY timestamp_utc, id
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ProfileCache profileCache;
+    private final Semaphore slots;
+    private final Duration retryAfter;
+
+    public IntakeExportService(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               ProfileCache profileCache,
+                               @Value("${app.export.max-concurrent:2}") int maxConcurrent,
+                               @Value("${app.export.retry-after:30s}") Duration retryAfter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.profileCache = profileCache;
+        this.slots = new Semaphore(maxConcurrent);
+        this.retryAfter = retryAfter;
+        // PostgreSQL nutzt die Fetch-Size nur bei deaktiviertem Auto-Commit, daher eigene Transaktion
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Prüft vor Beginn des Streamings, ob der Benutzer existiert (404 statt abgebrochener Antwort).
+     *
+     * @param userId Benutzer-ID
+     */
+    public void requireUser(@ShardKey Long userId) {
+        profileCache.get(userId);
+    }
+
+    /**
+     * Belegt einen Export-Platz, bevor die Response beginnt. Jeder belegte Platz muss nach dem Export
+     * mit {@link #releaseSlot()} freigegeben werden.
+     *
+     * @throws ServiceOverloadedException wenn bereits max-concurrent Exporte laufen (503 + Retry-After)
+     */
+    public void acquireSlot() {
+        if (!slots.tryAcquire()) {
+            throw new ServiceOverloadedException("Too many concurrent exports", retryAfter);
+        }
+    }
+
+    /**
+     * Gibt einen mit {@link #acquireSlot()} belegten Export-Platz frei.
+     */
+    public void releaseSlot() {
+        slots.release();
+    }
+
+    /**
+     * Schreibt alle Aufnahmen eines Benutzers (älteste zuerst) in den Ausgabestrom.
+     *
+     * @param userId Benutzer-ID
+     * @param format Exportformat
+     * @param gzip   Ausgabe gzip-komprimieren
+     * @param out    Ausgabestrom der Response (wird nicht geschlossen)
+     * @return Anzahl exportierter Zeilen
+     */
+    public long export(@ShardKey(reroute = false) Long userId, ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        AtomicLong rows = new AtomicLong();
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+
+        GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(out, 8192) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(
+                gzipStream != null ? gzipStream : out, StandardCharsets.UTF_8), 16 * 1024);
+
+        if (format == ExportFormat.CSV) {
+            writer.write("id,userId,volumeMl,source,timestamp\n");
+        }
+
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(FETCH_SIZE);
+                statement.setLong(1, userId);
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    writeRow(writer, format, userId, rs.getLong(1), rs.getInt(2), rs.getString(3),
+                            rs.getTimestamp(4, utc).toInstant().toString());
+                } catch (IOException e) {
+                    // Client hat die Verbindung getrennt: Cursor sofort abbrechen
+                    throw new UncheckedIOException(e);
+                }
+                rows.incrementAndGet();
+            }));
+        } catch (UncheckedIOException e) {
+            log.info("Export for user {} aborted after {} rows: {}", userId, rows.get(), e.getCause().getMessage());
+            throw e.getCause();
+        }
+
+        writer.flush();
+        if (gzipStream != null) {
+            gzipStream.finish();
+        }
+
+        log.info("Exported {} intakes for user {} as {} in {} ms",
+                rows.get(), userId, format.getCode(), (System.nanoTime() - started) / 1_000_000);
+        return rows.get();
+    }
+
+    private static void writeRow(Writer writer, ExportFormat format, Long userId,
+                                 long id, int volumeMl, String source, String timestamp) throws IOException {
+        // Alle Werte sind Zahlen, Enum-Namen oder ISO-Zeitstempel: kein Quoting/Escaping nötig
+        if (format == ExportFormat.CSV) {
+            writer.write(id + "," + userId + "," + volumeMl + "," + source + "," + timestamp + "\n");
+        } else {
+            writer.write("{\"id\":" + id + ",\"userId\":" + userId + ",\"volumeMl\":" + volumeMl
+                    + ",\"source\":\"" + source + "\",\"timestamp\":\"" + timestamp + "\"}\n");
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.response.ImportProgressResponse;
+import com.example.backend.events.IntakesImported;
+import com.example.backend.exception.ConflictException;
+import com.example.backend.model.enums.ExportFormat;
+import com.example.backend.model.enums.IntakeSource;
+import com.example.backend.repository.IntakeEventBulkWriter;
+import com.example.backend.sharding.ShardKey;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Import historischer Aufnahmen aus CSV oder NDJSON.
+ * Die Datei wird zeilenweise aus dem Request gelesen und in Blöcken von {@link #CHUNK_SIZE}
+ * Zeilen geschrieben; jeder Block läuft in einer eigenen kurzen Transaktion, sodass während
+ * eines langsamen Uploads keine Datenbankverbindung gehalten wird. Danach werden die
+ * Tageszusammenfassungen des Benutzers neu aufgebaut.
+ * Der Fortschritt eines abgeschlossenen Imports bleibt für app.import.progress-ttl abrufbar;
+ * laufende Importe verfallen nicht.
+ */
+@Service
+@Slf4j
+public class IntakeImportService {
+
+    /**
+     * Zeilen pro Schreibtransaktion
+     */
+    static final int CHUNK_SIZE = 5_000;
+
+    /**
+     * Maximale Anzahl gemeldeter Zeilenfehler
+     */
+    static final int MAX_REPORTED_ERRORS = 20;
+
+    /**
+     * Toleranz für Uhrabweichungen bei Zeitstempeln in der Zukunft
+     */
+    private static final Duration MAX_CLOCK_SKEW = Duration.ofMinutes(5);
+
+    private static final long PROGRESS_LOG_INTERVAL = 50_000;
+
+    private final IntakeEventBulkWriter bulkWriter;
+    private final RollupBackfillService rollupBackfillService;
+    private final IntakePartitionMaintenance partitionMaintenance;
+    private final DailyIntakeTotals dailyTotals;
+    private final ProfileCache profileCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Letzter Import je Benutzer (laufend oder abgeschlossen)
+     */
+    private final Cache<Long, ImportProgress> imports;
+
+    @Autowired
+    public IntakeImportService(IntakeEventBulkWriter bulkWriter,
+                               RollupBackfillService rollupBackfillService,
+                               IntakePartitionMaintenance partitionMaintenance,
+                               DailyIntakeTotals dailyTotals,
+                               ProfileCache profileCache,
+                               TransactionTemplate transactionTemplate,
+                               ObjectMapper objectMapper,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${app.import.progress-ttl:1h}") Duration progressTtl) {
+        this(bulkWriter, rollupBackfillService, partitionMaintenance, dailyTotals, profileCache, transactionTemplate,
+                objectMapper, eventPublisher, progressTtl, Ticker.systemTicker());
+    }
+
+    IntakeImportService(IntakeEventBulkWriter bulkWriter,
+                        RollupBackfillService rollupBackfillService,
+                        IntakePartitionMaintenance partitionMaintenance,
+                        DailyIntakeTotals dailyTotals,
+                        ProfileCache profileCache,
+                        TransactionTemplate transactionTemplate,
+                        ObjectMapper objectMapper,
+                        ApplicationEventPublisher eventPublisher,
+                        Duration progressTtl,
+                        Ticker ticker) {
+        this.bulkWriter = bulkWriter;
+        this.rollupBackfillService = rollupBackfillService;
+        this.partitionMaintenance = partitionMaintenance;
+        this.dailyTotals = dailyTotals;
+        this.profileCache = profileCache;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.imports = Caffeine.newBuilder()
+                .expireAfter(finishedAfter(progressTtl))
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Liefert den Stand des letzten Imports eines Benutzers.
+     *
+     * @param userId Benutzer-ID
+     * @return Fortschritt, leer wenn noch kein Import gelaufen ist
+     */
+    public Optional<ImportProgressResponse> getProgress(Long userId) {
+        return Optional.ofNullable(imports.getIfPresent(userId)).map(ImportProgress::toResponse);
+    }
+
+    /**
+     * Importiert Aufnahmen aus dem Eingabestrom. Ungültige Zeilen werden übersprungen und gemeldet.
+     *
+     * @param userId Benutzer-ID
+     * @param format Dateiformat
+     * @param in     Eingabestrom (wird geschlossen)
+     * @return Ergebnis des Imports
+     * @throws ConflictException wenn für den Benutzer bereits ein Import läuft
+     */
+    public ImportProgressResponse importIntakes(@ShardKey(reroute = false) Long userId, ExportFormat format, InputStream in) {
+        profileCache.get(userId);
+
+        ImportProgress progress = new ImportProgress();
+        if (imports.asMap().compute(userId, (id, current) -> current != null && current.isRunning() ? current : progress) != progress) {
+            throw new ConflictException("An import is already running for user " + userId);
+        }
+
+        log.info("Starting {} import for user {}", format.getCode(), userId);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            readRows(userId, format, reader, progress);
+            progress.complete();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Import for user {} failed after {} rows: {}", userId, progress.rowsImported.get(), e.getMessage());
+            progress.fail(e.getMessage());
+        } finally {
+            // Erneut schreiben, damit die Verfallszeit des nun abgeschlossenen Eintrags beginnt
+            imports.asMap().replace(userId, progress, progress);
+            if (progress.rowsImported.get() > 0) {
+                rollupBackfillService.rebuildUser(userId);
+                dailyTotals.invalidate(userId);
+                eventPublisher.publishEvent(new HydrationDataChangedEvent(userId));
+                eventPublisher.publishEvent(new IntakesImported(userId, progress.rowsImported.get()));
+            }
+        }
+
+        log.info("Import for user {} finished: status={}, imported={}, rejected={}",
+                userId, progress.status, progress.rowsImported.get(), progress.rowsRejected.get());
+        return progress.toResponse();
+    }
+
+    private void readRows(Long userId, ExportFormat format, BufferedReader reader, ImportProgress progress) throws IOException {
+        long lineNumber = 0;
+        LineParser parser;
+        if (format == ExportFormat.CSV) {
+            String header = reader.readLine();
+            lineNumber++;
+            if (header == null) {
+                throw new IllegalArgumentException("Empty upload, expected a CSV header line");
+            }
+            parser = csvParser(header);
+        } else {
+            parser = this::parseNdjson;
+        }
+
+        Instant latestAllowed = Instant.now().plus(MAX_CLOCK_SKEW);
+        Instant earliestAllowed = partitionMaintenance.retentionCutoff().orElse(Instant.MIN);
+        List<IntakeEventBulkWriter.Row> chunk = new ArrayList<>(CHUNK_SIZE);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            progress.rowsRead.incrementAndGet();
+            try {
+                IntakeEventBulkWriter.Row row = parser.parse(line);
+                if (row.timestamp().isAfter(latestAllowed)) {
+                    throw new IllegalArgumentException("timestamp lies in the future");
+                }
+                if (row.timestamp().isBefore(earliestAllowed)) {
+                    throw new IllegalArgumentException("timestamp lies beyond the retention horizon");
+                }
+                chunk.add(row);
+            } catch (IllegalArgumentException e) {
+                progress.reject(lineNumber, e.getMessage());
+                continue;
+            }
+
+            if (chunk.size() == CHUNK_SIZE) {
+                flush(userId, chunk, progress);
+            }
+        }
+        flush(userId, chunk, progress);
+    }
+
+    private void flush(Long userId, List<IntakeEventBulkWriter.Row> chunk, ImportProgress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Instant first = chunk.get(0).timestamp();
+        Instant last = first;
+        for (IntakeEventBulkWriter.Row row : chunk) {
+            first = row.timestamp().isBefore(first) ? row.timestamp() : first;
+            last = row.timestamp().isAfter(last) ? row.timestamp() : last;
+        }
+        // Historische Monate haben evtl. noch keine Partition
+        partitionMaintenance.ensureMonths(first, last);
+        transactionTemplate.executeWithoutResult(status -> bulkWriter.insert(userId, chunk));
+        long before = progress.rowsImported.getAndAdd(chunk.size());
+        if ((before + chunk.size()) / PROGRESS_LOG_INTERVAL > before / PROGRESS_LOG_INTERVAL) {
+            log.info("Import for user {}: {} rows imported", userId, before + chunk.size());
+        }
+        chunk.clear();
+    }
+
+    private LineParser csvParser(String header) {
+        String[] columns = header.split(",", -1);
+        int timestampIndex = -1;
+        int volumeIndex = -1;
+        int sourceIndex = -1;
+        for (int i = 0; i < columns.length; i++) {
+            switch (unquote(columns[i]).toLowerCase(Locale.ROOT)) {
+                case "timestamp", "timestamputc", "timestamp_utc" -> timestampIndex = i;
+                case "volumeml", "volume_ml" -> volumeIndex = i;
+                case "source" -> sourceIndex = i;
+                default -> {
+                    // weitere Spalten (z.B. id aus dem Export) werden ignoriert
+                }
+            }
+        }
+        if (timestampIndex < 0 || volumeIndex < 0 || sourceIndex < 0) {
+            throw new IllegalArgumentException("CSV header must contain timestamp, volumeMl and source columns");
+        }
+
+        int t = timestampIndex;
+        int v = volumeIndex;
+        int s = sourceIndex;
+        int required = Math.max(t, Math.max(v, s)) + 1;
+        return line -> {
+            String[] fields = line.split(",", -1);
+            if (fields.length < required) {
+                throw new IllegalArgumentException("expected at least " + required + " columns");
+            }
+            return toRow(unquote(fields[t]), unquote(fields[v]), unquote(fields[s]));
+        };
+    }
+
+    private IntakeEventBulkWriter.Row parseNdjson(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("malformed JSON");
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("expected a JSON object");
+        }
+        JsonNode timestamp = node.get("timestamp");
+        JsonNode volume = node.get("volumeMl");
+        JsonNode source = node.get("source");
+        return toRow(
+                timestamp != null ? timestamp.asText() : null,
+                volume != null ? volume.asText() : null,
+                source != null ? source.asText() : null);
+    }
+
+    private IntakeEventBulkWriter.Row toRow(String timestamp, String volume, String source) {
+        if (timestamp == null || volume == null || source == null) {
+            throw new IllegalArgumentException("timestamp, volumeMl and source are required");
+        }
+
+        Instant instant;
+        try {
+            instant = Instant.parse(timestamp);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("invalid timestamp '" + timestamp + "'");
+        }
+
+        int volumeMl;
+        try {
+            volumeMl = Integer.parseInt(volume);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid volumeMl '" + volume + "'");
+        }
+        if (volumeMl < 1) {
+            throw new IllegalArgumentException("volumeMl must be at least 1");
+        }
+
+        IntakeSource intakeSource;
+        try {
+            intakeSource = IntakeSource.valueOf(source.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown source '" + source + "'");
+        }
+
+        return new IntakeEventBulkWriter.Row(instant, volumeMl, intakeSource);
+    }
+
+    private static String unquote(String value) {
+        String trimmed = value.trim();
+        if (trimmed.length() >= 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+            return trimmed.substring(1, trimmed.length() - 1);
+        }
+        return trimmed;
+    }
+
+    /**
+     * Laufende Importe verfallen nie, abgeschlossene ttl nach ihrem letzten Schreiben.
+     */
+    private static Expiry<Long, ImportProgress> finishedAfter(Duration ttl) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(Long userId, ImportProgress progress, long currentTime) {
+                return progress.isRunning() ? Long.MAX_VALUE : ttl.toNanos();
+            }
+
+            @Override
+            public long expireAfterUpdate(Long userId, ImportProgress progress, long currentTime, long currentDuration) {
+                return expireAfterCreate(userId, progress, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(Long userId, ImportProgress progress, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface LineParser {
+        IntakeEventBulkWriter.Row parse(String line);
+    }
+
+    /**
+     * Veränderlicher Fortschritt eines Imports; geschrieben vom importierenden Thread,
+     * gelesen von Statusabfragen.
+     */
+    private static final class ImportProgress {
+        private final Instant startedAt = Instant.now();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong rowsImported = new AtomicLong();
+        private final AtomicLong rowsRejected = new AtomicLong();
+        private final List<String> errors = new CopyOnWriteArrayList<>();
+        private volatile String status = "RUNNING";
+        private volatile String message;
+        private volatile Instant finishedAt;
+
+        boolean isRunning() {
+            return finishedAt == null;
+        }
+
+        void reject(long lineNumber, String reason) {
+            if (rowsRejected.incrementAndGet() <= MAX_REPORTED_ERRORS) {
+                errors.add("line " + lineNumber + ": " + reason);
+            }
+        }
+
+        void complete() {
+            status = "COMPLETED";
+            finishedAt = Instant.now();
+        }
+
+        void fail(String reason) {
+            message = reason;
+            status = "FAILED";
+            finishedAt = Instant.now();
+        }
+
+        ImportProgressResponse toResponse() {
+            return new ImportProgressResponse(status, rowsRead.get(), rowsImported.get(), rowsRejected.get(),
+                    startedAt, finishedAt, message, List.copyOf(errors));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.backend.service;
+
+import com.example.backend.model.entity.IntakeEvent;
+import com.example.backend.model.enums.IntakeSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Fachliche Metriken für erfasste Aufnahmen.
+ * hydration.intakes.recorded zählt Events, hydration.intakes.volume die aufgenommenen Milliliter,
+ * jeweils mit Tag source. Innerhalb einer Transaktion wird erst nach dem Commit gezählt.
+ */
+@Component
+public class IntakeMetrics {
+
+    private final Map<IntakeSource, Counter> recorded = new EnumMap<>(IntakeSource.class);
+    private final Map<IntakeSource, Counter> volume = new EnumMap<>(IntakeSource.class);
+
+    public IntakeMetrics(MeterRegistry meterRegistry) {
+        for (IntakeSource source : IntakeSource.values()) {
+            recorded.put(source, Counter.builder("hydration.intakes.recorded")
+                    .description("Recorded intake events")
+                    .tag("source", source.name())
+                    .register(meterRegistry));
+            volume.put(source, Counter.builder("hydration.intakes.volume")
+                    .description("Recorded intake volume")
+                    .baseUnit("milliliters")
+                    .tag("source", source.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Zählt gespeicherte Events.
+     *
+     * @param events Gespeicherte Aufnahme-Events
+     */
+    public void recorded(Collection<IntakeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        // [0] = Anzahl, [1] = Milliliter je Quelle
+        Map<IntakeSource, long[]> perSource = new EnumMap<>(IntakeSource.class);
+        for (IntakeEvent event : events) {
+            long[] agg = perSource.computeIfAbsent(event.getSource(), s -> new long[2]);
+            agg[0]++;
+            agg[1] += event.getVolumeMl();
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment(perSource);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                increment(perSource);
+            }
+        });
+    }
+
+    private void increment(Map<IntakeSource, long[]> perSource) {
+        perSource.forEach((source, agg) -> {
+            recorded.get(source).increment(agg[0]);
+            volume.get(source).increment(agg[1]);
+        });
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.backend.service;
+
+import com.example.backend.repository.IntakeEventPartitions;
+import com.example.backend.sharding.ShardRouter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pflegt die Monatspartitionen von intake_event (nur PostgreSQL, app.intake.partitioning.enabled=true).
+ * Täglich werden Partitionen für die kommenden Monate angelegt und Partitionen jenseits des
+ * Aufbewahrungshorizonts ausgehängt oder gelöscht. Eine noch ungeteilte Tabelle wird nur mit
+ * app.intake.partitioning.convert-on-startup=true umgewandelt: die Umwandlung kopiert alle Zeilen unter
+ * ACCESS EXCLUSIVE und gehört in ein Wartungsfenster; ohne diese Einstellung bleibt der Shard ungepflegt.
+ * Die Tageszusammenfassungen werden bei jeder Aufnahme transaktional fortgeschrieben und bleiben
+ * daher auch für gelöschte Monate vollständig. Mit Sharding wird jeder Shard gleich gepflegt.
+ */
+@Service
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class IntakePartitionMaintenance {
+
+    /**
+     * Umgang mit Partitionen jenseits des Aufbewahrungshorizonts.
+     */
+    public enum RetentionMode {
+        /** Aushängen, Tabelle bleibt zur Archivierung (pg_dump) bestehen */
+        DETACH,
+        /** Löschen samt Daten */
+        DROP
+    }
+
+    private final IntakeEventPartitions partitions;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+
+    /**
+     * Bekannte Partitionen je Shard, damit Importe nicht für jeden Chunk DDL absetzen.
+     */
+    private final Map<Integer, Set<YearMonth>> knownMonths = new ConcurrentHashMap<>();
+
+    /**
+     * Shards, deren intake_event partitioniert ist und gepflegt wird.
+     */
+    private final Set<Integer> partitionedShards = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.intake.partitioning.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.intake.partitioning.convert-on-startup:false}")
+    private boolean convertOnStartup;
+
+    @Value("${app.intake.partitioning.premake-months:3}")
+    private int premakeMonths;
+
+    @Value("${app.intake.partitioning.retention-months:0}")
+    private int retentionMonths;
+
+    @Value("${app.intake.partitioning.retention-mode:DETACH}")
+    private RetentionMode retentionMode;
+
+    private volatile boolean active;
+
+    @PostConstruct
+    void init() {
+        if (!enabled || !partitions.isSupported()) {
+            return;
+        }
+        YearMonth through = currentMonth().plusMonths(premakeMonths);
+        shardRouter.forEachShard(shard -> transactionTemplate.executeWithoutResult(status -> {
+            partitions.lock();
+            if (!partitions.isPartitioned()) {
+                if (!convertOnStartup) {
+                    log.warn("intake_event on shard {} is not partitioned - skipping partition maintenance "
+                            + "(convert once with app.intake.partitioning.convert-on-startup=true in a maintenance window)", shard);
+                    return;
+                }
+                partitions.convert(through);
+            }
+            partitionedShards.add(shard);
+        }));
+        if (partitionedShards.isEmpty()) {
+            return;
+        }
+        active = true;
+        maintain();
+        shardRouter.forEachShard(shard -> {
+            if (partitionedShards.contains(shard)) {
+                verifyPruning(shard);
+            }
+        });
+    }
+
+    /**
+     * Legt kommende Partitionen an und wendet die Aufbewahrung an.
+     */
+    @Scheduled(cron = "${app.intake.partitioning.maintenance-cron:0 15 3 * * *}", zone = "UTC")
+    public void maintain() {
+        if (!active) {
+            return;
+        }
+        YearMonth current = currentMonth();
+        shardRouter.forEachShard(shard -> {
+            if (partitionedShards.contains(shard)) {
+                maintainShard(shard, current);
+            }
+        });
+    }
+
+    private void maintainShard(int shard, YearMonth current) {
+        transactionTemplate.executeWithoutResult(status -> {
+            partitions.lock();
+            for (YearMonth month : upcoming(current, premakeMonths)) {
+                partitions.create(month);
+            }
+            for (YearMonth month : expired(partitions.listMonths(), current, retentionMonths)) {
+                if (retentionMode == RetentionMode.DROP) {
+                    partitions.drop(month);
+                } else {
+                    partitions.detach(month);
+                }
+                log.info("Retention: {} intake_event partition for {} on shard {}", retentionMode, month, shard);
+            }
+            Set<YearMonth> known = ConcurrentHashMap.newKeySet();
+            known.addAll(partitions.listMonths());
+            knownMonths.put(shard, known);
+        });
+    }
+
+    /**
+     * Stellt sicher, dass Partitionen für alle Monate zwischen zwei Zeitpunkten existieren
+     * (z.B. vor dem Massenimport historischer Aufnahmen) – auf dem aktuell gebundenen Shard.
+     *
+     * @param first Frühester Zeitpunkt
+     * @param last  Spätester Zeitpunkt
+     */
+    public void ensureMonths(Instant first, Instant last) {
+        int shard = shardRouter.currentShard();
+        if (!active || !partitionedShards.contains(shard)) {
+            return;
+        }
+        Set<YearMonth> known = knownMonths.computeIfAbsent(shard, s -> ConcurrentHashMap.newKeySet());
+        List<YearMonth> missing = new ArrayList<>();
+        for (YearMonth month = month(first); !month.isAfter(month(last)); month = month.plusMonths(1)) {
+            if (!known.contains(month)) {
+                missing.add(month);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            partitions.lock();
+            missing.forEach(partitions::create);
+        });
+        known.addAll(missing);
+        log.info("Created intake_event partitions for {} on shard {}", missing, shard);
+    }
+
+    /**
+     * Frühester Zeitpunkt, ab dem Roh-Events aufbewahrt werden. Leer, wenn nichts gelöscht wird.
+     * Tageszusammenfassungen vor diesem Zeitpunkt lassen sich nicht mehr aus Events neu aufbauen.
+     */
+    public Optional<Instant> retentionCutoff() {
+        if (!active || retentionMonths <= 0) {
+            return Optional.empty();
+        }
+        return Optional.of(IntakeEventPartitions.monthStart(currentMonth().minusMonths(retentionMonths)));
+    }
+
+    /**
+     * Prüft per EXPLAIN, dass eine Tagesabfrage nur eine Partition liest.
+     */
+    private void verifyPruning(int shard) {
+        Instant start = LocalDate.now(ZoneOffset.UTC).atStartOfDay(ZoneOffset.UTC).toInstant();
+        Integer scanned = transactionTemplate.execute(status ->
+                partitions.scannedPartitions(start, start.plusSeconds(86_400)));
+        if (scanned != null && scanned > 1) {
+            log.warn("Partition pruning not effective on shard {}: a one-day intake_event query scans {} partitions",
+                    shard, scanned);
+        } else {
+            log.info("Partition pruning verified on shard {}: a one-day intake_event query scans {} partition(s)",
+                    shard, scanned);
+        }
+    }
+
+    /**
+     * Monate, die vorab angelegt werden (laufender Monat plus premake).
+     */
+    static List<YearMonth> upcoming(YearMonth current, int premake) {
+        List<YearMonth> months = new ArrayList<>(premake + 1);
+        for (int i = 0; i <= premake; i++) {
+            months.add(current.plusMonths(i));
+        }
+        return months;
+    }
+
+    /**
+     * Monate, die vollständig vor dem Horizont liegen. Aufbewahrt werden der laufende Monat
+     * und die {@code retention} vorherigen; 0 bedeutet unbegrenzte Aufbewahrung.
+     */
+    static List<YearMonth> expired(List<YearMonth> existing, YearMonth current, int retention) {
+        if (retention <= 0) {
+            return List.of();
+        }
+        YearMonth oldestKept = current.minusMonths(retention);
+        return existing.stream()
+                .filter(month -> month.isBefore(oldestKept))
+                .toList();
+    }
+
+    private static YearMonth currentMonth() {
+        return YearMonth.now(ZoneOffset.UTC);
+    }
+
+    private static YearMonth month(Instant instant) {
+        return YearMonth.from(instant.atOffset(ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.backend.service;
+
+import com.example.backend.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Führt BCrypt-Hashing und -Verifikation auf einem eigenen, begrenzten Threadpool aus.
+ * Die Anzahl der Worker begrenzt die CPU-Last durch Logins; ist die Warteschlange voll,
+ * wird sofort mit ServiceOverloadedException (503) abgelehnt, statt die übrigen
+ * Endpoints auszubremsen.
+ */
+@Service
+@Slf4j
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Duration retryAfter;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.auth.hashing.threads:0}") int threads,
+                                  @Value("${app.auth.hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${app.auth.hashing.timeout:5s}") Duration timeout,
+                                  @Value("${app.auth.hashing.retry-after:2s}") Duration retryAfter) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeout = timeout;
+        this.retryAfter = retryAfter;
+
+        // Standard: halbe CPU-Anzahl, damit immer Kerne für die übrigen Requests frei bleiben
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("auth.hashing.duration")
+                .description("Time spent hashing or verifying passwords (excluding queue wait)")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("auth.hashing.duration")
+                .description("Time spent hashing or verifying passwords (excluding queue wait)")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.hashing.rejected")
+                .description("Password hashing requests rejected because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("auth.hashing.queue.depth", executor, e -> e.getQueue().size())
+                .description("Password hashing requests waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing workers currently busy")
+                .register(meterRegistry);
+
+        log.info("Password hashing pool started with {} threads and queue capacity {}", poolSize, queueCapacity);
+    }
+
+    /**
+     * Hasht ein Passwort auf dem Hashing-Pool.
+     *
+     * @param rawPassword Klartext-Passwort
+     * @return BCrypt-Hash
+     * @throws ServiceOverloadedException wenn der Pool ausgelastet ist
+     */
+    public String encode(String rawPassword) {
+        return submit(() -> encodeTimer.record(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    /**
+     * Prüft ein Passwort gegen einen gespeicherten Hash auf dem Hashing-Pool.
+     *
+     * @param rawPassword Klartext-Passwort
+     * @param encodedPassword Gespeicherter BCrypt-Hash
+     * @return true wenn das Passwort passt
+     * @throws ServiceOverloadedException wenn der Pool ausgelastet ist
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return submit(() -> matchesTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            log.warn("Password hashing queue full ({} waiting), rejecting request", executor.getQueue().size());
+            throw new ServiceOverloadedException("Authentication is temporarily overloaded", retryAfter);
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            log.warn("Password hashing did not complete within {}", timeout);
+            throw new ServiceOverloadedException("Authentication is temporarily overloaded", retryAfter);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
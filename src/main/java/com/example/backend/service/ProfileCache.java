@@ -0,0 +1,103 @@
+package com.example.backend.service;
+
+import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.repository.UserProfileRepository;
+import com.example.backend.sharding.ShardKey;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Begrenzter Cache für Benutzerprofile vor dem UserProfileRepository.
+ * Einträge verfallen nach einer festen Zeit (TTL) oder werden bei Erreichen der Maximalgröße
+ * verdrängt. Treffer, Fehlschläge und Verdrängungen werden als Micrometer-Metriken
+ * unter dem Cache-Namen "userProfiles" veröffentlicht.
+ * Mit Sharding lädt der Cache vom Shard des Benutzers ({@link ShardKey}); bei getAll müssen
+ * alle Benutzer auf demselben Shard liegen.
+ */
+@Component
+public class ProfileCache {
+
+    private final UserProfileRepository profileRepository;
+    private final Cache<Long, ProfileSnapshot> cache;
+
+    public ProfileCache(UserProfileRepository profileRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.cache.profiles.maximum-size:10000}") long maximumSize,
+                        @Value("${app.cache.profiles.ttl:10m}") Duration ttl) {
+        this.profileRepository = profileRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userProfiles");
+    }
+
+    /**
+     * Sucht ein Profil im Cache und lädt es bei Bedarf aus der Datenbank.
+     * Nicht existierende Profile werden nicht zwischengespeichert.
+     *
+     * @param userId Benutzer-ID
+     * @return Optional mit Profil falls vorhanden
+     */
+    public Optional<ProfileSnapshot> find(@ShardKey Long userId) {
+        return Optional.ofNullable(cache.get(userId, id -> profileRepository.findById(id)
+                .map(ProfileSnapshot::of)
+                .orElse(null)));
+    }
+
+    /**
+     * Liefert ein Profil aus dem Cache oder der Datenbank.
+     *
+     * @param userId Benutzer-ID
+     * @return Profil
+     * @throws ResourceNotFoundException wenn das Profil nicht existiert
+     */
+    public ProfileSnapshot get(@ShardKey Long userId) {
+        return find(userId).orElseThrow(() -> new ResourceNotFoundException("UserProfile", userId));
+    }
+
+    /**
+     * Liefert mehrere Profile; fehlende Einträge werden mit einer einzigen IN-Abfrage geladen.
+     *
+     * @param userIds Benutzer-IDs
+     * @return Gefundene Profile nach ID (nicht existierende IDs fehlen)
+     */
+    public Map<Long, ProfileSnapshot> getAll(@ShardKey Set<Long> userIds) {
+        return cache.getAll(userIds, missing -> profileRepository.findAllById(List.<Long>copyOf(missing)).stream()
+                .map(ProfileSnapshot::of)
+                .collect(Collectors.toMap(ProfileSnapshot::id, Function.identity())));
+    }
+
+    /**
+     * Entfernt ein Profil sofort und – innerhalb einer Transaktion – erneut nach dem Commit,
+     * damit zwischenzeitlich geladene alte Stände nicht im Cache verbleiben.
+     *
+     * @param userId Benutzer-ID
+     */
+    public void evict(Long userId) {
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+}
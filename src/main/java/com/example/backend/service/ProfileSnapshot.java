@@ -0,0 +1,40 @@
+package com.example.backend.service;
+
+import com.example.backend.model.entity.UserProfile;
+import com.example.backend.model.enums.ActivityLevel;
+import com.example.backend.model.enums.Climate;
+
+import java.time.ZoneId;
+
+/**
+ * Unveränderliche Kopie der für Lesepfade benötigten Profildaten.
+ * Wird im ProfileCache gehalten, damit keine JPA-Entities über Transaktionsgrenzen geteilt werden.
+ * Das Passwort wird bewusst nicht übernommen. {@code dataVersion} ist der Datenstand beim Laden
+ * (siehe {@link UserVersionTracker}).
+ */
+public record ProfileSnapshot(
+        Long id,
+        String name,
+        String email,
+        Integer weightKg,
+        ActivityLevel activityLevel,
+        Climate climate,
+        String timezone,
+        ZoneId zoneId,
+        long dataVersion) {
+
+    public static ProfileSnapshot of(UserProfile profile) {
+        return new ProfileSnapshot(
+                profile.getId(),
+                profile.getName(),
+                profile.getEmail(),
+                profile.getWeightKg(),
+                profile.getActivityLevel(),
+                profile.getClimate(),
+                profile.getTimezone(),
+                ZoneId.of(profile.getTimezone()),
+                // Neu angelegte Entities kennen den Spaltenstandard (0) nicht
+                profile.getDataVersion() != null ? profile.getDataVersion() : 0L
+        );
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.backend.service;
+
+import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.model.entity.DailyIntakeRollup;
+import com.example.backend.model.entity.UserProfile;
+import com.example.backend.repository.DailyIntakeRollupRepository;
+import com.example.backend.repository.IntakeEventRepository;
+import com.example.backend.repository.UserProfileRepository;
+import com.example.backend.sharding.ShardKey;
+import com.example.backend.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Baut die Tageszusammenfassungen (daily_intake_rollup) aus den Roh-Events neu auf.
+ * Wird einmalig für Bestandsdaten sowie nach Massenimporten verwendet. Jeder Benutzer wird
+ * in einer eigenen, kurzen Transaktion verarbeitet und ist währenddessen gegen parallele
+ * Aufnahmen und Löschungen gesperrt (siehe {@link #rebuildUser(Long)}).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RollupBackfillService {
+
+    private final UserProfileRepository profileRepository;
+    private final IntakeEventRepository intakeRepository;
+    private final DailyIntakeRollupRepository rollupRepository;
+    private final HydrationService hydrationService;
+    private final IntakePartitionMaintenance partitionMaintenance;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final UserVersionTracker versionTracker;
+
+    @Value("${app.rollup.backfill-on-startup:false}")
+    private boolean backfillOnStartup;
+
+    /**
+     * Startet den Backfill nach dem Hochfahren, falls konfiguriert.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (backfillOnStartup) {
+            backfillAll();
+        }
+    }
+
+    /**
+     * Baut die Tageszusammenfassungen aller Benutzer neu auf (mit Sharding Shard für Shard).
+     *
+     * @return Anzahl der geschriebenen Tageszeilen
+     */
+    public int backfillAll() {
+        int[] totals = new int[2];
+        shardRouter.forEachShard(shard -> {
+            List<Long> userIds = profileRepository.findAllIds();
+            log.info("Backfilling daily rollups for {} users on shard {}", userIds.size(), shard);
+            for (Long userId : userIds) {
+                totals[0] += rebuildUser(userId);
+            }
+            totals[1] += userIds.size();
+        });
+
+        log.info("Daily rollup backfill finished: {} rows for {} users", totals[0], totals[1]);
+        return totals[0];
+    }
+
+    /**
+     * Baut die Tageszusammenfassungen eines Benutzers aus seinen Events neu auf.
+     * Ist eine Aufbewahrungsfrist für Events gesetzt, bleiben die Tage bis einschließlich des
+     * Tages, in den der Horizont fällt, unverändert: ihre Events sind (teilweise) bereits gelöscht.
+     *
+     * <p>Zuerst werden die Benutzerzeile (FOR UPDATE, hält Aufnahmen auf) und die vorhandenen
+     * Tageszeilen (hält Fortschreibungen aus Löschungen auf) gesperrt, erst danach werden die Events
+     * gelesen. Die Tageszeilen werden an Ort und Stelle aktualisiert statt gelöscht und neu angelegt,
+     * damit eine wartende Fortschreibung nach dem Commit auf den neuen Werten aufsetzt. Vorhandene
+     * Tageszeilen behalten ihr Tagesziel (Snapshot); nur neu angelegte erhalten das aktuelle.
+     * Der Datenstand des Benutzers (ETags) wird in derselben Transaktion erhöht.
+     *
+     * @param userId Benutzer-ID
+     * @return Anzahl der geschriebenen Tageszeilen
+     */
+    public int rebuildUser(@ShardKey Long userId) {
+        Integer rows = transactionTemplate.execute(status -> {
+            profileRepository.lockById(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("UserProfile", userId));
+            versionTracker.increment(userId);
+            UserProfile user = profileRepository.findById(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("UserProfile", userId));
+            List<DailyIntakeRollup> existing = rollupRepository.findByUserIdForUpdate(userId);
+            ZoneId zoneId = ZoneId.of(user.getTimezone());
+            int goalMl = hydrationService.calculateDailyGoalMl(user);
+            LocalDate firstDay = partitionMaintenance.retentionCutoff()
+                    .map(cutoff -> LocalDate.ofInstant(cutoff, zoneId).plusDays(1))
+                    .orElse(null);
+
+            // [0] = Menge, [1] = Anzahl Events
+            Map<LocalDate, int[]> days = new TreeMap<>();
+            try (Stream<Object[]> volumes = firstDay == null
+                    ? intakeRepository.streamVolumesByUser(userId)
+                    : intakeRepository.streamVolumesByUserSince(userId, firstDay.atStartOfDay(zoneId).toInstant())) {
+                volumes.forEach(row -> {
+                    LocalDate day = LocalDate.ofInstant((Instant) row[0], zoneId);
+                    int[] agg = days.computeIfAbsent(day, d -> new int[2]);
+                    agg[0] += ((Number) row[1]).intValue();
+                    agg[1]++;
+                });
+            }
+
+            List<DailyIntakeRollup> stale = new ArrayList<>();
+            int updated = 0;
+            for (DailyIntakeRollup rollup : existing) {
+                if (firstDay != null && rollup.getLocalDate().isBefore(firstDay)) {
+                    continue;
+                }
+                int[] agg = days.remove(rollup.getLocalDate());
+                if (agg == null) {
+                    stale.add(rollup);
+                } else {
+                    // Änderungen schreibt Hibernate beim Commit per UPDATE
+                    rollup.setTotalMl(agg[0]);
+                    rollup.setEventCount(agg[1]);
+                    updated++;
+                }
+            }
+            rollupRepository.deleteAll(stale);
+            List<DailyIntakeRollup> added = new ArrayList<>(days.size());
+            days.forEach((day, agg) -> added.add(new DailyIntakeRollup(null, user, day, agg[0], agg[1], goalMl)));
+            rollupRepository.saveAll(added);
+            return updated + added.size();
+        });
+
+        log.debug("Rebuilt {} daily rollups for user {}", rows, userId);
+        return rows != null ? rows : 0;
+    }
+}
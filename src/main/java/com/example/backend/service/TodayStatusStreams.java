@@ -0,0 +1,206 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.response.TodayStatusResponse;
+import com.example.backend.events.HydrationEvent;
+import com.example.backend.events.IntakeProjection;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Verwaltet die Server-Sent-Events-Streams für den heutigen Hydrationsstatus.
+ * Als Projektion am {@link com.example.backend.events.HydrationEventBus} wird nach jeder Änderung
+ * der Daten eines Benutzers der Status einmal berechnet (aufeinanderfolgende Ereignisse werden
+ * zusammengefasst, siehe {@link #coalesce()}) und an alle offenen Streams dieses Benutzers
+ * geschickt. Jeder Stream puffert höchstens den jeweils neuesten
+ * Status; ältere, noch nicht gesendete Stände werden verworfen. Gesendet wird auf virtuellen
+ * Threads, sodass langsame Clients weder den schreibenden Request noch andere Streams aufhalten.
+ */
+@Component
+@Slf4j
+public class TodayStatusStreams implements IntakeProjection {
+
+    private final HydrationService hydrationService;
+    private final Duration timeout;
+    private final int maxStreams;
+    private final ConcurrentHashMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger openStreams = new AtomicInteger();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    public TodayStatusStreams(HydrationService hydrationService,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.sse.timeout:30m}") Duration timeout,
+                              @Value("${app.sse.max-streams:1000}") int maxStreams) {
+        this.hydrationService = hydrationService;
+        this.timeout = timeout;
+        this.maxStreams = maxStreams;
+        Gauge.builder("sse.streams.open", openStreams, AtomicInteger::get)
+                .description("Open today-status event streams on this instance")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Öffnet einen Stream und schickt sofort den aktuellen Status.
+     *
+     * @param userId Benutzer-ID
+     * @return Emitter, oder leer wenn die maximale Anzahl offener Streams erreicht ist
+     */
+    public Optional<SseEmitter> open(Long userId) {
+        // Status zuerst laden: unbekannte Benutzer führen zu 404, ohne einen Platz zu belegen
+        TodayStatusResponse initial = hydrationService.getTodayStatus(userId);
+
+        if (openStreams.incrementAndGet() > maxStreams) {
+            openStreams.decrementAndGet();
+            log.warn("Rejecting today-status stream for user {} - {} streams open", userId, maxStreams);
+            return Optional.empty();
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        // Hinzufügen innerhalb von compute: ein gleichzeitiges remove() kann die Menge sonst zwischen
+        // computeIfAbsent und add aus der Map entfernen, und der Stream bekäme keine Updates mehr
+        subscribers.compute(userId, (id, set) -> {
+            Set<Subscriber> userSubscribers = set != null ? set : ConcurrentHashMap.newKeySet();
+            userSubscribers.add(subscriber);
+            return userSubscribers;
+        });
+        emitter.onCompletion(subscriber::remove);
+        emitter.onTimeout(subscriber::remove);
+        emitter.onError(error -> subscriber.remove());
+
+        subscriber.offer(initial);
+        log.debug("Opened today-status stream for user {}", userId);
+        return Optional.of(emitter);
+    }
+
+    @Override
+    public String name() {
+        return "today-status";
+    }
+
+    /**
+     * Der Status wird ohnehin komplett neu berechnet; wartet schon ein späteres Ereignis des Benutzers
+     * (z.B. beim Batch-Import), reicht die Berechnung für dieses.
+     */
+    @Override
+    public boolean coalesce() {
+        return true;
+    }
+
+    /**
+     * Schickt den neuen Status an alle Streams des Benutzers.
+     * Läuft auf dem Partitions-Thread des Event-Busses nach dem Commit; ohne offene Streams entfällt
+     * die Berechnung. Verworfene Ereignisse werden mit dem nächsten Ereignis des Benutzers nachgeholt,
+     * ein Replay ist daher nicht nötig.
+     */
+    @Override
+    public void on(HydrationEvent event) {
+        Set<Subscriber> userSubscribers = subscribers.get(event.userId());
+        if (userSubscribers == null || userSubscribers.isEmpty()) {
+            return;
+        }
+        TodayStatusResponse status = hydrationService.getTodayStatus(event.userId());
+        userSubscribers.forEach(subscriber -> subscriber.offer(status));
+    }
+
+    /**
+     * Hält Verbindungen über Proxies hinweg offen und erkennt abgebrochene Clients.
+     */
+    @Scheduled(fixedDelayString = "${app.sse.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        subscribers.values().forEach(set -> set.forEach(Subscriber::heartbeat));
+    }
+
+    public int getOpenStreams() {
+        return openStreams.get();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        sender.shutdownNow();
+    }
+
+    private final class Subscriber {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final AtomicReference<TodayStatusResponse> pending = new AtomicReference<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean removed = new AtomicBoolean();
+
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        /**
+         * Ersetzt einen noch nicht gesendeten Status durch den neuesten und stößt das Senden an.
+         */
+        void offer(TodayStatusResponse status) {
+            pending.set(status);
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        void heartbeat() {
+            sender.execute(() -> {
+                try {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } catch (IOException | IllegalStateException e) {
+                    fail(e);
+                }
+            });
+        }
+
+        private void drain() {
+            try {
+                TodayStatusResponse next;
+                while ((next = pending.getAndSet(null)) != null) {
+                    emitter.send(SseEmitter.event().name("today").data(next));
+                }
+            } catch (IOException | IllegalStateException e) {
+                fail(e);
+            } finally {
+                draining.set(false);
+                // Status, der nach dem letzten getAndSet eingetroffen ist, nicht liegen lassen
+                if (pending.get() != null && !removed.get() && draining.compareAndSet(false, true)) {
+                    sender.execute(this::drain);
+                }
+            }
+        }
+
+        private void fail(Exception e) {
+            log.debug("Closing today-status stream for user {}: {}", userId, e.getMessage());
+            remove();
+            emitter.completeWithError(e);
+        }
+
+        void remove() {
+            if (removed.compareAndSet(false, true)) {
+                openStreams.decrementAndGet();
+                subscribers.computeIfPresent(userId, (id, set) -> {
+                    set.remove(this);
+                    return set.isEmpty() ? null : set;
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.backend.service;
+
+import com.example.backend.repository.UserProfileRepository;
+import com.example.backend.sharding.ShardKey;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * ETags pro Benutzer aus dem Datenstand in {@code user_profile.data_version}.
+ * Schreibende Transaktionen erhöhen den Datenstand über {@link #increment(Long)} vor ihren übrigen
+ * Änderungen, daher ist er auf allen Instanzen gleich und übersteht Neustarts.
+ *
+ * <p>Nur bedingte GETs (If-None-Match) lesen den Datenstand aus der Datenbank. Ohne If-None-Match
+ * kommt das ETag aus dem bekannten Stand dieser Instanz: zuletzt gelesen, fortgeschrieben um die
+ * eigenen Schreibvorgänge. Dieser Stand ist nie höher als der gespeicherte; ein veraltetes ETag
+ * führt beim nächsten bedingten GET nur zu einer vollständigen Antwort, nie zu einem falschen 304.
+ *
+ * <p>Weicht der gelesene Datenstand vom bekannten ab, hat eine andere Instanz geschrieben: dann
+ * werden Profil-Cache und Tagessumme des Benutzers verworfen, damit unter dem neuen ETag keine
+ * veralteten Daten ausgeliefert werden. Eigene Schreibvorgänge verwerfen nichts; ohne bedingte
+ * GETs begrenzt die TTL der Tagessumme, wie lange fremde Änderungen unsichtbar bleiben.
+ */
+@Component
+public class UserVersionTracker {
+
+    private final UserProfileRepository profileRepository;
+    private final ProfileCache profileCache;
+    private final DailyIntakeTotals dailyTotals;
+
+    /**
+     * Bekannter Datenstand pro Benutzer.
+     * Ein verdrängter Eintrag führt beim nächsten Zugriff nur zu einem Neuladen.
+     */
+    private final Cache<Long, UserState> states = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .build();
+
+    public UserVersionTracker(UserProfileRepository profileRepository,
+                              ProfileCache profileCache,
+                              DailyIntakeTotals dailyTotals) {
+        this.profileRepository = profileRepository;
+        this.profileCache = profileCache;
+        this.dailyTotals = dailyTotals;
+    }
+
+    /**
+     * Starkes ETag für eine Ressource eines Benutzers.
+     * Muss vor dem Laden der Daten ermittelt werden: ein gleichzeitiger Schreibvorgang führt
+     * dann höchstens zu einem veralteten ETag (nächster Abruf lädt neu), nie zu veralteten Daten
+     * unter einem neuen ETag.
+     *
+     * @param resource   Ressourcenart (z.B. "today")
+     * @param userId     Benutzer-ID
+     * @param revalidate true, wenn der Request If-None-Match trägt (Datenstand aus der Datenbank lesen)
+     * @return ETag inklusive Anführungszeichen
+     */
+    public String etag(String resource, @ShardKey Long userId, boolean revalidate) {
+        UserState state = states.get(userId, id -> new UserState());
+        long version = revalidate ? readVersion(userId, state) : knownVersion(userId, state);
+        return "\"" + resource + "-" + userId + "-" + version + "\"";
+    }
+
+    /**
+     * Erhöht den Datenstand eines Benutzers in der laufenden Transaktion und merkt sich den
+     * Schreibvorgang, damit er nach dem Commit nicht als fremde Änderung gilt.
+     * Sperrt die Zeile des Benutzers bis zum Commit (siehe {@link UserProfileRepository#incrementDataVersion}).
+     *
+     * @param userId Benutzer-ID
+     * @return Anzahl geänderter Zeilen (0 wenn der Benutzer nicht existiert)
+     */
+    public int increment(Long userId) {
+        UserState state = states.get(userId, id -> new UserState());
+        synchronized (state) {
+            state.pendingWrites++;
+        }
+
+        int rows;
+        try {
+            rows = profileRepository.incrementDataVersion(userId);
+        } catch (RuntimeException e) {
+            complete(state, false);
+            throw e;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            complete(state, rows > 0);
+            return rows;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                complete(state, rows > 0 && status == STATUS_COMMITTED);
+            }
+        });
+        return rows;
+    }
+
+    /**
+     * Liest den gespeicherten Datenstand und verwirft die lokalen Speicher, wenn er sich nicht
+     * allein durch eigene Schreibvorgänge erklären lässt.
+     */
+    private long readVersion(Long userId, UserState state) {
+        long version = profileRepository.findDataVersionById(userId).orElse(0L);
+        boolean foreign;
+        synchronized (state) {
+            // Während eigener Schreibvorgänge ist nicht entscheidbar, wessen Änderung gelesen wurde
+            foreign = state.pendingWrites > 0 || state.version == null || state.version != version;
+            if (state.pendingWrites == 0) {
+                state.version = version;
+            }
+        }
+        if (foreign) {
+            profileCache.evict(userId);
+            dailyTotals.invalidate(userId);
+        }
+        return version;
+    }
+
+    /**
+     * Bekannter Stand ohne Datenbankzugriff. Ist noch keiner bekannt, dient der Stand des
+     * zwischengespeicherten Profils; die Tagessumme wird dann neu geladen, weil sie älter sein kann.
+     */
+    private long knownVersion(Long userId, UserState state) {
+        synchronized (state) {
+            if (state.version != null) {
+                return state.version;
+            }
+        }
+
+        long version = profileCache.get(userId).dataVersion();
+        dailyTotals.invalidate(userId);
+        synchronized (state) {
+            // Nicht während eigener Schreibvorgänge: ein schon im Profil enthaltener Commit würde sonst doppelt gezählt
+            if (state.version == null && state.pendingWrites == 0) {
+                state.version = version;
+            }
+        }
+        return version;
+    }
+
+    private static void complete(UserState state, boolean committed) {
+        synchronized (state) {
+            state.pendingWrites--;
+            if (committed && state.version != null) {
+                state.version++;
+            }
+        }
+    }
+
+    /**
+     * Stand eines Benutzers; alle Zugriffe erfolgen synchronisiert auf dem Objekt.
+     */
+    private static final class UserState {
+        private Long version;
+        private int pendingWrites;
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.backend.sharding;
+
+import com.example.backend.exception.ConflictException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Globales Verzeichnis Benutzer -> Shard (Tabelle user_directory auf Shard 0).
+ *
+ * <p>Die E-Mail liegt ebenfalls hier, damit Login und Registrierung den Shard ohne Suche über alle
+ * Shards finden und E-Mails shardübergreifend eindeutig bleiben. Lookups per Benutzer-ID werden
+ * für cache-ttl zwischengespeichert; nach einem Umzug sehen andere Instanzen den neuen Shard
+ * daher erst nach Ablauf der TTL oder wenn ein Zugriff auf dem alten Shard scheitert (siehe {@link #refresh}).
+ *
+ * <p>Die Anzahl Benutzer je Shard für die Platzierung neuer Benutzer wird im Speicher gezählt: eigene
+ * Registrierungen, Entfernungen und Umzüge schreiben sie fort, regelmäßig wird sie aus der Tabelle neu
+ * gelesen und übernimmt so die Änderungen anderer Instanzen.
+ */
+@Slf4j
+public class ShardDirectory {
+
+    private static final String CREATE_TABLE = """
+        CREATE TABLE IF NOT EXISTS user_directory (
+            user_id BIGINT PRIMARY KEY,
+            email VARCHAR(255) UNIQUE,
+            shard INTEGER NOT NULL
+        )
+        """;
+
+    private static final String CREATE_SHARD_INDEX =
+            "CREATE INDEX IF NOT EXISTS idx_user_directory_shard ON user_directory (shard)";
+
+    /**
+     * Übernimmt Benutzer aus der Zeit vor dem Sharding: sie liegen alle auf Shard 0.
+     */
+    private static final String ADOPT_EXISTING_USERS = """
+        INSERT INTO user_directory (user_id, email, shard)
+        SELECT u.id, u.email, 0 FROM user_profile u
+        WHERE NOT EXISTS (SELECT 1 FROM user_directory d WHERE d.user_id = u.id)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int shardCount;
+    private final Cache<Long, Integer> cache;
+    private final AtomicLongArray users;
+
+    public ShardDirectory(JdbcTemplate jdbcTemplate, int shardCount, Duration cacheTtl, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardCount = shardCount;
+        this.users = new AtomicLongArray(shardCount);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userDirectory");
+    }
+
+    /**
+     * Legt die Tabelle an und trägt bestehende Benutzer von Shard 0 ein.
+     */
+    public void initialize() {
+        jdbcTemplate.execute(CREATE_TABLE);
+        jdbcTemplate.execute(CREATE_SHARD_INDEX);
+        int adopted = jdbcTemplate.update(ADOPT_EXISTING_USERS);
+        if (adopted > 0) {
+            log.info("Added {} existing users on shard 0 to the user directory", adopted);
+        }
+        refreshPopulation();
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    /**
+     * @param userId Benutzer-ID
+     * @return Shard des Benutzers (zwischengespeichert), null wenn unbekannt
+     */
+    public Integer shardOf(Long userId) {
+        return cache.get(userId, this::lookup);
+    }
+
+    /**
+     * @param userId Benutzer-ID
+     * @return Shard des Benutzers direkt aus der Tabelle, null wenn unbekannt
+     */
+    public Integer lookup(Long userId) {
+        return jdbcTemplate.query("SELECT shard FROM user_directory WHERE user_id = ?",
+                rs -> rs.next() ? rs.getInt(1) : null, userId);
+    }
+
+    /**
+     * Liest den Shard eines Benutzers neu und ersetzt den zwischengespeicherten Eintrag.
+     *
+     * @param userId Benutzer-ID
+     * @param shard  Shard, auf dem der Zugriff gescheitert ist
+     * @return true, wenn der Benutzer inzwischen auf einem anderen Shard liegt
+     */
+    public boolean refresh(Long userId, int shard) {
+        Integer current = lookup(userId);
+        if (current == null) {
+            cache.invalidate(userId);
+            return false;
+        }
+        cache.put(userId, current);
+        return current != shard;
+    }
+
+    /**
+     * @param email E-Mail-Adresse
+     * @return Shard des Benutzers mit dieser E-Mail, null wenn unbekannt
+     */
+    public Integer shardOfEmail(String email) {
+        return jdbcTemplate.query("SELECT shard FROM user_directory WHERE email = ?",
+                rs -> rs.next() ? rs.getInt(1) : null, email);
+    }
+
+    /**
+     * Trägt einen neuen Benutzer ein.
+     *
+     * @throws ConflictException wenn die E-Mail bereits einem anderen Benutzer gehört
+     */
+    public void register(Long userId, String email, int shard) {
+        try {
+            jdbcTemplate.update("INSERT INTO user_directory (user_id, email, shard) VALUES (?, ?, ?)",
+                    userId, email, shard);
+            users.incrementAndGet(shard);
+        } catch (DuplicateKeyException e) {
+            // Beim Start bereits übernommen (ADOPT_EXISTING_USERS) ist kein Konflikt
+            if (!Objects.equals(lookup(userId), shard)) {
+                throw new ConflictException("Email already exists");
+            }
+        }
+        cache.put(userId, shard);
+    }
+
+    /**
+     * Schaltet einen Benutzer auf einen anderen Shard um.
+     *
+     * @param userId Benutzer-ID
+     * @param source Bisheriger Shard
+     * @param target Neuer Shard
+     * @throws IllegalStateException wenn der Benutzer nicht mehr auf dem bisherigen Shard eingetragen ist
+     */
+    public void move(Long userId, int source, int target) {
+        int moved = jdbcTemplate.update("UPDATE user_directory SET shard = ? WHERE user_id = ? AND shard = ?",
+                target, userId, source);
+        cache.invalidate(userId);
+        if (moved == 0) {
+            throw new IllegalStateException("User " + userId + " is no longer on shard " + source);
+        }
+        users.decrementAndGet(source);
+        users.incrementAndGet(target);
+    }
+
+    /**
+     * Entfernt einen Benutzer (z.B. wenn seine Registrierung zurückgerollt wurde).
+     */
+    public void remove(Long userId) {
+        Integer shard = lookup(userId);
+        int removed = jdbcTemplate.update("DELETE FROM user_directory WHERE user_id = ?", userId);
+        cache.invalidate(userId);
+        if (removed > 0 && shard != null && shard >= 0 && shard < shardCount) {
+            users.decrementAndGet(shard);
+        }
+    }
+
+    /**
+     * Zählt die Benutzer je Shard in der Tabelle und übernimmt das Ergebnis als neuen Zählerstand.
+     *
+     * @return Anzahl Benutzer je Shard (Index = Shard)
+     */
+    public long[] population() {
+        long[] counted = new long[shardCount];
+        jdbcTemplate.query("SELECT shard, COUNT(*) FROM user_directory GROUP BY shard", rs -> {
+            int shard = rs.getInt(1);
+            if (shard >= 0 && shard < shardCount) {
+                counted[shard] = rs.getLong(2);
+            }
+        });
+        for (int shard = 0; shard < shardCount; shard++) {
+            users.set(shard, counted[shard]);
+        }
+        return counted;
+    }
+
+    /**
+     * Liest die Anzahl Benutzer je Shard neu, damit Registrierungen anderer Instanzen in die Platzierung eingehen.
+     */
+    @Scheduled(fixedDelayString = "${app.sharding.population-refresh-interval-ms:60000}")
+    public void refreshPopulation() {
+        try {
+            population();
+        } catch (RuntimeException e) {
+            log.warn("Refreshing the user count per shard failed, keeping the local count: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return Im Speicher gezählte Benutzer je Shard (Index = Shard), ohne Datenbankzugriff
+     */
+    public long[] estimatedPopulation() {
+        long[] counted = new long[shardCount];
+        for (int shard = 0; shard < shardCount; shard++) {
+            counted[shard] = users.get(shard);
+        }
+        return counted;
+    }
+
+    /**
+     * @return Zuletzt registrierter Benutzer eines Shards (Umzugskandidat), null wenn der Shard leer ist
+     */
+    public Long newestUserOn(int shard) {
+        return jdbcTemplate.queryForObject("SELECT MAX(user_id) FROM user_directory WHERE shard = ?",
+                Long.class, shard);
+    }
+}
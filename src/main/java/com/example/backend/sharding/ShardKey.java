@@ -0,0 +1,29 @@
+package com.example.backend.sharding;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Markiert den Parameter einer Bean-Methode, nach dessen Benutzer die Methode auf einen Shard geroutet wird.
+ * Der Shard wird vor einer ggf. startenden Transaktion gebunden und gilt für alle Zugriffe innerhalb des Aufrufs.
+ *
+ * <p>Unterstützt werden Benutzer-IDs ({@link Long}), {@link com.example.backend.dto.request.IntakeRequest}s und
+ * Collections davon; alle referenzierten Benutzer müssen auf demselben Shard liegen. null und unbekannte Benutzer
+ * bleiben ungebunden (Shard 0). Ohne app.sharding.enabled hat die Annotation keine Wirkung.
+ *
+ * <p>Scheitert ein äußerster Aufruf (außerhalb von Scope und Transaktion) mit 404 oder einer Integritätsverletzung,
+ * weil der Benutzer inzwischen umgezogen ist, wird er einmal auf dem neuen Shard wiederholt.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ShardKey {
+
+    /**
+     * @return false für Methoden, die sich nicht wiederholen lassen (z.B. weil sie einen Strom lesen oder schreiben)
+     */
+    boolean reroute() default true;
+}
@@ -0,0 +1,92 @@
+package com.example.backend.sharding;
+
+import com.example.backend.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bindet den Shard des {@link ShardKey}-Parameters für die Dauer des Methodenaufrufs.
+ * Läuft vor dem Transaktions-Advice, damit die Verbindung bereits vom richtigen Shard kommt.
+ *
+ * <p>Nach einem Umzug routen andere Instanzen bis zum Ablauf ihres Verzeichnis-Caches auf den alten Shard. Scheitert
+ * ein Aufruf dort mit 404 oder einer Integritätsverletzung (Fremdschlüssel des gelöschten Profils), wird das
+ * Verzeichnis neu gelesen; liegt der Benutzer inzwischen woanders, wird der äußerste Aufruf einmal auf dem neuen
+ * Shard wiederholt. Seine Transaktion ist dann bereits zurückgerollt, die Wiederholung also unbedenklich.
+ */
+@Slf4j
+class ShardKeyInterceptor implements MethodInterceptor {
+
+    /**
+     * Trifft alle Methoden mit einem {@link ShardKey}-Parameter.
+     */
+    static final Pointcut POINTCUT = new StaticMethodMatcherPointcut() {
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return keyIndex(AopUtils.getMostSpecificMethod(method, targetClass)) >= 0;
+        }
+    };
+
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final Map<Method, Integer> keyIndexes = new ConcurrentHashMap<>();
+    private final Map<Method, Boolean> reroutes = new ConcurrentHashMap<>();
+
+    ShardKeyInterceptor(ObjectProvider<ShardRouter> shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (invocation.getThis() != null) {
+            method = AopUtils.getMostSpecificMethod(method, AopUtils.getTargetClass(invocation.getThis()));
+        }
+        int index = keyIndexes.computeIfAbsent(method, ShardKeyInterceptor::keyIndex);
+        if (index < 0) {
+            return invocation.proceed();
+        }
+        ShardRouter router = shardRouter.getObject();
+        Object key = invocation.getArguments()[index];
+        // Verschachtelte Aufrufe laufen im Scope und ggf. in der Transaktion des äußeren und wiederholen nie selbst
+        boolean outermost = ShardScope.current() == null && !TransactionSynchronizationManager.isActualTransactionActive();
+        ShardScope scope = router.bindKey(key);
+        Integer shard = scope.shard();
+        MethodInvocation retry = outermost && shard != null
+                && reroutes.computeIfAbsent(method, m -> m.getParameters()[index].getAnnotation(ShardKey.class).reroute())
+                && invocation instanceof ProxyMethodInvocation proxy ? proxy.invocableClone() : null;
+        try (scope) {
+            return invocation.proceed();
+        } catch (ResourceNotFoundException | DataIntegrityViolationException e) {
+            // Auch ohne Wiederholung den Cache korrigieren, damit der nächste Aufruf richtig routet
+            if (shard == null || !router.refreshKey(key, shard) || retry == null) {
+                throw e;
+            }
+            log.info("Retrying {} on the new shard of a user moved away from shard {}", method.getName(), shard);
+        }
+        try (ShardScope rerouted = router.bindKey(key)) {
+            return retry.proceed();
+        }
+    }
+
+    static int keyIndex(Method method) {
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i].isAnnotationPresent(ShardKey.class)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
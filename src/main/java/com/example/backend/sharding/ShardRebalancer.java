@@ -0,0 +1,287 @@
+package com.example.backend.sharding;
+
+import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.service.IntakePartitionMaintenance;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Verschiebt Benutzer im laufenden Betrieb zwischen Shards.
+ *
+ * <p>Ein Umzug sperrt alle Zeilen des Benutzers auf dem Quell-Shard (SELECT ... FOR UPDATE; neue Aufnahmen
+ * warten zusätzlich auf die Fremdschlüssel-Sperre des Profils), kopiert sie samt IDs in einer Transaktion auf
+ * den Ziel-Shard, schaltet das Verzeichnis um und löscht die Quelle. Andere Benutzer sind nicht betroffen.
+ * Schreibzugriffe des umziehenden Benutzers, die auf die Sperren warten, laufen nach dem Löschen der Quelle
+ * dort weiter und scheitern (Fremdschlüsselfehler bzw. 404). Ebenso scheitern Zugriffe anderer Instanzen, die bis
+ * zum Ablauf von directory-cache-ttl noch auf die Quelle routen. In beiden Fällen liest der
+ * {@link ShardKeyInterceptor} das Verzeichnis neu und wiederholt den Aufruf auf dem Ziel-Shard.
+ *
+ * <p>Metriken: sharding.moves (umgezogene Benutzer) und sharding.moved.rows.
+ */
+@Slf4j
+public class ShardRebalancer {
+
+    /**
+     * Tabellen mit Benutzerdaten in Fremdschlüssel-Reihenfolge (Profil zuerst) und ihre Benutzerspalte.
+     * Outbox-Nachrichten bleiben auf der Quelle und werden dort zugestellt.
+     */
+    private static final List<UserTable> TABLES = List.of(
+            new UserTable("user_profile", "id"),
+            new UserTable("intake_event", "user_id"),
+            new UserTable("daily_intake_rollup", "user_id"));
+
+    private static final int BATCH_SIZE = 500;
+
+    private final List<DataSource> shards;
+    private final ShardDirectory directory;
+    private final IntakePartitionMaintenance partitionMaintenance;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Counter moves;
+    private final Counter movedRows;
+
+    public ShardRebalancer(List<DataSource> shards,
+                           ShardDirectory directory,
+                           IntakePartitionMaintenance partitionMaintenance,
+                           MeterRegistry meterRegistry) {
+        this.shards = shards;
+        this.directory = directory;
+        this.partitionMaintenance = partitionMaintenance;
+        this.moves = Counter.builder("sharding.moves")
+                .description("Users moved between shards")
+                .register(meterRegistry);
+        this.movedRows = Counter.builder("sharding.moved.rows")
+                .description("Rows copied while moving users between shards")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return Anzahl Benutzer je Shard (Index = Shard)
+     */
+    public long[] population() {
+        return directory.population();
+    }
+
+    /**
+     * Verschiebt Benutzer vom vollsten auf den leersten Shard, bis sich die Shards um höchstens
+     * einen Benutzer unterscheiden oder maxMoves erreicht ist. Verschoben werden die zuletzt registrierten.
+     *
+     * @param maxMoves Obergrenze für Umzüge in diesem Lauf
+     * @return Anzahl verschobener Benutzer
+     */
+    public int rebalance(int maxMoves) {
+        long[] population = directory.population();
+        int moved = 0;
+        while (moved < maxMoves) {
+            int fullest = 0;
+            int emptiest = 0;
+            for (int shard = 1; shard < population.length; shard++) {
+                if (population[shard] > population[fullest]) {
+                    fullest = shard;
+                }
+                if (population[shard] < population[emptiest]) {
+                    emptiest = shard;
+                }
+            }
+            if (population[fullest] - population[emptiest] <= 1) {
+                break;
+            }
+            Long userId = directory.newestUserOn(fullest);
+            if (userId == null) {
+                break;
+            }
+            moveUser(userId, emptiest);
+            population[fullest]--;
+            population[emptiest]++;
+            moved++;
+        }
+        log.info("Rebalanced {} users across {} shards", moved, shards.size());
+        return moved;
+    }
+
+    /**
+     * Verschiebt einen Benutzer samt Profil, Aufnahmen und Tageszusammenfassungen.
+     *
+     * @param userId Benutzer-ID
+     * @param target Ziel-Shard
+     * @return Anzahl kopierter Zeilen (0 wenn der Benutzer bereits dort liegt)
+     * @throws ResourceNotFoundException wenn der Benutzer unbekannt ist
+     */
+    public long moveUser(Long userId, int target) {
+        if (target < 0 || target >= shards.size()) {
+            throw new IllegalArgumentException("Unknown shard: " + target);
+        }
+        // Nur ein Umzug gleichzeitig pro Instanz: hält die Last auf den Shards klein
+        lock.lock();
+        try {
+            Integer source = directory.lookup(userId);
+            if (source == null) {
+                throw new ResourceNotFoundException("UserProfile", userId);
+            }
+            if (source == target) {
+                return 0;
+            }
+            long rows = move(userId, source, target);
+            moves.increment();
+            movedRows.increment(rows);
+            log.info("Moved user {} from shard {} to shard {} ({} rows)", userId, source, target, rows);
+            return rows;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Moving user " + userId + " to shard " + target + " failed: " + e.getMessage(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long move(Long userId, int source, int target) throws SQLException {
+        try (Connection from = shards.get(source).getConnection();
+             Connection to = shards.get(target).getConnection()) {
+            from.setAutoCommit(false);
+            to.setAutoCommit(false);
+
+            // 0. Monatspartitionen für die Aufnahmen auf dem Ziel anlegen (eigene DDL-Transaktion)
+            ensurePartitions(from, userId, target);
+
+            // 1. Quelle sperren und kopieren; bis hier ist ein Fehler folgenlos
+            long rows = 0;
+            try {
+                for (UserTable table : TABLES) {
+                    long copied = copy(from, to, table, userId);
+                    if (table == TABLES.get(0) && copied == 0) {
+                        throw new ResourceNotFoundException("UserProfile", userId);
+                    }
+                    rows += copied;
+                }
+                to.commit();
+            } catch (SQLException | RuntimeException e) {
+                rollbackQuietly(to);
+                rollbackQuietly(from);
+                throw e;
+            }
+
+            // 2. Verzeichnis umschalten; schlägt das fehl, die Kopie wieder entfernen
+            try {
+                directory.move(userId, source, target);
+            } catch (RuntimeException e) {
+                rollbackQuietly(from);
+                delete(to, userId);
+                to.commit();
+                throw e;
+            }
+
+            // 3. Quelle löschen (gibt die Sperren frei)
+            try {
+                delete(from, userId);
+                from.commit();
+            } catch (SQLException e) {
+                rollbackQuietly(from);
+                log.error("User {} now lives on shard {} but its rows on shard {} could not be deleted: {}",
+                        userId, target, source, e.getMessage());
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Legt auf dem Ziel-Shard die Partitionen aller Monate an, in denen der Benutzer Aufnahmen hat.
+     * Neue Aufnahmen während des Umzugs fallen in den laufenden Monat, den die Wartung vorab anlegt.
+     */
+    private void ensurePartitions(Connection from, Long userId, int target) throws SQLException {
+        try (PreparedStatement select = from.prepareStatement(
+                "SELECT MIN(timestamp_utc), MAX(timestamp_utc) FROM intake_event WHERE user_id = ?")) {
+            select.setLong(1, userId);
+            try (ResultSet rs = select.executeQuery()) {
+                OffsetDateTime first = rs.next() ? rs.getObject(1, OffsetDateTime.class) : null;
+                if (first == null) {
+                    return;
+                }
+                OffsetDateTime last = rs.getObject(2, OffsetDateTime.class);
+                try (ShardScope scope = ShardScope.bind(target)) {
+                    partitionMaintenance.ensureMonths(first.toInstant(), last.toInstant());
+                }
+            }
+        }
+    }
+
+    private static long copy(Connection from, Connection to, UserTable table, Long userId) throws SQLException {
+        try (PreparedStatement select = from.prepareStatement(
+                "SELECT * FROM " + table.name() + " WHERE " + table.userColumn() + " = ? FOR UPDATE")) {
+            select.setLong(1, userId);
+            select.setFetchSize(BATCH_SIZE);
+            try (ResultSet rs = select.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                int columns = meta.getColumnCount();
+                StringJoiner names = new StringJoiner(", ");
+                StringJoiner values = new StringJoiner(", ");
+                for (int i = 1; i <= columns; i++) {
+                    names.add(meta.getColumnName(i));
+                    values.add("?");
+                }
+                try (PreparedStatement insert = to.prepareStatement(
+                        "INSERT INTO " + table.name() + " (" + names + ") VALUES (" + values + ")")) {
+                    long rows = 0;
+                    while (rs.next()) {
+                        for (int i = 1; i <= columns; i++) {
+                            insert.setObject(i, isTimestampWithZone(meta, i)
+                                    ? rs.getObject(i, OffsetDateTime.class)
+                                    : rs.getObject(i));
+                        }
+                        insert.addBatch();
+                        if (++rows % BATCH_SIZE == 0) {
+                            insert.executeBatch();
+                        }
+                    }
+                    if (rows % BATCH_SIZE != 0) {
+                        insert.executeBatch();
+                    }
+                    return rows;
+                }
+            }
+        }
+    }
+
+    /**
+     * Löscht alle Zeilen eines Benutzers in umgekehrter Fremdschlüssel-Reihenfolge.
+     */
+    private static void delete(Connection connection, Long userId) throws SQLException {
+        for (int i = TABLES.size() - 1; i >= 0; i--) {
+            UserTable table = TABLES.get(i);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "DELETE FROM " + table.name() + " WHERE " + table.userColumn() + " = ?")) {
+                statement.setLong(1, userId);
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Instant-Spalten (timestamptz) als OffsetDateTime übertragen, damit keine Zeitzone dazwischenfunkt.
+     */
+    private static boolean isTimestampWithZone(ResultSetMetaData meta, int column) throws SQLException {
+        return meta.getColumnType(column) == Types.TIMESTAMP_WITH_TIMEZONE
+                || "timestamptz".equalsIgnoreCase(meta.getColumnTypeName(column));
+    }
+
+    private static void rollbackQuietly(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            log.warn("Rollback during shard move failed: {}", e.getMessage());
+        }
+    }
+
+    private record UserTable(String name, String userColumn) {
+    }
+}
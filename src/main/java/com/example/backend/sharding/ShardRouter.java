@@ -0,0 +1,248 @@
+package com.example.backend.sharding;
+
+import com.example.backend.dto.request.IntakeRequest;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+/**
+ * Bindet Zugriffe an den Shard eines Benutzers (app.sharding.enabled=true).
+ *
+ * <p>Service-Methoden werden über {@link ShardKey} gebunden; Registrierung, Login und Hintergrundjobs, die
+ * alle Shards bearbeiten, nutzen die Methoden hier direkt. Ohne Sharding liefern alle bind-Methoden einen
+ * wirkungslosen Scope und {@link #forEachShard(IntConsumer)} ruft die Aktion einmal für die einzige
+ * Datenbank auf, sodass Aufrufer keine Fallunterscheidung brauchen.
+ */
+@Component
+public class ShardRouter {
+
+    /**
+     * Größe des ID-Bereichs je Shard: Sequenzen und IDENTITY-Spalte von Shard k beginnen bei k * ID_RANGE.
+     * Da die Bereiche disjunkt sind, bleiben IDs global eindeutig, auch wenn Zeilen beim Umzug samt ID auf einen
+     * anderen Shard wandern. Der Bereich einer ID nennt nur die Sequenz, aus der sie stammt, nicht den Shard der
+     * Zeile: der gepoolte Optimizer von Hibernate ist shardübergreifend und vergibt einen auf Shard k geholten
+     * Block auch für Zeilen anderer Shards.
+     */
+    public static final long ID_RANGE = 1L << 40;
+
+    private final ShardDirectory directory;
+
+    @Autowired
+    public ShardRouter(ObjectProvider<ShardDirectory> directory) {
+        this(directory.getIfAvailable());
+    }
+
+    ShardRouter(ShardDirectory directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return Router ohne Sharding (für Tests und Benchmarks)
+     */
+    public static ShardRouter disabled() {
+        return new ShardRouter((ShardDirectory) null);
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    public int shardCount() {
+        return directory != null ? directory.shardCount() : 1;
+    }
+
+    /**
+     * @return Aktuell gebundener Shard, 0 ohne Scope
+     */
+    public int currentShard() {
+        Integer current = ShardScope.current();
+        return current != null ? current : 0;
+    }
+
+    /**
+     * Bindet den Shard eines Benutzers. Unbekannte Benutzer bleiben ungebunden.
+     *
+     * @param userId Benutzer-ID
+     * @return Scope, im try-with-resources zu schließen
+     */
+    public ShardScope bindUser(Long userId) {
+        if (directory == null || userId == null) {
+            return ShardScope.NONE;
+        }
+        Integer shard = directory.shardOf(userId);
+        return shard != null ? bind(shard) : ShardScope.NONE;
+    }
+
+    /**
+     * Bindet den Shard des Benutzers mit dieser E-Mail (Login, Registrierung).
+     *
+     * @param email E-Mail-Adresse
+     * @return Scope, im try-with-resources zu schließen
+     */
+    public ShardScope bindEmail(String email) {
+        if (directory == null || email == null) {
+            return ShardScope.NONE;
+        }
+        Integer shard = directory.shardOfEmail(email);
+        return shard != null ? bind(shard) : ShardScope.NONE;
+    }
+
+    /**
+     * Bindet den Shard mit den wenigsten Benutzern für eine Neuanlage (Zählerstand im Speicher, siehe
+     * {@link ShardDirectory#estimatedPopulation()}). Der Benutzer muss danach mit {@link #registerUser(Long, String, ShardScope)} eingetragen werden.
+     *
+     * @return Scope, im try-with-resources zu schließen
+     */
+    public ShardScope bindNewUser() {
+        if (directory == null) {
+            return ShardScope.NONE;
+        }
+        long[] population = directory.estimatedPopulation();
+        int target = 0;
+        for (int shard = 1; shard < population.length; shard++) {
+            if (population[shard] < population[target]) {
+                target = shard;
+            }
+        }
+        return bind(target);
+    }
+
+    /**
+     * Bindet den Shard für einen {@link ShardKey}-Parameter.
+     *
+     * @param key Benutzer-ID, IntakeRequest oder Collection davon
+     * @return Scope, im try-with-resources zu schließen
+     * @throws IllegalArgumentException wenn die Benutzer auf verschiedenen Shards liegen
+     */
+    public ShardScope bindKey(Object key) {
+        if (directory == null || key == null) {
+            return ShardScope.NONE;
+        }
+        if (!(key instanceof Collection<?> keys)) {
+            return bindUser(userIdOf(key));
+        }
+        Integer shard = null;
+        for (Object element : keys) {
+            Long userId = element != null ? userIdOf(element) : null;
+            Integer candidate = userId != null ? directory.shardOf(userId) : null;
+            if (candidate == null) {
+                // Unbekannte Benutzer lehnt der Service als nicht gefunden ab
+                continue;
+            }
+            if (shard != null && !shard.equals(candidate)) {
+                throw new IllegalArgumentException("All items must belong to users on the same shard");
+            }
+            shard = candidate;
+        }
+        return shard != null ? bind(shard) : ShardScope.NONE;
+    }
+
+    /**
+     * Gleicht nach einem gescheiterten Zugriff die Verzeichniseinträge eines {@link ShardKey}-Parameters mit der
+     * Tabelle ab. Liegt ein Benutzer inzwischen auf einem anderen Shard, war der Cache nach einem Umzug veraltet.
+     *
+     * @param key   Benutzer-ID, IntakeRequest oder Collection davon
+     * @param shard Shard, auf dem der Zugriff gescheitert ist
+     * @return true, wenn mindestens ein Benutzer nicht mehr auf diesem Shard liegt
+     */
+    public boolean refreshKey(Object key, int shard) {
+        if (directory == null || key == null) {
+            return false;
+        }
+        Set<Long> userIds = new HashSet<>();
+        for (Object element : key instanceof Collection<?> keys ? keys : Set.of(key)) {
+            Long userId = element != null ? userIdOf(element) : null;
+            if (userId != null) {
+                userIds.add(userId);
+            }
+        }
+        boolean moved = false;
+        for (Long userId : userIds) {
+            moved |= directory.refresh(userId, shard);
+        }
+        return moved;
+    }
+
+    /**
+     * Trägt einen neu angelegten Benutzer im Verzeichnis ein. Wird die laufende Transaktion
+     * zurückgerollt, wird der Eintrag wieder entfernt.
+     *
+     * @param userId Benutzer-ID
+     * @param email  E-Mail-Adresse (optional)
+     * @param scope  Scope aus {@link #bindNewUser()}
+     * @throws com.example.backend.exception.ConflictException wenn die E-Mail auf einem anderen Shard vergeben ist
+     */
+    public void registerUser(Long userId, String email, ShardScope scope) {
+        if (directory == null || scope.shard() == null) {
+            return;
+        }
+        directory.register(userId, email, scope.shard());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        directory.remove(userId);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Entfernt einen Benutzer aus dem Verzeichnis (Kompensation einer fehlgeschlagenen Registrierung).
+     */
+    public void unregisterUser(Long userId) {
+        if (directory != null) {
+            directory.remove(userId);
+        }
+    }
+
+    /**
+     * Führt eine Aktion nacheinander an jeden Shard gebunden aus (Wartung, Relays, Replays).
+     *
+     * @param action Erhält die Shard-Nummer
+     */
+    public void forEachShard(IntConsumer action) {
+        if (directory == null) {
+            action.accept(0);
+            return;
+        }
+        for (int shard = 0; shard < directory.shardCount(); shard++) {
+            try (ShardScope scope = bind(shard)) {
+                action.accept(shard);
+            }
+        }
+    }
+
+    /**
+     * Bindet einen Shard. Innerhalb einer Transaktion ist die Verbindung bereits (oder demnächst) an den
+     * bisherigen Shard gebunden; ein Wechsel würde stillschweigend auf dem falschen Shard lesen und schreiben.
+     */
+    private static ShardScope bind(int shard) {
+        Integer current = ShardScope.current();
+        int effective = current != null ? current : 0;
+        if (effective != shard && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException(
+                    "Cannot switch to shard " + shard + " inside a transaction on shard " + effective);
+        }
+        return ShardScope.bind(shard);
+    }
+
+    private static Long userIdOf(Object key) {
+        if (key instanceof Long userId) {
+            return userId;
+        }
+        if (key instanceof IntakeRequest request) {
+            return request.getUserId();
+        }
+        throw new IllegalArgumentException("Unsupported shard key: " + key.getClass().getName());
+    }
+}
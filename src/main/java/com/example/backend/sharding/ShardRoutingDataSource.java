@@ -0,0 +1,33 @@
+package com.example.backend.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wählt den Pool des Shards, der per {@link ShardScope} an den Thread gebunden ist; ohne Scope Shard 0.
+ * Liegt hinter einem LazyConnectionDataSourceProxy, damit die Verbindung erst beim ersten Statement
+ * (also nach dem Binden des Shards) gezogen wird.
+ */
+class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    ShardRoutingDataSource(List<DataSource> shards) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, shards.get(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        // Unbekannte Shards sind ein Fehler, nur "kein Scope" fällt auf Shard 0 zurück
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardScope.current();
+    }
+}
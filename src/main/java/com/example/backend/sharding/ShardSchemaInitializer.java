@@ -0,0 +1,112 @@
+package com.example.backend.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.tool.hbm2ddl.SchemaUpdate;
+import org.hibernate.tool.schema.TargetType;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Map;
+
+/**
+ * Bereitet die Datenbanken der Shards vor: Schema der weiteren Shards und disjunkte ID-Bereiche.
+ */
+@Slf4j
+final class ShardSchemaInitializer {
+
+    /**
+     * Tabellen mit Sequenz-IDs (gepoolter Optimizer, allocationSize 50) und ihre Sequenzen.
+     */
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "intake_event", "intake_event_seq",
+            "daily_intake_rollup", "daily_intake_rollup_seq",
+            "outbox_message", "outbox_message_seq");
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    private ShardSchemaInitializer() {
+    }
+
+    /**
+     * Legt fehlende Tabellen, Spalten und Sequenzen wie spring.jpa.hibernate.ddl-auto=update an.
+     * Shard 0 übernimmt Spring Boot beim Aufbau der EntityManagerFactory selbst.
+     *
+     * @param dataSource Pool des Shards
+     * @param entities   Entity-Klassen aus dem Metamodell
+     */
+    static void updateSchema(DataSource dataSource, Collection<Class<?>> entities) {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.DATASOURCE, dataSource)
+                .applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY, new CamelCaseToUnderscoresNamingStrategy())
+                .applySetting(AvailableSettings.IMPLICIT_NAMING_STRATEGY, new SpringImplicitNamingStrategy())
+                .build();
+        try {
+            MetadataSources sources = new MetadataSources(registry);
+            entities.forEach(sources::addAnnotatedClass);
+            new SchemaUpdate()
+                    .setHaltOnError(true)
+                    .execute(EnumSet.of(TargetType.DATABASE), sources.buildMetadata());
+        } finally {
+            StandardServiceRegistryBuilder.destroy(registry);
+        }
+    }
+
+    /**
+     * Setzt Sequenzen und die IDENTITY-Spalte von user_profile auf den Beginn des ID-Bereichs des Shards,
+     * sofern sie noch darunter stehen. Shard 0 beginnt ohnehin bei 1.
+     *
+     * @param jdbcTemplate JdbcTemplate auf dem Pool des Shards
+     * @param shard        Shard-Nummer
+     */
+    static void reserveIdRange(JdbcTemplate jdbcTemplate, int shard) {
+        long floor = shard * ShardRouter.ID_RANGE;
+        if (floor == 0) {
+            return;
+        }
+        String product = jdbcTemplate.execute((Connection connection) ->
+                JdbcUtils.commonDatabaseName(connection.getMetaData().getDatabaseProductName()));
+        if ("PostgreSQL".equals(product)) {
+            SEQUENCES.values().forEach(sequence -> raisePostgresSequence(jdbcTemplate, sequence, floor));
+            String identity = jdbcTemplate.queryForObject("SELECT pg_get_serial_sequence('user_profile', 'id')", String.class);
+            if (identity != null) {
+                raisePostgresSequence(jdbcTemplate, identity, floor);
+            }
+        } else {
+            // H2 (Tests): nur frisch angelegte, leere Tabellen umstellen
+            SEQUENCES.forEach((table, sequence) -> {
+                if (isEmpty(jdbcTemplate, table)) {
+                    // Der gepoolte Optimizer nutzt (wert - 49 .. wert], daher floor + allocationSize
+                    jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (floor + ALLOCATION_SIZE));
+                }
+            });
+            if (isEmpty(jdbcTemplate, "user_profile")) {
+                jdbcTemplate.execute("ALTER TABLE user_profile ALTER COLUMN id RESTART WITH " + (floor + 1));
+            }
+        }
+        log.info("Reserved id range from {} on shard {}", floor, shard);
+    }
+
+    private static void raisePostgresSequence(JdbcTemplate jdbcTemplate, String sequence, long floor) {
+        String name = sequence.substring(sequence.lastIndexOf('.') + 1);
+        Long lastValue = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(last_value), 0) FROM pg_sequences WHERE sequencename = ?", Long.class, name);
+        if (lastValue != null && lastValue < floor) {
+            jdbcTemplate.queryForObject("SELECT setval(?::regclass, ?)", Long.class, sequence, floor);
+        }
+    }
+
+    private static boolean isEmpty(JdbcTemplate jdbcTemplate, String table) {
+        Boolean exists = jdbcTemplate.queryForObject("SELECT NOT EXISTS (SELECT 1 FROM " + table + ")", Boolean.class);
+        return Boolean.TRUE.equals(exists);
+    }
+}
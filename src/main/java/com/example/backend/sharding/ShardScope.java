@@ -0,0 +1,58 @@
+package com.example.backend.sharding;
+
+/**
+ * An den Thread gebundener Shard für die Dauer eines try-with-resources-Blocks.
+ * Verschachtelte Scopes stellen beim Schließen den äußeren Shard wieder her; ohne Scope
+ * routet die ShardRoutingDataSource auf Shard 0.
+ */
+public final class ShardScope implements AutoCloseable {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Scope ohne Bindung (Sharding aus, unbekannter Benutzer); close() ist wirkungslos.
+     */
+    static final ShardScope NONE = new ShardScope(null, null, false);
+
+    private final Integer shard;
+    private final Integer previous;
+    private final boolean bound;
+
+    private ShardScope(Integer shard, Integer previous, boolean bound) {
+        this.shard = shard;
+        this.previous = previous;
+        this.bound = bound;
+    }
+
+    static ShardScope bind(int shard) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        return new ShardScope(shard, previous, true);
+    }
+
+    /**
+     * @return Gebundener Shard des aktuellen Threads, null ohne Scope
+     */
+    static Integer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return Shard dieses Scopes, null wenn nichts gebunden wurde
+     */
+    public Integer shard() {
+        return shard;
+    }
+
+    @Override
+    public void close() {
+        if (!bound) {
+            return;
+        }
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.backend.sharding;
+
+import com.example.backend.service.IntakePartitionMaintenance;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Sharding nach Benutzer-ID (app.sharding.enabled=true).
+ *
+ * <p>Shard 0 ist die bisherige Datenbank (spring.datasource.*) und hält zusätzlich das Verzeichnis
+ * user_directory; weitere Shards kommen aus app.sharding.shards[1..n].*, gebunden wie
+ * spring.datasource.hikari.* (jdbc-url, username, password, maximum-pool-size, ...). Jeder Pool ist eine
+ * eigene Bean und erhält daher wie bisher Zulassungs-Semaphore und Statement-Messung (DataSourceConfig).
+ * Die DataSource für JPA und JdbcTemplate routet auf den per {@link ShardKey} bzw. {@link ShardRouter}
+ * gebundenen Shard.
+ *
+ * <p>Nicht kombinierbar mit Read-Replica-Routing und Intake-Journal (Start bricht ab).
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+@Slf4j
+public class ShardingConfig {
+
+    static final String SHARDS_PREFIX = "app.sharding.shards";
+
+    public ShardingConfig(Environment environment) {
+        if (environment.getProperty("app.datasource.replica.enabled", Boolean.class, false)) {
+            throw new IllegalStateException("app.sharding.enabled cannot be combined with app.datasource.replica.enabled");
+        }
+        if (environment.getProperty("app.intake.journal.enabled", Boolean.class, false)) {
+            throw new IllegalStateException("app.sharding.enabled cannot be combined with app.intake.journal.enabled");
+        }
+        if (!environment.getProperty("app.auth.enforce", Boolean.class, true)) {
+            log.warn("app.auth.enforce=false: DELETE /api/intakes/{id} without a token only finds intakes on shard 0");
+        }
+    }
+
+    /**
+     * Anzahl der Shards: Shard 0 plus alle lückenlos konfigurierten app.sharding.shards[k].jdbc-url.
+     */
+    static int shardCount(Environment environment) {
+        Binder binder = Binder.get(environment);
+        int count = 1;
+        while (binder.bind(SHARDS_PREFIX + "[" + count + "].jdbc-url", String.class).isBound()) {
+            count++;
+        }
+        return count;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource shard0DataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("shard0");
+        return dataSource;
+    }
+
+    /**
+     * Registriert shard1DataSource .. shard{n-1}DataSource aus app.sharding.shards[k].*.
+     */
+    @Bean
+    static BeanDefinitionRegistryPostProcessor shardDataSourceRegistrar(Environment environment) {
+        return new BeanDefinitionRegistryPostProcessor() {
+            @Override
+            public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+                Binder binder = Binder.get(environment);
+                for (int shard = 1; shard < shardCount(environment); shard++) {
+                    String prefix = SHARDS_PREFIX + "[" + shard + "]";
+                    String poolName = "shard" + shard;
+                    registry.registerBeanDefinition(poolName + "DataSource", BeanDefinitionBuilder
+                            .genericBeanDefinition(HikariDataSource.class, () -> {
+                                HikariDataSource dataSource = new HikariDataSource();
+                                binder.bind(prefix, Bindable.ofInstance(dataSource));
+                                dataSource.setPoolName(poolName);
+                                return dataSource;
+                            })
+                            .setDestroyMethodName("close")
+                            .getBeanDefinition());
+                }
+            }
+
+            @Override
+            public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+            }
+        };
+    }
+
+    /**
+     * Bindet {@link ShardKey}-Methoden vor dem Transaktions-Advice an ihren Shard.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor shardKeyAdvisor(ObjectProvider<ShardRouter> shardRouter) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                ShardKeyInterceptor.POINTCUT, new ShardKeyInterceptor(shardRouter));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    /**
+     * Routende DataSource für JPA, JdbcTemplate und alle anderen Verbraucher.
+     */
+    @Bean
+    @Primary
+    DataSource dataSource(BeanFactory beanFactory, Environment environment) {
+        List<DataSource> shards = shardDataSources(beanFactory, environment);
+        log.info("Routing user data across {} shards", shards.size());
+        return new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(shards));
+    }
+
+    /**
+     * Verzeichnis der Benutzer. Wird erst nach der EntityManagerFactory erzeugt und bereitet vorher die
+     * Shards vor (Schema, ID-Bereiche); alles, was den ShardRouter nutzt, sieht also fertige Shards.
+     */
+    @Bean
+    ShardDirectory shardDirectory(BeanFactory beanFactory,
+                                  Environment environment,
+                                  EntityManagerFactory entityManagerFactory,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.sharding.directory-cache-ttl:30s}") Duration cacheTtl) {
+        List<DataSource> shards = shardDataSources(beanFactory, environment);
+        List<Class<?>> entities = entityManagerFactory.getMetamodel().getEntities().stream()
+                .<Class<?>>map(EntityType::getJavaType)
+                .toList();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            if (shard > 0) {
+                ShardSchemaInitializer.updateSchema(shards.get(shard), entities);
+            }
+            ShardSchemaInitializer.reserveIdRange(new JdbcTemplate(shards.get(shard)), shard);
+        }
+
+        ShardDirectory directory = new ShardDirectory(new JdbcTemplate(shards.get(0)), shards.size(), cacheTtl, meterRegistry);
+        directory.initialize();
+        return directory;
+    }
+
+    @Bean
+    ShardRebalancer shardRebalancer(BeanFactory beanFactory,
+                                    Environment environment,
+                                    ShardDirectory shardDirectory,
+                                    IntakePartitionMaintenance partitionMaintenance,
+                                    MeterRegistry meterRegistry) {
+        return new ShardRebalancer(shardDataSources(beanFactory, environment), shardDirectory, partitionMaintenance,
+                meterRegistry);
+    }
+
+    private static List<DataSource> shardDataSources(BeanFactory beanFactory, Environment environment) {
+        return IntStream.range(0, shardCount(environment))
+                .mapToObj(shard -> beanFactory.getBean("shard" + shard + "DataSource", DataSource.class))
+                .toList();
+    }
+}
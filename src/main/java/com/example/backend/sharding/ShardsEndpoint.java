@@ -0,0 +1,49 @@
+package com.example.backend.sharding;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator-Endpoint /actuator/shards: Benutzer je Shard.
+ * POST /actuator/shards gleicht die Shards aus (optional {"maxMoves": n}),
+ * POST /actuator/shards/{userId} mit {"target": k} verschiebt einen einzelnen Benutzer.
+ */
+@Component
+@Endpoint(id = "shards")
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+public class ShardsEndpoint {
+
+    private static final int DEFAULT_MAX_MOVES = 100;
+
+    private final ShardRebalancer rebalancer;
+
+    public ShardsEndpoint(ShardRebalancer rebalancer) {
+        this.rebalancer = rebalancer;
+    }
+
+    @ReadOperation
+    public Map<String, Object> shards() {
+        return Map.of("users", rebalancer.population());
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebalance(@Nullable Integer maxMoves) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("moved", rebalancer.rebalance(maxMoves != null ? maxMoves : DEFAULT_MAX_MOVES));
+        result.put("users", rebalancer.population());
+        return result;
+    }
+
+    @WriteOperation
+    public Map<String, Object> move(@Selector Long userId, int target) {
+        return Map.of("userId", userId, "target", target, "rows", rebalancer.moveUser(userId, target));
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.backend.benchmark;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Baseline: klassischer Tomcat-Threadpool mit Plattform-Threads.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.threads.virtual.enabled=false", "app.auth.enforce=true"})
+class PlatformThreadThroughputBenchmark extends ThreadModeThroughputBenchmark {
+
+    @Override
+    String threadMode() {
+        return "platform threads";
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.backend.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Durchsatz-Benchmark für den Intake-Pfad (POST /api/intakes + GET /api/hydration/today).
+ * Läuft nur mit {@code ./gradlew benchmark}; die Unterklassen unterscheiden sich nur im Thread-Modell.
+ * Die Client-Parallelität liegt bewusst deutlich über der Poolgröße, damit die
+ * Zulassungs-Semaphore vor HikariCP greift.
+ */
+@Tag("benchmark")
+abstract class ThreadModeThroughputBenchmark {
+
+    private static final int CLIENTS = 200;
+    private static final int REQUESTS_PER_CLIENT = 50;
+    private static final int WARMUP_REQUESTS = 500;
+    private static final Pattern ID_PATTERN = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final Pattern TOKEN_PATTERN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    @LocalServerPort
+    private int port;
+
+    private String token;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    abstract String threadMode();
+
+    @Test
+    void measureIntakeThroughput() throws Exception {
+        long userId = register();
+
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            sendIntake(userId);
+        }
+
+        AtomicInteger failures = new AtomicInteger();
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                futures.add(clients.submit(() -> {
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        int status = r % 2 == 0 ? sendIntake(userId) : getToday(userId);
+                        if (status >= 400) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        int total = CLIENTS * REQUESTS_PER_CLIENT;
+        System.out.printf("[%s] %d requests from %d clients in %d ms -> %.0f req/s (%d failures)%n",
+                threadMode(), total, CLIENTS, elapsedMs, total * 1000.0 / Math.max(1, elapsedMs), failures.get());
+
+        assertThat(failures.get()).isZero();
+    }
+
+    private long register() throws Exception {
+        String email = "bench-" + System.nanoTime() + "@example.com";
+        HttpResponse<String> response = client.send(
+                json("/api/auth/register", "{\"name\":\"Bench\",\"email\":\"" + email + "\",\"password\":\"secret123\","
+                        + "\"weightKg\":70,\"activityLevel\":\"MEDIUM\",\"climate\":\"NORMAL\",\"timezone\":\"Europe/Berlin\"}"),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(201);
+        Matcher tokenMatcher = TOKEN_PATTERN.matcher(response.body());
+        Matcher idMatcher = ID_PATTERN.matcher(response.body());
+        assertThat(tokenMatcher.find()).isTrue();
+        assertThat(idMatcher.find()).isTrue();
+        token = tokenMatcher.group(1);
+        return Long.parseLong(idMatcher.group(1));
+    }
+
+    private int sendIntake(long userId) throws Exception {
+        return client.send(
+                json("/api/intakes", "{\"userId\":" + userId + ",\"volumeMl\":250,\"source\":\"GLASS\"}"),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private int getToday(long userId) throws Exception {
+        return client.send(
+                HttpRequest.newBuilder(uri("/api/hydration/today/" + userId))
+                        .header("Authorization", "Bearer " + token)
+                        .GET()
+                        .build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest json(String path, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
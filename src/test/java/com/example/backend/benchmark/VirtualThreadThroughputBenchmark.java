@@ -0,0 +1,17 @@
+package com.example.backend.benchmark;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Virtuelle Threads für Tomcat, @Async und @Scheduled.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.threads.virtual.enabled=true", "app.auth.enforce=true"})
+class VirtualThreadThroughputBenchmark extends ThreadModeThroughputBenchmark {
+
+    @Override
+    String threadMode() {
+        return "virtual threads";
+    }
+}
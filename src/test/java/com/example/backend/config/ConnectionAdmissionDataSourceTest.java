@@ -0,0 +1,64 @@
+package com.example.backend.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests für ConnectionAdmissionDataSource.
+ */
+class ConnectionAdmissionDataSourceTest {
+
+    @Test
+    void getConnection_whenAllPermitsTaken_shouldTimeOut() throws Exception {
+        // Given
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        ConnectionAdmissionDataSource dataSource = new ConnectionAdmissionDataSource(target, 1, Duration.ofMillis(50));
+
+        // When
+        Connection first = dataSource.getConnection();
+
+        // Then
+        assertThat(dataSource.getActivePermits()).isEqualTo(1);
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        first.close();
+    }
+
+    @Test
+    void close_shouldReleasePermitExactlyOnce() throws Exception {
+        // Given
+        DataSource target = mock(DataSource.class);
+        Connection physical = mock(Connection.class);
+        when(target.getConnection()).thenReturn(physical);
+        ConnectionAdmissionDataSource dataSource = new ConnectionAdmissionDataSource(target, 2, Duration.ofMillis(50));
+
+        // When
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        // Then
+        assertThat(dataSource.getActivePermits()).isZero();
+        verify(physical, times(2)).close();
+    }
+
+    @Test
+    void getConnection_whenPoolFails_shouldReturnPermit() throws Exception {
+        // Given
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenThrow(new SQLTransientConnectionException("pool exhausted"));
+        ConnectionAdmissionDataSource dataSource = new ConnectionAdmissionDataSource(target, 1, Duration.ofMillis(50));
+
+        // When & Then
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        assertThat(dataSource.getActivePermits()).isZero();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.backend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests für ReadWriteRoutingDataSource und ReadYourWrites.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final ReplicaHealth replicaHealth = mock(ReplicaHealth.class);
+    private final ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ofMinutes(1));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ReadWriteRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(replicaHealth.isUsable()).thenReturn(true);
+        routing = new ReadWriteRoutingDataSource(primary, replica, replicaHealth, readYourWrites, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        readYourWrites.clear();
+    }
+
+    @Test
+    void getConnection_readOnlyWithUser_shouldUseReplica() throws Exception {
+        // Given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        readYourWrites.bind(1L);
+
+        // When & Then
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+        assertThat(meterRegistry.counter("datasource.routing", "target", "replica", "reason", "read").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void getConnection_writeTransaction_shouldUsePrimary() throws Exception {
+        // Given
+        readYourWrites.bind(1L);
+
+        // When & Then
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void getConnection_readOnlyWithoutUser_shouldUsePrimary() throws Exception {
+        // Given - z.B. Login oder Hintergrundjob
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When & Then
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void getConnection_afterOwnWrite_shouldStickToPrimary() throws Exception {
+        // Given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        readYourWrites.recordWrite(1L);
+
+        // When & Then
+        readYourWrites.bind(1L);
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        readYourWrites.bind(2L);
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+        assertThat(meterRegistry.counter("datasource.routing", "target", "primary", "reason", "sticky").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void getConnection_whenReplicaUnusable_shouldFallBackToPrimary() throws Exception {
+        // Given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        readYourWrites.bind(1L);
+        when(replicaHealth.isUsable()).thenReturn(false);
+
+        // When & Then
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        verify(replica, never()).getConnection();
+    }
+}
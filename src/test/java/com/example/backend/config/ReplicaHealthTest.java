@@ -0,0 +1,65 @@
+package com.example.backend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit Tests für ReplicaHealth (Lag-Abfrage gemockt).
+ */
+class ReplicaHealthTest {
+
+    private final JdbcTemplate replica = mock(JdbcTemplate.class);
+    private final ReplicaHealth health = new ReplicaHealth(replica, Duration.ofSeconds(2));
+
+    @Test
+    void check_withinMaxLag_shouldBeUsable() {
+        // Given
+        when(replica.queryForObject(anyString(), eq(Double.class))).thenReturn(0.5);
+
+        // When
+        health.check();
+
+        // Then
+        assertThat(health.isUsable()).isTrue();
+        assertThat(health.getLagSeconds()).isEqualTo(0.5);
+    }
+
+    @Test
+    void check_beyondMaxLag_shouldNotBeUsable() {
+        // Given
+        when(replica.queryForObject(anyString(), eq(Double.class))).thenReturn(0.5, 10.0);
+        health.check();
+
+        // When
+        health.check();
+
+        // Then
+        assertThat(health.isUsable()).isFalse();
+        assertThat(health.getLagSeconds()).isEqualTo(10.0);
+    }
+
+    @Test
+    void check_whenUnreachable_shouldNotBeUsable() {
+        // Given
+        when(replica.queryForObject(anyString(), eq(Double.class)))
+                .thenReturn(0.0)
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"));
+        health.check();
+
+        // When
+        health.check();
+
+        // Then
+        assertThat(health.isUsable()).isFalse();
+        assertThat(health.getLagSeconds()).isNaN();
+    }
+}
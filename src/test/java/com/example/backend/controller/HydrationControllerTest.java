@@ -1,26 +1,53 @@
 package com.example.backend.controller;
 
+import com.example.backend.dto.request.BatchIntakeRequest;
 import com.example.backend.dto.request.IntakeRequest;
 import com.example.backend.dto.request.ProfileRequest;
+import com.example.backend.dto.response.BatchIntakeResponse;
+import com.example.backend.dto.response.DashboardResponse;
+import com.example.backend.dto.response.ImportProgressResponse;
 import com.example.backend.dto.response.IntakeResponse;
 import com.example.backend.dto.response.ProfileResponse;
 import com.example.backend.dto.response.TodayStatusResponse;
 import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.exception.ServiceOverloadedException;
 import com.example.backend.model.enums.ActivityLevel;
 import com.example.backend.model.enums.Climate;
+import com.example.backend.model.enums.DashboardPart;
+import com.example.backend.model.enums.ExportFormat;
 import com.example.backend.model.enums.IntakeSource;
+import com.example.backend.security.TokenService;
 import com.example.backend.service.HydrationService;
+import com.example.backend.service.IntakeExportService;
+import com.example.backend.service.IntakeImportService;
+import com.example.backend.service.TodayStatusStreams;
+import com.example.backend.service.UserVersionTracker;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.InputStream;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -30,6 +57,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Testet die wichtigsten REST-Endpoints.
  */
 @WebMvcTest(HydrationController.class)
+@Import(TokenService.class)
 class HydrationControllerTest {
 
     @Autowired
@@ -38,9 +66,26 @@ class HydrationControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @MockBean
+    private UserVersionTracker versionTracker;
+
     @MockBean
     private HydrationService hydrationService;
 
+    @MockBean
+    private TodayStatusStreams todayStatusStreams;
+
+    @MockBean
+    private IntakeExportService exportService;
+
+    @MockBean
+    private IntakeImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        doReturn("\"v-0\"").when(versionTracker).etag(anyString(), anyLong(), anyBoolean());
+    }
+
     @Test
     void createProfile_withValidData_shouldReturn201Created() throws Exception {
         // Given
@@ -98,4 +143,136 @@ class HydrationControllerTest {
 
         verify(hydrationService).recordIntake(any(IntakeRequest.class));
     }
+
+    @Test
+    void addIntakesBatch_withPartiallyRejectedItems_shouldReturn207MultiStatus() throws Exception {
+        // Given
+        BatchIntakeRequest request = new BatchIntakeRequest(List.of(
+                new IntakeRequest(1L, 250, IntakeSource.SIP),
+                new IntakeRequest(99L, 300, IntakeSource.GLASS)));
+        BatchIntakeResponse response = new BatchIntakeResponse(1, 1, List.of(
+                BatchIntakeResponse.ItemResult.created(0, new IntakeResponse(1L, 1L, 250, IntakeSource.SIP, Instant.now())),
+                BatchIntakeResponse.ItemResult.rejected(1, "UserProfile with ID 99 not found")));
+
+        doReturn(response).when(hydrationService).recordIntakes(anyList());
+
+        // When & Then
+        mockMvc.perform(post("/api/intakes/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[1].status").value("REJECTED"));
+
+        verify(hydrationService).recordIntakes(anyList());
+    }
+
+    @Test
+    void addIntakesBatch_withEmptyItems_shouldReturn400BadRequest() throws Exception {
+        mockMvc.perform(post("/api/intakes/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\": []}"))
+                .andExpect(status().isBadRequest());
+
+        verify(hydrationService, never()).recordIntakes(anyList());
+    }
+
+    @Test
+    void getDashboard_withFields_shouldReturnOnlyRequestedParts() throws Exception {
+        // Given
+        DashboardResponse response = new DashboardResponse(1L, null, new TodayStatusResponse(2700, 1500, 1200, 56), null);
+        doReturn(response).when(hydrationService).getDashboard(1L, EnumSet.of(DashboardPart.TODAY), 10);
+
+        // When & Then
+        mockMvc.perform(get("/api/dashboard/1").param("fields", "today"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.today.consumedMl").value(1500))
+                .andExpect(jsonPath("$.profile").doesNotExist())
+                .andExpect(jsonPath("$.recentIntakes").doesNotExist());
+    }
+
+    @Test
+    void getDashboard_withUnknownField_shouldReturn400BadRequest() throws Exception {
+        mockMvc.perform(get("/api/dashboard/1").param("fields", "profile,weather"))
+                .andExpect(status().isBadRequest());
+
+        verify(hydrationService, never()).getDashboard(any(), any(), anyInt());
+    }
+
+    @Test
+    void getTodayStatus_withMatchingETag_shouldReturn304WithoutLoading() throws Exception {
+        // Given
+        doReturn(LocalDate.of(2024, 11, 1)).when(hydrationService).currentDay(1L);
+        doReturn(new TodayStatusResponse(2700, 1500, 1200, 56)).when(hydrationService).getTodayStatus(1L);
+        doReturn("\"today-2024-11-01-1-3\"").when(versionTracker).etag("today-2024-11-01", 1L, false);
+        doReturn("\"today-2024-11-01-1-3\"").when(versionTracker).etag("today-2024-11-01", 1L, true);
+        String etag = mockMvc.perform(get("/api/hydration/today/1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then
+        mockMvc.perform(get("/api/hydration/today/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        verify(hydrationService, times(1)).getTodayStatus(1L);
+        // Nur der bedingte Request liest den Datenstand aus der Datenbank
+        verify(versionTracker).etag("today-2024-11-01", 1L, true);
+    }
+
+    @Test
+    void getRecentIntakes_afterChange_shouldReturnNewETag() throws Exception {
+        // Given
+        doReturn(List.of()).when(hydrationService).getRecentIntakes(1L, 10);
+        doReturn("\"recent-10-1-3\"").when(versionTracker).etag("recent-10", 1L, false);
+        String etag = mockMvc.perform(get("/api/intakes/1/recent"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When
+        doReturn("\"recent-10-1-4\"").when(versionTracker).etag("recent-10", 1L, true);
+
+        // Then
+        mockMvc.perform(get("/api/intakes/1/recent").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+        verify(hydrationService, times(2)).getRecentIntakes(1L, 10);
+    }
+
+    @Test
+    void exportIntakes_whenAllSlotsTaken_shouldReturn503WithRetryAfter() throws Exception {
+        // Given
+        doThrow(new ServiceOverloadedException("Too many concurrent exports", Duration.ofSeconds(30)))
+                .when(exportService).acquireSlot();
+
+        // When & Then
+        mockMvc.perform(get("/api/intakes/1/export"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "30"));
+        verify(exportService, never()).export(any(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    void importIntakes_whenAborted_shouldReturn422WithProgress() throws Exception {
+        // Given
+        ImportProgressResponse progress = new ImportProgressResponse("FAILED", 0, 0, 0,
+                Instant.parse("2024-11-01T10:00:00Z"), Instant.parse("2024-11-01T10:00:01Z"),
+                "CSV header must contain timestamp, volumeMl and source columns", List.of());
+        doReturn(progress).when(importService).importIntakes(eq(1L), eq(ExportFormat.CSV), any(InputStream.class));
+
+        // When & Then
+        mockMvc.perform(post("/api/intakes/1/import")
+                        .contentType("text/csv")
+                        .content("timestamp,volumeMl\n"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.status").value("FAILED"));
+    }
+
+    @Test
+    void getImportProgress_withoutImport_shouldReturn404() throws Exception {
+        // Given
+        doReturn(Optional.empty()).when(importService).getProgress(1L);
+
+        // When & Then
+        mockMvc.perform(get("/api/intakes/1/import"))
+                .andExpect(status().isNotFound());
+    }
 }
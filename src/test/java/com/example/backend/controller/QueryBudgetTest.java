@@ -0,0 +1,234 @@
+package com.example.backend.controller;
+
+import com.example.backend.monitoring.QueryCountFilter;
+import com.example.backend.monitoring.QueryStatistics;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Query-Budgets pro Endpoint: zählt die SQL-Statements eines Requests (QueryCountFilter) nach
+ * SELECT/INSERT/UPDATE/DELETE und schlägt fehl, sobald ein Endpoint mehr Roundtrips braucht.
+ * Sequenzabfragen (nextval) hängen vom Stand des gepoolten Optimizers ab und werden nicht geprüft.
+ * Schreibende Endpoints erhöhen den Datenstand des Benutzers (ein UPDATE); nur GETs mit If-None-Match lesen ihn (ein SELECT).
+ *
+ * <p>Wird ein Budget bewusst erhöht, muss der erwartete Wert hier angepasst werden.
+ */
+@SpringBootTest(properties = {
+        "app.auth.rate-limit.ip.capacity=1000",
+        "app.auth.rate-limit.email.capacity=1000"
+})
+@AutoConfigureMockMvc
+class QueryBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private long userId;
+    private String email;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        email = "budget-" + System.nanoTime() + "@example.com";
+        userId = register(email);
+        // Profil-Cache vorwärmen: die Budgets gelten für den eingeschwungenen Zustand
+        perform(get("/api/profile/" + userId), status().isOk());
+    }
+
+    // ==================== Auth ====================
+
+    @Test
+    void register_shouldCheckEmailAndInsertOnce() throws Exception {
+        QueryStatistics.RequestQueries queries = perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(registerJson("budget-new-" + System.nanoTime() + "@example.com")), status().isCreated());
+
+        assertBudget(queries, 1, 1, 0, 0);
+    }
+
+    @Test
+    void login_shouldLoadUserOnce() throws Exception {
+        QueryStatistics.RequestQueries queries = perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + email + "\",\"password\":\"secret123\"}"), status().isOk());
+
+        assertBudget(queries, 1, 0, 0, 0);
+    }
+
+    // ==================== Profil ====================
+
+    @Test
+    void getProfile_shouldBeServedFromCache() throws Exception {
+        long coldUserId = register("budget-cold-" + System.nanoTime() + "@example.com");
+
+        assertBudget(perform(get("/api/profile/" + coldUserId), status().isOk()), 1, 0, 0, 0);
+        assertBudget(perform(get("/api/profile/" + coldUserId), status().isOk()), 0, 0, 0, 0);
+    }
+
+    @Test
+    void getProfile_withMatchingETag_shouldOnlyReadVersion() throws Exception {
+        String etag = mockMvc.perform(get("/api/profile/" + userId))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertBudget(perform(get("/api/profile/" + userId).header(HttpHeaders.IF_NONE_MATCH, etag),
+                status().isNotModified()), 1, 0, 0, 0);
+    }
+
+    @Test
+    void updateProfile_shouldLoadAndUpdateOnce() throws Exception {
+        QueryStatistics.RequestQueries queries = perform(put("/api/profile/" + userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"weightKg\":80,\"activityLevel\":\"HIGH\",\"climate\":\"HOT\"}"), status().isOk());
+
+        assertBudget(queries, 1, 0, 2, 0);
+    }
+
+    // ==================== Aufnahmen ====================
+
+    @Test
+    void recordIntake_shouldNotLoadProfile() throws Exception {
+        // Erste Aufnahme des Tages legt die Tageszusammenfassung an (UPDATE ohne Treffer + Upsert)
+        assertBudget(recordIntake(250), 0, 2, 2, 0);
+        // Danach nur noch Datenstand-UPDATE, Event-INSERT und Rollup-UPDATE
+        assertBudget(recordIntake(250), 0, 1, 2, 0);
+    }
+
+    @Test
+    void recordIntakes_shouldBatchInsertsAndUpdateRollupOncePerDay() throws Exception {
+        recordIntake(250);
+
+        QueryStatistics.RequestQueries queries = perform(post("/api/intakes/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\":[" + intakeJson(100) + "," + intakeJson(200) + "," + intakeJson(300) + "]}"),
+                status().isCreated());
+
+        assertBudget(queries, 0, 1, 2, 0);
+    }
+
+    @Test
+    void deleteIntake_shouldLoadEventWithUserOnce() throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/intakes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(intakeJson(250)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        long intakeId = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+
+        assertBudget(perform(delete("/api/intakes/" + intakeId), status().isNoContent()), 1, 0, 2, 1);
+    }
+
+    @Test
+    void getRecentIntakes_shouldQueryOnce() throws Exception {
+        recordIntake(250);
+
+        assertBudget(perform(get("/api/intakes/" + userId + "/recent"), status().isOk()), 1, 0, 0, 0);
+    }
+
+    @Test
+    void getIntakePage_shouldQueryOnce() throws Exception {
+        recordIntake(250);
+
+        assertBudget(perform(get("/api/intakes/" + userId).param("size", "20"), status().isOk()), 1, 0, 0, 0);
+    }
+
+    @Test
+    void getIntakeSeries_shouldQueryOnce() throws Exception {
+        Instant to = Instant.now().truncatedTo(ChronoUnit.HOURS).plus(1, ChronoUnit.HOURS);
+
+        assertBudget(perform(get("/api/intakes/" + userId + "/series")
+                .param("from", to.minus(1, ChronoUnit.DAYS).toString())
+                .param("to", to.toString())
+                .param("bucket", "1h"), status().isOk()), 1, 0, 0, 0);
+    }
+
+    // ==================== Status, Verlauf, Dashboard ====================
+
+    @Test
+    void getTodayStatus_shouldQuerySumOnlyOnCacheMiss() throws Exception {
+        assertBudget(perform(get("/api/hydration/today/" + userId), status().isOk()), 1, 0, 0, 0);
+        assertBudget(perform(get("/api/hydration/today/" + userId), status().isOk()), 0, 0, 0, 0);
+    }
+
+    @Test
+    void getTodayStatus_afterOwnIntake_shouldKeepDailyTotal() throws Exception {
+        String etag = mockMvc.perform(get("/api/hydration/today/" + userId))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        recordIntake(250);
+
+        // Eigener Schreibvorgang: neues ETag nur aus dem Datenstand, Tagessumme bleibt im Speicher
+        assertBudget(perform(get("/api/hydration/today/" + userId).header(HttpHeaders.IF_NONE_MATCH, etag),
+                status().isOk()), 1, 0, 0, 0);
+    }
+
+    @Test
+    void getHistory_shouldQueryRollupsOnce() throws Exception {
+        assertBudget(perform(get("/api/hydration/history/" + userId), status().isOk()), 1, 0, 0, 0);
+    }
+
+    @Test
+    void getDashboard_shouldQueryTodaySumAndRecentIntakes() throws Exception {
+        assertBudget(perform(get("/api/dashboard/" + userId), status().isOk()), 2, 0, 0, 0);
+    }
+
+    // ==================== Hilfsmethoden ====================
+
+    private QueryStatistics.RequestQueries perform(MockHttpServletRequestBuilder request, ResultMatcher expectedStatus) throws Exception {
+        MvcResult result = mockMvc.perform(request).andExpect(expectedStatus).andReturn();
+        QueryStatistics.RequestQueries queries =
+                (QueryStatistics.RequestQueries) result.getRequest().getAttribute(QueryCountFilter.ATTRIBUTE);
+        assertThat(queries).as("QueryCountFilter did not run").isNotNull();
+        return queries;
+    }
+
+    private static void assertBudget(QueryStatistics.RequestQueries queries, long select, long insert, long update, long delete) {
+        assertThat(List.of(queries.select(), queries.insert(), queries.update(), queries.delete()))
+                .as("select/insert/update/delete statements (%s)", queries)
+                .containsExactly(select, insert, update, delete);
+    }
+
+    private QueryStatistics.RequestQueries recordIntake(int volumeMl) throws Exception {
+        return perform(post("/api/intakes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(intakeJson(volumeMl)), status().isCreated());
+    }
+
+    private String intakeJson(int volumeMl) {
+        return "{\"userId\":" + userId + ",\"volumeMl\":" + volumeMl + ",\"source\":\"GLASS\"}";
+    }
+
+    private long register(String address) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(registerJson(address)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+        return body.get("user").get("id").asLong();
+    }
+
+    private static String registerJson(String address) {
+        return "{\"name\":\"Budget\",\"email\":\"" + address + "\",\"password\":\"secret123\","
+                + "\"weightKg\":70,\"activityLevel\":\"MEDIUM\",\"climate\":\"NORMAL\",\"timezone\":\"Europe/Berlin\"}";
+    }
+}
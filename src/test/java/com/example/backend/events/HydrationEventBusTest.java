@@ -0,0 +1,217 @@
+package com.example.backend.events;
+
+import com.example.backend.model.enums.IntakeSource;
+import com.example.backend.repository.IntakeEventRepository;
+import com.example.backend.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit Tests für HydrationEventBus (echte Partitions-Threads, Repository gemockt).
+ */
+class HydrationEventBusTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-17T08:00:00Z");
+
+    private final IntakeEventRepository intakeEventRepository = mock(IntakeEventRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HydrationEventBus bus;
+
+    @AfterEach
+    void tearDown() {
+        if (bus != null) {
+            bus.shutdown();
+        }
+    }
+
+    @Test
+    void publish_shouldDeliverEventsOfEachUserInOrder() throws InterruptedException {
+        // Given
+        int perUser = 500;
+        CountDownLatch delivered = new CountDownLatch(3 * perUser);
+        Map<Long, List<Long>> seen = new ConcurrentHashMap<>();
+        bus = newBus(2, 1024, new RecordingProjection("orders", event -> {
+            seen.computeIfAbsent(event.userId(), id -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(((IntakeRecorded) event).intakeId());
+            delivered.countDown();
+        }));
+
+        // When
+        for (long i = 1; i <= perUser; i++) {
+            for (long user = 1; user <= 3; user++) {
+                bus.publish(recorded(user, i));
+            }
+        }
+
+        // Then
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(seen).containsOnlyKeys(1L, 2L, 3L);
+        seen.values().forEach(ids -> assertThat(ids).isSorted().hasSize(perUser));
+        assertThat(meterRegistry.counter("hydration.events.published", "type", "IntakeRecorded").count())
+                .isEqualTo(3.0 * perUser);
+    }
+
+    @Test
+    void publish_whenBufferFull_shouldDropWithoutBlocking() throws InterruptedException {
+        // Given - der Verbraucher hängt im ersten Ereignis, der Puffer fasst zwei weitere
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        bus = newBus(1, 2, new RecordingProjection("slow", event -> {
+            entered.countDown();
+            await(release);
+        }));
+        bus.publish(new ProfileUpdated(1L));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        bus.publish(new ProfileUpdated(1L));
+        bus.publish(new ProfileUpdated(1L));
+        bus.publish(new ProfileUpdated(1L));
+
+        // Then
+        assertThat(meterRegistry.counter("hydration.events.dropped", "type", "ProfileUpdated").count()).isEqualTo(1.0);
+        assertThat(bus.queued()).isEqualTo(2);
+        release.countDown();
+    }
+
+    @Test
+    void publish_whenProjectionFails_shouldCountAndContinue() throws InterruptedException {
+        // Given
+        CountDownLatch delivered = new CountDownLatch(1);
+        bus = newBus(1, 16,
+                new RecordingProjection("broken", event -> {
+                    throw new IllegalStateException("boom");
+                }),
+                new RecordingProjection("healthy", event -> delivered.countDown()));
+
+        // When
+        bus.publish(new ProfileUpdated(1L));
+
+        // Then
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.counter("hydration.events.failures", "projection", "broken").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void publish_shouldSkipCoalescingProjectionWhileNewerEventOfUserIsQueued() throws InterruptedException {
+        // Given - der Verbraucher hängt im ersten Ereignis, bis drei weitere desselben Benutzers warten
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(4);
+        List<Long> all = Collections.synchronizedList(new ArrayList<>());
+        List<Long> latest = Collections.synchronizedList(new ArrayList<>());
+        RecordingProjection gate = new RecordingProjection("gate", event -> {
+            all.add(((IntakeRecorded) event).intakeId());
+            entered.countDown();
+            await(release);
+            delivered.countDown();
+        });
+        RecordingProjection coalescing = new RecordingProjection("latest", event ->
+                latest.add(((IntakeRecorded) event).intakeId())) {
+            @Override
+            public boolean coalesce() {
+                return true;
+            }
+        };
+        bus = newBus(1, 16, gate, coalescing);
+        bus.publish(recorded(1L, 1L));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        bus.publish(recorded(1L, 2L));
+        bus.publish(recorded(1L, 3L));
+        bus.publish(recorded(1L, 4L));
+        release.countDown();
+
+        // Then
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        bus.shutdown();
+        assertThat(all).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(latest).containsExactly(1L, 4L);
+        assertThat(meterRegistry.counter("hydration.events.coalesced", "projection", "latest").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void replay_shouldResetEachUserAndDeliverOnlyToTargetProjection() throws InterruptedException {
+        // Given
+        when(intakeEventRepository.streamAllForReplay())
+                .thenReturn(Stream.of(recorded(1L, 10L), recorded(1L, 11L), recorded(2L, 12L)));
+        CountDownLatch delivered = new CountDownLatch(3);
+        List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        List<HydrationEvent> other = Collections.synchronizedList(new ArrayList<>());
+        RecordingProjection target = new RecordingProjection("target", event -> {
+            calls.add("on:" + ((IntakeRecorded) event).intakeId());
+            delivered.countDown();
+        }) {
+            @Override
+            public void reset(Long userId) {
+                calls.add("reset:" + userId);
+            }
+        };
+        bus = newBus(1, 16, target, new RecordingProjection("other", other::add));
+
+        // When
+        long replayed = bus.replay("target");
+
+        // Then
+        assertThat(replayed).isEqualTo(3);
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(calls).containsExactly("reset:1", "on:10", "on:11", "reset:2", "on:12");
+        assertThat(other).isEmpty();
+    }
+
+    private HydrationEventBus newBus(int partitions, int capacity, IntakeProjection... projections) {
+        return new HydrationEventBus(List.of(projections), intakeEventRepository, mock(PlatformTransactionManager.class),
+                ShardRouter.disabled(), meterRegistry, partitions, capacity);
+    }
+
+    private static IntakeRecorded recorded(long userId, long intakeId) {
+        return new IntakeRecorded(userId, intakeId, 250, IntakeSource.SIP, NOW);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class RecordingProjection implements IntakeProjection {
+
+        private final String name;
+        private final Consumer<HydrationEvent> handler;
+
+        RecordingProjection(String name, Consumer<HydrationEvent> handler) {
+            this.name = name;
+            this.handler = handler;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void on(HydrationEvent event) {
+            handler.accept(event);
+        }
+    }
+}
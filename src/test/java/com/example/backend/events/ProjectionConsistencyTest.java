@@ -0,0 +1,118 @@
+package com.example.backend.events;
+
+import com.example.backend.dto.request.IntakeRequest;
+import com.example.backend.dto.request.ProfileRequest;
+import com.example.backend.model.enums.ActivityLevel;
+import com.example.backend.model.enums.Climate;
+import com.example.backend.model.enums.IntakeSource;
+import com.example.backend.service.HydrationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integrationstest: Projektionen sehen nach dem Commit den fortgeschriebenen Tagesstatus.
+ * Die Projektion rechnet wie der SSE-Tagesstatus über HydrationService.getTodayStatus.
+ */
+@SpringBootTest
+class ProjectionConsistencyTest {
+
+    @Autowired
+    private HydrationService hydrationService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TodayConsumedProjection projection;
+
+    @Test
+    void recordIntake_shouldBeVisibleToProjectionsAfterCommit() throws InterruptedException {
+        // Given: Tagessumme ist geladen und im Speicher
+        Long userId = hydrationService.createProfile(
+                new ProfileRequest(70, ActivityLevel.MEDIUM, Climate.NORMAL, "Europe/Berlin")).getId();
+        assertThat(hydrationService.getTodayStatus(userId).getConsumedMl()).isZero();
+        CountDownLatch computed = projection.expect(userId);
+
+        // When: der Commit wartet in einem späteren afterCommit, bis die Projektion gerechnet hat
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            hydrationService.recordIntake(new IntakeRequest(userId, 250, IntakeSource.SIP));
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    await(computed);
+                }
+            });
+        });
+
+        // Then
+        assertThat(computed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(projection.consumedMl(userId)).isEqualTo(250);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @TestConfiguration
+    static class ProjectionConfig {
+
+        @Bean
+        TodayConsumedProjection todayConsumedProjection(HydrationService hydrationService) {
+            return new TodayConsumedProjection(hydrationService);
+        }
+    }
+
+    /**
+     * Merkt sich die konsumierte Tagesmenge, die nach einer Aufnahme berechnet wurde.
+     */
+    static class TodayConsumedProjection implements IntakeProjection {
+
+        private final HydrationService hydrationService;
+        private final Map<Long, CountDownLatch> expected = new ConcurrentHashMap<>();
+        private final Map<Long, Integer> consumed = new ConcurrentHashMap<>();
+
+        TodayConsumedProjection(HydrationService hydrationService) {
+            this.hydrationService = hydrationService;
+        }
+
+        CountDownLatch expect(Long userId) {
+            return expected.computeIfAbsent(userId, id -> new CountDownLatch(1));
+        }
+
+        Integer consumedMl(Long userId) {
+            return consumed.get(userId);
+        }
+
+        @Override
+        public String name() {
+            return "test-today-consumed";
+        }
+
+        @Override
+        public void on(HydrationEvent event) {
+            CountDownLatch latch = expected.get(event.userId());
+            if (event instanceof IntakeRecorded && latch != null) {
+                consumed.put(event.userId(), hydrationService.getTodayStatus(event.userId()).getConsumedMl());
+                latch.countDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.backend.journal;
+
+import com.example.backend.model.enums.IntakeSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit Tests für IntakeJournal (Segmente in einem temporären Verzeichnis).
+ */
+class IntakeJournalTest {
+
+    private static final int SEGMENT_BYTES = 4096;
+    private static final Instant NOW = Instant.parse("2026-10-17T08:15:30.123456789Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void append_shouldBeReadableInOrder() {
+        try (IntakeJournal journal = IntakeJournal.open(directory, SEGMENT_BYTES, 1 << 20, 1)) {
+            // When
+            long first = journal.append(1L, 250, IntakeSource.SIP, NOW);
+            long second = journal.append(2L, 500, IntakeSource.DOUBLE_SIP, NOW.plusSeconds(1));
+
+            // Then
+            assertThat(first).isEqualTo(1);
+            assertThat(second).isEqualTo(2);
+            assertThat(journal.read(0, 10)).containsExactly(
+                    new JournalEntry(1, 1L, 250, IntakeSource.SIP, NOW),
+                    new JournalEntry(2, 2L, 500, IntakeSource.DOUBLE_SIP, NOW.plusSeconds(1)));
+            assertThat(journal.read(1, 10)).extracting(JournalEntry::sequence).containsExactly(2L);
+            assertThat(journal.read(2, 10)).isEmpty();
+        }
+    }
+
+    @Test
+    void open_shouldReplayEntriesAndContinueSequence() {
+        // Given
+        try (IntakeJournal journal = IntakeJournal.open(directory, SEGMENT_BYTES, 1 << 20, 1)) {
+            journal.append(1L, 250, IntakeSource.SIP, NOW);
+            journal.append(1L, 300, IntakeSource.GLASS, NOW);
+        }
+
+        // When
+        try (IntakeJournal reopened = IntakeJournal.open(directory, SEGMENT_BYTES, 1 << 20, 1)) {
+            // Then
+            assertThat(reopened.read(0, 10)).extracting(JournalEntry::volumeMl).containsExactly(250, 300);
+            assertThat(reopened.append(1L, 100, IntakeSource.SIP, NOW)).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void open_shouldDiscardTornTail() throws IOException {
+        // Given: zweiter Eintrag mit zerstörter Prüfsumme (abgerissener Schreibvorgang)
+        try (IntakeJournal journal = IntakeJournal.open(directory, SEGMENT_BYTES, 1 << 20, 1)) {
+            journal.append(1L, 250, IntakeSource.SIP, NOW);
+            journal.append(1L, 300, IntakeSource.SIP, NOW);
+        }
+        Path segment = segments().get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            int firstLength = file.readInt();
+            file.seek(8 + firstLength + 4);
+            file.writeInt(0xDEADBEEF);
+        }
+
+        // When
+        try (IntakeJournal reopened = IntakeJournal.open(directory, SEGMENT_BYTES, 1 << 20, 1)) {
+            // Then
+            assertThat(reopened.read(0, 10)).extracting(JournalEntry::sequence).containsExactly(1L);
+            assertThat(reopened.append(1L, 100, IntakeSource.SIP, NOW)).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void truncateThrough_shouldDeleteProcessedSegmentsButKeepCurrent() throws IOException {
+        try (IntakeJournal journal = IntakeJournal.open(directory, SEGMENT_BYTES, 1 << 20, 1)) {
+            // Given: genug Einträge für mehrere Segmente
+            for (int i = 0; i < 200; i++) {
+                journal.append(1L, 100, IntakeSource.SIP, NOW);
+            }
+            assertThat(segments()).hasSizeGreaterThan(2);
+
+            // When
+            journal.truncateThrough(200);
+
+            // Then
+            assertThat(segments()).hasSize(1);
+            assertThat(journal.read(200, 10)).isEmpty();
+        }
+
+        // Sequenz läuft nach dem Neustart fort, obwohl alle Einträge verarbeitet sind
+        try (IntakeJournal reopened = IntakeJournal.open(directory, SEGMENT_BYTES, 1 << 20, 1)) {
+            assertThat(reopened.append(1L, 100, IntakeSource.SIP, NOW)).isEqualTo(201);
+        }
+    }
+
+    @Test
+    void append_whenFull_shouldRejectUntilTruncated() {
+        try (IntakeJournal journal = IntakeJournal.open(directory, SEGMENT_BYTES, 2L * SEGMENT_BYTES, 1)) {
+            // Given
+            long last = 0;
+            try {
+                while (true) {
+                    last = journal.append(1L, 100, IntakeSource.SIP, NOW);
+                }
+            } catch (IntakeJournal.JournalFullException e) {
+                // erwartet
+            }
+            assertThat(last).isGreaterThan(0);
+            assertThat(journal.sizeBytes()).isEqualTo(2L * SEGMENT_BYTES);
+            assertThatThrownBy(() -> journal.append(1L, 100, IntakeSource.SIP, NOW))
+                    .isInstanceOf(IntakeJournal.JournalFullException.class);
+
+            // When
+            journal.truncateThrough(last);
+
+            // Then
+            assertThat(journal.append(1L, 100, IntakeSource.SIP, NOW)).isEqualTo(last + 1);
+        }
+    }
+
+    @Test
+    void append_concurrently_shouldAssignGaplessSequences() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (IntakeJournal journal = IntakeJournal.open(directory, 1 << 16, 1 << 20, 1)) {
+            // When
+            List<Future<Long>> futures = IntStream.range(0, 400)
+                    .mapToObj(i -> executor.submit(() -> journal.append(i, 100, IntakeSource.SIP, NOW)))
+                    .toList();
+            for (Future<Long> future : futures) {
+                future.get();
+            }
+
+            // Then
+            assertThat(journal.durableSequence()).isEqualTo(400);
+            assertThat(journal.read(0, 1000)).extracting(JournalEntry::sequence)
+                    .containsExactlyElementsOf(IntStream.rangeClosed(1, 400).mapToObj(i -> (long) i).toList());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.toString().endsWith(".seg")).sorted().toList();
+        }
+    }
+}
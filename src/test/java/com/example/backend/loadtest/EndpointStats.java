@@ -0,0 +1,55 @@
+package com.example.backend.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latenzen (Mikrosekunden, 3 signifikante Stellen) und Fehler eines Endpunkts.
+ */
+final class EndpointStats {
+
+    private final Histogram latencies = new ConcurrentHistogram(3);
+    private final AtomicLong errors = new AtomicLong();
+
+    void record(long latencyNanos, boolean success) {
+        latencies.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        if (!success) {
+            errors.incrementAndGet();
+        }
+    }
+
+    long requests() {
+        return latencies.getTotalCount();
+    }
+
+    long errors() {
+        return errors.get();
+    }
+
+    Map<String, Object> toMap(double elapsedSeconds) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("requests", requests());
+        map.put("errors", errors());
+        map.put("throughputPerSecond", round(requests() / elapsedSeconds));
+        map.put("meanMs", round(latencies.getMean() / 1000.0));
+        map.put("p50Ms", percentileMs(50.0));
+        map.put("p90Ms", percentileMs(90.0));
+        map.put("p99Ms", percentileMs(99.0));
+        map.put("p999Ms", percentileMs(99.9));
+        map.put("maxMs", round(latencies.getMaxValue() / 1000.0));
+        return map;
+    }
+
+    private double percentileMs(double percentile) {
+        return round(latencies.getValueAtPercentile(percentile) / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,303 @@
+package com.example.backend.loadtest;
+
+import com.example.backend.model.enums.IntakeSource;
+import com.example.backend.repository.IntakeEventBulkWriter;
+import com.example.backend.service.RollupBackfillService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * HTTP-Lasttest gegen die vollständige Anwendung auf der H2-Testkonfiguration.
+ * Legt Benutzer und Aufnahmen an, erzeugt einen gewichteten Mix aus Intake-, Today- und
+ * Login-Requests (Closed- oder Open-Loop) und schreibt Durchsatz sowie p50/p99/p99.9 je
+ * Endpunkt als JSON-Report. Läuft nur mit {@code ./gradlew loadTest}.
+ *
+ * <p>Im Open-Loop-Modus wird die Latenz ab dem geplanten Sendezeitpunkt gemessen, damit
+ * Rückstau in den Perzentilen sichtbar wird (keine Coordinated Omission).
+ */
+@Tag("loadtest")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "app.auth.enforce=true",
+                // Alle Requests kommen von localhost: Login-Limits würden sonst den Mix verfälschen
+                "app.auth.rate-limit.ip.capacity=1000000000",
+                "app.auth.rate-limit.email.capacity=1000000000",
+                "spring.jpa.show-sql=false",
+                "logging.level.root=WARN",
+                "logging.level.org.hibernate.SQL=WARN",
+                "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+        })
+class LoadTestHarness {
+
+    private static final String PASSWORD = "loadtest123";
+    private static final int SEED_CHUNK_SIZE = 5_000;
+
+    private enum Operation {
+        INTAKE("POST /api/intakes"),
+        TODAY("GET /api/hydration/today/{userId}"),
+        LOGIN("POST /api/auth/login");
+
+        private final String endpoint;
+
+        Operation(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+
+    private record SeededUser(long id, String email, String token) {
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private IntakeEventBulkWriter bulkWriter;
+
+    @Autowired
+    private RollupBackfillService rollupBackfillService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @Test
+    void runLoadTest() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        List<SeededUser> users = seed(settings);
+
+        run(settings, users, settings.warmup(), newStats());
+
+        Map<Operation, EndpointStats> stats = newStats();
+        long start = System.nanoTime();
+        run(settings, users, settings.duration(), stats);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        writeReport(settings, stats, elapsedSeconds);
+
+        long requests = stats.values().stream().mapToLong(EndpointStats::requests).sum();
+        long errors = stats.values().stream().mapToLong(EndpointStats::errors).sum();
+        assertThat(requests).isPositive();
+        assertThat(errors).isZero();
+    }
+
+    // ==================== Seed ====================
+
+    private List<SeededUser> seed(LoadTestSettings settings) throws Exception {
+        long started = System.nanoTime();
+        List<SeededUser> users = new ArrayList<>(settings.users());
+        // Registrierung parallel, aber unterhalb der Queue des Hashing-Pools
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<SeededUser>> futures = new ArrayList<>();
+            for (int i = 0; i < settings.users(); i++) {
+                int index = i;
+                futures.add(executor.submit(() -> register(index)));
+            }
+            for (Future<SeededUser> future : futures) {
+                users.add(future.get());
+            }
+        }
+
+        Instant now = Instant.now();
+        IntakeSource[] sources = IntakeSource.values();
+        for (SeededUser user : users) {
+            List<IntakeEventBulkWriter.Row> rows = new ArrayList<>(Math.min(settings.intakesPerUser(), SEED_CHUNK_SIZE));
+            for (int i = 0; i < settings.intakesPerUser(); i++) {
+                long ageSeconds = ThreadLocalRandom.current().nextLong(Duration.ofDays(30).toSeconds());
+                rows.add(new IntakeEventBulkWriter.Row(now.minusSeconds(ageSeconds), 100 + (i % 4) * 50, sources[i % sources.length]));
+                if (rows.size() == SEED_CHUNK_SIZE) {
+                    insert(user.id(), rows);
+                }
+            }
+            insert(user.id(), rows);
+            rollupBackfillService.rebuildUser(user.id());
+        }
+
+        System.out.printf("[loadtest] seeded %d users with %d intakes each in %d ms%n",
+                users.size(), settings.intakesPerUser(), (System.nanoTime() - started) / 1_000_000);
+        return users;
+    }
+
+    private void insert(long userId, List<IntakeEventBulkWriter.Row> rows) {
+        transactionTemplate.executeWithoutResult(status -> bulkWriter.insert(userId, rows));
+        rows.clear();
+    }
+
+    private SeededUser register(int index) throws Exception {
+        String email = "load-" + index + "-" + System.nanoTime() + "@example.com";
+        HttpResponse<String> response = client.send(
+                post("/api/auth/register", "{\"name\":\"Load " + index + "\",\"email\":\"" + email + "\","
+                        + "\"password\":\"" + PASSWORD + "\",\"weightKg\":70,\"activityLevel\":\"MEDIUM\","
+                        + "\"climate\":\"NORMAL\",\"timezone\":\"Europe/Berlin\"}", null),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(201);
+        JsonNode body = objectMapper.readTree(response.body());
+        return new SeededUser(body.get("user").get("id").asLong(), email, body.get("token").asText());
+    }
+
+    // ==================== Lastgenerator ====================
+
+    private void run(LoadTestSettings settings, List<SeededUser> users, Duration duration,
+                     Map<Operation, EndpointStats> stats) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        if (settings.mode().equals("closed")) {
+            runClosedLoop(settings, users, deadline, stats);
+        } else {
+            runOpenLoop(settings, users, deadline, stats);
+        }
+    }
+
+    /**
+     * Feste Anzahl Clients, jeder sendet den nächsten Request nach Eingang der Antwort
+     */
+    private void runClosedLoop(LoadTestSettings settings, List<SeededUser> users, long deadline,
+                               Map<Operation, EndpointStats> stats) throws Exception {
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < settings.concurrency(); c++) {
+                futures.add(clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        execute(settings, users, System.nanoTime(), stats);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+
+    /**
+     * Feste Ankunftsrate unabhängig von der Antwortzeit
+     */
+    private void runOpenLoop(LoadTestSettings settings, List<SeededUser> users, long deadline,
+                             Map<Operation, EndpointStats> stats) {
+        long intervalNanos = 1_000_000_000L / settings.rate();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long next = System.nanoTime(); next < deadline; next += intervalNanos) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long intendedStart = next;
+                executor.submit(() -> execute(settings, users, intendedStart, stats));
+            }
+        }
+    }
+
+    private void execute(LoadTestSettings settings, List<SeededUser> users, long startNanos,
+                         Map<Operation, EndpointStats> stats) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Operation operation = pick(settings, random);
+        SeededUser user = users.get(random.nextInt(users.size()));
+
+        boolean success;
+        try {
+            success = send(operation, user) < 400;
+        } catch (Exception e) {
+            success = false;
+        }
+        stats.get(operation).record(System.nanoTime() - startNanos, success);
+    }
+
+    private static Operation pick(LoadTestSettings settings, ThreadLocalRandom random) {
+        int roll = random.nextInt(settings.intakeWeight() + settings.todayWeight() + settings.loginWeight());
+        if (roll < settings.intakeWeight()) {
+            return Operation.INTAKE;
+        }
+        if (roll < settings.intakeWeight() + settings.todayWeight()) {
+            return Operation.TODAY;
+        }
+        return Operation.LOGIN;
+    }
+
+    private int send(Operation operation, SeededUser user) throws Exception {
+        HttpRequest request = switch (operation) {
+            case INTAKE -> post("/api/intakes",
+                    "{\"userId\":" + user.id() + ",\"volumeMl\":250,\"source\":\"GLASS\"}", user.token());
+            case TODAY -> HttpRequest.newBuilder(uri("/api/hydration/today/" + user.id()))
+                    .header("Authorization", "Bearer " + user.token())
+                    .GET()
+                    .build();
+            case LOGIN -> post("/api/auth/login",
+                    "{\"email\":\"" + user.email() + "\",\"password\":\"" + PASSWORD + "\"}", null);
+        };
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest post(String path, String body, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    // ==================== Report ====================
+
+    private static Map<Operation, EndpointStats> newStats() {
+        Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats());
+        }
+        return stats;
+    }
+
+    private void writeReport(LoadTestSettings settings, Map<Operation, EndpointStats> stats,
+                             double elapsedSeconds) throws Exception {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        stats.forEach((operation, endpointStats) -> endpoints.put(operation.endpoint, endpointStats.toMap(elapsedSeconds)));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", settings.label());
+        report.put("createdAt", Instant.now().toString());
+        report.put("javaVersion", Runtime.version().toString());
+        report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        report.put("settings", settings.toMap());
+        report.put("elapsedSeconds", Math.round(elapsedSeconds * 100.0) / 100.0);
+        report.put("endpoints", endpoints);
+
+        Files.createDirectories(settings.report().toAbsolutePath().getParent());
+        objectMapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(settings.report().toFile(), report);
+
+        endpoints.forEach((endpoint, values) -> System.out.printf("[loadtest] %-36s %s%n", endpoint, values));
+        System.out.println("[loadtest] report written to " + settings.report().toAbsolutePath());
+    }
+}
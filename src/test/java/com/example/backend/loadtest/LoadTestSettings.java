@@ -0,0 +1,86 @@
+package com.example.backend.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parameter des Lasttests, gelesen aus System-Properties {@code loadtest.*}
+ * (von {@code ./gradlew loadTest -Ploadtest.<name>=<wert>} durchgereicht).
+ *
+ * @param users          Anzahl angelegter Benutzer
+ * @param intakesPerUser Vorab gespeicherte Aufnahmen je Benutzer (über 30 Tage verteilt)
+ * @param mode           closed (feste Anzahl Clients) oder open (feste Ankunftsrate)
+ * @param concurrency    Parallele Clients im Closed-Loop-Modus
+ * @param rate           Requests pro Sekunde im Open-Loop-Modus
+ * @param warmup         Aufwärmphase, nicht im Report enthalten
+ * @param duration       Messdauer
+ * @param intakeWeight   Anteil POST /api/intakes
+ * @param todayWeight    Anteil GET /api/hydration/today
+ * @param loginWeight    Anteil POST /api/auth/login
+ * @param label          Freitext für den Report (z.B. Commit-Hash)
+ * @param report         Zieldatei des JSON-Reports
+ */
+record LoadTestSettings(
+        int users,
+        int intakesPerUser,
+        String mode,
+        int concurrency,
+        int rate,
+        Duration warmup,
+        Duration duration,
+        int intakeWeight,
+        int todayWeight,
+        int loginWeight,
+        String label,
+        Path report) {
+
+    static LoadTestSettings fromSystemProperties() {
+        String mode = property("mode", "closed");
+        if (!mode.equals("closed") && !mode.equals("open")) {
+            throw new IllegalArgumentException("loadtest.mode must be closed or open, was " + mode);
+        }
+        return new LoadTestSettings(
+                intProperty("users", 50),
+                intProperty("intakesPerUser", 200),
+                mode,
+                intProperty("concurrency", 64),
+                intProperty("rate", 500),
+                Duration.ofSeconds(intProperty("warmupSeconds", 10)),
+                Duration.ofSeconds(intProperty("durationSeconds", 30)),
+                intProperty("mix.intake", 30),
+                intProperty("mix.today", 60),
+                intProperty("mix.login", 10),
+                property("label", ""),
+                Path.of(property("report", "build/reports/loadtest/report.json")));
+    }
+
+    /**
+     * Einstellungen in stabiler Reihenfolge für den Report
+     */
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("users", users);
+        map.put("intakesPerUser", intakesPerUser);
+        map.put("mode", mode);
+        map.put("concurrency", mode.equals("closed") ? concurrency : null);
+        map.put("targetRate", mode.equals("open") ? rate : null);
+        map.put("warmupSeconds", warmup.toSeconds());
+        map.put("durationSeconds", duration.toSeconds());
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        mix.put("intake", intakeWeight);
+        mix.put("today", todayWeight);
+        mix.put("login", loginWeight);
+        map.put("mix", mix);
+        return map;
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+
+    private static int intProperty(String name, int defaultValue) {
+        return Integer.parseInt(property(name, String.valueOf(defaultValue)));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.backend.monitoring;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit Tests für QueryStatistics und QueryInstrumentingDataSource.
+ */
+class QueryStatisticsTest {
+
+    @Test
+    void shape_shouldRedactLiteralsAndCollapseInLists() {
+        // When
+        String shape = QueryStatistics.shape(
+                "select * from user_profile\n  where email = 'a@b.de' and id in (?, ?, ?) and weight_kg > 70");
+
+        // Then
+        assertThat(shape).isEqualTo("select * from user_profile where email = ? and id in (?...) and weight_kg > ?");
+    }
+
+    @Test
+    void instrumentedStatements_shouldBeCountedPerRequestAndAggregatedByShape() throws Exception {
+        // Given
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:query-stats;DB_CLOSE_DELAY=-1");
+        QueryStatistics statistics = new QueryStatistics(Duration.ofSeconds(10), 100);
+        QueryInstrumentingDataSource dataSource = new QueryInstrumentingDataSource(h2, statistics);
+
+        // When
+        statistics.beginRequest();
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("create table if not exists item (id int, name varchar(20))");
+            }
+            for (int i = 0; i < 3; i++) {
+                try (PreparedStatement insert = connection.prepareStatement("insert into item values (?, ?)")) {
+                    insert.setInt(1, i);
+                    insert.setString(2, "secret-" + i);
+                    insert.executeUpdate();
+                }
+            }
+        }
+        QueryStatistics.RequestQueries request = statistics.endRequest();
+
+        // Then
+        assertThat(request.statements()).isEqualTo(4);
+        assertThat(request.insert()).isEqualTo(3);
+        assertThat(request.other()).isEqualTo(1);
+        assertThat(request.nanos()).isPositive();
+        List<QueryStatistics.ShapeSummary> shapes = statistics.topShapes(10);
+        assertThat(shapes).extracting(QueryStatistics.ShapeSummary::sql)
+                .contains("insert into item values (?, ?)")
+                .noneMatch(sql -> sql.contains("secret"));
+        assertThat(shapes).filteredOn(shape -> shape.sql().startsWith("insert"))
+                .singleElement()
+                .extracting(QueryStatistics.ShapeSummary::count)
+                .isEqualTo(3L);
+    }
+
+    @Test
+    void record_beyondMaxShapes_shouldAggregateIntoOther() {
+        // Given
+        QueryStatistics statistics = new QueryStatistics(Duration.ofSeconds(10), 1);
+
+        // When
+        statistics.record("select a from t", 1_000);
+        statistics.record("select b from t", 2_000);
+
+        // Then
+        assertThat(statistics.topShapes(10)).extracting(QueryStatistics.ShapeSummary::sql)
+                .containsExactly(QueryStatistics.OTHER_SHAPE, "select a from t");
+    }
+}
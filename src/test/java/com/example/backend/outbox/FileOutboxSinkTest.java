@@ -0,0 +1,42 @@
+package com.example.backend.outbox;
+
+import com.example.backend.model.entity.OutboxMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit Tests für FileOutboxSink (Datei in einem temporären Verzeichnis).
+ */
+class FileOutboxSinkTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void deliver_shouldAppendOneJsonLinePerMessage() throws Exception {
+        // Given
+        ObjectMapper objectMapper = new ObjectMapper();
+        Path file = directory.resolve("nested/outbox.jsonl");
+        FileOutboxSink sink = new FileOutboxSink(objectMapper, file);
+        Instant now = Instant.parse("2026-10-17T08:00:00Z");
+
+        // When
+        sink.deliver(List.of(new OutboxMessage(1L, 1L, "ProfileUpdated", "{\"userId\":1}", now)));
+        sink.deliver(List.of(new OutboxMessage(2L, 2L, "ProfileUpdated", "{\"userId\":2}", now)));
+
+        // Then
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines.get(0)).get("id").asLong()).isEqualTo(1L);
+        assertThat(objectMapper.readTree(lines.get(1)).get("payload").get("userId").asLong()).isEqualTo(2L);
+        assertThat(objectMapper.readTree(lines.get(1)).get("createdAt").asText()).isEqualTo("2026-10-17T08:00:00Z");
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.backend.outbox;
+
+import com.example.backend.model.entity.OutboxMessage;
+import com.example.backend.repository.OutboxMessageRepository;
+import com.example.backend.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests für OutboxRelay (Repository und Transaktionsmanager gemockt).
+ */
+class OutboxRelayTest {
+
+    private final OutboxMessageRepository outboxRepository = mock(OutboxMessageRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<OutboxMessage>> delivered = new ArrayList<>();
+    private OutboxSink sink;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        sink = messages -> delivered.add(List.copyOf(messages));
+        relay = newRelay(sink);
+    }
+
+    @Test
+    void relay_shouldDeliverAndDeleteBatchesUntilEmpty() {
+        // Given - ein voller Batch, dann ein Rest
+        List<OutboxMessage> first = messages(1, 2);
+        List<OutboxMessage> second = messages(3, 3);
+        when(outboxRepository.claimBatch(2)).thenReturn(first, second);
+
+        // When
+        relay.relay();
+
+        // Then
+        assertThat(delivered).containsExactly(first, second);
+        verify(outboxRepository).deleteAllInBatch(first);
+        verify(outboxRepository).deleteAllInBatch(second);
+        verify(outboxRepository, times(2)).claimBatch(2);
+        verify(transactionManager, times(2)).commit(any());
+        assertThat(meterRegistry.counter("outbox.relayed").count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void relay_whenSinkFails_shouldRollBackWithoutDeleting() {
+        // Given
+        relay = newRelay(messages -> {
+            throw new IOException("connection refused");
+        });
+        when(outboxRepository.claimBatch(anyInt())).thenReturn(messages(1, 2));
+
+        // When
+        relay.relay();
+
+        // Then
+        verify(outboxRepository, never()).deleteAllInBatch(any());
+        verify(transactionManager).rollback(any());
+        assertThat(meterRegistry.counter("outbox.relay.failures").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("outbox.relayed").count()).isZero();
+    }
+
+    @Test
+    void relay_whenEmpty_shouldNotCallSink() {
+        // Given
+        when(outboxRepository.claimBatch(anyInt())).thenReturn(List.of());
+
+        // When
+        relay.relay();
+
+        // Then
+        assertThat(delivered).isEmpty();
+        verify(outboxRepository, never()).deleteAllInBatch(any());
+    }
+
+    private OutboxRelay newRelay(OutboxSink sink) {
+        return new OutboxRelay(outboxRepository, sink, new TransactionTemplate(transactionManager),
+                ShardRouter.disabled(), meterRegistry, 2);
+    }
+
+    private static List<OutboxMessage> messages(long fromId, long toId) {
+        return LongStream.rangeClosed(fromId, toId)
+                .mapToObj(id -> new OutboxMessage(id, 1L, "ProfileUpdated", "{\"userId\":1}", Instant.now()))
+                .toList();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.backend.outbox;
+
+import com.example.backend.events.IntakeRecorded;
+import com.example.backend.model.entity.OutboxMessage;
+import com.example.backend.model.enums.IntakeSource;
+import com.example.backend.repository.OutboxMessageRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit Tests für OutboxWriter und das Übertragungsformat der Sinks.
+ */
+class OutboxWriterTest {
+
+    private final OutboxMessageRepository outboxRepository = mock(OutboxMessageRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final OutboxWriter writer = new OutboxWriter(outboxRepository, objectMapper);
+
+    @Test
+    void write_shouldStoreEventAsJson() throws Exception {
+        // Given
+        Instant timestamp = Instant.parse("2026-10-17T08:00:00Z");
+
+        // When
+        writer.write(new IntakeRecorded(7L, 42L, 250, IntakeSource.GLASS, timestamp));
+
+        // Then
+        ArgumentCaptor<OutboxMessage> captor = ArgumentCaptor.forClass(OutboxMessage.class);
+        verify(outboxRepository).save(captor.capture());
+        OutboxMessage message = captor.getValue();
+        assertThat(message.getUserId()).isEqualTo(7L);
+        assertThat(message.getEventType()).isEqualTo("IntakeRecorded");
+        assertThat(message.getCreatedAt()).isNotNull();
+        assertThat(objectMapper.readTree(message.getPayload()).get("intakeId").asLong()).isEqualTo(42L);
+        assertThat(objectMapper.readTree(message.getPayload()).get("timestamp").asText()).isEqualTo("2026-10-17T08:00:00Z");
+
+        // Übertragungsformat: Payload eingebettet, nicht als String
+        message.setId(1L);
+        assertThat(OutboxFormat.toJson(objectMapper, message).get("payload").get("source").asText()).isEqualTo("GLASS");
+    }
+}
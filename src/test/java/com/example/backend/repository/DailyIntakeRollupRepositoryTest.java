@@ -0,0 +1,129 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.entity.DailyIntakeRollup;
+import com.example.backend.model.entity.UserProfile;
+import com.example.backend.model.enums.ActivityLevel;
+import com.example.backend.model.enums.Climate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Repository Tests für DailyIntakeRollupRepository mit H2 In-Memory Datenbank.
+ * Testet Fortschreibung, Upsert und Bereichsabfrage der Tageszusammenfassungen.
+ */
+@DataJpaTest
+@Import(DailyIntakeRollupUpserter.class)
+class DailyIntakeRollupRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DailyIntakeRollupRepository rollupRepository;
+
+    @Autowired
+    private DailyIntakeRollupUpserter rollupUpserter;
+
+    private UserProfile testUser;
+    private final LocalDate day = LocalDate.of(2024, 11, 1);
+
+    @BeforeEach
+    void setUp() {
+        testUser = new UserProfile();
+        testUser.setName("Test User");
+        testUser.setEmail("test@example.com");
+        testUser.setPassword("password123");
+        testUser.setWeightKg(70);
+        testUser.setActivityLevel(ActivityLevel.MEDIUM);
+        testUser.setClimate(Climate.NORMAL);
+        testUser.setTimezone("Europe/Berlin");
+        entityManager.persistAndFlush(testUser);
+
+        entityManager.persist(new DailyIntakeRollup(null, testUser, day.minusDays(1), 2800, 9, 2700));
+        entityManager.persist(new DailyIntakeRollup(null, testUser, day, 500, 2, 2700));
+        entityManager.flush();
+    }
+
+    @Test
+    void applyDelta_withExistingDay_shouldIncrementTotals() {
+        // When
+        int updated = rollupRepository.applyDelta(testUser.getId(), day, 250, 1);
+        entityManager.clear();
+
+        // Then
+        assertThat(updated).isEqualTo(1);
+        List<DailyIntakeRollup> rollups = rollupRepository.findByUserAndDateRange(testUser.getId(), day, day);
+        assertThat(rollups).hasSize(1);
+        assertThat(rollups.get(0).getTotalMl()).isEqualTo(750);
+        assertThat(rollups.get(0).getEventCount()).isEqualTo(3);
+        assertThat(rollups.get(0).getGoalMl()).isEqualTo(2700);
+    }
+
+    @Test
+    void applyDelta_withMissingDay_shouldUpdateNothing() {
+        // When
+        int updated = rollupRepository.applyDelta(testUser.getId(), day.plusDays(1), 250, 1);
+
+        // Then
+        assertThat(updated).isZero();
+    }
+
+    @Test
+    void findByUserAndDateRange_shouldReturnDaysInAscendingOrder() {
+        // When
+        List<DailyIntakeRollup> rollups = rollupRepository.findByUserAndDateRange(
+                testUser.getId(), day.minusDays(7), day);
+
+        // Then
+        assertThat(rollups).extracting(DailyIntakeRollup::getLocalDate)
+                .containsExactly(day.minusDays(1), day);
+    }
+
+    @Test
+    void upsert_withMissingDay_shouldCreateRow() {
+        // When
+        rollupUpserter.upsert(testUser.getId(), day.plusDays(1), 250, 1, 2800);
+        entityManager.clear();
+
+        // Then
+        List<DailyIntakeRollup> rollups = rollupRepository.findByUserAndDateRange(
+                testUser.getId(), day.plusDays(1), day.plusDays(1));
+        assertThat(rollups).hasSize(1);
+        assertThat(rollups.get(0).getTotalMl()).isEqualTo(250);
+        assertThat(rollups.get(0).getEventCount()).isEqualTo(1);
+        assertThat(rollups.get(0).getGoalMl()).isEqualTo(2800);
+    }
+
+    @Test
+    void upsert_withExistingDay_shouldIncrementTotalsAndKeepGoal() {
+        // When - z.B. eine gleichzeitige erste Aufnahme hat die Zeile bereits angelegt
+        rollupUpserter.upsert(testUser.getId(), day, 250, 1, 2800);
+        entityManager.clear();
+
+        // Then
+        List<DailyIntakeRollup> rollups = rollupRepository.findByUserAndDateRange(testUser.getId(), day, day);
+        assertThat(rollups).hasSize(1);
+        assertThat(rollups.get(0).getTotalMl()).isEqualTo(750);
+        assertThat(rollups.get(0).getEventCount()).isEqualTo(3);
+        assertThat(rollups.get(0).getGoalMl()).isEqualTo(2700);
+    }
+
+    @Test
+    void findByUserIdForUpdate_shouldReturnAllDaysInAscendingOrder() {
+        // When
+        List<DailyIntakeRollup> rollups = rollupRepository.findByUserIdForUpdate(testUser.getId());
+
+        // Then
+        assertThat(rollups).extracting(DailyIntakeRollup::getLocalDate)
+                .containsExactly(day.minusDays(1), day);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.backend.repository;
 
+import com.example.backend.dto.response.IntakeResponse;
 import com.example.backend.model.entity.IntakeEvent;
 import com.example.backend.model.entity.UserProfile;
 import com.example.backend.model.enums.ActivityLevel;
@@ -90,4 +91,36 @@ class IntakeEventRepositoryTest {
         assertThat(events).extracting(IntakeEvent::getVolumeMl)
                 .containsExactlyInAnyOrder(500, 300);
     }
+
+    @Test
+    void sumPerQuarterHour_shouldAggregateInDatabase() {
+        // Given: 2 Events zum selben Zeitpunkt (500ml + 300ml)
+        Instant start = now.minus(1, ChronoUnit.HOURS);
+        Instant end = now.plus(1, ChronoUnit.HOURS);
+
+        // When
+        List<Object[]> bins = intakeEventRepository.sumPerQuarterHour(testUser.getId(), start, end);
+
+        // Then
+        assertThat(bins).hasSize(1);
+        assertThat(((Number) bins.get(0)[0]).longValue()).isEqualTo(now.getEpochSecond() / 900);
+        assertThat(((Number) bins.get(0)[1]).intValue()).isEqualTo(800);
+    }
+
+    @Test
+    void findPageByUserBefore_shouldSeekPastCursorIncludingTies() {
+        // Given: 2 Events mit identischem Zeitstempel, erste Seite mit Größe 1
+        List<IntakeResponse> firstPage = intakeEventRepository.findPageByUser(testUser.getId(), 1);
+        IntakeResponse last = firstPage.get(0);
+
+        // When
+        List<IntakeResponse> secondPage = intakeEventRepository.findPageByUserBefore(
+                testUser.getId(), last.getTimestamp(), last.getId(), 10);
+
+        // Then
+        assertThat(secondPage).hasSize(1);
+        assertThat(secondPage.get(0).getId()).isLessThan(last.getId());
+        assertThat(secondPage.get(0).getUserId()).isEqualTo(testUser.getId());
+        assertThat(List.of(last.getVolumeMl(), secondPage.get(0).getVolumeMl())).containsExactlyInAnyOrder(500, 300);
+    }
 }
@@ -15,7 +15,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 /**
  * Repository Tests für UserProfileRepository mit H2 In-Memory Datenbank.
- * Testet Custom Query-Methode findByEmail.
+ * Testet Custom Query-Methoden findByEmail, lockById und den Datenstand für ETags.
  */
 @DataJpaTest
 class UserProfileRepositoryTest {
@@ -53,4 +53,26 @@ class UserProfileRepositoryTest {
         assertThat(found.get().getName()).isEqualTo("Test User");
         assertThat(found.get().getWeightKg()).isEqualTo(70);
     }
+
+    @Test
+    void lockById_shouldReturnIdOnlyForExistingUser() {
+        // When & Then
+        assertThat(userProfileRepository.lockById(testProfile.getId())).contains(testProfile.getId());
+        assertThat(userProfileRepository.lockById(-1L)).isEmpty();
+    }
+
+    @Test
+    void incrementDataVersion_shouldStartAtZeroAndCountUp() {
+        // Given
+        assertThat(userProfileRepository.findDataVersionById(testProfile.getId())).contains(0L);
+
+        // When
+        int updated = userProfileRepository.incrementDataVersion(testProfile.getId());
+        userProfileRepository.incrementDataVersion(testProfile.getId());
+
+        // Then
+        assertThat(updated).isEqualTo(1);
+        assertThat(userProfileRepository.findDataVersionById(testProfile.getId())).contains(2L);
+        assertThat(userProfileRepository.incrementDataVersion(-1L)).isZero();
+    }
 }
@@ -0,0 +1,174 @@
+package com.example.backend.security;
+
+import com.example.backend.controller.AuthController;
+import com.example.backend.controller.HydrationController;
+import com.example.backend.dto.request.IntakeRequest;
+import com.example.backend.dto.response.TodayStatusResponse;
+import com.example.backend.model.enums.ActivityLevel;
+import com.example.backend.model.enums.Climate;
+import com.example.backend.model.enums.IntakeSource;
+import com.example.backend.repository.UserProfileRepository;
+import com.example.backend.service.AuthRateLimiter;
+import com.example.backend.service.DailyIntakeTotals;
+import com.example.backend.service.HydrationService;
+import com.example.backend.service.IntakeExportService;
+import com.example.backend.service.IntakeImportService;
+import com.example.backend.service.PasswordHashingService;
+import com.example.backend.service.ProfileCache;
+import com.example.backend.service.ProfileSnapshot;
+import com.example.backend.service.TodayStatusStreams;
+import com.example.backend.service.UserVersionTracker;
+import com.example.backend.sharding.ShardRouter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.ZoneId;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration Tests für die Token-Prüfung vor HydrationController und dem Profil-Endpoint des AuthController.
+ * Testet fehlende Tokens sowie fremde Benutzer-IDs in Pfad und Body.
+ */
+@WebMvcTest({HydrationController.class, AuthController.class})
+@Import({TokenService.class, UserVersionTracker.class, DailyIntakeTotals.class})
+@TestPropertySource(properties = "app.auth.enforce=true")
+class TokenAuthenticationFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @MockBean
+    private HydrationService hydrationService;
+
+    @MockBean
+    private TodayStatusStreams todayStatusStreams;
+
+    @MockBean
+    private IntakeExportService exportService;
+
+    @MockBean
+    private IntakeImportService importService;
+
+    @MockBean
+    private UserProfileRepository userProfileRepository;
+
+    @MockBean
+    private PasswordHashingService passwordHashingService;
+
+    @MockBean
+    private AuthRateLimiter rateLimiter;
+
+    @MockBean
+    private ProfileCache profileCache;
+
+    @MockBean
+    private ShardRouter shardRouter;
+
+    @Test
+    void request_withoutToken_shouldReturn401() throws Exception {
+        mockMvc.perform(get("/api/hydration/today/1"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string(HttpHeaders.WWW_AUTHENTICATE, "Bearer"));
+
+        verify(hydrationService, never()).getTodayStatus(anyLong());
+    }
+
+    @Test
+    void request_withOwnUserId_shouldReturn200() throws Exception {
+        // Given
+        doReturn(new TodayStatusResponse(2700, 500, 2200, 18)).when(hydrationService).getTodayStatus(1L);
+        // ETag ohne If-None-Match aus dem Datenstand des zwischengespeicherten Profils
+        doReturn(new ProfileSnapshot(1L, "Test User", "test@example.com", 70, ActivityLevel.MEDIUM, Climate.NORMAL,
+                "Europe/Berlin", ZoneId.of("Europe/Berlin"), 0L)).when(profileCache).get(1L);
+
+        // When & Then
+        mockMvc.perform(get("/api/hydration/today/1")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.issue(1L)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.consumedMl").value(500));
+    }
+
+    @Test
+    void request_withForeignUserIdInPath_shouldReturn403() throws Exception {
+        mockMvc.perform(get("/api/hydration/today/2")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.issue(1L)))
+                .andExpect(status().isForbidden());
+
+        verify(hydrationService, never()).getTodayStatus(anyLong());
+    }
+
+    @Test
+    void addIntake_withForeignUserIdInBody_shouldReturn403() throws Exception {
+        // Given
+        IntakeRequest request = new IntakeRequest(2L, 250, IntakeSource.SIP);
+
+        // When & Then
+        mockMvc.perform(post("/api/intakes")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.issue(1L))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isForbidden());
+
+        verify(hydrationService, never()).recordIntake(any(IntakeRequest.class));
+    }
+
+    @Test
+    void deleteIntake_shouldPassAuthenticatedUserToService() throws Exception {
+        mockMvc.perform(delete("/api/intakes/5")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.issue(1L)))
+                .andExpect(status().isNoContent());
+
+        verify(hydrationService).deleteIntake(5L, 1L);
+    }
+
+    @Test
+    void authProfile_withoutToken_shouldReturn401() throws Exception {
+        mockMvc.perform(get("/api/auth/profile/1"))
+                .andExpect(status().isUnauthorized());
+
+        verify(profileCache, never()).find(anyLong());
+    }
+
+    @Test
+    void authProfile_withForeignUserId_shouldReturn403() throws Exception {
+        mockMvc.perform(get("/api/auth/profile/2")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.issue(1L)))
+                .andExpect(status().isForbidden());
+
+        verify(profileCache, never()).find(anyLong());
+    }
+
+    @Test
+    void authProfile_withOwnUserId_shouldReturn200() throws Exception {
+        // Given
+        doReturn(Optional.of(new ProfileSnapshot(1L, "Test User", "test@example.com", 70,
+                ActivityLevel.MEDIUM, Climate.NORMAL, "Europe/Berlin", ZoneId.of("Europe/Berlin"), 0L)))
+                .when(profileCache).find(1L);
+
+        // When & Then
+        mockMvc.perform(get("/api/auth/profile/1")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.issue(1L)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.user.email").value("test@example.com"));
+    }
+}
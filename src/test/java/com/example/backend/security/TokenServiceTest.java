@@ -0,0 +1,90 @@
+package com.example.backend.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit Tests für TokenService.
+ * Testet Signaturprüfung, Ablauf und Schlüsselrotation.
+ */
+class TokenServiceTest {
+
+    private static final String KEY_1 = "k1:MDEyMzQ1Njc4OTAxMjM0NTY3ODkwMTIzNDU2Nzg5MDE=";
+    private static final String KEY_2 = "k2:YWJjZGVmZ2hpamtsbW5vcHFyc3R1dnd4eXphYmNkZWY=";
+
+    private final Instant now = Instant.parse("2024-11-01T12:00:00Z");
+
+    @Test
+    void issue_shouldProduceTokenThatVerifiesToUserId() {
+        // Given
+        TokenService tokenService = new TokenService(List.of(KEY_1), Duration.ofDays(1), Clock.fixed(now, ZoneOffset.UTC));
+
+        // When
+        String token = tokenService.issue(42L);
+
+        // Then
+        assertThat(token).startsWith("k1.42.");
+        assertThat(tokenService.verify(token)).contains(42L);
+    }
+
+    @Test
+    void verify_withTamperedUserId_shouldFail() {
+        // Given
+        TokenService tokenService = new TokenService(List.of(KEY_1), Duration.ofDays(1), Clock.fixed(now, ZoneOffset.UTC));
+        String token = tokenService.issue(42L);
+
+        // When
+        String tampered = token.replaceFirst("^k1\\.42\\.", "k1.43.");
+
+        // Then
+        assertThat(tokenService.verify(tampered)).isEmpty();
+        assertThat(tokenService.verify("not-a-token")).isEmpty();
+    }
+
+    @Test
+    void verify_withExpiredToken_shouldFail() {
+        // Given
+        String token = new TokenService(List.of(KEY_1), Duration.ofHours(1), Clock.fixed(now, ZoneOffset.UTC)).issue(42L);
+
+        // When
+        TokenService later = new TokenService(List.of(KEY_1), Duration.ofHours(1),
+                Clock.fixed(now.plus(Duration.ofHours(2)), ZoneOffset.UTC));
+
+        // Then
+        assertThat(later.verify(token)).isEmpty();
+    }
+
+    @Test
+    void verify_afterKeyRotation_shouldAcceptOldTokensAndSignWithNewKey() {
+        // Given
+        String oldToken = new TokenService(List.of(KEY_1), Duration.ofDays(1), Clock.fixed(now, ZoneOffset.UTC)).issue(42L);
+
+        // When - neuer Schlüssel vorne, alter Schlüssel nur noch zur Prüfung
+        TokenService rotated = new TokenService(List.of(KEY_2, KEY_1), Duration.ofDays(1), Clock.fixed(now, ZoneOffset.UTC));
+        TokenService retired = new TokenService(List.of(KEY_2), Duration.ofDays(1), Clock.fixed(now, ZoneOffset.UTC));
+
+        // Then
+        assertThat(rotated.verify(oldToken)).contains(42L);
+        assertThat(rotated.issue(42L)).startsWith("k2.");
+        assertThat(retired.verify(oldToken)).isEmpty();
+    }
+
+    @Test
+    void constructor_withoutKeys_shouldFailUnlessRandomKeyAllowed() {
+        // When & Then
+        assertThatThrownBy(() -> new TokenService(List.of(), Duration.ofDays(1), Clock.fixed(now, ZoneOffset.UTC)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("app.auth.tokens.keys");
+
+        TokenService local = new TokenService(List.of(), true, Duration.ofDays(1), Clock.fixed(now, ZoneOffset.UTC));
+        assertThat(local.verify(local.issue(42L))).contains(42L);
+    }
+}
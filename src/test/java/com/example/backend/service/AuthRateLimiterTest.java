@@ -0,0 +1,46 @@
+package com.example.backend.service;
+
+import com.example.backend.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit Tests für AuthRateLimiter.
+ */
+class AuthRateLimiterTest {
+
+    private final AuthRateLimiter rateLimiter = new AuthRateLimiter(
+            new SimpleMeterRegistry(), 3, Duration.ofHours(1), 2, Duration.ofHours(1));
+
+    @Test
+    void checkAttempt_shouldLimitPerEmailAcrossClients() {
+        // Given
+        rateLimiter.checkAttempt("10.0.0.1", "max@example.com");
+        rateLimiter.checkAttempt("10.0.0.2", "Max@Example.com");
+
+        // When & Then - dritter Versuch für dasselbe Konto, auch von neuer IP
+        assertThatThrownBy(() -> rateLimiter.checkAttempt("10.0.0.3", "max@example.com"))
+                .isInstanceOf(RateLimitExceededException.class);
+        assertThatCode(() -> rateLimiter.checkAttempt("10.0.0.3", "other@example.com"))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void checkAttempt_shouldLimitPerClientIp() {
+        // Given
+        rateLimiter.checkAttempt("10.0.0.1", "a@example.com");
+        rateLimiter.checkAttempt("10.0.0.1", "b@example.com");
+        rateLimiter.checkAttempt("10.0.0.1", "c@example.com");
+
+        // When & Then
+        assertThatThrownBy(() -> rateLimiter.checkAttempt("10.0.0.1", "d@example.com"))
+                .isInstanceOf(RateLimitExceededException.class);
+        assertThatCode(() -> rateLimiter.checkAttempt("10.0.0.2", "d@example.com"))
+                .doesNotThrowAnyException();
+    }
+}
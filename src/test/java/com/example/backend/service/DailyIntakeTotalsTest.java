@@ -0,0 +1,141 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit Tests für DailyIntakeTotals.
+ * Testet Cache-Miss, inkrementelle Fortschreibung, Tageswechsel und TTL.
+ */
+class DailyIntakeTotalsTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-11-01T08:00:00Z"));
+    private final DailyIntakeTotals totals = new DailyIntakeTotals(Duration.ofSeconds(30), clock);
+    private final LocalDate today = LocalDate.of(2024, 11, 1);
+
+    @Test
+    void getOrLoad_shouldLoadOnlyOnCacheMiss() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        int first = totals.getOrLoad(1L, today, () -> { loads.incrementAndGet(); return 500; });
+        int second = totals.getOrLoad(1L, today, () -> { loads.incrementAndGet(); return 999; });
+
+        // Then
+        assertThat(first).isEqualTo(500);
+        assertThat(second).isEqualTo(500);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void add_shouldUpdateLoadedTotalForSameDay() {
+        // Given
+        totals.getOrLoad(1L, today, () -> 500);
+
+        // When
+        totals.add(1L, today, 250);
+        totals.add(1L, today, -100);
+
+        // Then
+        assertThat(totals.get(1L, today)).hasValue(650);
+    }
+
+    @Test
+    void getOrLoad_onNewDay_shouldReloadFromDatabase() {
+        // Given
+        totals.getOrLoad(1L, today, () -> 500);
+        totals.add(1L, today.minusDays(1), 300);
+
+        // When
+        int nextDay = totals.getOrLoad(1L, today.plusDays(1), () -> 0);
+
+        // Then
+        assertThat(nextDay).isZero();
+        assertThat(totals.get(1L, today)).isEmpty();
+    }
+
+    @Test
+    void getOrLoad_duringPendingWrite_shouldLoadWithoutCaching() throws Exception {
+        // Given - Schreibvorgang in einer offenen Transaktion
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            totals.add(1L, today, 250);
+
+            // When - das Laden läuft in einem anderen Thread, während der Schreiber offen ist
+            AtomicInteger loaded = new AtomicInteger();
+            Thread reader = new Thread(() -> loaded.set(totals.getOrLoad(1L, today, () -> 500)));
+            reader.start();
+            reader.join(5_000);
+
+            // Then
+            assertThat(loaded).hasValue(500);
+            assertThat(totals.get(1L, today)).isEmpty();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void getOrLoad_afterTtl_shouldReloadFromDatabase() {
+        // Given: Summe geladen, eine andere Instanz schreibt danach direkt in die Datenbank
+        totals.getOrLoad(1L, today, () -> 500);
+        clock.advance(Duration.ofSeconds(31));
+
+        // When
+        int reloaded = totals.getOrLoad(1L, today, () -> 750);
+
+        // Then
+        assertThat(reloaded).isEqualTo(750);
+        assertThat(totals.get(1L, today)).hasValue(750);
+    }
+
+    @Test
+    void get_afterTtl_shouldReturnEmpty() {
+        // Given
+        totals.getOrLoad(1L, today, () -> 500);
+
+        // When
+        clock.advance(Duration.ofSeconds(30));
+
+        // Then
+        assertThat(totals.get(1L, today)).isEmpty();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -1,29 +1,50 @@
 package com.example.backend.service;
 
+import com.example.backend.dto.request.IntakeCursor;
 import com.example.backend.dto.request.IntakeRequest;
+import com.example.backend.dto.response.BatchIntakeResponse;
+import com.example.backend.dto.response.DashboardResponse;
+import com.example.backend.dto.response.IntakePageResponse;
+import com.example.backend.dto.response.IntakeResponse;
+import com.example.backend.dto.response.IntakeSeriesResponse;
 import com.example.backend.dto.response.TodayStatusResponse;
 import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.journal.JournalEntry;
 import com.example.backend.model.entity.IntakeEvent;
 import com.example.backend.model.entity.UserProfile;
 import com.example.backend.model.enums.ActivityLevel;
 import com.example.backend.model.enums.Climate;
+import com.example.backend.model.enums.DashboardPart;
 import com.example.backend.model.enums.IntakeSource;
+import com.example.backend.model.enums.SeriesBucket;
+import com.example.backend.repository.DailyIntakeRollupRepository;
+import com.example.backend.repository.DailyIntakeRollupUpserter;
 import com.example.backend.repository.IntakeEventRepository;
 import com.example.backend.repository.UserProfileRepository;
+import com.example.backend.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -39,7 +60,19 @@ class HydrationServiceTest {
     @Mock
     private IntakeEventRepository intakeRepository;
 
-    @InjectMocks
+    @Mock
+    private DailyIntakeRollupRepository rollupRepository;
+
+    @Mock
+    private DailyIntakeRollupUpserter rollupUpserter;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
     private HydrationService hydrationService;
 
     private UserProfile testProfile;
@@ -47,6 +80,14 @@ class HydrationServiceTest {
 
     @BeforeEach
     void setUp() {
+        // Echte In-Memory-Komponenten über den gemockten Repositories
+        meterRegistry = new SimpleMeterRegistry();
+        ProfileCache profileCache = new ProfileCache(profileRepository, meterRegistry, 100, Duration.ofMinutes(1));
+        DailyIntakeTotals dailyTotals = new DailyIntakeTotals(Duration.ofMinutes(1));
+        hydrationService = new HydrationService(profileRepository, intakeRepository, rollupRepository, rollupUpserter,
+                validator, dailyTotals, profileCache, eventPublisher, new IntakeMetrics(meterRegistry),
+                ShardRouter.disabled(), new UserVersionTracker(profileRepository, profileCache, dailyTotals));
+
         testProfile = new UserProfile();
         testProfile.setId(1L);
         testProfile.setName("Test User");
@@ -102,26 +143,227 @@ class HydrationServiceTest {
         // Given
         IntakeRequest request = new IntakeRequest(1L, 250, IntakeSource.SIP);
         doReturn(Optional.of(testProfile)).when(profileRepository).findById(1L);
+        doReturn(testProfile).when(profileRepository).getReferenceById(1L);
         doReturn(testIntake).when(intakeRepository).save(any(IntakeEvent.class));
+        doReturn(1).when(profileRepository).incrementDataVersion(1L);
 
         // When
         hydrationService.recordIntake(request);
 
         // Then
         verify(profileRepository).findById(1L);
+        verify(profileRepository).incrementDataVersion(1L);
         verify(intakeRepository).save(any(IntakeEvent.class));
+        verify(rollupRepository).applyDelta(eq(1L), any(), eq(250), eq(1));
+        // Erste Aufnahme des Tages: keine Zeile aktualisiert, daher Upsert
+        verify(rollupUpserter).upsert(eq(1L), any(), eq(250), eq(1), eq(2700));
+        verify(eventPublisher).publishEvent(new HydrationDataChangedEvent(1L));
+        assertThat(meterRegistry.get("hydration.intakes.recorded").tag("source", "SIP").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("hydration.intakes.volume").tag("source", "SIP").counter().count()).isEqualTo(250.0);
+    }
+
+    @Test
+    void recordIntake_whenCachedUserNoLongerExists_shouldEvictAndThrow() {
+        // Given: Profil im Cache, Benutzer inzwischen gelöscht oder verschoben
+        doReturn(Optional.of(testProfile)).when(profileRepository).findById(1L);
+        hydrationService.getProfile(1L);
+        doReturn(0).when(profileRepository).incrementDataVersion(1L);
+
+        // When & Then
+        assertThatThrownBy(() -> hydrationService.recordIntake(new IntakeRequest(1L, 250, IntakeSource.SIP)))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verify(intakeRepository, never()).save(any(IntakeEvent.class));
+        hydrationService.getProfile(1L);
+        verify(profileRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void recordIntakes_withUnknownUser_shouldRejectOnlyThatItem() {
+        // Given: ein gültiger Eintrag und einer für einen unbekannten Benutzer
+        List<IntakeRequest> requests = List.of(
+                new IntakeRequest(1L, 250, IntakeSource.SIP),
+                new IntakeRequest(2L, 300, IntakeSource.GLASS));
+        doReturn(List.of(testProfile)).when(profileRepository).findAllById(any());
+        doReturn(testProfile).when(profileRepository).getReferenceById(1L);
+        doAnswer(invocation -> invocation.getArgument(0)).when(intakeRepository).saveAll(anyList());
+        doReturn(1).when(profileRepository).incrementDataVersion(1L);
+
+        // When
+        BatchIntakeResponse response = hydrationService.recordIntakes(requests);
+
+        // Then
+        assertThat(response.getAccepted()).isEqualTo(1);
+        assertThat(response.getRejected()).isEqualTo(1);
+        assertThat(response.getResults()).extracting(BatchIntakeResponse.ItemResult::getStatus)
+                .containsExactly(BatchIntakeResponse.ItemStatus.CREATED, BatchIntakeResponse.ItemStatus.REJECTED);
+
+        verify(profileRepository, times(1)).findAllById(any());
+        verify(profileRepository, never()).findById(anyLong());
+        verify(intakeRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void recordJournaled_shouldKeepJournalTimestampsAndDropUnknownUsers() {
+        // Given: zwei Einträge aus dem Journal, einer für einen inzwischen unbekannten Benutzer
+        Instant acceptedAt = Instant.parse("2024-05-01T08:00:00Z");
+        List<JournalEntry> entries = List.of(
+                new JournalEntry(1, 1L, 250, IntakeSource.SIP, acceptedAt),
+                new JournalEntry(2, 2L, 300, IntakeSource.GLASS, acceptedAt.plusSeconds(5)));
+        doReturn(List.of(testProfile)).when(profileRepository).findAllById(any());
+        doReturn(testProfile).when(profileRepository).getReferenceById(1L);
+        doAnswer(invocation -> invocation.getArgument(0)).when(intakeRepository).saveAll(anyList());
+        doReturn(1).when(profileRepository).incrementDataVersion(1L);
+
+        // When
+        int saved = hydrationService.recordJournaled(entries);
+
+        // Then
+        assertThat(saved).isEqualTo(1);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<IntakeEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(intakeRepository).saveAll(events.capture());
+        assertThat(events.getValue()).singleElement()
+                .extracting(IntakeEvent::getTimestampUtc)
+                .isEqualTo(acceptedAt);
+        verify(rollupRepository).applyDelta(eq(1L), any(), eq(250), eq(1));
+    }
+
+    @Test
+    void getIntakeSeries_withDailyBucketsOnDstDay_shouldUseLocalMidnights() {
+        // Given: 27.10.2024 endet die Sommerzeit in Berlin (25-Stunden-Tag)
+        Instant from = Instant.parse("2024-10-26T22:00:00Z");
+        Instant to = Instant.parse("2024-10-28T23:00:00Z");
+        // 23:30 Ortszeit (CET) am 27.10. gehört noch zum 27.10.
+        long bin = Instant.parse("2024-10-27T22:30:00Z").getEpochSecond() / 900;
+        List<Object[]> rows = List.<Object[]>of(new Object[]{bin, 300L});
+        doReturn(Optional.of(testProfile)).when(profileRepository).findById(1L);
+        doReturn(rows).when(intakeRepository).sumPerQuarterHour(eq(1L), any(Instant.class), any(Instant.class));
+
+        // When
+        IntakeSeriesResponse series = hydrationService.getIntakeSeries(1L, from, to, SeriesBucket.DAY);
+
+        // Then
+        assertThat(series.getBucketStarts()).containsExactly(
+                Instant.parse("2024-10-26T22:00:00Z").getEpochSecond(),
+                Instant.parse("2024-10-27T23:00:00Z").getEpochSecond());
+        assertThat(series.getVolumesMl()).containsExactly(300, 0);
     }
 
     @Test
     void deleteIntake_withNonExistentIntake_shouldThrowException() {
         // Given
-        doReturn(false).when(intakeRepository).existsById(999L);
+        doReturn(Optional.empty()).when(intakeRepository).findWithUserById(999L);
 
         // When & Then
         assertThatThrownBy(() -> hydrationService.deleteIntake(999L))
                 .isInstanceOf(ResourceNotFoundException.class);
 
-        verify(intakeRepository).existsById(999L);
+        verify(intakeRepository).findWithUserById(999L);
+        verify(intakeRepository, never()).delete(any(IntakeEvent.class));
         verify(intakeRepository, never()).deleteById(anyLong());
     }
+
+    @Test
+    void getTodayStatus_afterRecordIntake_shouldUseRunningTotalWithoutSumQuery() {
+        // Given: erster Abruf lädt die Summe aus der Datenbank
+        doReturn(Optional.of(testProfile)).when(profileRepository).findById(1L);
+        doReturn(1500).when(intakeRepository).sumForUserBetween(anyLong(), any(Instant.class), any(Instant.class));
+        doReturn(testProfile).when(profileRepository).getReferenceById(1L);
+        doReturn(testIntake).when(intakeRepository).save(any(IntakeEvent.class));
+        doReturn(1).when(profileRepository).incrementDataVersion(1L);
+        hydrationService.getTodayStatus(1L);
+
+        // When
+        hydrationService.recordIntake(new IntakeRequest(1L, 250, IntakeSource.SIP));
+        TodayStatusResponse status = hydrationService.getTodayStatus(1L);
+
+        // Then
+        assertThat(status.getConsumedMl()).isEqualTo(1750);
+        verify(intakeRepository, times(1)).sumForUserBetween(anyLong(), any(Instant.class), any(Instant.class));
+    }
+
+    @Test
+    void recordIntake_withCachedProfile_shouldNotLoadProfileAgain() {
+        // Given: Profil ist durch einen vorherigen Lesezugriff im Cache
+        doReturn(Optional.of(testProfile)).when(profileRepository).findById(1L);
+        doReturn(testProfile).when(profileRepository).getReferenceById(1L);
+        doReturn(testIntake).when(intakeRepository).save(any(IntakeEvent.class));
+        doReturn(1).when(profileRepository).incrementDataVersion(1L);
+        hydrationService.getProfile(1L);
+
+        // When
+        hydrationService.recordIntake(new IntakeRequest(1L, 250, IntakeSource.SIP));
+
+        // Then
+        verify(profileRepository, times(1)).findById(1L);
+        verify(profileRepository).getReferenceById(1L);
+    }
+
+    @Test
+    void getDashboard_shouldLoadProfileOnceForAllParts() {
+        // Given
+        doReturn(Optional.of(testProfile)).when(profileRepository).findById(1L);
+        doReturn(1500).when(intakeRepository).sumForUserBetween(anyLong(), any(Instant.class), any(Instant.class));
+        doReturn(List.of(new IntakeResponse(1L, 1L, 250, IntakeSource.SIP, Instant.now())))
+                .when(intakeRepository).findPageByUser(1L, 10);
+
+        // When
+        DashboardResponse dashboard = hydrationService.getDashboard(1L, EnumSet.allOf(DashboardPart.class), 10);
+
+        // Then
+        assertThat(dashboard.getProfile().getWeightKg()).isEqualTo(70);
+        assertThat(dashboard.getToday().getConsumedMl()).isEqualTo(1500);
+        assertThat(dashboard.getRecentIntakes()).hasSize(1);
+        verify(profileRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void getDashboard_withSelectedParts_shouldSkipOtherQueries() {
+        // Given
+        doReturn(Optional.of(testProfile)).when(profileRepository).findById(1L);
+        doReturn(1500).when(intakeRepository).sumForUserBetween(anyLong(), any(Instant.class), any(Instant.class));
+
+        // When
+        DashboardResponse dashboard = hydrationService.getDashboard(1L, EnumSet.of(DashboardPart.TODAY), 10);
+
+        // Then
+        assertThat(dashboard.getProfile()).isNull();
+        assertThat(dashboard.getRecentIntakes()).isNull();
+        assertThat(dashboard.getToday().getGoalMl()).isEqualTo(2700);
+        verify(intakeRepository, never()).findPageByUser(anyLong(), anyInt());
+    }
+
+    @Test
+    void getIntakePage_withOversizedPage_shouldClampAndReturnCursor() {
+        // Given: Repository liefert einen Eintrag mehr als die maximale Seitengröße
+        Instant base = Instant.parse("2024-11-01T12:00:00Z");
+        List<IntakeResponse> rows = new ArrayList<>();
+        for (int i = 0; i <= HydrationService.MAX_PAGE_SIZE; i++) {
+            rows.add(new IntakeResponse((long) (1000 - i), 1L, 250, IntakeSource.SIP, base.minusSeconds(i)));
+        }
+        doReturn(rows).when(intakeRepository).findPageByUser(1L, HydrationService.MAX_PAGE_SIZE + 1);
+
+        // When
+        IntakePageResponse page = hydrationService.getIntakePage(1L, null, 1_000_000);
+
+        // Then
+        assertThat(page.getItems()).hasSize(HydrationService.MAX_PAGE_SIZE);
+        IntakeResponse last = page.getItems().get(HydrationService.MAX_PAGE_SIZE - 1);
+        assertThat(page.getNextCursor()).isEqualTo(last.getTimestamp() + "," + last.getId());
+    }
+
+    @Test
+    void getIntakePage_withCursor_shouldSeekAndEndWithoutCursor() {
+        // Given
+        IntakeCursor cursor = IntakeCursor.parse("2024-11-01T12:00:00Z,42");
+        doReturn(List.of(new IntakeResponse(41L, 1L, 250, IntakeSource.SIP, Instant.parse("2024-11-01T11:00:00Z"))))
+                .when(intakeRepository).findPageByUserBefore(1L, cursor.timestamp(), 42L, 21);
+
+        // When
+        IntakePageResponse page = hydrationService.getIntakePage(1L, cursor, 20);
+
+        // Then
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+    }
 }
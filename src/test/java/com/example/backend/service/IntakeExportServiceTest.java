@@ -0,0 +1,125 @@
+package com.example.backend.service;
+
+import com.example.backend.exception.ServiceOverloadedException;
+import com.example.backend.model.entity.IntakeEvent;
+import com.example.backend.model.entity.UserProfile;
+import com.example.backend.model.enums.ActivityLevel;
+import com.example.backend.model.enums.Climate;
+import com.example.backend.model.enums.ExportFormat;
+import com.example.backend.model.enums.IntakeSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests für IntakeExportService mit H2 In-Memory Datenbank.
+ * Testet Reihenfolge, Formate, gzip-Ausgabe und die Begrenzung gleichzeitiger Exporte.
+ */
+@DataJpaTest
+class IntakeExportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private IntakeExportService exportService;
+    private UserProfile testUser;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new IntakeExportService(jdbcTemplate, transactionManager, mock(ProfileCache.class), 2,
+                Duration.ofSeconds(30));
+
+        testUser = new UserProfile();
+        testUser.setName("Test User");
+        testUser.setEmail("export@example.com");
+        testUser.setPassword("password123");
+        testUser.setWeightKg(70);
+        testUser.setActivityLevel(ActivityLevel.MEDIUM);
+        testUser.setClimate(Climate.NORMAL);
+        testUser.setTimezone("Europe/Berlin");
+        entityManager.persist(testUser);
+
+        createIntakeEvent(300, IntakeSource.DOUBLE_SIP, Instant.parse("2024-11-02T08:00:00Z"));
+        createIntakeEvent(500, IntakeSource.GLASS, Instant.parse("2024-11-01T08:00:00Z"));
+        entityManager.flush();
+    }
+
+    private void createIntakeEvent(int volumeMl, IntakeSource source, Instant timestamp) {
+        IntakeEvent event = new IntakeEvent();
+        event.setUser(testUser);
+        event.setVolumeMl(volumeMl);
+        event.setSource(source);
+        event.setTimestampUtc(timestamp);
+        entityManager.persist(event);
+    }
+
+    @Test
+    void export_asCsv_shouldWriteHeaderAndRowsOldestFirst() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long rows = exportService.export(testUser.getId(), ExportFormat.CSV, false, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(rows).isEqualTo(2);
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo("id,userId,volumeMl,source,timestamp");
+        assertThat(lines[1]).endsWith("," + testUser.getId() + ",500,GLASS,2024-11-01T08:00:00Z");
+        assertThat(lines[2]).endsWith("," + testUser.getId() + ",300,DOUBLE_SIP,2024-11-02T08:00:00Z");
+    }
+
+    @Test
+    void export_asGzippedNdjson_shouldWriteOneObjectPerLine() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        exportService.export(testUser.getId(), ExportFormat.NDJSON, true, out);
+
+        // Then
+        String content;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String[] lines = content.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{\"id\":").contains("\"volumeMl\":500", "\"timestamp\":\"2024-11-01T08:00:00Z\"");
+    }
+
+    @Test
+    void acquireSlot_whenAllSlotsTaken_shouldRejectUntilReleased() {
+        // Given
+        exportService.acquireSlot();
+        exportService.acquireSlot();
+
+        // When & Then
+        assertThatThrownBy(() -> exportService.acquireSlot())
+                .isInstanceOf(ServiceOverloadedException.class)
+                .extracting("retryAfter").isEqualTo(Duration.ofSeconds(30));
+        exportService.releaseSlot();
+        exportService.acquireSlot();
+    }
+}
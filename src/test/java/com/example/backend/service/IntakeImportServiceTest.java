@@ -0,0 +1,193 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.response.ImportProgressResponse;
+import com.example.backend.model.entity.UserProfile;
+import com.example.backend.model.enums.ActivityLevel;
+import com.example.backend.model.enums.Climate;
+import com.example.backend.model.enums.ExportFormat;
+import com.example.backend.repository.IntakeEventBulkWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests für IntakeImportService mit H2 In-Memory Datenbank.
+ * Testet Parsing, Validierung und das Schreiben per Batch.
+ */
+@DataJpaTest
+class IntakeImportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private RollupBackfillService rollupBackfillService;
+    private DailyIntakeTotals dailyTotals;
+    private ApplicationEventPublisher eventPublisher;
+    private IntakeImportService importService;
+    private final AtomicLong nanos = new AtomicLong();
+    private UserProfile testUser;
+
+    @BeforeEach
+    void setUp() {
+        rollupBackfillService = mock(RollupBackfillService.class);
+        dailyTotals = mock(DailyIntakeTotals.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        importService = new IntakeImportService(
+                new IntakeEventBulkWriter(jdbcTemplate),
+                rollupBackfillService,
+                mock(IntakePartitionMaintenance.class),
+                dailyTotals,
+                mock(ProfileCache.class),
+                new TransactionTemplate(transactionManager),
+                new ObjectMapper(),
+                eventPublisher,
+                Duration.ofMinutes(10),
+                nanos::get);
+
+        testUser = new UserProfile();
+        testUser.setName("Test User");
+        testUser.setEmail("import@example.com");
+        testUser.setPassword("password123");
+        testUser.setWeightKg(70);
+        testUser.setActivityLevel(ActivityLevel.MEDIUM);
+        testUser.setClimate(Climate.NORMAL);
+        testUser.setTimezone("Europe/Berlin");
+        entityManager.persist(testUser);
+        entityManager.flush();
+    }
+
+    private ImportProgressResponse importContent(ExportFormat format, String content) {
+        return importService.importIntakes(testUser.getId(), format,
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private List<Integer> storedVolumes() {
+        return jdbcTemplate.queryForList(
+                "SELECT volume_ml FROM intake_event WHERE user_id = ? ORDER BY timestamp_utc",
+                Integer.class, testUser.getId());
+    }
+
+    @Test
+    void importIntakes_withCsv_shouldInsertValidRowsAndReportRejected() {
+        // Given – Spaltenreihenfolge wie im Export, zusätzliche Spalten werden ignoriert
+        String csv = """
+                id,userId,volumeMl,source,timestamp
+                1,1,500,GLASS,2024-11-01T08:00:00Z
+                2,1,0,GLASS,2024-11-01T09:00:00Z
+                3,1,300,BOTTLE,2024-11-01T10:00:00Z
+                4,1,250,sip,2024-11-02T08:00:00Z
+                """;
+
+        // When
+        ImportProgressResponse result = importContent(ExportFormat.CSV, csv);
+
+        // Then
+        assertThat(result.getStatus()).isEqualTo("COMPLETED");
+        assertThat(result.getRowsRead()).isEqualTo(4);
+        assertThat(result.getRowsImported()).isEqualTo(2);
+        assertThat(result.getRowsRejected()).isEqualTo(2);
+        assertThat(result.getErrors()).containsExactly(
+                "line 3: volumeMl must be at least 1",
+                "line 4: unknown source 'BOTTLE'");
+        assertThat(storedVolumes()).containsExactly(500, 250);
+        verify(rollupBackfillService).rebuildUser(testUser.getId());
+        verify(dailyTotals).invalidate(testUser.getId());
+        verify(eventPublisher).publishEvent(new HydrationDataChangedEvent(testUser.getId()));
+    }
+
+    @Test
+    void importIntakes_withNdjson_shouldInsertRowsAndRejectMalformedLines() {
+        // Given
+        String ndjson = """
+                {"timestamp":"2024-11-01T08:00:00Z","volumeMl":500,"source":"GLASS"}
+                not json
+
+                {"timestamp":"2999-01-01T00:00:00Z","volumeMl":200,"source":"SIP"}
+                {"timestamp":"2024-11-02T08:00:00Z","volumeMl":300,"source":"DOUBLE_SIP"}
+                """;
+
+        // When
+        ImportProgressResponse result = importContent(ExportFormat.NDJSON, ndjson);
+
+        // Then
+        assertThat(result.getStatus()).isEqualTo("COMPLETED");
+        assertThat(result.getRowsImported()).isEqualTo(2);
+        assertThat(result.getErrors()).containsExactly(
+                "line 2: malformed JSON",
+                "line 4: timestamp lies in the future");
+        assertThat(storedVolumes()).containsExactly(500, 300);
+        assertThat(importService.getProgress(testUser.getId())).contains(result);
+    }
+
+    @Test
+    void importIntakes_withMoreRowsThanOneChunk_shouldAssignDistinctIds() {
+        // Given
+        int rows = IntakeImportService.CHUNK_SIZE + 10;
+        StringBuilder csv = new StringBuilder("timestamp,volumeMl,source\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append("2024-11-01T08:00:").append(String.format("%02d", i % 60)).append("Z,100,SIP\n");
+        }
+
+        // When
+        ImportProgressResponse result = importContent(ExportFormat.CSV, csv.toString());
+
+        // Then
+        assertThat(result.getRowsImported()).isEqualTo(rows);
+        Integer distinctIds = jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT id) FROM intake_event WHERE user_id = ?", Integer.class, testUser.getId());
+        assertThat(distinctIds).isEqualTo(rows);
+    }
+
+    @Test
+    void importIntakes_withMissingCsvColumns_shouldFailWithoutRebuild() {
+        // When
+        ImportProgressResponse result = importContent(ExportFormat.CSV, "timestamp,volumeMl\n2024-11-01T08:00:00Z,500\n");
+
+        // Then
+        assertThat(result.getStatus()).isEqualTo("FAILED");
+        assertThat(result.getMessage()).contains("source");
+        assertThat(storedVolumes()).isEmpty();
+        verify(rollupBackfillService, never()).rebuildUser(any());
+    }
+
+    @Test
+    void getProgress_afterTtl_shouldForgetFinishedImport() {
+        // Given
+        ImportProgressResponse result = importContent(ExportFormat.CSV, "timestamp,volumeMl,source\n2024-11-01T08:00:00Z,500,GLASS\n");
+
+        // When
+        nanos.addAndGet(Duration.ofMinutes(9).toNanos());
+        boolean keptBeforeTtl = importService.getProgress(testUser.getId()).isPresent();
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+
+        // Then
+        assertThat(result.getStatus()).isEqualTo("COMPLETED");
+        assertThat(keptBeforeTtl).isTrue();
+        assertThat(importService.getProgress(testUser.getId())).isEmpty();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.backend.service;
+
+import com.example.backend.repository.IntakeEventPartitions;
+import com.example.backend.sharding.ShardRouter;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Unit Tests für IntakePartitionMaintenance (Planung ohne Datenbank).
+ */
+class IntakePartitionMaintenanceTest {
+
+    @Test
+    void upcoming_shouldIncludeCurrentMonthAndPremake() {
+        assertThat(IntakePartitionMaintenance.upcoming(YearMonth.of(2026, 11), 2))
+                .containsExactly(YearMonth.of(2026, 11), YearMonth.of(2026, 12), YearMonth.of(2027, 1));
+    }
+
+    @Test
+    void expired_shouldKeepCurrentAndRetainedMonths() {
+        // Given
+        List<YearMonth> existing = List.of(
+                YearMonth.of(2026, 6), YearMonth.of(2026, 7), YearMonth.of(2026, 8),
+                YearMonth.of(2026, 9), YearMonth.of(2026, 10), YearMonth.of(2026, 11));
+
+        // When & Then - Oktober plus zwei Vormonate bleiben, künftige Partitionen sowieso
+        assertThat(IntakePartitionMaintenance.expired(existing, YearMonth.of(2026, 10), 2))
+                .containsExactly(YearMonth.of(2026, 6), YearMonth.of(2026, 7));
+    }
+
+    @Test
+    void expired_shouldKeepEverythingWithoutRetention() {
+        assertThat(IntakePartitionMaintenance.expired(
+                List.of(YearMonth.of(2020, 1)), YearMonth.of(2026, 10), 0)).isEmpty();
+    }
+
+    @Test
+    void inactive_shouldNotTouchDatabase() {
+        // Given - ohne init() (z.B. H2) bleibt die Wartung inaktiv
+        IntakeEventPartitions partitions = mock(IntakeEventPartitions.class);
+        IntakePartitionMaintenance maintenance =
+                new IntakePartitionMaintenance(partitions, mock(TransactionTemplate.class), ShardRouter.disabled());
+
+        // When
+        maintenance.maintain();
+        maintenance.ensureMonths(Instant.parse("2020-01-15T00:00:00Z"), Instant.now());
+
+        // Then
+        assertThat(maintenance.retentionCutoff()).isEmpty();
+        verifyNoInteractions(partitions);
+    }
+}
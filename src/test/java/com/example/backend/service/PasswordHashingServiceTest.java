@@ -0,0 +1,75 @@
+package com.example.backend.service;
+
+import com.example.backend.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests für PasswordHashingService.
+ * Testet Weiterleitung an den Encoder und das Ablehnen bei voller Warteschlange.
+ */
+class PasswordHashingServiceTest {
+
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PasswordHashingService service;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void encodeAndMatches_shouldDelegateToEncoder() {
+        // Given
+        service = new PasswordHashingService(passwordEncoder, meterRegistry, 1, 1, Duration.ofSeconds(5), Duration.ofSeconds(2));
+        when(passwordEncoder.encode("secret")).thenReturn("hash");
+        when(passwordEncoder.matches("secret", "hash")).thenReturn(true);
+
+        // When & Then
+        assertThat(service.encode("secret")).isEqualTo("hash");
+        assertThat(service.matches("secret", "hash")).isTrue();
+        assertThat(meterRegistry.get("auth.hashing.duration").tag("operation", "encode").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void encode_whenQueueFull_shouldRejectWithRetryAfter() throws Exception {
+        // Given - ein Worker blockiert, ein Platz in der Queue ist belegt
+        service = new PasswordHashingService(passwordEncoder, meterRegistry, 1, 1, Duration.ofSeconds(5), Duration.ofSeconds(2));
+        CountDownLatch started = new CountDownLatch(1);
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return "hash";
+        });
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> service.encode("a"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> service.encode("b"));
+        while (meterRegistry.get("auth.hashing.queue.depth").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // When & Then
+        assertThatThrownBy(() -> service.encode("c"))
+                .isInstanceOf(ServiceOverloadedException.class)
+                .satisfies(ex -> assertThat(((ServiceOverloadedException) ex).getRetryAfter()).isEqualTo(Duration.ofSeconds(2)));
+        assertThat(meterRegistry.get("auth.hashing.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.response.TodayStatusResponse;
+import com.example.backend.events.ProfileUpdated;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests für TodayStatusStreams.
+ * Testet die Obergrenze offener Streams und das Verteilen von Änderungen.
+ */
+class TodayStatusStreamsTest {
+
+    private final HydrationService hydrationService = mock(HydrationService.class);
+    private final TodayStatusStreams streams = new TodayStatusStreams(
+            hydrationService, new SimpleMeterRegistry(), Duration.ofMinutes(1), 1);
+
+    @AfterEach
+    void tearDown() {
+        streams.shutdown();
+    }
+
+    @Test
+    void open_whenLimitReached_shouldRejectFurtherStreams() {
+        // Given
+        doReturn(new TodayStatusResponse(2700, 0, 2700, 0)).when(hydrationService).getTodayStatus(anyLong());
+
+        // When & Then
+        assertThat(streams.open(1L)).isPresent();
+        assertThat(streams.open(2L)).isEmpty();
+        assertThat(streams.getOpenStreams()).isEqualTo(1);
+    }
+
+    @Test
+    void on_shouldRecomputeOnlyForSubscribedUsers() {
+        // Given
+        doReturn(new TodayStatusResponse(2700, 0, 2700, 0)).when(hydrationService).getTodayStatus(anyLong());
+        streams.open(1L);
+
+        // When
+        streams.on(new ProfileUpdated(1L));
+        streams.on(new ProfileUpdated(2L));
+
+        // Then - einmal beim Öffnen, einmal nach der Änderung
+        verify(hydrationService, timeout(1000).times(2)).getTodayStatus(1L);
+        verify(hydrationService, never()).getTodayStatus(2L);
+    }
+}
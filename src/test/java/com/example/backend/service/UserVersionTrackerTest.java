@@ -0,0 +1,127 @@
+package com.example.backend.service;
+
+import com.example.backend.model.enums.ActivityLevel;
+import com.example.backend.model.enums.Climate;
+import com.example.backend.repository.UserProfileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests für UserVersionTracker.
+ * Testet ETags aus dem gespeicherten Datenstand, das Fortschreiben eigener Schreibvorgänge
+ * und das Verwerfen lokaler Speicher bei fremden Änderungen.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserVersionTrackerTest {
+
+    @Mock
+    private UserProfileRepository profileRepository;
+
+    @Mock
+    private ProfileCache profileCache;
+
+    private final DailyIntakeTotals dailyTotals = new DailyIntakeTotals(Duration.ofMinutes(1));
+    private final LocalDate today = LocalDate.of(2024, 11, 1);
+
+    private UserVersionTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new UserVersionTracker(profileRepository, profileCache, dailyTotals);
+    }
+
+    @Test
+    void etag_withoutIfNoneMatch_shouldNotReadVersionFromDatabase() {
+        // Given
+        doReturn(snapshot(3L)).when(profileCache).get(1L);
+
+        // When
+        String first = tracker.etag("today", 1L, false);
+        String second = tracker.etag("today", 1L, false);
+
+        // Then
+        assertThat(first).isEqualTo("\"today-1-3\"").isEqualTo(second);
+        verify(profileCache, times(1)).get(1L);
+        verify(profileRepository, never()).findDataVersionById(anyLong());
+    }
+
+    @Test
+    void etag_afterOwnWrite_shouldKeepLocalState() {
+        // Given: Stand 3 gelesen und Tagessumme geladen
+        doReturn(Optional.of(3L)).when(profileRepository).findDataVersionById(1L);
+        tracker.etag("today", 1L, true);
+        dailyTotals.getOrLoad(1L, today, () -> 500);
+        doReturn(1).when(profileRepository).incrementDataVersion(1L);
+
+        // When: eigener Schreibvorgang erhöht auf 4
+        tracker.increment(1L);
+        String known = tracker.etag("today", 1L, false);
+        doReturn(Optional.of(4L)).when(profileRepository).findDataVersionById(1L);
+        String read = tracker.etag("today", 1L, true);
+
+        // Then
+        assertThat(known).isEqualTo("\"today-1-4\"").isEqualTo(read);
+        assertThat(dailyTotals.get(1L, today)).hasValue(500);
+        verify(profileCache, times(1)).evict(1L);
+    }
+
+    @Test
+    void etag_afterChangeOnOtherInstance_shouldDropLocalState() {
+        // Given: Stand 3 gelesen und Tagessumme geladen
+        doReturn(Optional.of(3L)).when(profileRepository).findDataVersionById(1L);
+        tracker.etag("today", 1L, true);
+        dailyTotals.getOrLoad(1L, today, () -> 500);
+
+        // When: unveränderter Stand behält die Speicher, fremde Änderung verwirft sie
+        tracker.etag("today", 1L, true);
+        assertThat(dailyTotals.get(1L, today)).hasValue(500);
+        doReturn(Optional.of(4L)).when(profileRepository).findDataVersionById(1L);
+        String changed = tracker.etag("today", 1L, true);
+
+        // Then
+        assertThat(changed).isEqualTo("\"today-1-4\"");
+        assertThat(dailyTotals.get(1L, today)).isEmpty();
+        verify(profileCache, times(2)).evict(1L);
+    }
+
+    @Test
+    void increment_forMissingUser_shouldNotAdvanceKnownVersion() {
+        // Given
+        doReturn(Optional.of(3L)).when(profileRepository).findDataVersionById(1L);
+        tracker.etag("profile", 1L, true);
+        doReturn(0).when(profileRepository).incrementDataVersion(1L);
+
+        // When
+        int rows = tracker.increment(1L);
+
+        // Then
+        assertThat(rows).isZero();
+        assertThat(tracker.etag("profile", 1L, false)).isEqualTo("\"profile-1-3\"");
+    }
+
+    @Test
+    void etag_forUnknownUser_shouldUseVersionZero() {
+        // Given
+        doReturn(Optional.empty()).when(profileRepository).findDataVersionById(9L);
+
+        // When & Then
+        assertThat(tracker.etag("profile", 9L, true)).isEqualTo("\"profile-9-0\"");
+    }
+
+    private static ProfileSnapshot snapshot(long dataVersion) {
+        return new ProfileSnapshot(1L, "Test User", "test@example.com", 70, ActivityLevel.MEDIUM, Climate.NORMAL,
+                "Europe/Berlin", ZoneId.of("Europe/Berlin"), dataVersion);
+    }
+}
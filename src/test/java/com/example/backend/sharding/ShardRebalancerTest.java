@@ -0,0 +1,238 @@
+package com.example.backend.sharding;
+
+import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.service.IntakePartitionMaintenance;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests für ShardRebalancer mit zwei H2 In-Memory Datenbanken als Shards.
+ * Testet Umzug samt Zeilen, Partitionen und Verzeichnis sowie das Ausgleichen der Shards.
+ */
+class ShardRebalancerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<JdbcTemplate> shards = new ArrayList<>();
+    private final IntakePartitionMaintenance partitionMaintenance = mock(IntakePartitionMaintenance.class);
+    private ShardDirectory directory;
+    private ShardRebalancer rebalancer;
+
+    @BeforeEach
+    void setUp() {
+        List<DataSource> dataSources = new ArrayList<>();
+        for (int shard = 0; shard < 2; shard++) {
+            JdbcDataSource dataSource = new JdbcDataSource();
+            dataSource.setURL("jdbc:h2:mem:shard" + shard + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+            dataSources.add(dataSource);
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            createSchema(jdbcTemplate);
+            shards.add(jdbcTemplate);
+        }
+        directory = new ShardDirectory(shards.get(0), 2, Duration.ofMinutes(1), meterRegistry);
+        directory.initialize();
+        rebalancer = new ShardRebalancer(dataSources, directory, partitionMaintenance, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        shards.forEach(jdbcTemplate -> jdbcTemplate.execute("SHUTDOWN"));
+    }
+
+    private static void createSchema(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("""
+            CREATE TABLE user_profile (
+                id BIGINT PRIMARY KEY,
+                email VARCHAR(255) UNIQUE,
+                name VARCHAR(100) NOT NULL
+            )
+            """);
+        jdbcTemplate.execute("""
+            CREATE TABLE intake_event (
+                id BIGINT PRIMARY KEY,
+                user_id BIGINT NOT NULL REFERENCES user_profile (id),
+                volume_ml INTEGER NOT NULL,
+                timestamp_utc TIMESTAMP WITH TIME ZONE NOT NULL
+            )
+            """);
+        jdbcTemplate.execute("""
+            CREATE TABLE daily_intake_rollup (
+                id BIGINT PRIMARY KEY,
+                user_id BIGINT NOT NULL REFERENCES user_profile (id),
+                local_date DATE NOT NULL,
+                total_ml INTEGER NOT NULL
+            )
+            """);
+    }
+
+    private void createUser(int shard, long userId, int intakes) {
+        JdbcTemplate jdbcTemplate = shards.get(shard);
+        jdbcTemplate.update("INSERT INTO user_profile (id, email, name) VALUES (?, ?, ?)",
+                userId, "user" + userId + "@example.com", "User " + userId);
+        for (int i = 0; i < intakes; i++) {
+            jdbcTemplate.update("INSERT INTO intake_event (id, user_id, volume_ml, timestamp_utc) VALUES (?, ?, ?, ?)",
+                    userId * 100 + i, userId, 250,
+                    OffsetDateTime.ofInstant(Instant.parse("2024-11-01T08:00:00Z").plusSeconds(i), ZoneOffset.UTC));
+        }
+        jdbcTemplate.update("INSERT INTO daily_intake_rollup (id, user_id, local_date, total_ml) VALUES (?, ?, ?, ?)",
+                userId, userId, LocalDate.of(2024, 11, 1), 250 * intakes);
+        directory.register(userId, "user" + userId + "@example.com", shard);
+    }
+
+    private long count(int shard, String table, String userColumn, long userId) {
+        return shards.get(shard).queryForObject(
+                "SELECT COUNT(*) FROM " + table + " WHERE " + userColumn + " = ?", Long.class, userId);
+    }
+
+    @Test
+    void moveUser_shouldCopyRowsSwitchDirectoryAndDeleteSource() {
+        // Given
+        createUser(0, 1L, 3);
+
+        // When
+        long rows = rebalancer.moveUser(1L, 1);
+
+        // Then
+        assertThat(rows).isEqualTo(5);
+        assertThat(count(1, "user_profile", "id", 1L)).isEqualTo(1);
+        assertThat(count(1, "intake_event", "user_id", 1L)).isEqualTo(3);
+        assertThat(count(1, "daily_intake_rollup", "user_id", 1L)).isEqualTo(1);
+        assertThat(count(0, "user_profile", "id", 1L)).isZero();
+        assertThat(count(0, "intake_event", "user_id", 1L)).isZero();
+        assertThat(count(0, "daily_intake_rollup", "user_id", 1L)).isZero();
+        assertThat(directory.shardOf(1L)).isEqualTo(1);
+        assertThat(directory.shardOfEmail("user1@example.com")).isEqualTo(1);
+        assertThat(directory.estimatedPopulation()).containsExactly(0, 1);
+        assertThat(meterRegistry.counter("sharding.moves").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("sharding.moved.rows").count()).isEqualTo(5.0);
+    }
+
+    @Test
+    void moveUser_shouldCreatePartitionsOnTargetBeforeCopying() {
+        // Given
+        createUser(0, 1L, 3);
+        AtomicReference<Integer> boundShard = new AtomicReference<>();
+        AtomicReference<Long> copiedBefore = new AtomicReference<>();
+        doAnswer(invocation -> {
+            boundShard.set(ShardScope.current());
+            copiedBefore.set(count(1, "intake_event", "user_id", 1L));
+            return null;
+        }).when(partitionMaintenance).ensureMonths(any(), any());
+
+        // When
+        rebalancer.moveUser(1L, 1);
+
+        // Then
+        verify(partitionMaintenance).ensureMonths(Instant.parse("2024-11-01T08:00:00Z"), Instant.parse("2024-11-01T08:00:02Z"));
+        assertThat(boundShard.get()).isEqualTo(1);
+        assertThat(copiedBefore.get()).isZero();
+        assertThat(ShardScope.current()).isNull();
+    }
+
+    @Test
+    void moveUser_withoutIntakes_shouldNotTouchPartitions() {
+        // Given
+        createUser(0, 1L, 0);
+
+        // When
+        rebalancer.moveUser(1L, 1);
+
+        // Then
+        verify(partitionMaintenance, never()).ensureMonths(any(), any());
+    }
+
+    @Test
+    void moveUser_shouldKeepTimestamps() {
+        // Given
+        createUser(0, 1L, 1);
+
+        // When
+        rebalancer.moveUser(1L, 1);
+
+        // Then
+        OffsetDateTime timestamp = shards.get(1).queryForObject(
+                "SELECT timestamp_utc FROM intake_event WHERE id = 100", OffsetDateTime.class);
+        assertThat(timestamp.toInstant()).isEqualTo(Instant.parse("2024-11-01T08:00:00Z"));
+    }
+
+    @Test
+    void moveUser_alreadyOnTarget_shouldDoNothing() {
+        // Given
+        createUser(1, 1L, 2);
+
+        // When & Then
+        assertThat(rebalancer.moveUser(1L, 1)).isZero();
+        assertThat(count(1, "intake_event", "user_id", 1L)).isEqualTo(2);
+    }
+
+    @Test
+    void moveUser_unknownUser_shouldThrowNotFound() {
+        // When & Then
+        assertThatThrownBy(() -> rebalancer.moveUser(99L, 1))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void moveUser_unknownShard_shouldThrowIllegalArgument() {
+        // Given
+        createUser(0, 1L, 0);
+
+        // When & Then
+        assertThatThrownBy(() -> rebalancer.moveUser(1L, 2))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown shard");
+        assertThat(directory.lookup(1L)).isZero();
+    }
+
+    @Test
+    void rebalance_shouldMoveNewestUsersUntilBalanced() {
+        // Given
+        for (long userId = 1; userId <= 5; userId++) {
+            createUser(0, userId, 1);
+        }
+
+        // When
+        int moved = rebalancer.rebalance(100);
+
+        // Then
+        assertThat(moved).isEqualTo(2);
+        assertThat(rebalancer.population()).containsExactly(3, 2);
+        assertThat(directory.lookup(5L)).isEqualTo(1);
+        assertThat(directory.lookup(4L)).isEqualTo(1);
+        assertThat(count(1, "intake_event", "user_id", 5L)).isEqualTo(1);
+    }
+
+    @Test
+    void rebalance_shouldStopAtMaxMoves() {
+        // Given
+        for (long userId = 1; userId <= 6; userId++) {
+            createUser(0, userId, 0);
+        }
+
+        // When
+        int moved = rebalancer.rebalance(1);
+
+        // Then
+        assertThat(moved).isEqualTo(1);
+        assertThat(rebalancer.population()).containsExactly(5, 1);
+    }
+}
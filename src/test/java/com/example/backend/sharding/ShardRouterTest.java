@@ -0,0 +1,358 @@
+package com.example.backend.sharding;
+
+import com.example.backend.dto.request.IntakeRequest;
+import com.example.backend.exception.ConflictException;
+import com.example.backend.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests für ShardRouter, ShardScope, ShardKeyInterceptor und ShardRoutingDataSource.
+ * Das Verzeichnis liegt in einer H2 In-Memory Datenbank, die Shard-Pools sind Mocks.
+ */
+class ShardRouterTest {
+
+    private final List<DataSource> shards = List.of(mock(DataSource.class), mock(DataSource.class));
+    private final List<Connection> connections = List.of(mock(Connection.class), mock(Connection.class));
+    private JdbcTemplate directoryJdbc;
+    private ShardDirectory directory;
+    private ShardRouter router;
+    private ShardRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (int shard = 0; shard < shards.size(); shard++) {
+            when(shards.get(shard).getConnection()).thenReturn(connections.get(shard));
+        }
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:directory-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        directoryJdbc = new JdbcTemplate(dataSource);
+        directoryJdbc.execute("CREATE TABLE user_profile (id BIGINT PRIMARY KEY, email VARCHAR(255))");
+        directoryJdbc.update("INSERT INTO user_profile (id, email) VALUES (1, 'legacy@example.com')");
+
+        directory = new ShardDirectory(directoryJdbc, shards.size(), Duration.ofMinutes(1), new SimpleMeterRegistry());
+        directory.initialize();
+        router = new ShardRouter(directory);
+        routing = new ShardRoutingDataSource(shards);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        directoryJdbc.execute("SHUTDOWN");
+    }
+
+    @Test
+    void initialize_shouldAdoptExistingUsersOnShardZero() {
+        // When & Then
+        assertThat(directory.lookup(1L)).isZero();
+        assertThat(directory.shardOfEmail("legacy@example.com")).isZero();
+    }
+
+    @Test
+    void bindUser_shouldRouteToShardOfUser() throws Exception {
+        // Given
+        directory.register(2L, "two@example.com", 1);
+
+        // When & Then
+        try (ShardScope scope = router.bindUser(2L)) {
+            assertThat(scope.shard()).isEqualTo(1);
+            assertThat(routing.getConnection()).isSameAs(connections.get(1));
+        }
+        assertThat(routing.getConnection()).isSameAs(connections.get(0));
+    }
+
+    @Test
+    void bindUser_unknownUser_shouldStayUnbound() throws Exception {
+        // When & Then
+        try (ShardScope scope = router.bindUser(99L)) {
+            assertThat(scope.shard()).isNull();
+            assertThat(routing.getConnection()).isSameAs(connections.get(0));
+        }
+    }
+
+    @Test
+    void bindEmail_shouldRouteToShardOfEmail() {
+        // Given
+        directory.register(2L, "two@example.com", 1);
+
+        // When & Then
+        try (ShardScope scope = router.bindEmail("two@example.com")) {
+            assertThat(router.currentShard()).isEqualTo(1);
+        }
+        assertThat(router.currentShard()).isZero();
+    }
+
+    @Test
+    void bindNewUser_shouldPickLeastPopulatedShard() {
+        // Given: Shard 0 hat bereits den übernommenen Benutzer
+        // When & Then
+        try (ShardScope scope = router.bindNewUser()) {
+            assertThat(scope.shard()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void bindNewUser_shouldCountOwnRegistrationsWithoutQuery() {
+        // Given: je ein Benutzer auf beiden Shards
+        directory.register(2L, "two@example.com", 1);
+        directoryJdbc.update("DELETE FROM user_directory WHERE user_id = 1");
+
+        // When & Then: ohne Neulesen zählt der übernommene Benutzer weiter
+        assertThat(directory.estimatedPopulation()).containsExactly(1, 1);
+        try (ShardScope scope = router.bindNewUser()) {
+            assertThat(scope.shard()).isZero();
+        }
+    }
+
+    @Test
+    void refreshPopulation_shouldPickUpRegistrationsOfOtherInstances() {
+        // Given: eine andere Instanz hat zwei Benutzer auf Shard 1 eingetragen
+        directoryJdbc.update("INSERT INTO user_directory (user_id, email, shard) VALUES (2, 'two@example.com', 1)");
+        directoryJdbc.update("INSERT INTO user_directory (user_id, email, shard) VALUES (3, 'three@example.com', 1)");
+
+        // When
+        directory.refreshPopulation();
+
+        // Then
+        assertThat(directory.estimatedPopulation()).containsExactly(1, 2);
+        try (ShardScope scope = router.bindNewUser()) {
+            assertThat(scope.shard()).isZero();
+        }
+    }
+
+    @Test
+    void bindKey_sameShard_shouldBindThatShard() {
+        // Given
+        directory.register(2L, "two@example.com", 1);
+        directory.register(3L, "three@example.com", 1);
+
+        // When & Then
+        try (ShardScope scope = router.bindKey(List.of(intake(2L), intake(3L), intake(99L)))) {
+            assertThat(scope.shard()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void bindKey_mixedShards_shouldThrowIllegalArgument() {
+        // Given
+        directory.register(2L, "two@example.com", 1);
+
+        // When & Then
+        assertThatThrownBy(() -> router.bindKey(List.of(intake(1L), intake(2L))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("All items must belong to users on the same shard");
+    }
+
+    @Test
+    void bind_otherShardInsideTransaction_shouldThrowIllegalState() {
+        // Given
+        directory.register(2L, "two@example.com", 1);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // When & Then
+        assertThatThrownBy(() -> router.bindUser(2L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Cannot switch to shard 1");
+    }
+
+    @Test
+    void scope_nested_shouldRestoreOuterShard() {
+        // Given
+        directory.register(2L, "two@example.com", 1);
+
+        // When & Then
+        try (ShardScope outer = router.bindUser(2L)) {
+            try (ShardScope inner = router.bindUser(1L)) {
+                assertThat(router.currentShard()).isZero();
+            }
+            assertThat(router.currentShard()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void registerUser_duplicateEmail_shouldThrowConflict() {
+        // Given
+        ShardScope scope = router.bindNewUser();
+
+        // When & Then
+        try (scope) {
+            assertThatThrownBy(() -> router.registerUser(2L, "legacy@example.com", scope))
+                    .isInstanceOf(ConflictException.class);
+        }
+    }
+
+    @Test
+    void registerUser_rolledBack_shouldRemoveDirectoryEntry() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        try (ShardScope scope = router.bindNewUser()) {
+            router.registerUser(2L, "two@example.com", scope);
+        }
+        assertThat(directory.lookup(2L)).isEqualTo(1);
+
+        // When
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        // Then
+        assertThat(directory.lookup(2L)).isNull();
+        assertThat(router.bindUser(2L).shard()).isNull();
+        assertThat(directory.estimatedPopulation()).containsExactly(1, 0);
+    }
+
+    @Test
+    void refreshKey_afterMoveByOtherInstance_shouldReplaceCachedShard() {
+        // Given: der Cache zeigt noch auf Shard 1, die Tabelle nach einem Umzug auf Shard 0
+        directory.register(2L, "two@example.com", 1);
+        directoryJdbc.update("UPDATE user_directory SET shard = 0 WHERE user_id = 2");
+        assertThat(directory.shardOf(2L)).isEqualTo(1);
+
+        // When & Then
+        assertThat(router.refreshKey(List.of(intake(2L), intake(2L)), 1)).isTrue();
+        assertThat(directory.shardOf(2L)).isZero();
+        assertThat(router.refreshKey(2L, 0)).isFalse();
+    }
+
+    @Test
+    void shardKey_failingOnOldShard_shouldRetryOnNewShard() {
+        // Given
+        directory.register(2L, "two@example.com", 1);
+        directoryJdbc.update("UPDATE user_directory SET shard = 0 WHERE user_id = 2");
+        RecordingLookup target = new RecordingLookup();
+
+        // When
+        int shard = proxy(target).find(2L);
+
+        // Then
+        assertThat(shard).isZero();
+        assertThat(target.shards).containsExactly(1, 0);
+        assertThat(router.currentShard()).isZero();
+    }
+
+    @Test
+    void shardKey_withoutReroute_shouldRefreshCacheAndRethrow() {
+        // Given
+        directory.register(2L, "two@example.com", 1);
+        directoryJdbc.update("UPDATE user_directory SET shard = 0 WHERE user_id = 2");
+        RecordingLookup target = new RecordingLookup();
+        ProfileLookup lookup = proxy(target);
+
+        // When & Then: erst der nächste Aufruf routet richtig
+        assertThatThrownBy(() -> lookup.stream(2L)).isInstanceOf(ResourceNotFoundException.class);
+        assertThat(lookup.stream(2L)).isZero();
+        assertThat(target.shards).containsExactly(1, 0);
+    }
+
+    @Test
+    void shardKey_failingOnCurrentShard_shouldNotRetry() {
+        // Given
+        directory.register(2L, "two@example.com", 1);
+        RecordingLookup target = new RecordingLookup();
+
+        // When & Then
+        assertThatThrownBy(() -> proxy(target).find(2L)).isInstanceOf(ResourceNotFoundException.class);
+        assertThat(target.shards).containsExactly(1);
+    }
+
+    @Test
+    void forEachShard_shouldBindEveryShard() {
+        // Given
+        List<Integer> visited = new ArrayList<>();
+
+        // When
+        router.forEachShard(shard -> visited.add(router.currentShard()));
+
+        // Then
+        assertThat(visited).containsExactly(0, 1);
+        assertThat(router.currentShard()).isZero();
+    }
+
+    @Test
+    void disabled_shouldRunOnceWithoutBinding() {
+        // Given
+        ShardRouter disabled = ShardRouter.disabled();
+        List<Integer> visited = new ArrayList<>();
+
+        // When
+        disabled.forEachShard(visited::add);
+
+        // Then
+        assertThat(visited).containsExactly(0);
+        assertThat(disabled.bindUser(1L).shard()).isNull();
+        assertThat(disabled.isEnabled()).isFalse();
+    }
+
+    private ProfileLookup proxy(ProfileLookup target) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("shardRouter", router);
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.addAdvisor(new DefaultPointcutAdvisor(ShardKeyInterceptor.POINTCUT,
+                new ShardKeyInterceptor(beanFactory.getBeanProvider(ShardRouter.class))));
+        return (ProfileLookup) factory.getProxy();
+    }
+
+    interface ProfileLookup {
+
+        int find(Long userId);
+
+        int stream(Long userId);
+    }
+
+    /**
+     * Findet Benutzer nur auf Shard 0 (der Benutzer ist dorthin umgezogen) und merkt sich jeden gebundenen Shard.
+     */
+    static class RecordingLookup implements ProfileLookup {
+
+        private final List<Integer> shards = new ArrayList<>();
+
+        @Override
+        public int find(@ShardKey Long userId) {
+            return lookup(userId);
+        }
+
+        @Override
+        public int stream(@ShardKey(reroute = false) Long userId) {
+            return lookup(userId);
+        }
+
+        private int lookup(Long userId) {
+            int shard = ShardScope.current();
+            shards.add(shard);
+            if (shard != 0) {
+                throw new ResourceNotFoundException("UserProfile", userId);
+            }
+            return shard;
+        }
+    }
+
+    private static IntakeRequest intake(Long userId) {
+        IntakeRequest request = new IntakeRequest();
+        request.setUserId(userId);
+        return request;
+    }
+}